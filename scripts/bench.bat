@@ -0,0 +1,54 @@
+@echo off
+REM GameAuth Benchmark Script for Windows
+REM Runs the JMH hot-path benchmarks at several thread counts with the GC profiler,
+REM writes JSON results to target\jmh and compares them with the stored baseline.
+REM
+REM Usage: scripts\bench.bat [--save-baseline]
+
+setlocal
+cd /d "%~dp0.."
+
+set BASELINE_DIR=benchmarks\baseline
+set RESULTS_DIR=target\jmh
+if "%BENCH_THREADS%"=="" set BENCH_THREADS=1 4
+if "%BENCH_THRESHOLD%"=="" set BENCH_THRESHOLD=10
+set PATTERN=GameAuthenticatorBenchmark^|GameAuthorizerBenchmark^|GameUserBenchmark
+
+echo === GameAuth Benchmarks ===
+
+REM Check if Maven is installed
+mvn --version >/dev/null 2>&1
+if %errorlevel% neq 0 (
+    echo Error: Maven is not installed or not in PATH
+    echo Please install Maven 3.6+ and try again
+    exit /b 1
+)
+
+if exist %RESULTS_DIR% rmdir /s /q %RESULTS_DIR%
+mkdir %RESULTS_DIR%
+
+for %%t in (%BENCH_THREADS%) do (
+    echo.
+    echo Running benchmarks with %%t thread^(s^)...
+    call mvn -B -q -Pjmh test-compile exec:exec "-Djmh.args=%PATTERN% -f 1 -t %%t -prof gc -rf json -rff %RESULTS_DIR%/results-t%%t.json"
+    if errorlevel 1 exit /b 1
+)
+
+if "%1"=="--save-baseline" (
+    if not exist %BASELINE_DIR% mkdir %BASELINE_DIR%
+    del /q %BASELINE_DIR%\*.json 2>nul
+    copy /y %RESULTS_DIR%\*.json %BASELINE_DIR%\ >nul
+    echo.
+    echo === Baseline saved to %BASELINE_DIR% ===
+) else if exist %BASELINE_DIR% (
+    echo.
+    echo Comparing with %BASELINE_DIR%...
+    call mvn -B -q -Pjmh exec:exec -Djmh.main=com.gamingroom.gameauth.bench.BenchmarkDiff "-Djmh.args=%BASELINE_DIR% %RESULTS_DIR% %BENCH_THRESHOLD%"
+) else (
+    echo.
+    echo No baseline in %BASELINE_DIR%; run with --save-baseline to store one
+)
+
+echo.
+echo === Benchmarks completed ===
+echo Results: %RESULTS_DIR%
@@ -0,0 +1,67 @@
+#!/bin/bash
+
+# GameAuth Benchmark Script
+# Runs the JMH hot-path benchmarks at several thread counts with the GC profiler,
+# writes JSON results to target/jmh and compares them with the stored baseline.
+#
+# Usage: scripts/bench.sh [--save-baseline] [benchmark regex]
+#   BENCH_THREADS    thread counts to run (default: "1 4")
+#   BENCH_THRESHOLD  regression threshold in percent (default: 10)
+
+set -e  # Exit on any error
+
+cd "$(dirname "$0")/.."
+
+BASELINE_DIR=benchmarks/baseline
+RESULTS_DIR=target/jmh
+THREADS=${BENCH_THREADS:-"1 4"}
+THRESHOLD=${BENCH_THRESHOLD:-10}
+PATTERN="GameAuthenticatorBenchmark|GameAuthorizerBenchmark|GameUserBenchmark"
+SAVE_BASELINE=false
+
+if [ "$1" == "--save-baseline" ]; then
+    SAVE_BASELINE=true
+    shift
+fi
+if [ -n "$1" ]; then
+    PATTERN="$1"
+fi
+
+echo "=== GameAuth Benchmarks ==="
+
+# Check if Maven is installed
+if ! command -v mvn &> /dev/null; then
+    echo "Error: Maven is not installed or not in PATH"
+    echo "Please install Maven 3.6+ and try again"
+    exit 1
+fi
+
+rm -rf "$RESULTS_DIR"
+mkdir -p "$RESULTS_DIR"
+
+for threads in $THREADS; do
+    echo ""
+    echo "Running '$PATTERN' with $threads thread(s)..."
+    mvn -B -q -Pjmh test-compile exec:exec \
+        -Djmh.args="$PATTERN -f 1 -t $threads -prof gc -rf json -rff $RESULTS_DIR/results-t$threads.json"
+done
+
+if [ "$SAVE_BASELINE" == "true" ]; then
+    mkdir -p "$BASELINE_DIR"
+    rm -f "$BASELINE_DIR"/*.json
+    cp "$RESULTS_DIR"/*.json "$BASELINE_DIR"/
+    echo ""
+    echo "=== Baseline saved to $BASELINE_DIR ==="
+elif [ -d "$BASELINE_DIR" ]; then
+    echo ""
+    echo "Comparing with $BASELINE_DIR..."
+    mvn -B -q -Pjmh exec:exec -Djmh.main=com.gamingroom.gameauth.bench.BenchmarkDiff \
+        -Djmh.args="$BASELINE_DIR $RESULTS_DIR $THRESHOLD"
+else
+    echo ""
+    echo "No baseline in $BASELINE_DIR; run with --save-baseline to store one"
+fi
+
+echo ""
+echo "=== Benchmarks completed ==="
+echo "Results: $RESULTS_DIR"
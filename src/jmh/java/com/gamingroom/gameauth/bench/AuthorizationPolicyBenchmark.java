@@ -0,0 +1,64 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.AuthorizationPolicy;
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code (ADMIN or (MODERATOR and PLAYER)) and not BANNED} evaluated as a compiled policy
+ * compared with the equivalent chain of {@link GameAuthorizer} calls.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class AuthorizationPolicyBenchmark {
+
+    @Param({"moderator", "banned"})
+    private String profile;
+
+    private final GameAuthorizer authorizer = new GameAuthorizer();
+    private AuthorizationPolicy policy;
+    private GameUser user;
+
+    @Setup
+    public void setUp() {
+        policy = authorizer.registerPolicy("moderate-chat", "(ADMIN or (MODERATOR and PLAYER)) and not BANNED");
+        user = "banned".equals(profile)
+                ? new GameUser("troll", Set.of("MODERATOR", "PLAYER", "BANNED"))
+                : new GameUser("mod", Set.of("MODERATOR", "PLAYER", "USER"));
+    }
+
+    @Benchmark
+    public boolean handWrittenChain() {
+        return (authorizer.authorize(user, "ADMIN") || authorizer.authorizeAll(user, "MODERATOR", "PLAYER"))
+                && !authorizer.authorize(user, "BANNED");
+    }
+
+    @Benchmark
+    public boolean namedPolicy() {
+        return authorizer.authorize(user, "policy:moderate-chat");
+    }
+
+    @Benchmark
+    public boolean compiledPolicy() {
+        return policy.test(user.getRoleMask());
+    }
+}
@@ -0,0 +1,137 @@
+package com.gamingroom.gameauth.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Compares JMH JSON results ({@code -rf json}) against a stored baseline and reports the
+ * change of every benchmark present in both, matched by name, parameters and thread count.
+ * A result counts as a regression when its score is worse than the baseline by more than the
+ * threshold, taking the benchmark mode into account, or when it allocates more per operation
+ * (from {@code -prof gc}). Exits with status 1 if there is any regression, so it can gate a
+ * build.
+ *
+ * <pre>
+ * BenchmarkDiff &lt;baseline file or directory&gt; &lt;results file or directory&gt; [threshold percent]
+ * </pre>
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class BenchmarkDiff {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+    // Allocation is measured per operation and is nearly noise-free; ignore rounding only
+    private static final double ALLOCATION_SLACK_BYTES = 8;
+    private static final String ALLOCATION_METRIC = "·gc.alloc.rate.norm";
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BenchmarkDiff <baseline> <results> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = (args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT) / 100;
+        Map<String, Result> baseline = load(Paths.get(args[0]));
+        Map<String, Result> current = load(Paths.get(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %18s%n", "Benchmark", "Baseline", "Current", "Change", "Alloc B/op");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %8s %18s   new%n", entry.getKey(), "-", after.score, "",
+                        allocation(after.allocation));
+                continue;
+            }
+            double change = (after.score - before.score) / before.score;
+            // Throughput should go up, every other mode measures time and should go down
+            boolean slower = after.higherIsBetter() ? change < -threshold : change > threshold;
+            boolean allocatesMore = !Double.isNaN(before.allocation) && !Double.isNaN(after.allocation)
+                    && after.allocation > before.allocation * (1 + threshold) + ALLOCATION_SLACK_BYTES;
+            if (slower || allocatesMore) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %18s%s%n", entry.getKey(), before.score, after.score,
+                    change * 100, allocation(before.allocation) + " -> " + allocation(after.allocation),
+                    slower || allocatesMore ? "   REGRESSION" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-70s   missing from results%n", key);
+            }
+        }
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, threshold * 100);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static String allocation(double bytes) {
+        return Double.isNaN(bytes) ? "-" : String.format("%.0f", bytes);
+    }
+
+    private static Map<String, Result> load(Path path) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> listing = Files.list(path)) {
+                listing.filter(file -> file.toString().endsWith(".json")).sorted().forEach(files::add);
+            }
+        } else {
+            files.add(path);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Result> results = new TreeMap<>();
+        for (Path file : files) {
+            for (JsonNode run : mapper.readTree(file.toFile())) {
+                results.put(key(run), new Result(run));
+            }
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                .replace("com.gamingroom.gameauth.bench.", ""));
+        Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.append(" t=").append(run.path("threads").asInt()).toString();
+    }
+
+    /**
+     * Score and allocation of one benchmark run.
+     */
+    private static final class Result {
+        private final String mode;
+        private final double score;
+        private final double allocation;
+
+        Result(JsonNode run) {
+            this.mode = run.path("mode").asText();
+            this.score = run.path("primaryMetric").path("score").asDouble();
+            JsonNode norm = run.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            this.allocation = norm.isMissingNode() ? Double.NaN : norm.path("score").asDouble();
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.CachingAuthenticator;
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a verified-credential cache hit compared with a full verification at the default cost.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class CachingAuthenticatorBenchmark {
+
+    private final BasicCredentials credentials = new BasicCredentials("player", "playerpass");
+    private GameAuthenticator uncached;
+    private CachingAuthenticator cached;
+
+    @Setup
+    public void setUp() throws AuthenticationException {
+        PasswordHasher hasher = new PasswordHasher();
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), ImmutableSet.of("PLAYER")));
+        uncached = new GameAuthenticator(store, hasher, Runnable::run);
+        cached = new CachingAuthenticator(uncached, Duration.ofMinutes(10), 10_000);
+        cached.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Optional<GameUser> cacheHit() throws AuthenticationException {
+        return cached.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Optional<GameUser> fullVerification() throws AuthenticationException {
+        return uncached.authenticate(credentials);
+    }
+}
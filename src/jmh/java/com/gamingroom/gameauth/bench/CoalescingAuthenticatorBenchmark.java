@@ -0,0 +1,74 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.CoalescingAuthenticator;
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A client retrying the same login from 16 threads at once, checked directly against
+ * {@link GameAuthenticator} and through {@link CoalescingAuthenticator}. Run with
+ * {@code -prof gc} to compare hashing work; the coalescing rate is printed after each trial.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+public class CoalescingAuthenticatorBenchmark {
+
+    private final BasicCredentials credentials = new BasicCredentials("player", "playerpass");
+    private GameAuthenticator direct;
+    private CoalescingAuthenticator coalescing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordHasher hasher = new PasswordHasher(10_000);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), ImmutableSet.of("PLAYER")));
+        direct = new GameAuthenticator(store, hasher, Runnable::run);
+        coalescing = new CoalescingAuthenticator(direct);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (coalescing.getVerificationCount() > 0) {
+            System.out.printf("%ncoalescing rate: %.3f%n", coalescing.getCoalescingRate());
+        }
+    }
+
+    @Benchmark
+    public Optional<GameUser> direct() throws AuthenticationException {
+        return direct.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Optional<GameUser> coalescing() throws AuthenticationException {
+        return coalescing.authenticate(credentials);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.store.CompactUserStore;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap per account and lookup cost of {@link CompactUserStore} next to
+ * {@link InMemoryUserStore}, from one thread and from four at once. The heap retained per
+ * account is printed after setup; 10 million accounts need {@code -p users=10000000} and a
+ * larger heap, e.g. {@code -jvmArgsAppend -Xmx4500m}.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@Fork(jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class CompactUserStoreBenchmark {
+
+    private static final Set<String> ROLES = ImmutableSet.of("PLAYER", "USER");
+
+    @Param({"memory", "compact"})
+    public String backend;
+
+    @Param({"1000000"})
+    public int users;
+
+    private UserStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        store = "compact".equals(backend) ? new CompactUserStore(users) : new InMemoryUserStore(users);
+        for (int i = 0; i < users; i++) {
+            // Registrations arrive with their own role set instance and a distinct salt
+            store.put("player" + i, new UserCredentials(PasswordHash.create("secret", 1), new HashSet<>(ROLES)));
+        }
+        System.out.printf("%nheap retained per account: %d bytes%n", (usedHeap() - before) / users);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 3)
+    public UserCredentials lookupHit() {
+        return store.get("player" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 3)
+    @Threads(4)
+    public UserCredentials lookupHitConcurrent() {
+        return store.get("player" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
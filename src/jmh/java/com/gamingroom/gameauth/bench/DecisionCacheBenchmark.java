@@ -0,0 +1,90 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.AuthorizationDecisionCache;
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PermissionIndex;
+import com.gamingroom.gameauth.auth.RoleHierarchy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chat fan-out style authorization: 10,000 users sharing 8 role sets are checked in turn
+ * against a policy and a role, with and without an {@link AuthorizationDecisionCache}.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class DecisionCacheBenchmark {
+
+    private static final List<Set<String>> ROLE_SETS = List.of(
+            Set.of("USER", "PLAYER"), Set.of("USER", "PLAYER", "BANNED"), Set.of("USER", "MODERATOR", "PLAYER"),
+            Set.of("ADMIN"), Set.of("SUPER_ADMIN"), Set.of("USER", "BETA_TESTER", "PLAYER"),
+            Set.of("USER", "STREAMER", "PLAYER"), Set.of("USER", "MODERATOR", "STREAMER", "PLAYER", "BANNED"));
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private GameAuthorizer authorizer;
+    private GameUser[] users;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RoleHierarchy hierarchy = RoleHierarchy.fromConfiguration(Map.of(
+                "SUPER_ADMIN", List.of("ADMIN"),
+                "ADMIN", List.of("MODERATOR"),
+                "MODERATOR", List.of("USER")));
+        authorizer = new GameAuthorizer(hierarchy, new PermissionIndex(),
+                cached ? new AuthorizationDecisionCache(1024) : null);
+        authorizer.registerPolicy("chat-send",
+                "(USER or STREAMER) and not BANNED or MODERATOR and STREAMER or BETA_TESTER and not BANNED");
+        users = new GameUser[10_000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = new GameUser("user" + i, ROLE_SETS.get(i % ROLE_SETS.size()), i + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        AuthorizationDecisionCache cache = authorizer.getDecisionCache();
+        if (cache != null) {
+            System.out.printf("%nhit ratio %.4f%n", cache.getHitRatio());
+        }
+    }
+
+    @Benchmark
+    public boolean policy() {
+        return authorizer.authorize(nextUser(), "policy:chat-send");
+    }
+
+    @Benchmark
+    public boolean role() {
+        return authorizer.authorize(nextUser(), "MODERATOR");
+    }
+
+    private GameUser nextUser() {
+        GameUser user = users[next];
+        next = next + 1 == users.length ? 0 : next + 1;
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameAuthenticator#authenticate(BasicCredentials)} for a valid login, a wrong
+ * password and an unknown username. The hashing cost defaults to a low iteration count so
+ * the work around the hash stays visible; pass {@code -p iterations=210000} for the
+ * production cost.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class GameAuthenticatorBenchmark {
+
+    @Param({"1000"})
+    public int iterations;
+
+    private final BasicCredentials valid = new BasicCredentials("player", "playerpass");
+    private final BasicCredentials wrongPassword = new BasicCredentials("player", "wrongpass");
+    private final BasicCredentials unknownUser = new BasicCredentials("nobody", "playerpass");
+    private GameAuthenticator authenticator;
+
+    @Setup
+    public void setUp() {
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), ImmutableSet.of("PLAYER", "USER")));
+        authenticator = new GameAuthenticator(store, hasher, Runnable::run);
+    }
+
+    @Benchmark
+    public Optional<GameUser> hit() throws AuthenticationException {
+        return authenticator.authenticate(valid);
+    }
+
+    @Benchmark
+    public Optional<GameUser> miss() throws AuthenticationException {
+        return authenticator.authenticate(wrongPassword);
+    }
+
+    @Benchmark
+    public Optional<GameUser> unknown() throws AuthenticationException {
+        return authenticator.authenticate(unknownUser);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.RoleHierarchy;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The role checks of {@link GameAuthorizer} as resources call them, with a role hierarchy in
+ * place: a requirement met directly, one met through a senior role, one not met, and the
+ * any-of and all-of variants.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class GameAuthorizerBenchmark {
+
+    private GameAuthorizer authorizer;
+    private GameUser moderator;
+
+    @Setup
+    public void setUp() {
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        hierarchy.addImplication("MODERATOR", "USER");
+        authorizer = new GameAuthorizer(hierarchy);
+        moderator = new GameUser("moderator", ImmutableSet.of("MODERATOR", "PLAYER"), 7);
+    }
+
+    @Benchmark
+    public boolean authorizeDirect() {
+        return authorizer.authorize(moderator, "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean authorizeImplied() {
+        return authorizer.authorize(moderator, "USER");
+    }
+
+    @Benchmark
+    public boolean authorizeDenied() {
+        return authorizer.authorize(moderator, "ADMIN");
+    }
+
+    @Benchmark
+    public boolean authorizeAny() {
+        return authorizer.authorizeAny(moderator, "ADMIN", "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean authorizeAll() {
+        return authorizer.authorizeAll(moderator, "PLAYER", "USER", "MODERATOR");
+    }
+}
@@ -0,0 +1,63 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameUser;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction, {@code equals} and {@code hashCode} of {@link GameUser}, which run for every
+ * authenticated request and whenever principals are used as map keys.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class GameUserBenchmark {
+
+    private final Set<String> roles = ImmutableSet.of("PLAYER", "USER", "BETA_TESTER");
+    private GameUser user;
+    private GameUser sameAccount;
+    private GameUser otherAccount;
+
+    @Setup
+    public void setUp() {
+        user = new GameUser("player", roles, 42, 3);
+        sameAccount = new GameUser("player", roles, 42, 3);
+        otherAccount = new GameUser("player", roles, 43, 0);
+    }
+
+    @Benchmark
+    public GameUser construct() {
+        return new GameUser("player", roles, 42, 3);
+    }
+
+    @Benchmark
+    public boolean equalsSameAccount() {
+        return user.equals(sameAccount);
+    }
+
+    @Benchmark
+    public boolean equalsOtherAccount() {
+        return user.equals(otherAccount);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return user.hashCode();
+    }
+}
@@ -0,0 +1,55 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.EphemeralIds;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the identifier given to each principal: the previous {@code UUID.randomUUID()},
+ * an ephemeral id and the stored user id. Run with several thread counts ({@code -t}) to see
+ * contention on the shared {@code SecureRandom} behind random UUIDs.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class GameUserIdBenchmark {
+
+    private final Set<String> roles = ImmutableSet.of("PLAYER", "USER");
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public long ephemeralId() {
+        return EphemeralIds.next();
+    }
+
+    @Benchmark
+    public GameUser constructWithoutAccount() {
+        return new GameUser("player", roles);
+    }
+
+    @Benchmark
+    public GameUser constructWithUserId() {
+        return new GameUser("player", roles, 42);
+    }
+}
@@ -0,0 +1,74 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.LoginRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the login rate limiter over a large population of distinct keys, for a
+ * failed login (an attempt reserved and kept) and a successful one (reserved and refunded).
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class LoginRateLimiterBenchmark {
+
+    @Param({"100000"})
+    public int keys;
+
+    private String[] keyNames;
+    private LoginRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = LoginRateLimiter.usernameKey("player" + i);
+        }
+        // A limit that is never reached, so every key stays allowed and tracked
+        limiter = new LoginRateLimiter(65_535, Duration.ofMinutes(15));
+        for (String key : keyNames) {
+            limiter.tryAcquire(key);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        limiter.close();
+    }
+
+    @Benchmark
+    public boolean failedAttempt() {
+        return limiter.tryAcquire(randomKey());
+    }
+
+    @Benchmark
+    public boolean successfulAttempt() {
+        String key = randomKey();
+        boolean acquired = limiter.tryAcquire(key);
+        limiter.refund(key);
+        return acquired;
+    }
+
+    private String randomKey() {
+        return keyNames[ThreadLocalRandom.current().nextInt(keys)];
+    }
+}
@@ -0,0 +1,153 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.MappedUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups against {@link MappedUserStore} next to {@link InMemoryUserStore} at a million
+ * accounts, and the time to open a mapped database. The heap each backend retains for its
+ * accounts is printed after setup.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@Fork(jvmArgsAppend = "-Xmx3g")
+public class MappedUserStoreBenchmark {
+
+    private static final Set<String> ROLES = ImmutableSet.of("PLAYER", "USER");
+    private static final int CHUNK = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Lookup {
+
+        @Param({"memory", "mapped"})
+        public String backend;
+
+        @Param({"1000000"})
+        public int users;
+
+        private Path file;
+        private UserStore store;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            long before = usedHeap();
+            if ("mapped".equals(backend)) {
+                file = Files.createTempFile("gameauth-users", ".db");
+                Files.delete(file);
+                MappedUserStore mapped = new MappedUserStore(file);
+                register(mapped, users);
+                mapped.merge();
+                store = mapped;
+            } else {
+                store = new InMemoryUserStore();
+                register(store, users);
+            }
+            System.out.printf("%nheap retained by %d users: %d MB%n", users, (usedHeap() - before) >> 20);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            store.close();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Opening {
+
+        @Param({"1000000"})
+        public int users;
+
+        private Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("gameauth-users", ".db");
+            Files.delete(file);
+            try (MappedUserStore store = new MappedUserStore(file)) {
+                register(store, users);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 3)
+    public UserCredentials lookupHit(Lookup state) {
+        return state.store.get("player" + ThreadLocalRandom.current().nextInt(state.users));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 3)
+    public UserCredentials lookupMiss(Lookup state) {
+        return state.store.get("ghost" + ThreadLocalRandom.current().nextInt(state.users));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public int open(Opening state) {
+        MappedUserStore store = new MappedUserStore(state.file);
+        int size = store.size();
+        store.close();
+        return size;
+    }
+
+    private static void register(UserStore store, int users) {
+        for (int start = 0; start < users; start += CHUNK) {
+            Map<String, UserCredentials> chunk = new HashMap<>();
+            for (int i = start; i < Math.min(users, start + CHUNK); i++) {
+                // A distinct salt per account, as real registrations have; one iteration keeps setup fast
+                chunk.put("player" + i, new UserCredentials(PasswordHash.create("secret", 1), ROLES));
+            }
+            store.putAll(chunk);
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
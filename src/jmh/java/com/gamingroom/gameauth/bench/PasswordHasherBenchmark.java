@@ -0,0 +1,44 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification latency of a password hash per iteration count, used to pick the hashing cost.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class PasswordHasherBenchmark {
+
+    @Param({"10000", "100000", "210000", "600000"})
+    public int iterations;
+
+    private PasswordHash hash;
+
+    @Setup
+    public void setUp() {
+        hash = PasswordHash.create("correct horse battery staple", iterations);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hash.matches("correct horse battery staple");
+    }
+}
@@ -0,0 +1,113 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.Permission;
+import com.gamingroom.gameauth.auth.PermissionIndex;
+import com.gamingroom.gameauth.auth.RoleHierarchy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission checks through the {@link PermissionIndex} trie compared with scanning the list of
+ * grants, for a user holding one grant per lobby plus a wildcard grant through a role.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class PermissionIndexBenchmark {
+
+    @Param({"1000", "100000"})
+    private int lobbies;
+
+    private GameAuthorizer authorizer;
+    private GameUser user;
+    private List<Permission> grants;
+    private Permission ownLobby;
+    private Permission wildcardLobby;
+    private Permission deniedLobby;
+
+    @Setup
+    public void setUp() {
+        PermissionIndex index = new PermissionIndex();
+        grants = new ArrayList<>(lobbies + 1);
+        for (int lobby = 0; lobby < lobbies; lobby++) {
+            Permission permission = Permission.of("game:lobby:" + lobby + ":kick");
+            index.grantToUser(1, permission);
+            grants.add(permission);
+        }
+        index.grantToRole("SPECTATOR", Permission.of("game:lobby:*:view"));
+        grants.add(Permission.of("game:lobby:*:view"));
+        authorizer = new GameAuthorizer(new RoleHierarchy(), index);
+        user = new GameUser("host", Set.of("SPECTATOR"), 1);
+        ownLobby = Permission.of("game:lobby:" + (lobbies - 1) + ":kick");
+        wildcardLobby = Permission.of("game:lobby:" + (lobbies / 2) + ":view");
+        deniedLobby = Permission.of("game:lobby:" + lobbies + ":kick");
+    }
+
+    @Benchmark
+    public boolean trieExactGrant() {
+        return authorizer.authorize(user, ownLobby);
+    }
+
+    @Benchmark
+    public boolean trieWildcardGrant() {
+        return authorizer.authorize(user, wildcardLobby);
+    }
+
+    @Benchmark
+    public boolean trieDenied() {
+        return authorizer.authorize(user, deniedLobby);
+    }
+
+    @Benchmark
+    public boolean scanExactGrant() {
+        return scan(ownLobby);
+    }
+
+    @Benchmark
+    public boolean scanDenied() {
+        return scan(deniedLobby);
+    }
+
+    private boolean scan(Permission permission) {
+        for (Permission grant : grants) {
+            if (implies(grant, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean implies(Permission grant, Permission permission) {
+        for (int i = 0; i < grant.depth(); i++) {
+            String segment = grant.segment(i);
+            if (Permission.WILDCARD.equals(segment) && i == grant.depth() - 1) {
+                return permission.depth() > i;
+            }
+            if (i >= permission.depth()
+                    || (!Permission.WILDCARD.equals(segment) && !segment.equals(permission.segment(i)))) {
+                return false;
+            }
+        }
+        return grant.depth() == permission.depth();
+    }
+}
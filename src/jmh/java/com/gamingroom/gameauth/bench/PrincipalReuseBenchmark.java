@@ -0,0 +1,62 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per successful login with and without principal reuse. Run with {@code -prof gc}
+ * and compare {@code gc.alloc.rate.norm}; a single hash iteration keeps the key derivation
+ * from hiding the difference.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class PrincipalReuseBenchmark {
+
+    private final BasicCredentials credentials = new BasicCredentials("player", "playerpass");
+    private GameAuthenticator reusing;
+    private GameAuthenticator allocating;
+
+    @Setup
+    public void setUp() {
+        PasswordHasher hasher = new PasswordHasher(1);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), ImmutableSet.of("PLAYER", "USER")));
+        reusing = GameAuthenticator.builder(store).passwordHasher(hasher).build();
+        allocating = GameAuthenticator.builder(store).passwordHasher(hasher).reusePrincipals(false).build();
+    }
+
+    @Benchmark
+    public Optional<GameUser> reusedPrincipal() throws AuthenticationException {
+        return reusing.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Optional<GameUser> newPrincipal() throws AuthenticationException {
+        return allocating.authenticate(credentials);
+    }
+}
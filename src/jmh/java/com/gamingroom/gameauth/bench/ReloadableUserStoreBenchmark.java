@@ -0,0 +1,114 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.store.FileUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.ReloadableUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk reloads of {@link ReloadableUserStore} from a dump of a million accounts: the time one
+ * reload takes, and lookup latency on its own and while reloads run back to back.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@Fork(jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ReloadableUserStoreBenchmark {
+
+    private static final Set<String> ROLES = ImmutableSet.of("PLAYER", "USER");
+    private static final int CHUNK = 10_000;
+
+    @Param({"1000000"})
+    public int users;
+
+    private Path directory;
+    private ReloadableUserStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("gameauth-reload-bench");
+        Path file = directory.resolve("users.txt");
+        FileUserStore dump = new FileUserStore(file);
+        for (int start = 0; start < users; start += CHUNK) {
+            Map<String, UserCredentials> chunk = new HashMap<>();
+            for (int i = start; i < Math.min(users, start + CHUNK); i++) {
+                chunk.put("player" + i, new UserCredentials(PasswordHash.create("secret", 1), ROLES));
+            }
+            dump.putAll(chunk);
+        }
+        store = new ReloadableUserStore(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.delete(directory.resolve("users.txt"));
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int reload() {
+        return store.reload();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 5)
+    public UserCredentials lookup() {
+        return store.get("player" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    @Group("reloading")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 5)
+    public UserCredentials lookupWhileReloading() {
+        return store.get("player" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    @Group("reloading")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 5)
+    public int reloader() {
+        return store.reload();
+    }
+}
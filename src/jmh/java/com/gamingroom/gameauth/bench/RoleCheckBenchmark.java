@@ -0,0 +1,102 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.RoleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Role checks against the role mask compared with the previous lookups in a {@code Set<String>}.
+ * The {@code *Set} benchmarks reproduce the previous {@code GameUser}/{@code GameAuthorizer} code.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class RoleCheckBenchmark {
+
+    private final GameAuthorizer authorizer = new GameAuthorizer();
+    private GameUser user;
+    private Set<String> roleSet;
+    private long requiredMask;
+
+    @Setup
+    public void setUp() {
+        roleSet = new HashSet<>(Set.of("PLAYER", "USER", "MODERATOR", "BETA_TESTER"));
+        user = new GameUser("player", roleSet);
+        requiredMask = RoleRegistry.getDefault().mask("PLAYER", "USER", "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean hasRoleSet() {
+        return hasRole(roleSet, "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean hasRoleMask() {
+        return user.hasRole("MODERATOR");
+    }
+
+    @Benchmark
+    public boolean hasAnyRoleSet() {
+        return hasAnyRole(roleSet, "ADMIN", "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean hasAnyRoleMask() {
+        return user.hasAnyRole("ADMIN", "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean authorizeAllSet() {
+        return hasAllRoles(roleSet, "PLAYER", "USER", "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean authorizeAllMask() {
+        return authorizer.authorizeAll(user, "PLAYER", "USER", "MODERATOR");
+    }
+
+    @Benchmark
+    public boolean authorizeAllPrecomputedMask() {
+        return authorizer.authorizeAll(user, requiredMask);
+    }
+
+    private static boolean hasRole(Set<String> roles, String role) {
+        return roles != null && roles.contains(role);
+    }
+
+    private static boolean hasAnyRole(Set<String> roles, String... requiredRoles) {
+        for (String role : requiredRoles) {
+            if (hasRole(roles, role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAllRoles(Set<String> roles, String... requiredRoles) {
+        for (String role : requiredRoles) {
+            if (!hasRole(roles, role)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.RoleHierarchy;
+import com.gamingroom.gameauth.auth.RoleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Has role or any superior role" checks through the precomputed {@link RoleHierarchy}
+ * compared with listing every superior role explicitly, as callers had to before.
+ * Also measures the cost of changing the hierarchy at runtime.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class RoleHierarchyBenchmark {
+
+    private RoleHierarchy hierarchy;
+    private GameAuthorizer flat;
+    private GameAuthorizer hierarchical;
+    private GameUser user;
+    private int userRoleId;
+
+    @Setup
+    public void setUp() {
+        hierarchy = RoleHierarchy.fromConfiguration(Map.of(
+                "SUPER_ADMIN", List.of("ADMIN"),
+                "ADMIN", List.of("MODERATOR"),
+                "MODERATOR", List.of("USER")));
+        flat = new GameAuthorizer();
+        hierarchical = new GameAuthorizer(hierarchy);
+        user = new GameUser("root", Set.of("SUPER_ADMIN"));
+        userRoleId = RoleRegistry.getDefault().idOf("USER");
+    }
+
+    @Benchmark
+    public boolean authorizeExplicitSuperiors() {
+        return flat.authorizeAny(user, "USER", "MODERATOR", "ADMIN", "SUPER_ADMIN");
+    }
+
+    @Benchmark
+    public boolean authorizeHierarchy() {
+        return hierarchical.authorize(user, "USER");
+    }
+
+    @Benchmark
+    public boolean satisfiesPrecomputedId() {
+        return hierarchy.satisfies(user.getRoleMask(), userRoleId);
+    }
+
+    @Benchmark
+    public boolean isModeratorOrAdminHierarchy() {
+        return hierarchical.isModeratorOrAdmin(user);
+    }
+
+    @Benchmark
+    public void addAndRemoveImplication() {
+        hierarchy.addImplication("MODERATOR", "SUPPORT");
+        hierarchy.removeImplication("MODERATOR", "SUPPORT");
+    }
+}
@@ -0,0 +1,89 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.session.OffHeapSessionStore;
+import com.gamingroom.gameauth.auth.session.SessionStore;
+import com.gamingroom.gameauth.auth.session.TimingWheelSessionStore;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of session lookups with sliding renewal and of session churn, with the expiry thread
+ * running against a store of a given population, for the on-heap and the off-heap store.
+ * {@code fullCollection} times a full garbage collection with the population live, which is
+ * where on-heap sessions cost most; run with {@code -prof gc} for allocation rates.
+ * Lookups draw from the last {@value #SAMPLE} ids created, so the benchmark's own references
+ * do not dominate the heap being measured.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(jvmArgsAppend = "-Xmx3g")
+public class SessionStoreBenchmark {
+
+    private static final int SAMPLE = 1 << 16;
+
+    @Param({"1000", "5000000"})
+    private int population;
+
+    @Param({"heap", "offHeap"})
+    private String backend;
+
+    private final GameUser user = new GameUser("player", ImmutableSet.of("PLAYER", "USER"), 1);
+    private SessionStore store;
+    private String[] sessionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int maxSessions = population + 100_000;
+        store = "heap".equals(backend)
+                ? new TimingWheelSessionStore(Duration.ofMinutes(30), maxSessions, Duration.ofSeconds(1))
+                : new OffHeapSessionStore(Duration.ofMinutes(30), maxSessions, Duration.ofSeconds(1));
+        sessionIds = new String[Math.min(population, SAMPLE)];
+        for (int i = 0; i < population; i++) {
+            sessionIds[i % sessionIds.length] = store.create(user).orElseThrow();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public Optional<GameUser> getAndRenew() {
+        return store.get(sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)]);
+    }
+
+    @Benchmark
+    public boolean createAndInvalidate() {
+        return store.invalidate(store.create(user).orElseThrow());
+    }
+
+    @Benchmark
+    public void fullCollection() {
+        System.gc();
+    }
+}
@@ -0,0 +1,100 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.CredentialEpochs;
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.TokenAuthenticator;
+import com.gamingroom.gameauth.auth.TokenKeyRing;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of presenting a session token compared with resending Basic credentials.
+ * The Basic path uses the production hash iteration count by default; {@code iterations=1}
+ * isolates the store lookup and bookkeeping from the key derivation.
+ * {@code epochCheck} is the revocation check alone against {@link CredentialEpochs} tracking
+ * 100,000 accounts.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class TokenBenchmark {
+
+    @Param({"210000", "1"})
+    private int iterations;
+
+    private final BasicCredentials credentials = new BasicCredentials("player", "playerpass");
+    private GameAuthenticator basic;
+    private TokenAuthenticator tokens;
+    private TokenAuthenticator checkedTokens;
+    private CredentialEpochs epochs;
+    private String checkedToken;
+    private GameUser user;
+    private String token;
+
+    @Setup
+    public void setUp() throws AuthenticationException {
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), ImmutableSet.of("PLAYER", "USER")));
+        for (int i = 0; i < 100_000; i++) {
+            store.put("user" + i, new UserCredentials(hasher.hash("pass" + i), ImmutableSet.of("USER")));
+        }
+        basic = GameAuthenticator.builder(store).passwordHasher(hasher).build();
+        epochs = CredentialEpochs.track(store);
+        tokens = new TokenAuthenticator(TokenKeyRing.withRandomKey(), Duration.ofMinutes(30));
+        user = basic.authenticate(credentials).orElseThrow();
+        token = tokens.issue(user);
+        checkedTokens = new TokenAuthenticator(tokens.getKeyRing(), Duration.ofMinutes(30), epochs);
+        checkedToken = checkedTokens.issue(user);
+    }
+
+    @Benchmark
+    public Optional<GameUser> basicAuthentication() throws AuthenticationException {
+        return basic.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Optional<GameUser> tokenValidation() {
+        return tokens.authenticate(token);
+    }
+
+    @Benchmark
+    public Optional<GameUser> tokenValidationWithRevocationCheck() {
+        return checkedTokens.authenticate(checkedToken);
+    }
+
+    @Benchmark
+    public boolean epochCheck() {
+        return epochs.isCurrent(user.getUserId(), user.getCredentialEpoch());
+    }
+
+    @Benchmark
+    public String tokenIssue() {
+        return tokens.issue(user);
+    }
+}
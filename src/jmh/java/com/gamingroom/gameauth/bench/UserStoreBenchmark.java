@@ -0,0 +1,120 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.store.FileUserStore;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.JdbcUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.db.DataSourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of lookups and upserts on each UserStore backend.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserStoreBenchmark {
+
+    private static final Set<String> ROLES = ImmutableSet.of("PLAYER", "USER");
+    // Storage cost does not depend on the hashing cost, so a cheap hash keeps setup fast
+    private static final PasswordHash HASH = PasswordHash.create("secret", 1);
+
+    @Param({"memory", "file", "jdbc"})
+    public String backend;
+
+    @Param({"10000"})
+    public int users;
+
+    private UserStore store;
+    private Path directory;
+    private String[] usernames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        store = createStore();
+        usernames = new String[users];
+        Map<String, UserCredentials> initial = new HashMap<>();
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "player" + i;
+            initial.put(usernames[i], new UserCredentials(HASH, ROLES));
+        }
+        store.putAll(initial);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        if (directory != null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public UserCredentials lookupHit() {
+        return store.get(usernames[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    @Benchmark
+    public UserCredentials lookupMiss() {
+        return store.get("unknown" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    public void upsert() {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        store.put(usernames[i], new UserCredentials(HASH, ROLES));
+    }
+
+    private UserStore createStore() throws IOException {
+        switch (backend) {
+            case "memory":
+                return new InMemoryUserStore(users);
+            case "file":
+                directory = Files.createTempDirectory("gameauth-bench");
+                return new FileUserStore(directory.resolve("users.txt"));
+            case "jdbc":
+                DataSourceFactory database = new DataSourceFactory();
+                database.setDriverClass("org.h2.Driver");
+                database.setUrl("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+                database.setUser("sa");
+                database.setPassword("");
+                return JdbcUserStore.fromConfiguration(database);
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.gamingroom.gameauth.bench;
+
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.UsernameFilter;
+import com.gamingroom.gameauth.auth.UsernameFilterConfiguration;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a login for an unknown username with and without the username filter,
+ * and of building the filter from the store.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class UsernameFilterBenchmark {
+
+    @Param({"100000"})
+    public int users;
+
+    private UserStore store;
+    private UsernameFilterConfiguration configuration;
+    private GameAuthenticator unfiltered;
+    private GameAuthenticator filtered;
+
+    @Setup
+    public void setUp() {
+        store = new InMemoryUserStore(users);
+        Map<String, UserCredentials> accounts = new HashMap<>();
+        PasswordHash hash = PasswordHash.create("playerpass", 1);
+        for (int i = 0; i < users; i++) {
+            accounts.put("player" + i, new UserCredentials(hash, ImmutableSet.of("PLAYER")));
+        }
+        store.putAll(accounts);
+        configuration = new UsernameFilterConfiguration();
+        PasswordHasher hasher = new PasswordHasher();
+        unfiltered = new GameAuthenticator(store, hasher, Runnable::run);
+        filtered = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .usernameFilter(new UsernameFilter(store, configuration))
+                .build();
+    }
+
+    @Benchmark
+    public Optional<GameUser> unknownUserWithoutFilter() throws AuthenticationException {
+        return unfiltered.authenticate(randomUnknown());
+    }
+
+    @Benchmark
+    public Optional<GameUser> unknownUserWithFilter() throws AuthenticationException {
+        return filtered.authenticate(randomUnknown());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public UsernameFilter build() {
+        return new UsernameFilter(store, configuration);
+    }
+
+    private static BasicCredentials randomUnknown() {
+        return new BasicCredentials("bot" + ThreadLocalRandom.current().nextInt(), "hunter2");
+    }
+}
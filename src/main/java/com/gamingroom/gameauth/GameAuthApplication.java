@@ -4,6 +4,9 @@ import com.gamingroom.gameauth.auth.GameAuthenticator;
 import com.gamingroom.gameauth.auth.GameAuthorizer;
 import com.gamingroom.gameauth.examples.BasicAuthExample;
 import com.gamingroom.gameauth.examples.AdvancedAuthExample;
+import com.gamingroom.gameauth.load.LoadGenerator;
+
+import java.util.Arrays;
 
 /**
  * Main application class for GameAuth.
@@ -30,6 +33,15 @@ public class GameAuthApplication {
                     System.out.println("Running Advanced Authentication Example...");
                     AdvancedAuthExample.main(new String[0]);
                     break;
+                case "load":
+                    System.out.println("Running Load Harness...");
+                    try {
+                        LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        System.out.println("Load harness interrupted");
+                    }
+                    break;
                 case "help":
                     printHelp();
                     break;
@@ -58,6 +70,7 @@ public class GameAuthApplication {
         System.out.println("Commands:");
         System.out.println("  basic     - Run basic authentication example");
         System.out.println("  advanced  - Run advanced authentication example");
+        System.out.println("  load      - Run the load harness, e.g. load --threads=1,2,4 --duration=30s");
         System.out.println("  help      - Show this help message");
         System.out.println();
         System.out.println("If no command is provided, both examples will run.");
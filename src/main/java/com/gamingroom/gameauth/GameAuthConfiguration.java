@@ -0,0 +1,59 @@
+package com.gamingroom.gameauth;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gamingroom.gameauth.auth.AuthConfiguration;
+import io.dropwizard.Configuration;
+import io.dropwizard.db.DataSourceFactory;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Typed view of {@code config/application.yml}.
+ * Blocks that no component reads yet (such as {@code security}) are ignored.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GameAuthConfiguration extends Configuration {
+
+    @Valid
+    @NotNull
+    private AuthConfiguration auth = new AuthConfiguration();
+
+    @Valid
+    @NotNull
+    private DataSourceFactory database = new DataSourceFactory();
+
+    /**
+     * Gets the authentication settings.
+     *
+     * @return the auth configuration
+     */
+    @JsonProperty
+    public AuthConfiguration getAuth() {
+        return auth;
+    }
+
+    @JsonProperty
+    public void setAuth(AuthConfiguration auth) {
+        this.auth = auth;
+    }
+
+    /**
+     * Gets the database settings used by the JDBC user store.
+     *
+     * @return the data source factory
+     */
+    @JsonProperty
+    public DataSourceFactory getDatabase() {
+        return database;
+    }
+
+    @JsonProperty
+    public void setDatabase(DataSourceFactory database) {
+        this.database = database;
+    }
+}
@@ -0,0 +1,171 @@
+package com.gamingroom.gameauth.auth;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Configuration of the {@code auth} block.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AuthConfiguration {
+
+    @Min(1)
+    private int sessionTimeout = 30;
+
+    @Valid
+    @NotNull
+    private RateLimitConfiguration rateLimit = new RateLimitConfiguration();
+
+    @Valid
+    @NotNull
+    private UsernameFilterConfiguration usernameFilter = new UsernameFilterConfiguration();
+
+    @Valid
+    @NotNull
+    private SessionConfiguration sessions = new SessionConfiguration();
+
+    @Valid
+    @NotNull
+    private TokenConfiguration tokens = new TokenConfiguration();
+
+    @Valid
+    @NotNull
+    private UserLogConfiguration userLog = new UserLogConfiguration();
+
+    @NotNull
+    private Map<String, List<String>> roleHierarchy = new LinkedHashMap<>();
+
+    @NotNull
+    private Map<String, String> policies = new LinkedHashMap<>();
+
+    /**
+     * Gets the session timeout.
+     *
+     * @return the session timeout in minutes
+     */
+    @JsonProperty
+    public int getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    @JsonProperty
+    public void setSessionTimeout(int sessionTimeout) {
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    /**
+     * Gets the login rate limit settings.
+     *
+     * @return the rate limit configuration
+     */
+    @JsonProperty
+    public RateLimitConfiguration getRateLimit() {
+        return rateLimit;
+    }
+
+    @JsonProperty
+    public void setRateLimit(RateLimitConfiguration rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * Gets the unknown-username filter settings.
+     *
+     * @return the username filter configuration
+     */
+    @JsonProperty
+    public UsernameFilterConfiguration getUsernameFilter() {
+        return usernameFilter;
+    }
+
+    @JsonProperty
+    public void setUsernameFilter(UsernameFilterConfiguration usernameFilter) {
+        this.usernameFilter = usernameFilter;
+    }
+
+    /**
+     * Gets the server-side session settings.
+     *
+     * @return the session configuration
+     */
+    @JsonProperty
+    public SessionConfiguration getSessions() {
+        return sessions;
+    }
+
+    @JsonProperty
+    public void setSessions(SessionConfiguration sessions) {
+        this.sessions = sessions;
+    }
+
+    /**
+     * Gets the session token settings.
+     *
+     * @return the token configuration
+     */
+    @JsonProperty
+    public TokenConfiguration getTokens() {
+        return tokens;
+    }
+
+    @JsonProperty
+    public void setTokens(TokenConfiguration tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Gets the settings of the user account log.
+     *
+     * @return the user log configuration
+     */
+    @JsonProperty
+    public UserLogConfiguration getUserLog() {
+        return userLog;
+    }
+
+    @JsonProperty
+    public void setUserLog(UserLogConfiguration userLog) {
+        this.userLog = userLog;
+    }
+
+    /**
+     * Gets the role hierarchy, mapping each role to the roles it directly implies.
+     *
+     * @return the role hierarchy
+     */
+    @JsonProperty
+    public Map<String, List<String>> getRoleHierarchy() {
+        return roleHierarchy;
+    }
+
+    @JsonProperty
+    public void setRoleHierarchy(Map<String, List<String>> roleHierarchy) {
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    /**
+     * Gets the authorization policy expressions, keyed by policy name.
+     *
+     * @return the policies
+     */
+    @JsonProperty
+    public Map<String, String> getPolicies() {
+        return policies;
+    }
+
+    @JsonProperty
+    public void setPolicies(Map<String, String> policies) {
+        this.policies = policies;
+    }
+}
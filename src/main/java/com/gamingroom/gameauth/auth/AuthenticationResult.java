@@ -0,0 +1,99 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one item of {@link GameAuthenticator#authenticateAll(java.util.Collection)}.
+ * Besides accepted and rejected credentials, a batch can report items whose verification did
+ * not finish before the deadline and items that could not be verified at all, so the caller
+ * can decide per player whether to retry or drop them.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class AuthenticationResult {
+
+    /**
+     * How an item of a batch ended.
+     */
+    public enum Status {
+        /** The credentials were valid. */
+        AUTHENTICATED,
+        /** The credentials were missing, invalid or rate limited. */
+        REJECTED,
+        /** The verification had not finished when the deadline passed. */
+        TIMED_OUT,
+        /** The verification could not run, for example because the hashing queue was full. */
+        FAILED
+    }
+
+    private static final AuthenticationResult REJECTED = new AuthenticationResult(Status.REJECTED, null, null);
+    private static final AuthenticationResult TIMED_OUT = new AuthenticationResult(Status.TIMED_OUT, null, null);
+
+    private final Status status;
+    private final GameUser user;
+    private final Exception cause;
+
+    private AuthenticationResult(Status status, GameUser user, Exception cause) {
+        this.status = status;
+        this.user = user;
+        this.cause = cause;
+    }
+
+    static AuthenticationResult authenticated(GameUser user) {
+        return new AuthenticationResult(Status.AUTHENTICATED, user, null);
+    }
+
+    static AuthenticationResult rejected() {
+        return REJECTED;
+    }
+
+    static AuthenticationResult timedOut() {
+        return TIMED_OUT;
+    }
+
+    static AuthenticationResult failed(Exception cause) {
+        return new AuthenticationResult(Status.FAILED, null, cause);
+    }
+
+    /**
+     * Gets how the item ended.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether the credentials were valid.
+     *
+     * @return true if the status is {@link Status#AUTHENTICATED}
+     */
+    public boolean isAuthenticated() {
+        return status == Status.AUTHENTICATED;
+    }
+
+    /**
+     * Gets the authenticated user.
+     *
+     * @return the user if the credentials were valid, empty otherwise
+     */
+    public Optional<GameUser> getUser() {
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Gets the reason a verification could not run.
+     *
+     * @return the cause if the status is {@link Status#FAILED}, empty otherwise
+     */
+    public Optional<Exception> getCause() {
+        return Optional.ofNullable(cause);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticationResult{status=" + status + (user != null ? ", user=" + user.getName() : "") + "}";
+    }
+}
@@ -0,0 +1,135 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of {@link GameAuthorizer} policy decisions keyed by role set and requirement.
+ * Role sets are identified by their {@link RoleRegistry} mask, so all users with the same roles
+ * share one cached decision per requirement.
+ * The cache is a fixed array of slots, each holding at most one immutable decision; a new
+ * decision simply replaces whatever occupied its slot. Decisions carry the version of the
+ * definitions they were computed from (role hierarchy and policies) and are ignored once that
+ * version has moved on, so a change invalidates the whole cache at once without clearing it.
+ * Lookups and stores never lock.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class AuthorizationDecisionCache {
+
+    static final int MISS = -1;
+
+    private final AtomicReferenceArray<Decision> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for creating a cache.
+     *
+     * @param capacity the number of decisions to hold, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is not between 1 and 2^30
+     */
+    public AuthorizationDecisionCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Looks up a decision and records a hit or a miss.
+     *
+     * @param roleMask the role set
+     * @param requirement the requirement as passed to {@link GameAuthorizer#authorize}
+     * @param version the current version of the definitions
+     * @return 1 if allowed, 0 if denied, {@link #MISS} if not cached
+     */
+    int lookup(long roleMask, String requirement, long version) {
+        Decision decision = slots.getPlain(slotOf(roleMask, requirement));
+        if (decision != null && decision.roleMask == roleMask && decision.version == version
+                && (decision.requirement == requirement || decision.requirement.equals(requirement))) {
+            hits.increment();
+            return decision.allowed ? 1 : 0;
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Caches a decision, replacing the decision in its slot.
+     *
+     * @param roleMask the role set
+     * @param requirement the requirement
+     * @param version the version of the definitions used to decide
+     * @param allowed the decision
+     */
+    void store(long roleMask, String requirement, long version, boolean allowed) {
+        // Decisions are immutable, so a plain write publishes them safely through their final fields
+        slots.setPlain(slotOf(roleMask, requirement), new Decision(roleMask, requirement, version, allowed));
+    }
+
+    /**
+     * Gets the number of slots.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to be decided.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private int slotOf(long roleMask, String requirement) {
+        long hash = (roleMask * 0x9E3779B97F4A7C15L + requirement.hashCode()) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /**
+     * One cached decision.
+     */
+    private static final class Decision {
+        private final long roleMask;
+        private final String requirement;
+        private final long version;
+        private final boolean allowed;
+
+        Decision(long roleMask, String requirement, long version, boolean allowed) {
+            this.roleMask = roleMask;
+            this.requirement = requirement;
+            this.version = version;
+            this.allowed = allowed;
+        }
+    }
+}
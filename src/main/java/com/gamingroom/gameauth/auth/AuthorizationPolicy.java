@@ -0,0 +1,284 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Role expression such as {@code ADMIN or (MODERATOR and PLAYER) and not BANNED}, compiled
+ * once into a list of {@link RoleRegistry} mask terms so that evaluation allocates nothing.
+ * Operators are {@code not}, {@code and} and {@code or} (case-insensitive), binding in that
+ * order, with parentheses for grouping; every other word is a role name.
+ * The expression is kept in disjunctive normal form: it holds for a role mask if any term
+ * finds all of its required roles present and all of its forbidden roles absent.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class AuthorizationPolicy {
+
+    /**
+     * Largest number of terms an expression may expand to.
+     */
+    static final int MAX_TERMS = 256;
+
+    private final String expression;
+    private final long[] required;
+    private final long[] forbidden;
+
+    private AuthorizationPolicy(String expression, List<Term> terms) {
+        this.expression = expression;
+        this.required = new long[terms.size()];
+        this.forbidden = new long[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            required[i] = terms.get(i).required;
+            forbidden[i] = terms.get(i).forbidden;
+        }
+    }
+
+    /**
+     * Compiles a policy expression, interning its roles in the default registry.
+     *
+     * @param expression the policy expression
+     * @return the compiled policy
+     * @throws IllegalArgumentException if the expression is null, malformed, too complex,
+     *         or names more roles than the registry can hold
+     */
+    public static AuthorizationPolicy compile(String expression) {
+        return compile(expression, RoleRegistry.getDefault());
+    }
+
+    static AuthorizationPolicy compile(String expression, RoleRegistry registry) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Policy expression cannot be null or empty");
+        }
+        return new AuthorizationPolicy(expression.trim(), new Parser(expression, registry).parse());
+    }
+
+    /**
+     * Evaluates the policy against a role mask.
+     *
+     * @param roleMask the roles held, including any implied roles
+     * @return true if the policy allows the roles
+     */
+    public boolean test(long roleMask) {
+        for (int i = 0; i < required.length; i++) {
+            if ((roleMask & required[i]) == required[i] && (roleMask & forbidden[i]) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the source expression.
+     *
+     * @return the expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Gets the number of compiled terms, at most one mask comparison each.
+     *
+     * @return the number of terms
+     */
+    public int getTermCount() {
+        return required.length;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorizationPolicy{" +
+                "expression='" + expression + '\'' +
+                ", terms=" + required.length +
+                '}';
+    }
+
+    /**
+     * Conjunction of required and forbidden roles.
+     */
+    private static final class Term {
+        private final long required;
+        private final long forbidden;
+
+        Term(long required, long forbidden) {
+            this.required = required;
+            this.forbidden = forbidden;
+        }
+
+        boolean contradicts() {
+            return (required & forbidden) != 0;
+        }
+
+        boolean implies(Term other) {
+            // Every mask matching this term matches other when other asks for less
+            return (other.required & ~required) == 0 && (other.forbidden & ~forbidden) == 0;
+        }
+    }
+
+    /**
+     * Recursive descent parser producing normalized term lists.
+     */
+    private static final class Parser {
+        private final String source;
+        private final RoleRegistry registry;
+        private int position;
+
+        Parser(String source, RoleRegistry registry) {
+            this.source = source;
+            this.registry = registry;
+        }
+
+        List<Term> parse() {
+            List<Term> terms = parseOr();
+            String trailing = peek();
+            if (trailing != null) {
+                throw error("Unexpected '" + trailing + "'");
+            }
+            return terms;
+        }
+
+        private List<Term> parseOr() {
+            List<Term> terms = parseAnd();
+            while ("or".equalsIgnoreCase(peek())) {
+                next();
+                terms = or(terms, parseAnd());
+            }
+            return terms;
+        }
+
+        private List<Term> parseAnd() {
+            List<Term> terms = parseUnary();
+            while ("and".equalsIgnoreCase(peek())) {
+                next();
+                terms = and(terms, parseUnary());
+            }
+            return terms;
+        }
+
+        private List<Term> parseUnary() {
+            String token = next();
+            if (token == null) {
+                throw error("Expected a role");
+            }
+            if ("not".equalsIgnoreCase(token)) {
+                return not(parseUnary());
+            }
+            if ("(".equals(token)) {
+                List<Term> terms = parseOr();
+                if (!")".equals(next())) {
+                    throw error("Expected ')'");
+                }
+                return terms;
+            }
+            if (")".equals(token) || "and".equalsIgnoreCase(token) || "or".equalsIgnoreCase(token)) {
+                throw error("Expected a role but found '" + token + "'");
+            }
+            int roleId = registry.intern(token);
+            if (roleId < 0) {
+                throw new IllegalArgumentException("Role registry is full, cannot add " + token);
+            }
+            List<Term> terms = new ArrayList<>(1);
+            terms.add(new Term(1L << roleId, 0));
+            return terms;
+        }
+
+        private String peek() {
+            int saved = position;
+            String token = next();
+            position = saved;
+            return token;
+        }
+
+        private String next() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+            if (position == source.length()) {
+                return null;
+            }
+            char c = source.charAt(position);
+            if (c == '(' || c == ')') {
+                position++;
+                return String.valueOf(c);
+            }
+            int start = position;
+            while (position < source.length() && !Character.isWhitespace(source.charAt(position))
+                    && source.charAt(position) != '(' && source.charAt(position) != ')') {
+                position++;
+            }
+            return source.substring(start, position);
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " in policy: " + source);
+        }
+
+        private List<Term> or(List<Term> left, List<Term> right) {
+            List<Term> terms = new ArrayList<>(left);
+            terms.addAll(right);
+            return normalize(terms);
+        }
+
+        private List<Term> and(List<Term> left, List<Term> right) {
+            if ((long) left.size() * right.size() > 8L * MAX_TERMS) {
+                throw error("Policy expression is too complex");
+            }
+            List<Term> terms = new ArrayList<>(left.size() * right.size());
+            for (Term a : left) {
+                for (Term b : right) {
+                    terms.add(new Term(a.required | b.required, a.forbidden | b.forbidden));
+                }
+            }
+            return normalize(terms);
+        }
+
+        private List<Term> not(List<Term> operand) {
+            // De Morgan: not (t1 or t2) = not t1 and not t2, and not t is the or of its negated roles
+            List<Term> result = new ArrayList<>();
+            result.add(new Term(0, 0));
+            for (Term term : operand) {
+                List<Term> negated = new ArrayList<>();
+                for (long bits = term.required; bits != 0; bits &= bits - 1) {
+                    negated.add(new Term(0, Long.lowestOneBit(bits)));
+                }
+                for (long bits = term.forbidden; bits != 0; bits &= bits - 1) {
+                    negated.add(new Term(Long.lowestOneBit(bits), 0));
+                }
+                result = and(result, negated);
+            }
+            return result;
+        }
+
+        private List<Term> normalize(List<Term> terms) {
+            List<Term> kept = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                Term term = terms.get(i);
+                if (term.contradicts() || isRedundant(terms, i)) {
+                    continue;
+                }
+                kept.add(term);
+            }
+            if (kept.size() > MAX_TERMS) {
+                throw error("Policy expression is too complex");
+            }
+            return kept;
+        }
+
+        private static boolean isRedundant(List<Term> terms, int index) {
+            Term term = terms.get(index);
+            for (int i = 0; i < terms.size(); i++) {
+                Term other = terms.get(i);
+                if (i == index || other.contradicts() || !term.implies(other)) {
+                    continue;
+                }
+                // Keep the first of two identical terms
+                if (!other.implies(term) || i < index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
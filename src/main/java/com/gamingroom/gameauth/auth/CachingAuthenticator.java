@@ -0,0 +1,219 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import io.dropwizard.auth.basic.BasicCredentials;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authenticator that remembers successful verifications of a {@link GameAuthenticator}.
+ * Entries are keyed by a keyed digest of (username, password), so no plaintext password is
+ * held by the cache. Failed attempts are never cached. Any change to a user in the
+ * underlying store immediately drops that user's entries. The authenticator listens to the
+ * store for such changes; {@link #close()} unregisters it.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class CachingAuthenticator implements Authenticator<BasicCredentials, GameUser>, AutoCloseable {
+
+    private final GameAuthenticator delegate;
+    private final CredentialDigester digester = new CredentialDigester();
+    private final Cache<CredentialDigester.Key, CachedUser> cache;
+    private final ConcurrentHashMap<String, Set<CredentialDigester.Key>> keysByUser = new ConcurrentHashMap<>();
+    // Bumped on every store change; a verification that overlaps a change is not cached
+    private final AtomicLong storeChanges = new AtomicLong();
+    private final UserStoreListener storeListener = this::onUserChanged;
+    // Once the store is no longer listened to, cached verifications could go stale
+    private volatile boolean closed;
+
+    /**
+     * Constructor for creating a caching authenticator.
+     *
+     * @param delegate the authenticator that performs the actual verification
+     * @param timeToLive how long a successful verification is remembered
+     * @param maximumSize the maximum number of remembered verifications
+     * @throws IllegalArgumentException if delegate or timeToLive is null, or maximumSize is negative
+     */
+    public CachingAuthenticator(GameAuthenticator delegate, Duration timeToLive, long maximumSize) {
+        this(delegate, timeToLive, maximumSize, Ticker.systemTicker());
+    }
+
+    CachingAuthenticator(GameAuthenticator delegate, Duration timeToLive, long maximumSize, Ticker ticker) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate authenticator cannot be null");
+        }
+        if (timeToLive == null) {
+            throw new IllegalArgumentException("Time to live cannot be null");
+        }
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size cannot be negative");
+        }
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .recordStats()
+                .removalListener(this::onRemoval)
+                .build();
+        delegate.getUserStore().addListener(storeListener);
+    }
+
+    /**
+     * Authenticates a user, answering from the cache when the same credentials were
+     * verified recently.
+     *
+     * @param credentials the basic authentication credentials
+     * @return Optional containing GameUser if authentication succeeds, empty otherwise
+     * @throws AuthenticationException if an error occurs during authentication
+     */
+    @Override
+    public Optional<GameUser> authenticate(BasicCredentials credentials) throws AuthenticationException {
+        if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null) {
+            return Optional.empty();
+        }
+        String username = credentials.getUsername().trim();
+        if (username.isEmpty()) {
+            return Optional.empty();
+        }
+
+        if (closed) {
+            return delegate.authenticate(credentials);
+        }
+        CredentialDigester.Key key = digester.digest(username, credentials.getPassword());
+        CachedUser cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.result;
+        }
+
+        long changesBefore = storeChanges.get();
+        Optional<GameUser> result = delegate.authenticate(credentials);
+        if (result.isPresent()) {
+            cache.put(key, new CachedUser(username, result));
+            keysByUser.computeIfAbsent(username, name -> ConcurrentHashMap.newKeySet()).add(key);
+            if (storeChanges.get() != changesBefore) {
+                // The account changed while we were verifying; the result may already be stale
+                cache.invalidate(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops every cached verification of a user.
+     *
+     * @param username the username
+     */
+    public void invalidate(String username) {
+        Set<CredentialDigester.Key> keys = keysByUser.remove(username);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * Drops every cached verification.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Gets a snapshot of the cache counters.
+     *
+     * @return the hit, miss and eviction statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Gets the number of requests answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Gets the number of requests that had to be verified by the delegate.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Gets the number of entries dropped because of expiry or the size limit.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Gets the approximate number of cached verifications.
+     *
+     * @return the number of entries
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Stops listening to the store and drops every cached verification. Later requests still
+     * work but all go to the delegate, which is left open.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        delegate.getUserStore().removeListener(storeListener);
+        cache.invalidateAll();
+    }
+
+    private void onUserChanged(String username, UserCredentials previous, UserCredentials current) {
+        storeChanges.incrementAndGet();
+        invalidate(username);
+    }
+
+    private void onRemoval(RemovalNotification<CredentialDigester.Key, CachedUser> notification) {
+        CachedUser removed = notification.getValue();
+        if (removed == null) {
+            return;
+        }
+        keysByUser.computeIfPresent(removed.username, (name, keys) -> {
+            keys.remove(notification.getKey());
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Cached result together with the username needed for index cleanup.
+     */
+    private static final class CachedUser {
+        private final String username;
+        private final Optional<GameUser> result;
+
+        CachedUser(String username, Optional<GameUser> result) {
+            this.username = username;
+            this.result = result;
+        }
+    }
+}
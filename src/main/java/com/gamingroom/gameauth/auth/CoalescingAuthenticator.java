@@ -0,0 +1,264 @@
+package com.gamingroom.gameauth.auth;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import io.dropwizard.auth.basic.BasicCredentials;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Authenticator that lets identical concurrent requests share one verification of a
+ * {@link GameAuthenticator}. While the credentials of a (username, password) pair are being
+ * checked, later requests with the same pair wait for that check instead of hashing the
+ * password again, which is what a client reconnecting in a loop or a retrying proxy would
+ * otherwise cost. Requests are matched by a keyed digest, so no plaintext password is held.
+ * Nothing is remembered once a verification ends: every outcome, including failures, is
+ * shared only with requests that arrived while it was running. A request that arrives after
+ * the store has changed does not join a verification started before the change. The
+ * authenticator listens to the delegate's store to notice changes; {@link #close()}
+ * unregisters it.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class CoalescingAuthenticator implements Authenticator<BasicCredentials, GameUser>, AutoCloseable {
+
+    private final GameAuthenticator delegate;
+    private final CredentialDigester digester = new CredentialDigester();
+    private final ConcurrentHashMap<CredentialDigester.Key, Flight> inFlight = new ConcurrentHashMap<>();
+    // Bumped on every store change; requests never join a flight that overlaps a change
+    private final AtomicLong storeChanges = new AtomicLong();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final UserStoreListener storeListener = this::onUserChanged;
+    // Once the store is no longer listened to, changes go unseen, so requests stop joining
+    private volatile boolean closed;
+
+    /**
+     * Constructor for creating a coalescing authenticator.
+     *
+     * @param delegate the authenticator that performs the actual verification
+     * @throws IllegalArgumentException if delegate is null
+     */
+    public CoalescingAuthenticator(GameAuthenticator delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate authenticator cannot be null");
+        }
+        this.delegate = delegate;
+        delegate.getUserStore().addListener(storeListener);
+    }
+
+    /**
+     * Authenticates a user, waiting for an identical verification already in progress
+     * instead of starting another one.
+     *
+     * @param credentials the basic authentication credentials
+     * @return Optional containing GameUser if authentication succeeds, empty otherwise
+     * @throws AuthenticationException if an error occurs during authentication, including one
+     *         raised by a shared verification
+     */
+    @Override
+    public Optional<GameUser> authenticate(BasicCredentials credentials) throws AuthenticationException {
+        CredentialDigester.Key key = keyOf(credentials);
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        Flight flight = new Flight(storeChanges.get());
+        Flight running = join(key, flight);
+        if (running != null) {
+            return await(running.result);
+        }
+        Optional<GameUser> result = null;
+        Throwable failure = null;
+        try {
+            result = delegate.authenticate(credentials);
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Leave the map first, so no request joins a flight that has already landed
+            inFlight.remove(key, flight);
+            if (failure != null) {
+                flight.result.completeExceptionally(failure);
+            } else {
+                flight.result.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Authenticates a user on the delegate's verification executor, sharing an identical
+     * verification already in progress.
+     *
+     * @param credentials the basic authentication credentials
+     * @return a future completing with the GameUser if authentication succeeds, empty otherwise
+     */
+    public CompletableFuture<Optional<GameUser>> authenticateAsync(BasicCredentials credentials) {
+        CredentialDigester.Key key = keyOf(credentials);
+        if (key == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        Flight flight = new Flight(storeChanges.get());
+        Flight running = join(key, flight);
+        if (running != null) {
+            // A dependent copy, so one caller cancelling cannot affect the others
+            return running.result.thenApply(result -> result);
+        }
+        delegate.authenticateAsync(credentials).whenComplete((result, failure) -> {
+            inFlight.remove(key, flight);
+            if (failure != null) {
+                flight.result.completeExceptionally(failure);
+            } else {
+                flight.result.complete(result);
+            }
+        });
+        return flight.result.thenApply(result -> result);
+    }
+
+    /**
+     * Gets the number of verifications actually run by the delegate.
+     *
+     * @return the verification count
+     */
+    public long getVerificationCount() {
+        return verifications.sum();
+    }
+
+    /**
+     * Gets the number of requests answered by a verification another request started.
+     *
+     * @return the coalesced request count
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the share of requests answered by another request's verification.
+     *
+     * @return the coalesced requests divided by all requests, 0 before the first request
+     */
+    public double getCoalescingRate() {
+        long shared = coalesced.sum();
+        long total = shared + verifications.sum();
+        return total == 0 ? 0 : (double) shared / total;
+    }
+
+    /**
+     * Gets the number of verifications currently running.
+     *
+     * @return the in-flight count
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Registers the coalescing counters as gauges named {@code name.verifications},
+     * {@code name.coalesced}, {@code name.coalescing-rate} and {@code name.in-flight}.
+     *
+     * @param registry the metric registry, such as the one of the Dropwizard environment
+     * @param name the prefix of the metric names
+     * @throws IllegalArgumentException if registry or name is null, or a metric is already registered
+     */
+    public void registerMetrics(MetricRegistry registry, String name) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Metric registry cannot be null");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("Metric name cannot be null");
+        }
+        registry.register(MetricRegistry.name(name, "verifications"), (Gauge<Long>) this::getVerificationCount);
+        registry.register(MetricRegistry.name(name, "coalesced"), (Gauge<Long>) this::getCoalescedCount);
+        registry.register(MetricRegistry.name(name, "coalescing-rate"), (Gauge<Double>) this::getCoalescingRate);
+        registry.register(MetricRegistry.name(name, "in-flight"), (Gauge<Integer>) this::getInFlightCount);
+    }
+
+    /**
+     * Stops listening to the delegate's store. Later requests still work but are no longer
+     * shared. The delegate is left open.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        delegate.getUserStore().removeListener(storeListener);
+    }
+
+    private CredentialDigester.Key keyOf(BasicCredentials credentials) {
+        if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null) {
+            return null;
+        }
+        String username = credentials.getUsername().trim();
+        return username.isEmpty() ? null : digester.digest(username, credentials.getPassword());
+    }
+
+    /**
+     * Registers a new flight, or finds a running one to join.
+     *
+     * @return the flight to wait for, or null if the caller leads the given flight
+     */
+    private Flight join(CredentialDigester.Key key, Flight flight) {
+        Flight running = inFlight.putIfAbsent(key, flight);
+        if (running == null) {
+            verifications.increment();
+            return null;
+        }
+        if (running.storeChanges == flight.storeChanges && !closed) {
+            coalesced.increment();
+            return running;
+        }
+        // The running flight may have read the account before it changed; take its place
+        if (inFlight.replace(key, running, flight)) {
+            verifications.increment();
+            return null;
+        }
+        return join(key, flight);
+    }
+
+    private static Optional<GameUser> await(CompletableFuture<Optional<GameUser>> result)
+            throws AuthenticationException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationException("Authentication interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AuthenticationException) {
+                throw (AuthenticationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new AuthenticationException("Authentication failed", cause);
+        }
+    }
+
+    private void onUserChanged(String username, UserCredentials previous, UserCredentials current) {
+        storeChanges.incrementAndGet();
+    }
+
+    /**
+     * One running verification and the store change count it started at.
+     */
+    private static final class Flight {
+        private final long storeChanges;
+        private final CompletableFuture<Optional<GameUser>> result = new CompletableFuture<>();
+
+        Flight(long storeChanges) {
+            this.storeChanges = storeChanges;
+        }
+    }
+}
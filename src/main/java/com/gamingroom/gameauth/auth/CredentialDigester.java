@@ -0,0 +1,84 @@
+package com.gamingroom.gameauth.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * Computes keyed digests of (username, password) pairs so that credentials can be used
+ * as map keys without keeping the plaintext password in memory.
+ * The HMAC key is random per instance and never leaves the process, so digests cannot
+ * be brute-forced offline from a heap dump without also recovering the key.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+final class CredentialDigester {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Constructor for creating a digester with a fresh random key.
+     */
+    CredentialDigester() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(ALGORITHM + " is not available", e);
+            }
+        });
+    }
+
+    /**
+     * Digests a username and password.
+     *
+     * @param username the trimmed username
+     * @param password the password
+     * @return a 128-bit digest of the pair
+     */
+    Key digest(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        // Separator byte that cannot appear in UTF-8, so ("ab", "c") and ("a", "bc") differ
+        mac.update((byte) 0xFF);
+        ByteBuffer digest = ByteBuffer.wrap(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        return new Key(digest.getLong(), digest.getLong());
+    }
+
+    /**
+     * Truncated credential digest usable as a hash key.
+     */
+    static final class Key {
+        private final long high;
+        private final long low;
+
+        Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key key = (Key) obj;
+            return high == key.high && low == key.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+}
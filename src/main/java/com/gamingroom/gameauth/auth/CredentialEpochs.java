@@ -0,0 +1,155 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Current credential epoch of every account in a {@link UserStore}, by user id, so that
+ * anything issued against older credentials can be rejected without asking the store.
+ * Tokens embed the epoch of the user they were issued to; a password change, a role change or
+ * the removal of the account moves the epoch on, which revokes every outstanding token of
+ * that account at once. Memory grows with the number of accounts, never with the number of
+ * tokens issued.
+ * Epochs of user ids up to {@value #MAX_DENSE_USER_ID} live in one array indexed by user id,
+ * so a check is a single volatile array read that never allocates; larger ids fall back to a
+ * map. Slots hold the epoch plus one, so an id the table has never seen reads as unknown and
+ * fails every check: a removed account whose id is absent after a restart stays revoked.
+ * Epochs only move forward, so updates arriving out of order are harmless. Removed accounts
+ * are pinned at an epoch no token carries, and user ids are never reused.
+ * A table created by {@link #track(UserStore)} listens to the store until {@link #close()},
+ * after which it can no longer see revocations and therefore accepts no epoch at all.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class CredentialEpochs implements AutoCloseable {
+
+    /**
+     * Largest user id kept in the array.
+     */
+    public static final int MAX_DENSE_USER_ID = (1 << 24) - 1;
+
+    static final long REMOVED = Long.MAX_VALUE;
+    static final long UNKNOWN = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile AtomicLongArray dense = new AtomicLongArray(INITIAL_CAPACITY);
+    private final Map<Long, Long> sparse = new ConcurrentHashMap<>();
+    // Set by track(); the store and listener to unregister on close
+    private UserStore store;
+    private UserStoreListener listener;
+    private volatile boolean closed;
+
+    /**
+     * Creates a table that follows a user store: it loads the epochs of the current accounts and
+     * listens for every later change.
+     *
+     * @param store the user store
+     * @return the epoch table
+     * @throws IllegalArgumentException if store is null
+     */
+    public static CredentialEpochs track(UserStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("User store cannot be null");
+        }
+        CredentialEpochs epochs = new CredentialEpochs();
+        // Listen first so no change is missed; the scan cannot undo it since epochs only grow
+        epochs.store = store;
+        epochs.listener = (username, previous, current) -> {
+            if (current != null) {
+                epochs.advance(current.getUserId(), current.getCredentialEpoch());
+            } else if (previous != null) {
+                epochs.advance(previous.getUserId(), REMOVED);
+            }
+        };
+        store.addListener(epochs.listener);
+        store.forEach((username, credentials) ->
+                epochs.advance(credentials.getUserId(), credentials.getCredentialEpoch()));
+        return epochs;
+    }
+
+    /**
+     * Checks whether an epoch is the current one of an account. Never allocates for user ids
+     * up to {@link #MAX_DENSE_USER_ID}.
+     *
+     * @param userId the user id
+     * @param credentialEpoch the epoch to check, for example from a token
+     * @return true if the account exists and has not changed since that epoch, and the table
+     *         is not closed
+     */
+    public boolean isCurrent(long userId, long credentialEpoch) {
+        return !closed && credentialEpoch >= 0 && credentialEpoch != REMOVED && credentialEpoch == get(userId);
+    }
+
+    /**
+     * Stops following the store the table was created from. From then on no epoch is current,
+     * since revocations would go unseen.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (store != null) {
+            store.removeListener(listener);
+        }
+    }
+
+    /**
+     * Gets the current epoch of an account.
+     *
+     * @param userId the user id
+     * @return the epoch, -1 for ids this table has not seen, or {@link Long#MAX_VALUE} if the
+     *         account was removed
+     */
+    public long get(long userId) {
+        long slot;
+        if (userId <= MAX_DENSE_USER_ID) {
+            AtomicLongArray array = dense;
+            slot = userId >= 0 && userId < array.length() ? array.get((int) userId) : 0;
+        } else {
+            Long stored = sparse.get(userId);
+            slot = stored == null ? 0 : stored;
+        }
+        return slot == REMOVED ? REMOVED : slot - 1;
+    }
+
+    /**
+     * Moves the epoch of an account forward; an older epoch is ignored.
+     *
+     * @param userId the user id
+     * @param credentialEpoch the new epoch
+     */
+    synchronized void advance(long userId, long credentialEpoch) {
+        if (userId <= UserCredentials.UNASSIGNED_ID || credentialEpoch < 0) {
+            return;
+        }
+        // Stored plus one so that an empty slot means unknown; REMOVED saturates
+        long slot = credentialEpoch == REMOVED ? REMOVED : credentialEpoch + 1;
+        if (userId > MAX_DENSE_USER_ID) {
+            sparse.merge(userId, slot, Math::max);
+            return;
+        }
+        AtomicLongArray array = dense;
+        int index = (int) userId;
+        if (index >= array.length()) {
+            int capacity = array.length();
+            while (capacity <= index) {
+                capacity = Math.min(capacity * 2, MAX_DENSE_USER_ID + 1);
+            }
+            AtomicLongArray grown = new AtomicLongArray(capacity);
+            for (int i = 0; i < array.length(); i++) {
+                grown.set(i, array.get(i));
+            }
+            dense = grown;
+            array = grown;
+        }
+        if (slot > array.get(index)) {
+            array.set(index, slot);
+        }
+    }
+}
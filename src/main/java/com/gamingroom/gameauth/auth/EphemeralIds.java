@@ -0,0 +1,48 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention-free generator of process-unique numeric ids for short-lived objects such as
+ * sessions and principals of accounts without a stored user id.
+ * Each thread reserves a block of {@value #BLOCK_SIZE} ids from a shared counter and then hands
+ * them out without synchronization, so the shared counter is touched once per block.
+ * The counter starts at the start-up time in milliseconds shifted left by 20 bits, so ids keep
+ * increasing across restarts unless a process averaged more than a million ids per millisecond.
+ * The ids are predictable and must not be used as secrets.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class EphemeralIds {
+
+    static final int BLOCK_SIZE = 1 << 16;
+
+    private static final AtomicLong NEXT_BLOCK = new AtomicLong(System.currentTimeMillis() << 20);
+    private static final ThreadLocal<Block> BLOCKS = ThreadLocal.withInitial(Block::new);
+
+    private EphemeralIds() {
+    }
+
+    /**
+     * Gets a new id.
+     *
+     * @return a positive id not returned before by this process
+     */
+    public static long next() {
+        Block block = BLOCKS.get();
+        if (block.next == block.end) {
+            block.next = NEXT_BLOCK.getAndAdd(BLOCK_SIZE);
+            block.end = block.next + BLOCK_SIZE;
+        }
+        return block.next++;
+    }
+
+    /**
+     * Range of ids reserved by one thread.
+     */
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
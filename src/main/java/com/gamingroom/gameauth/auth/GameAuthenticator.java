@@ -4,32 +4,129 @@ import io.dropwizard.auth.AuthenticationException;
 import io.dropwizard.auth.Authenticator;
 import io.dropwizard.auth.basic.BasicCredentials;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.google.common.collect.ImmutableMap;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+import com.gamingroom.gameauth.auth.store.WalUserStore;
 import com.google.common.collect.ImmutableSet;
 
 /**
  * Authenticator implementation for the game authentication system.
- * Validates user credentials and creates GameUser instances for authenticated users.
+ * Validates user credentials against a {@link UserStore} and creates GameUser instances
+ * for authenticated users. Passwords are stored as salted PBKDF2 hashes; because each
+ * check costs milliseconds of CPU, {@link #authenticateAsync(BasicCredentials)} runs it on
+ * a dedicated, bounded verification executor instead of the calling thread.
+ * An optional {@link LoginRateLimiter} rejects usernames and client addresses with too many
+ * recent failures before the store is consulted, and an optional {@link UsernameFilter}
+ * rejects unknown usernames without a store lookup or a dummy hash.
+ * {@link #authenticateAll(Collection, Duration)} checks a whole match worth of players with
+ * one store lookup and verifies their passwords side by side on the verification executor.
+ * Successful logins of the same account share one immutable {@link GameUser} until the
+ * account changes. The authenticator listens to its store for such changes;
+ * {@link #close()} unregisters it, which matters for authenticators over a long-lived store
+ * such as the shared default one.
  * 
  * @author GameAuth Team
  * @version 1.0
  */
-public class GameAuthenticator implements Authenticator<BasicCredentials, GameUser> {
+public class GameAuthenticator implements Authenticator<BasicCredentials, GameUser>, AutoCloseable {
     
-    // In-memory user store - in production, this would be replaced with a database
-    private static final Map<String, UserCredentials> VALID_USERS = new ConcurrentHashMap<>();
+    /**
+     * System property naming a directory in which the default store logs its accounts, so
+     * that accounts added through {@link #addUser(String, String, Set)} survive restarts.
+     */
+    public static final String USER_LOG_PROPERTY = "gameauth.userLog";
+    
+    // Shared hasher and store used by the no-argument constructor and the static user management methods
+    private static final PasswordHasher DEFAULT_HASHER = new PasswordHasher();
+    private static final UserStore DEFAULT_STORE = createDefaultStore();
+    
+    private final UserStore userStore;
+    private final PasswordHasher passwordHasher;
+    private final Executor verificationExecutor;
+    private final LoginRateLimiter rateLimiter;
+    private final UsernameFilter usernameFilter;
+    private final boolean ownsUsernameFilter;
+    private final PrincipalCache principals;
+    private final UserStoreListener principalListener;
+    
+    /**
+     * Constructor for creating an authenticator backed by the shared default store,
+     * which is pre-populated with the built-in demo accounts.
+     */
+    public GameAuthenticator() {
+        this(DEFAULT_STORE);
+    }
+    
+    /**
+     * Constructor for creating an authenticator backed by the given store, using the
+     * default hasher and the shared verification executor.
+     * 
+     * @param userStore the store holding the user accounts
+     * @throws IllegalArgumentException if userStore is null
+     */
+    public GameAuthenticator(UserStore userStore) {
+        this(userStore, DEFAULT_HASHER, DefaultExecutorHolder.EXECUTOR);
+    }
+    
+    /**
+     * Constructor for creating an authenticator with an explicit hashing cost and executor.
+     * 
+     * @param userStore the store holding the user accounts
+     * @param passwordHasher the hasher deciding the cost of new and upgraded hashes
+     * @param verificationExecutor the executor running asynchronous verifications,
+     *        see {@link PasswordHasher#newVerificationExecutor(int, int)}
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public GameAuthenticator(UserStore userStore, PasswordHasher passwordHasher, Executor verificationExecutor) {
+        this(builder(userStore).passwordHasher(passwordHasher).verificationExecutor(verificationExecutor));
+    }
     
-    static {
-        // Initialize with default users
-        VALID_USERS.put("guest", new UserCredentials("", ImmutableSet.of()));
-        VALID_USERS.put("user", new UserCredentials("password", ImmutableSet.of("USER")));
-        VALID_USERS.put("admin", new UserCredentials("admin123", ImmutableSet.of("ADMIN", "USER")));
-        VALID_USERS.put("moderator", new UserCredentials("mod456", ImmutableSet.of("MODERATOR", "USER")));
+    private GameAuthenticator(Builder builder) {
+        this.userStore = builder.userStore;
+        this.passwordHasher = builder.passwordHasher;
+        this.verificationExecutor = builder.verificationExecutor;
+        this.rateLimiter = builder.rateLimiter;
+        this.usernameFilter = builder.usernameFilter;
+        this.ownsUsernameFilter = builder.ownsUsernameFilter;
+        if (builder.reusePrincipals) {
+            this.principals = new PrincipalCache();
+            this.principalListener = (username, previous, current) -> principals.invalidate(username);
+            userStore.addListener(principalListener);
+        } else {
+            this.principals = null;
+            this.principalListener = null;
+        }
+    }
+    
+    /**
+     * Creates a builder for an authenticator backed by the given store.
+     * 
+     * @param userStore the store holding the user accounts
+     * @return a new builder using the default hasher and verification executor
+     * @throws IllegalArgumentException if userStore is null
+     */
+    public static Builder builder(UserStore userStore) {
+        return new Builder(userStore);
     }
 
     /**
@@ -41,6 +138,19 @@ public class GameAuthenticator implements Authenticator<BasicCredentials, GameUs
      */
     @Override
     public Optional<GameUser> authenticate(BasicCredentials credentials) throws AuthenticationException {
+        return authenticate(credentials, null);
+    }
+    
+    /**
+     * Authenticates a user, applying the rate limit to the client address as well as the username.
+     * 
+     * @param credentials the basic authentication credentials
+     * @param clientAddress the remote address of the client, or null if unknown
+     * @return Optional containing GameUser if authentication succeeds, empty otherwise
+     * @throws AuthenticationException if an error occurs during authentication
+     */
+    public Optional<GameUser> authenticate(BasicCredentials credentials, String clientAddress)
+            throws AuthenticationException {
         if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null) {
             return Optional.empty();
         }
@@ -48,65 +158,477 @@ public class GameAuthenticator implements Authenticator<BasicCredentials, GameUs
         String username = credentials.getUsername().trim();
         String password = credentials.getPassword();
         
-        if (username.isEmpty()) {
+        if (username.isEmpty() || !reserveAttempt(username, clientAddress)) {
             return Optional.empty();
         }
         
+        Optional<GameUser> result;
         try {
-            UserCredentials userCreds = VALID_USERS.get(username);
-            if (userCreds != null && userCreds.validatePassword(password)) {
-                GameUser user = new GameUser(username, userCreds.getRoles());
-                return Optional.of(user);
-            }
+            result = verify(username, password);
         } catch (Exception e) {
+            releaseAttempt(username, clientAddress);
+            throw new AuthenticationException("Authentication failed", e);
+        }
+        recordOutcome(username, clientAddress, result.isPresent());
+        return result;
+    }
+    
+    /**
+     * Authenticates a user on the verification executor, leaving the calling thread free.
+     * If the executor's queue is full the returned future fails with an
+     * {@link AuthenticationException} instead of queueing more work.
+     * 
+     * @param credentials the basic authentication credentials
+     * @return a future completing with the GameUser if authentication succeeds, empty otherwise
+     */
+    public CompletableFuture<Optional<GameUser>> authenticateAsync(BasicCredentials credentials) {
+        return authenticateAsync(credentials, null);
+    }
+    
+    /**
+     * Authenticates a user on the verification executor, applying the rate limit to the
+     * client address as well as the username.
+     * 
+     * @param credentials the basic authentication credentials
+     * @param clientAddress the remote address of the client, or null if unknown
+     * @return a future completing with the GameUser if authentication succeeds, empty otherwise
+     */
+    public CompletableFuture<Optional<GameUser>> authenticateAsync(BasicCredentials credentials,
+            String clientAddress) {
+        CompletableFuture<Optional<GameUser>> result = new CompletableFuture<>();
+        try {
+            verificationExecutor.execute(() -> {
+                try {
+                    result.complete(authenticate(credentials, clientAddress));
+                } catch (AuthenticationException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new AuthenticationException("Password verification queue is full", e));
+        }
+        return result;
+    }
+    
+    /**
+     * Authenticates a batch of players, for example everyone joining a match, waiting for
+     * every verification to finish.
+     * 
+     * @param credentials the credentials of each player
+     * @return one result per item, in iteration order of the collection
+     * @throws AuthenticationException if the store lookup fails or the calling thread is interrupted
+     * @see #authenticateAll(Collection, Duration)
+     */
+    public List<AuthenticationResult> authenticateAll(Collection<BasicCredentials> credentials)
+            throws AuthenticationException {
+        return authenticateAll(credentials, null);
+    }
+    
+    /**
+     * Authenticates a batch of players. All accounts are fetched with a single
+     * {@link UserStore#getAll(Collection)} call, then every password is verified as its own task
+     * on the verification executor, so the batch takes about as long as its slowest item rather
+     * than the sum of all of them. The call returns as soon as every item is done or the
+     * deadline passes, whichever comes first; items still running at the deadline are reported
+     * as {@link AuthenticationResult.Status#TIMED_OUT} and items that have not started by then
+     * are skipped. Items the executor refuses are reported as
+     * {@link AuthenticationResult.Status#FAILED} instead of failing the whole batch.
+     * 
+     * @param credentials the credentials of each player, null items are rejected
+     * @param timeout the longest time to wait for the batch, or null to wait for every item
+     * @return one result per item, in iteration order of the collection
+     * @throws AuthenticationException if the store lookup fails or the calling thread is interrupted
+     * @throws IllegalArgumentException if credentials is null or timeout is not positive
+     */
+    public List<AuthenticationResult> authenticateAll(Collection<BasicCredentials> credentials, Duration timeout)
+            throws AuthenticationException {
+        if (credentials == null) {
+            throw new IllegalArgumentException("Credentials cannot be null");
+        }
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        long deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+        
+        int size = credentials.size();
+        AuthenticationResult[] results = new AuthenticationResult[size];
+        String[] usernames = new String[size];
+        String[] passwords = new String[size];
+        Set<String> lookups = new HashSet<>();
+        int index = 0;
+        for (BasicCredentials item : credentials) {
+            String username = item != null && item.getUsername() != null ? item.getUsername().trim() : "";
+            if (username.isEmpty() || item.getPassword() == null || !reserveAttempt(username, null)) {
+                results[index] = AuthenticationResult.rejected();
+            } else if (usernameFilter != null && !usernameFilter.mightContain(username)) {
+                results[index] = AuthenticationResult.rejected();
+                recordOutcome(username, null, false);
+            } else {
+                usernames[index] = username;
+                passwords[index] = item.getPassword();
+                lookups.add(username);
+            }
+            index++;
+        }
+        
+        Map<String, UserCredentials> found;
+        try {
+            found = lookups.isEmpty() ? Collections.emptyMap() : userStore.getAll(lookups);
+        } catch (RuntimeException e) {
+            for (String username : usernames) {
+                if (username != null) {
+                    releaseAttempt(username, null);
+                }
+            }
             throw new AuthenticationException("Authentication failed", e);
         }
         
-        return Optional.empty();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<AuthenticationResult>[] pending = new CompletableFuture[size];
+        AtomicBoolean abandoned = new AtomicBoolean();
+        for (int i = 0; i < size; i++) {
+            if (results[i] == null) {
+                pending[i] = submitCheck(usernames[i], passwords[i], found.get(usernames[i]), abandoned);
+            }
+        }
+        
+        CompletableFuture<Void> all = CompletableFuture.allOf(
+                Arrays.stream(pending).filter(future -> future != null).toArray(CompletableFuture[]::new));
+        try {
+            if (timeout == null) {
+                all.get();
+            } else {
+                all.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            abandoned.set(true);
+        } catch (InterruptedException e) {
+            abandoned.set(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationException("Authentication interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationException("Authentication failed", e.getCause());
+        }
+        for (int i = 0; i < size; i++) {
+            if (pending[i] != null) {
+                results[i] = pending[i].getNow(AuthenticationResult.timedOut());
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+    
+    private CompletableFuture<AuthenticationResult> submitCheck(String username, String password,
+            UserCredentials userCreds, AtomicBoolean abandoned) {
+        CompletableFuture<AuthenticationResult> result = new CompletableFuture<>();
+        try {
+            verificationExecutor.execute(() -> {
+                // Nobody waits for items that start after the deadline, so spare the hashing pool
+                if (abandoned.get()) {
+                    releaseAttempt(username, null);
+                    result.complete(AuthenticationResult.timedOut());
+                    return;
+                }
+                try {
+                    Optional<GameUser> user = check(username, password, userCreds);
+                    recordOutcome(username, null, user.isPresent());
+                    result.complete(user.map(AuthenticationResult::authenticated)
+                            .orElse(AuthenticationResult.rejected()));
+                } catch (RuntimeException e) {
+                    releaseAttempt(username, null);
+                    result.complete(AuthenticationResult.failed(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            releaseAttempt(username, null);
+            result.complete(AuthenticationResult.failed(
+                    new AuthenticationException("Password verification queue is full", e)));
+        }
+        return result;
+    }
+    
+    /**
+     * Reserves an attempt for the username and the client address, counted as a failure until
+     * {@link #recordOutcome} or {@link #releaseAttempt} says otherwise.
+     */
+    private boolean reserveAttempt(String username, String clientAddress) {
+        if (rateLimiter == null) {
+            return true;
+        }
+        if (!rateLimiter.tryAcquire(LoginRateLimiter.usernameKey(username))) {
+            return false;
+        }
+        if (clientAddress != null && !rateLimiter.tryAcquire(LoginRateLimiter.addressKey(clientAddress))) {
+            rateLimiter.refund(LoginRateLimiter.usernameKey(username));
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Settles a reserved attempt: a failure keeps it counted, a success clears the username and
+     * hands the address's attempt back.
+     */
+    private void recordOutcome(String username, String clientAddress, boolean authenticated) {
+        if (rateLimiter == null || !authenticated) {
+            return;
+        }
+        rateLimiter.reset(LoginRateLimiter.usernameKey(username));
+        if (clientAddress != null) {
+            rateLimiter.refund(LoginRateLimiter.addressKey(clientAddress));
+        }
     }
     
     /**
-     * Adds a new user to the system.
+     * Hands back a reserved attempt whose password was never checked.
+     */
+    private void releaseAttempt(String username, String clientAddress) {
+        if (rateLimiter == null) {
+            return;
+        }
+        rateLimiter.refund(LoginRateLimiter.usernameKey(username));
+        if (clientAddress != null) {
+            rateLimiter.refund(LoginRateLimiter.addressKey(clientAddress));
+        }
+    }
+    
+    private Optional<GameUser> verify(String username, String password) {
+        if (usernameFilter != null && !usernameFilter.mightContain(username)) {
+            return Optional.empty();
+        }
+        return check(username, password, userStore.get(username));
+    }
+    
+    private Optional<GameUser> check(String username, String password, UserCredentials userCreds) {
+        if (userCreds == null) {
+            passwordHasher.verifyDummy(password);
+            return Optional.empty();
+        }
+        if (!passwordHasher.verify(password, userCreds.getPasswordHash())) {
+            return Optional.empty();
+        }
+        if (passwordHasher.needsRehash(userCreds.getPasswordHash())) {
+            // Only over the credentials just verified: a change made meanwhile must not be undone
+            userStore.replace(username, userCreds, new UserCredentials(userCreds.getUserId(),
+                    userCreds.getCredentialEpoch(), passwordHasher.hash(password), userCreds.getRoles()));
+        }
+        if (principals != null) {
+            return principals.principal(username, userCreds);
+        }
+        return Optional.of(new GameUser(username, userCreds.getRoles(), userCreds.getUserId(),
+                userCreds.getCredentialEpoch()));
+    }
+    
+    /**
+     * Gets the store holding the user accounts.
+     * 
+     * @return the user store
+     */
+    public UserStore getUserStore() {
+        return userStore;
+    }
+    
+    /**
+     * Stops listening to the store and drops the shared principals. The authenticator keeps
+     * working, building a new principal per login. A username filter built by
+     * {@link Builder#usernameFilter(UsernameFilterConfiguration)} is closed too; the store, the
+     * rate limiter, a username filter passed in and the verification executor are left open.
+     */
+    @Override
+    public void close() {
+        if (principalListener != null) {
+            userStore.removeListener(principalListener);
+            principals.close();
+        }
+        if (ownsUsernameFilter && usernameFilter != null) {
+            usernameFilter.close();
+        }
+    }
+    
+    /**
+     * Gets the shared store used by the no-argument constructor and by
+     * {@link #addUser(String, String, Set)} and {@link #removeUser(String)}.
+     * 
+     * @return the default user store
+     */
+    public static UserStore getDefaultUserStore() {
+        return DEFAULT_STORE;
+    }
+    
+    /**
+     * Gets the hasher used for new and upgraded password hashes.
+     * 
+     * @return the password hasher
+     */
+    public PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+    
+    /**
+     * Adds a new user to the default store, hashing the password at the default cost.
      * 
      * @param username the username
-     * @param password the password
+     * @param password the plaintext password
      * @param roles the roles for the user
      */
     public static void addUser(String username, String password, Set<String> roles) {
         if (username != null && !username.trim().isEmpty() && password != null) {
-            VALID_USERS.put(username.trim(), new UserCredentials(password, roles));
+            DEFAULT_STORE.put(username.trim(), new UserCredentials(DEFAULT_HASHER.hash(password), roles));
         }
     }
     
     /**
-     * Removes a user from the system.
+     * Removes a user from the default store.
      * 
      * @param username the username to remove
      */
     public static void removeUser(String username) {
         if (username != null) {
-            VALID_USERS.remove(username.trim());
+            DEFAULT_STORE.remove(username.trim());
         }
     }
     
+    private static UserStore createDefaultStore() {
+        String directory = System.getProperty(USER_LOG_PROPERTY, "");
+        UserStore store = directory.isEmpty() ? new InMemoryUserStore() : new WalUserStore(Paths.get(directory));
+        if (store.size() > 0) {
+            // Recovered from the log, demo accounts included
+            return store;
+        }
+        store.put("guest", new UserCredentials(DEFAULT_HASHER.hash(""), ImmutableSet.of()));
+        store.put("user", new UserCredentials(DEFAULT_HASHER.hash("password"), ImmutableSet.of("USER")));
+        store.put("admin", new UserCredentials(DEFAULT_HASHER.hash("admin123"), ImmutableSet.of("ADMIN", "USER")));
+        store.put("moderator", new UserCredentials(DEFAULT_HASHER.hash("mod456"), ImmutableSet.of("MODERATOR", "USER")));
+        return store;
+    }
+    
     /**
-     * Internal class to store user credentials and roles.
+     * Builder for authenticators with optional collaborators.
      */
-    private static class UserCredentials {
-        private final String password;
-        private final Set<String> roles;
+    public static final class Builder {
+        private final UserStore userStore;
+        private PasswordHasher passwordHasher = DEFAULT_HASHER;
+        private Executor verificationExecutor;
+        private LoginRateLimiter rateLimiter;
+        private UsernameFilter usernameFilter;
+        private boolean ownsUsernameFilter;
+        private boolean reusePrincipals = true;
+        
+        private Builder(UserStore userStore) {
+            if (userStore == null) {
+                throw new IllegalArgumentException("User store cannot be null");
+            }
+            this.userStore = userStore;
+        }
+        
+        /**
+         * Sets the hasher deciding the cost of new and upgraded hashes.
+         * 
+         * @param passwordHasher the password hasher
+         * @return this builder
+         * @throws IllegalArgumentException if passwordHasher is null
+         */
+        public Builder passwordHasher(PasswordHasher passwordHasher) {
+            if (passwordHasher == null) {
+                throw new IllegalArgumentException("Password hasher cannot be null");
+            }
+            this.passwordHasher = passwordHasher;
+            return this;
+        }
+        
+        /**
+         * Sets the executor running asynchronous verifications.
+         * 
+         * @param verificationExecutor the executor, see {@link PasswordHasher#newVerificationExecutor(int, int)}
+         * @return this builder
+         * @throws IllegalArgumentException if verificationExecutor is null
+         */
+        public Builder verificationExecutor(Executor verificationExecutor) {
+            if (verificationExecutor == null) {
+                throw new IllegalArgumentException("Verification executor cannot be null");
+            }
+            this.verificationExecutor = verificationExecutor;
+            return this;
+        }
+        
+        /**
+         * Sets the limiter consulted before every credential lookup.
+         * 
+         * @param rateLimiter the limiter, or null to disable rate limiting
+         * @return this builder
+         */
+        public Builder rateLimiter(LoginRateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
         
-        public UserCredentials(String password, Set<String> roles) {
-            this.password = password;
-            this.roles = roles;
+        /**
+         * Enables rate limiting as described by the {@code auth.rateLimit} configuration block.
+         * 
+         * @param configuration the rate limit configuration
+         * @return this builder
+         */
+        public Builder rateLimit(RateLimitConfiguration configuration) {
+            return rateLimiter(LoginRateLimiter.fromConfiguration(configuration));
         }
         
-        public boolean validatePassword(String inputPassword) {
-            return password.equals(inputPassword);
+        /**
+         * Sets the filter that rejects unknown usernames before the store lookup.
+         * 
+         * @param usernameFilter a filter over the same store, or null to look up every username
+         * @return this builder
+         */
+        public Builder usernameFilter(UsernameFilter usernameFilter) {
+            this.usernameFilter = usernameFilter;
+            this.ownsUsernameFilter = false;
+            return this;
         }
         
-        public Set<String> getRoles() {
-            return roles;
+        /**
+         * Enables username filtering as described by the {@code auth.usernameFilter}
+         * configuration block, building the filter from the store. The authenticator owns the
+         * filter and closes it in {@link GameAuthenticator#close()}.
+         * 
+         * @param configuration the username filter configuration
+         * @return this builder
+         */
+        public Builder usernameFilter(UsernameFilterConfiguration configuration) {
+            usernameFilter(configuration.isEnabled() ? new UsernameFilter(userStore, configuration) : null);
+            this.ownsUsernameFilter = true;
+            return this;
         }
+        
+        /**
+         * Sets whether successful logins of an account share one {@link GameUser} instance.
+         * Enabled by default; disable to get a new instance per login. The shared instances
+         * are kept for every account that has logged in since it last changed, so they grow
+         * with the number of active accounts, not with the number of logins.
+         * 
+         * @param reusePrincipals true to reuse principals
+         * @return this builder
+         */
+        public Builder reusePrincipals(boolean reusePrincipals) {
+            this.reusePrincipals = reusePrincipals;
+            return this;
+        }
+        
+        /**
+         * Builds the authenticator.
+         * 
+         * @return the new authenticator
+         */
+        public GameAuthenticator build() {
+            if (verificationExecutor == null) {
+                verificationExecutor = DefaultExecutorHolder.EXECUTOR;
+            }
+            return new GameAuthenticator(this);
+        }
+    }
+    
+    /**
+     * Lazily creates the shared verification executor, sized to the number of cores.
+     */
+    private static final class DefaultExecutorHolder {
+        private static final Executor EXECUTOR = PasswordHasher.newVerificationExecutor(
+                Runtime.getRuntime().availableProcessors(), 1024);
     }
 }
@@ -2,21 +2,112 @@ package com.gamingroom.gameauth.auth;
 
 import io.dropwizard.auth.Authorizer;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
 /**
  * Authorizer implementation for the game authentication system.
  * Determines if a user has the necessary permissions to access resources.
+ * Role requirements are resolved to {@link RoleRegistry} masks and checked against
+ * {@link GameUser#getRoleMask()}. A required role is also met by any role above it in the
+ * {@link RoleHierarchy}, so every check stays a few bitwise operations.
+ * Requirements of the form {@code policy:name} evaluate a registered {@link AuthorizationPolicy},
+ * and resource-scoped {@link Permission}s are looked up in a {@link PermissionIndex}.
+ * Policy decisions can be shared between users with the same roles through an
+ * {@link AuthorizationDecisionCache}; plain role checks are cheaper than a cache lookup.
+ * {@link #authorizeEach(long[], String)} checks a requirement for a whole audience at once,
+ * such as every player of a lobby receiving an announcement.
  * 
  * @author GameAuth Team
  * @version 1.0
  */
 public class GameAuthorizer implements Authorizer<GameUser> {
     
+    /**
+     * Prefix of requirements naming a registered policy.
+     */
+    public static final String POLICY_PREFIX = "policy:";
+    
+    // Below this many users splitting the work costs more than it saves
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+    // Users per parallel task, a multiple of 64 so tasks never share a bitset word
+    private static final int CHUNK_WORDS = 256;
+    private static final int POLICY_MEMO_BITS = 6;
+    private static final int POLICY_MEMO_SIZE = 1 << POLICY_MEMO_BITS;
+    
+    private static final int ADMIN_ID = RoleRegistry.getDefault().intern("ADMIN");
+    private static final int MODERATOR_ID = RoleRegistry.getDefault().intern("MODERATOR");
+    
+    private final RoleHierarchy hierarchy;
+    private final PermissionIndex permissions;
+    // Keyed by the full "policy:name" requirement so lookups need no substring
+    private final Map<String, AuthorizationPolicy> policies = new ConcurrentHashMap<>();
+    private final AtomicLong policyVersion = new AtomicLong();
+    private final AuthorizationDecisionCache decisionCache;
+    
+    /**
+     * Constructor for an authorizer without a role hierarchy.
+     */
+    public GameAuthorizer() {
+        this(new RoleHierarchy());
+    }
+    
+    /**
+     * Constructor for an authorizer that honors a role hierarchy.
+     * Changes made to the hierarchy later apply to subsequent checks.
+     * 
+     * @param hierarchy the role hierarchy
+     * @throws IllegalArgumentException if hierarchy is null
+     */
+    public GameAuthorizer(RoleHierarchy hierarchy) {
+        this(hierarchy, new PermissionIndex());
+    }
+    
+    /**
+     * Constructor for an authorizer that honors a role hierarchy and resource permissions.
+     * Changes made to the hierarchy or the permission index later apply to subsequent checks.
+     * 
+     * @param hierarchy the role hierarchy
+     * @param permissions the permission grants
+     * @throws IllegalArgumentException if hierarchy or permissions is null
+     */
+    public GameAuthorizer(RoleHierarchy hierarchy, PermissionIndex permissions) {
+        this(hierarchy, permissions, null);
+    }
+    
+    /**
+     * Constructor for an authorizer that also caches its policy decisions.
+     * Cached decisions are dropped whenever the hierarchy or a policy changes.
+     * 
+     * @param hierarchy the role hierarchy
+     * @param permissions the permission grants
+     * @param decisionCache the decision cache, or null to decide every check
+     * @throws IllegalArgumentException if hierarchy or permissions is null
+     */
+    public GameAuthorizer(RoleHierarchy hierarchy, PermissionIndex permissions,
+                          AuthorizationDecisionCache decisionCache) {
+        if (hierarchy == null) {
+            throw new IllegalArgumentException("Role hierarchy cannot be null");
+        }
+        if (permissions == null) {
+            throw new IllegalArgumentException("Permission index cannot be null");
+        }
+        this.hierarchy = hierarchy;
+        this.permissions = permissions;
+        this.decisionCache = decisionCache;
+    }
+    
     /**
      * Authorizes a user based on their roles.
      * 
      * @param user the authenticated user
-     * @param role the required role for access
-     * @return true if the user has the required role, false otherwise
+     * @param role the required role for access, or {@code policy:name} for a registered policy
+     * @return true if the user has the required role or a superior role, or the policy allows
+     *         the user's roles, false otherwise
      */
     @Override
     public boolean authorize(GameUser user, String role) {
@@ -24,7 +115,173 @@ public class GameAuthorizer implements Authorizer<GameUser> {
             return false;
         }
         
-        return user.hasRole(role.trim());
+        String required = role.trim();
+        if (required.startsWith(POLICY_PREFIX)) {
+            return authorizePolicy(user, required);
+        }
+        int roleId = RoleRegistry.getDefault().idOf(required);
+        return roleId >= 0 ? hierarchy.satisfies(user.getRoleMask(), roleId) : user.hasRole(required);
+    }
+    
+    /**
+     * Authorizes a user for a resource-scoped permission, granted either to one of the user's
+     * roles (directly or through the role hierarchy) or to the user's account.
+     * 
+     * @param user the authenticated user
+     * @param permission the required permission, such as {@code game:lobby:4711:kick}
+     * @return true if a grant covers the permission, false otherwise
+     */
+    public boolean authorize(GameUser user, Permission permission) {
+        if (user == null || permission == null) {
+            return false;
+        }
+        
+        return permissions.isPermitted(hierarchy.effectiveRoles(user.getRoleMask()), user.getUserId(), permission);
+    }
+    
+    /**
+     * Checks a requirement for many users at once, for example to pick the recipients of a
+     * moderator-only message among everyone in a lobby. The answer for each user is the same
+     * as {@link #authorize(GameUser, String)}.
+     * 
+     * @param users the users to check; null elements never pass
+     * @param role the required role, or {@code policy:name} for a registered policy
+     * @return a bitset with bit {@code i} set if the {@code i}-th user in iteration order passes
+     */
+    public BitSet authorizeEach(Collection<GameUser> users, String role) {
+        if (users == null) {
+            return new BitSet();
+        }
+        GameUser[] audience = users.toArray(new GameUser[0]);
+        long[] roleMasks = new long[audience.length];
+        boolean incomplete = false;
+        for (int i = 0; i < audience.length; i++) {
+            GameUser user = audience[i];
+            if (user == null || user.hasUnmaskedRoles()) {
+                incomplete = true;
+            } else {
+                roleMasks[i] = user.getRoleMask();
+            }
+        }
+        BitSet passing = authorizeEach(roleMasks, role);
+        if (incomplete) {
+            // Rare: fall back to the single check for users the masks do not fully describe
+            for (int i = 0; i < audience.length; i++) {
+                if (audience[i] == null || audience[i].hasUnmaskedRoles()) {
+                    passing.set(i, authorize(audience[i], role));
+                }
+            }
+        }
+        return passing;
+    }
+    
+    /**
+     * Checks a requirement against many role masks at once, for audiences already held as
+     * masks, such as a column of the masks of connected players. A role requirement becomes
+     * one bitwise test per mask with no branches, packed 64 users to a word; a policy is
+     * evaluated once per distinct mask. Inputs of {@value #PARALLEL_THRESHOLD} masks or more
+     * are split across the common fork/join pool.
+     * 
+     * @param roleMasks the role masks to check, see {@link GameUser#getRoleMask()}
+     * @param role the required role, or {@code policy:name} for a registered policy
+     * @return a bitset with bit {@code i} set if {@code roleMasks[i]} passes
+     */
+    public BitSet authorizeEach(long[] roleMasks, String role) {
+        if (roleMasks == null || role == null || role.trim().isEmpty()) {
+            return new BitSet();
+        }
+        
+        String required = role.trim();
+        long[] words = new long[(roleMasks.length + 63) >>> 6];
+        if (required.startsWith(POLICY_PREFIX)) {
+            AuthorizationPolicy policy = policies.get(required);
+            if (policy != null) {
+                forEachChunk(roleMasks.length, words.length,
+                        (from, to) -> fillPolicy(roleMasks, policy, words, from, to));
+            }
+        } else {
+            int roleId = RoleRegistry.getDefault().idOf(required);
+            if (roleId >= 0) {
+                long satisfying = hierarchy.satisfiers(roleId);
+                forEachChunk(roleMasks.length, words.length,
+                        (from, to) -> fillAny(roleMasks, satisfying, words, from, to));
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+    
+    /**
+     * Gets the decision cache.
+     * 
+     * @return the decision cache, or null if decisions are not cached
+     */
+    public AuthorizationDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+    
+    /**
+     * Gets the permission grants consulted by {@link #authorize(GameUser, Permission)}.
+     * 
+     * @return the permission index
+     */
+    public PermissionIndex getPermissions() {
+        return permissions;
+    }
+    
+    /**
+     * Compiles a policy expression and registers it under a name, replacing any policy
+     * registered under that name before.
+     * 
+     * @param name the policy name, used as {@code policy:name}
+     * @param expression the policy expression, see {@link AuthorizationPolicy}
+     * @return the compiled policy
+     * @throws IllegalArgumentException if name is null or empty, or the expression is invalid
+     */
+    public AuthorizationPolicy registerPolicy(String name, String expression) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Policy name cannot be null or empty");
+        }
+        AuthorizationPolicy policy = AuthorizationPolicy.compile(expression);
+        // Interned so requirements written as string constants match by reference
+        policies.put((POLICY_PREFIX + name.trim()).intern(), policy);
+        policyVersion.incrementAndGet();
+        return policy;
+    }
+    
+    /**
+     * Registers the policies of the {@code auth.policies} configuration block.
+     * 
+     * @param expressions the policy expressions keyed by name
+     * @throws IllegalArgumentException if a name or expression is invalid
+     */
+    public void registerPolicies(Map<String, String> expressions) {
+        if (expressions != null) {
+            expressions.forEach(this::registerPolicy);
+        }
+    }
+    
+    /**
+     * Removes a registered policy. Requirements naming it are denied from then on.
+     * 
+     * @param name the policy name
+     * @return true if a policy was removed
+     */
+    public boolean removePolicy(String name) {
+        if (name == null || policies.remove(POLICY_PREFIX + name.trim()) == null) {
+            return false;
+        }
+        policyVersion.incrementAndGet();
+        return true;
+    }
+    
+    /**
+     * Gets a registered policy.
+     * 
+     * @param name the policy name
+     * @return the policy, or null if none is registered under that name
+     */
+    public AuthorizationPolicy getPolicy(String name) {
+        return name == null ? null : policies.get(POLICY_PREFIX + name.trim());
     }
     
     /**
@@ -32,14 +289,24 @@ public class GameAuthorizer implements Authorizer<GameUser> {
      * 
      * @param user the authenticated user
      * @param roles the required roles (user needs at least one)
-     * @return true if the user has any of the required roles, false otherwise
+     * @return true if the user has any of the required roles or a superior role, false otherwise
      */
     public boolean authorizeAny(GameUser user, String... roles) {
         if (user == null || roles == null || roles.length == 0) {
             return false;
         }
         
-        return user.hasAnyRole(roles);
+        RoleRegistry registry = RoleRegistry.getDefault();
+        long satisfying = 0;
+        for (String role : roles) {
+            int roleId = registry.idOf(role);
+            if (roleId >= 0) {
+                satisfying |= hierarchy.satisfiers(roleId);
+            } else if (user.hasRole(role)) {
+                return true;
+            }
+        }
+        return user.hasAnyRole(satisfying);
     }
     
     /**
@@ -47,38 +314,134 @@ public class GameAuthorizer implements Authorizer<GameUser> {
      * 
      * @param user the authenticated user
      * @param roles the required roles (user needs all of them)
-     * @return true if the user has all required roles, false otherwise
+     * @return true if the user has or is implied all required roles, false otherwise
      */
     public boolean authorizeAll(GameUser user, String... roles) {
         if (user == null || roles == null || roles.length == 0) {
             return false;
         }
         
+        RoleRegistry registry = RoleRegistry.getDefault();
+        long required = 0;
         for (String role : roles) {
-            if (!user.hasRole(role)) {
+            int roleId = registry.idOf(role);
+            if (roleId >= 0) {
+                required |= 1L << roleId;
+            } else if (!user.hasRole(role)) {
                 return false;
             }
         }
-        return true;
+        return hasAll(user, required);
+    }
+    
+    /**
+     * Checks if a user has all of the roles in a precomputed mask.
+     * 
+     * @param user the authenticated user
+     * @param requiredMask the required roles, see {@link RoleRegistry#mask(String...)}
+     * @return true if the user has or is implied all required roles, false otherwise or if the mask is empty
+     */
+    public boolean authorizeAll(GameUser user, long requiredMask) {
+        return user != null && requiredMask != 0 && hasAll(user, requiredMask);
     }
     
     /**
      * Checks if a user is an administrator.
      * 
      * @param user the authenticated user
-     * @return true if the user has ADMIN role, false otherwise
+     * @return true if the user has ADMIN role or a superior role, false otherwise
      */
     public boolean isAdmin(GameUser user) {
-        return authorize(user, "ADMIN");
+        return user != null && hierarchy.satisfies(user.getRoleMask(), ADMIN_ID);
     }
     
     /**
      * Checks if a user is a moderator or administrator.
      * 
      * @param user the authenticated user
-     * @return true if the user has MODERATOR or ADMIN role, false otherwise
+     * @return true if the user has MODERATOR or ADMIN role or a superior role, false otherwise
      */
     public boolean isModeratorOrAdmin(GameUser user) {
-        return authorizeAny(user, "MODERATOR", "ADMIN");
+        return user != null && user.hasAnyRole(hierarchy.satisfiers(MODERATOR_ID) | hierarchy.satisfiers(ADMIN_ID));
+    }
+    
+    private boolean authorizePolicy(GameUser user, String requirement) {
+        AuthorizationDecisionCache cache = decisionCache;
+        // The mask identifies the role set only if every role fits in the registry
+        if (cache == null || user.hasUnmaskedRoles()) {
+            return evaluatePolicy(user, requirement);
+        }
+        long roleMask = user.getRoleMask();
+        long version = hierarchy.getVersion() + policyVersion.get();
+        int cached = cache.lookup(roleMask, requirement, version);
+        if (cached != AuthorizationDecisionCache.MISS) {
+            return cached == 1;
+        }
+        boolean allowed = evaluatePolicy(user, requirement);
+        cache.store(roleMask, requirement, version, allowed);
+        return allowed;
+    }
+    
+    private boolean evaluatePolicy(GameUser user, String requirement) {
+        AuthorizationPolicy policy = policies.get(requirement);
+        return policy != null && policy.test(hierarchy.effectiveRoles(user.getRoleMask()));
+    }
+    
+    private boolean hasAll(GameUser user, long requiredMask) {
+        return (hierarchy.effectiveRoles(user.getRoleMask()) & requiredMask) == requiredMask;
+    }
+    
+    private static void forEachChunk(int users, int wordCount, WordRange range) {
+        if (users < PARALLEL_THRESHOLD) {
+            range.fill(0, wordCount);
+            return;
+        }
+        int chunks = (wordCount + CHUNK_WORDS - 1) / CHUNK_WORDS;
+        IntStream.range(0, chunks).parallel().forEach(chunk ->
+                range.fill(chunk * CHUNK_WORDS, Math.min(wordCount, (chunk + 1) * CHUNK_WORDS)));
+    }
+    
+    private static void fillAny(long[] roleMasks, long satisfying, long[] words, int from, int to) {
+        for (int w = from; w < to; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, roleMasks.length);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                long hit = roleMasks[i] & satisfying;
+                // Sign bit of hit | -hit is set exactly when hit is non-zero
+                word |= ((hit | -hit) >>> 63) << (i - base);
+            }
+            words[w] = word;
+        }
+    }
+    
+    private void fillPolicy(long[] roleMasks, AuthorizationPolicy policy, long[] words, int from, int to) {
+        // Audiences share few distinct role sets; a small direct-mapped memo evaluates each
+        // about once per chunk without boxing, and a collision only costs a re-evaluation
+        long[] memoMasks = new long[POLICY_MEMO_SIZE];
+        byte[] memoDecisions = new byte[POLICY_MEMO_SIZE];
+        for (int w = from; w < to; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, roleMasks.length);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                long roleMask = roleMasks[i];
+                int slot = (int) ((roleMask * 0x9E3779B97F4A7C15L) >>> (64 - POLICY_MEMO_BITS));
+                if (memoDecisions[slot] == 0 || memoMasks[slot] != roleMask) {
+                    memoMasks[slot] = roleMask;
+                    memoDecisions[slot] = policy.test(hierarchy.effectiveRoles(roleMask)) ? (byte) 2 : (byte) 1;
+                }
+                word |= (long) (memoDecisions[slot] >>> 1) << (i - base);
+            }
+            words[w] = word;
+        }
+    }
+    
+    /**
+     * Fills the bitset words in {@code [from, to)}.
+     */
+    @FunctionalInterface
+    private interface WordRange {
+        void fill(int from, int to);
     }
 }
\ No newline at end of file
@@ -1,13 +1,21 @@
 package com.gamingroom.gameauth.auth;
 
+import com.google.common.collect.ImmutableSet;
+
 import java.security.Principal;
 import java.util.Set;
-import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Represents a user in the game authentication system.
  * Implements Principal interface for integration with security frameworks.
+ * Roles are held as a bit mask of {@link RoleRegistry} ids, so role checks are bitwise
+ * operations; the role names are kept as a shared interned set for {@link #getRoles()}.
+ * Users loaded from a store carry the account's stable user id; two instances for the same
+ * account are equal. Users created without one get an ephemeral id from {@link EphemeralIds}.
+ * They also carry the credential epoch of the account at authentication time, which tokens
+ * issued to them embed.
+ * Instances are immutable, so the authenticator can hand the same instance to every request
+ * of an account.
  * 
  * @author GameAuth Team
  * @version 1.0
@@ -15,22 +23,68 @@ import java.util.UUID;
 public class GameUser implements Principal {
     private final String name;
     private final Set<String> roles;
-    private final String id;
+    private final long roleMask;
+    // True if some role did not fit in the registry and must be checked by name
+    private final boolean overflow;
+    private final long userId;
+    private final long credentialEpoch;
+    private final long id;
+    private final int hash;
 
     /**
-     * Constructor for creating a user with roles.
+     * Constructor for creating a user with roles but no stored account.
      * 
      * @param name the username
      * @param roles the set of roles assigned to this user
      * @throws IllegalArgumentException if name is null or empty
      */
     public GameUser(String name, Set<String> roles) {
+        this(name, roles, 0);
+    }
+
+    /**
+     * Constructor for creating a user for a stored account.
+     * 
+     * @param name the username
+     * @param roles the set of roles assigned to this user
+     * @param userId the stable id assigned by the user store, or 0 if there is none
+     * @throws IllegalArgumentException if name is null or empty, or userId is negative
+     */
+    public GameUser(String name, Set<String> roles, long userId) {
+        this(name, roles, userId, 0);
+    }
+
+    /**
+     * Constructor for creating a user for a stored account at a given credential epoch.
+     * 
+     * @param name the username
+     * @param roles the set of roles assigned to this user
+     * @param userId the stable id assigned by the user store, or 0 if there is none
+     * @param credentialEpoch the credential epoch of the account the user was authenticated against,
+     *        negative if unknown
+     * @throws IllegalArgumentException if name is null or empty, or userId is negative
+     */
+    public GameUser(String name, Set<String> roles, long userId, long credentialEpoch) {
+        if (userId < 0) {
+            throw new IllegalArgumentException("User id cannot be negative");
+        }
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be null or empty");
         }
         this.name = name.trim();
-        this.roles = roles;
-        this.id = UUID.randomUUID().toString();
+        RoleRegistry registry = RoleRegistry.getDefault();
+        long mask = registry.mask(roles);
+        this.roleMask = mask;
+        this.overflow = roles != null && Long.bitCount(mask) < roles.size();
+        if (roles == null) {
+            this.roles = null;
+        } else {
+            this.roles = overflow ? ImmutableSet.copyOf(roles) : registry.roleSet(mask);
+        }
+        this.userId = userId;
+        this.credentialEpoch = credentialEpoch;
+        this.id = userId != 0 ? userId : EphemeralIds.next();
+        this.hash = 31 * this.name.hashCode() + Long.hashCode(userId);
     }
 
     /**
@@ -54,12 +108,31 @@ public class GameUser implements Principal {
     }
 
     /**
-     * Gets a unique identifier for this user.
+     * Gets a unique identifier for this user: the stable user id if there is one,
+     * otherwise an id unique to this instance.
      * 
      * @return a unique string identifier
      */
     public String getId() {
-        return id;
+        return Long.toString(id);
+    }
+
+    /**
+     * Gets the stable id assigned to the account by the user store.
+     * 
+     * @return the user id, or 0 if this user has no stored account
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the credential epoch of the account when this user was authenticated.
+     * 
+     * @return the credential epoch, 0 for users without a stored account, negative if unknown
+     */
+    public long getCredentialEpoch() {
+        return credentialEpoch;
     }
 
     /**
@@ -71,6 +144,24 @@ public class GameUser implements Principal {
         return roles;
     }
 
+    /**
+     * Gets the roles assigned to this user as a mask of {@link RoleRegistry} ids.
+     * 
+     * @return the role mask
+     */
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    /**
+     * Checks whether some roles did not fit in the registry and are missing from the mask.
+     *
+     * @return true if the role mask does not describe all roles
+     */
+    boolean hasUnmaskedRoles() {
+        return overflow;
+    }
+
     /**
      * Checks if this user has a specific role.
      * 
@@ -78,7 +169,31 @@ public class GameUser implements Principal {
      * @return true if the user has the role, false otherwise
      */
     public boolean hasRole(String role) {
-        return roles != null && roles.contains(role);
+        int roleId = RoleRegistry.getDefault().idOf(role);
+        if (roleId >= 0) {
+            return (roleMask & (1L << roleId)) != 0;
+        }
+        return overflow && role != null && roles.contains(role);
+    }
+
+    /**
+     * Checks if this user has at least one of the roles in a mask.
+     * 
+     * @param mask the role mask, see {@link RoleRegistry#mask(String...)}
+     * @return true if the user has any of the roles, false otherwise
+     */
+    public boolean hasAnyRole(long mask) {
+        return (roleMask & mask) != 0;
+    }
+
+    /**
+     * Checks if this user has every role in a mask.
+     * 
+     * @param mask the role mask, see {@link RoleRegistry#mask(String...)}
+     * @return true if the user has all of the roles, false otherwise
+     */
+    public boolean hasAllRoles(long mask) {
+        return (roleMask & mask) == mask;
     }
 
     /**
@@ -91,12 +206,17 @@ public class GameUser implements Principal {
         if (roles == null || requiredRoles == null) {
             return false;
         }
+        RoleRegistry registry = RoleRegistry.getDefault();
+        long mask = 0;
         for (String role : requiredRoles) {
-            if (roles.contains(role)) {
+            int roleId = registry.idOf(role);
+            if (roleId >= 0) {
+                mask |= 1L << roleId;
+            } else if (overflow && role != null && roles.contains(role)) {
                 return true;
             }
         }
-        return false;
+        return (roleMask & mask) != 0;
     }
 
     @Override
@@ -104,12 +224,12 @@ public class GameUser implements Principal {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         GameUser gameUser = (GameUser) obj;
-        return Objects.equals(name, gameUser.name) && Objects.equals(id, gameUser.id);
+        return userId == gameUser.userId && hash == gameUser.hash && name.equals(gameUser.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, id);
+        return hash;
     }
 
     @Override
@@ -117,7 +237,7 @@ public class GameUser implements Principal {
         return "GameUser{" +
                 "name='" + name + '\'' +
                 ", roles=" + roles +
-                ", id='" + id + '\'' +
+                ", id=" + id +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package com.gamingroom.gameauth.auth;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window limiter for failed login attempts, keyed per username and per client address.
+ * Each key holds a single {@link AtomicLong} that packs the current window index and the
+ * failure counts of the current and previous window; the sliding count is the current count
+ * plus the previous count weighted by how much of the previous window still overlaps.
+ * Updates are lock-free CAS loops and memory per key is constant. Keys whose windows have both
+ * expired are removed by a background sweep.
+ * {@link #tryAcquire(String)} checks the limit and counts the attempt in one CAS, so a burst of
+ * concurrent attempts cannot all pass the check before any of them is counted; attempts that
+ * turn out not to be failures are handed back with {@link #refund(String)}.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class LoginRateLimiter implements AutoCloseable {
+
+    private static final long COUNT_MASK = 0xFFFFL;
+    private static final int MAX_COUNT = (int) COUNT_MASK;
+
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    // Window indexes are counted from construction so they fit in the 32 bits reserved for them
+    private final long origin;
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Constructor for creating a limiter with a background sweep of idle keys.
+     *
+     * @param maxAttempts the number of failed attempts allowed per key within the window
+     * @param window the length of the sliding window
+     * @throws IllegalArgumentException if maxAttempts is not between 1 and 65535 or window is not positive
+     */
+    public LoginRateLimiter(int maxAttempts, Duration window) {
+        this(maxAttempts, window, System::currentTimeMillis, true);
+    }
+
+    LoginRateLimiter(int maxAttempts, Duration window, LongSupplier clock, boolean sweep) {
+        if (maxAttempts <= 0 || maxAttempts > MAX_COUNT) {
+            throw new IllegalArgumentException("Max attempts must be between 1 and " + MAX_COUNT);
+        }
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        if (sweep) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("gameauth-ratelimit-sweeper").setDaemon(true).build());
+            this.sweeper.scheduleWithFixedDelay(this::evictIdleKeys, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * Creates a limiter from the {@code auth.rateLimit} configuration block.
+     *
+     * @param configuration the rate limit configuration
+     * @return the limiter, or null if rate limiting is disabled
+     */
+    public static LoginRateLimiter fromConfiguration(RateLimitConfiguration configuration) {
+        if (!configuration.isEnabled()) {
+            return null;
+        }
+        return new LoginRateLimiter(configuration.getMaxAttempts(),
+                Duration.ofMinutes(configuration.getWindowMinutes()));
+    }
+
+    /**
+     * Builds the limiter key for a username.
+     *
+     * @param username the trimmed username
+     * @return the key
+     */
+    public static String usernameKey(String username) {
+        return "u:" + username;
+    }
+
+    /**
+     * Builds the limiter key for a client address.
+     *
+     * @param address the client address
+     * @return the key
+     */
+    public static String addressKey(String address) {
+        return "a:" + address;
+    }
+
+    /**
+     * Checks whether another attempt is allowed for a key. Does not record anything.
+     *
+     * @param key the limiter key
+     * @return true if the sliding failure count is below the limit
+     * @deprecated checking and then calling {@link #recordFailure(String)} lets a burst of
+     *             concurrent attempts past the limit; use {@link #tryAcquire(String)}
+     */
+    @Deprecated
+    public boolean isAllowed(String key) {
+        AtomicLong state = windows.get(key);
+        return state == null || slidingCount(state.get(), clock.getAsLong()) < maxAttempts;
+    }
+
+    /**
+     * Reserves an attempt for a key if the limit allows it. The attempt counts as a failure
+     * until it is handed back with {@link #refund(String)}.
+     *
+     * @param key the limiter key
+     * @return true if the attempt was reserved, false if the sliding failure count is at the limit
+     */
+    public boolean tryAcquire(String key) {
+        while (true) {
+            AtomicLong state = windows.computeIfAbsent(key, k -> new AtomicLong());
+            long now = clock.getAsLong();
+            long current;
+            do {
+                current = state.get();
+                if (slidingCount(current, now) >= maxAttempts) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, increment(current, now)));
+            // Retry if the sweeper removed this entry between lookup and update
+            if (windows.get(key) == state) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands back an attempt reserved with {@link #tryAcquire(String)} that was not a failure.
+     * It is taken from the newest window still holding attempts.
+     *
+     * @param key the limiter key
+     */
+    public void refund(String key) {
+        AtomicLong state = windows.get(key);
+        if (state == null) {
+            return;
+        }
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long currentCount = current & COUNT_MASK;
+            long previousCount = (current >>> 16) & COUNT_MASK;
+            if (currentCount > 0) {
+                currentCount--;
+            } else if (previousCount > 0) {
+                previousCount--;
+            } else {
+                return;
+            }
+            next = pack(windowIndex(current), previousCount, currentCount);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    /**
+     * Records a failed attempt for a key.
+     *
+     * @param key the limiter key
+     * @deprecated counting after the attempt lets a burst of concurrent attempts past the
+     *             limit; use {@link #tryAcquire(String)}, which counts before it
+     */
+    @Deprecated
+    public void recordFailure(String key) {
+        while (true) {
+            AtomicLong state = windows.computeIfAbsent(key, k -> new AtomicLong());
+            long now = clock.getAsLong();
+            long current;
+            long next;
+            do {
+                current = state.get();
+                next = increment(current, now);
+            } while (!state.compareAndSet(current, next));
+            // Retry if the sweeper removed this entry between lookup and update
+            if (windows.get(key) == state) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forgets all failures recorded for a key, e.g. after a successful login.
+     *
+     * @param key the limiter key
+     */
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    /**
+     * Gets the number of keys currently tracked.
+     *
+     * @return the number of keys
+     */
+    public int trackedKeys() {
+        return windows.size();
+    }
+
+    /**
+     * Removes keys whose current and previous windows have both ended.
+     */
+    void evictIdleKeys() {
+        long nowWindow = windowOf(clock.getAsLong());
+        for (Map.Entry<String, AtomicLong> entry : windows.entrySet()) {
+            if (nowWindow - windowIndex(entry.getValue().get()) > 1) {
+                windows.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Stops the background sweep.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private int slidingCount(long state, long now) {
+        long nowWindow = windowOf(now);
+        long stateWindow = windowIndex(state);
+        if (nowWindow - stateWindow > 1) {
+            return 0;
+        }
+        long currentCount = state & COUNT_MASK;
+        long previousCount = (state >>> 16) & COUNT_MASK;
+        if (nowWindow != stateWindow) {
+            // The stored current window is now the previous one
+            previousCount = currentCount;
+            currentCount = 0;
+        }
+        double previousWeight = 1.0 - ((now - origin) % windowMillis) / (double) windowMillis;
+        return (int) (currentCount + previousCount * previousWeight);
+    }
+
+    private long increment(long state, long now) {
+        long nowWindow = windowOf(now);
+        long stateWindow = windowIndex(state);
+        long currentCount = state & COUNT_MASK;
+        long previousCount = (state >>> 16) & COUNT_MASK;
+        if (nowWindow == stateWindow) {
+            currentCount = Math.min(currentCount + 1, MAX_COUNT);
+        } else {
+            previousCount = nowWindow - stateWindow == 1 ? currentCount : 0;
+            currentCount = 1;
+        }
+        return pack(nowWindow, previousCount, currentCount);
+    }
+
+    private long windowOf(long now) {
+        return (now - origin) / windowMillis;
+    }
+
+    private static long windowIndex(long state) {
+        return state >>> 32;
+    }
+
+    private static long pack(long window, long previousCount, long currentCount) {
+        return (window << 32) | (previousCount << 16) | currentCount;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and verifies password hashes at a configured cost.
+ * The cost is the PBKDF2 iteration count; {@link #calibrate(long)} picks one that hits a
+ * latency target on the current hardware. Hashes created at an older cost stay valid and
+ * are reported by {@link #needsRehash(PasswordHash)} so they can be upgraded on next login.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class PasswordHasher {
+
+    /** Default PBKDF2-HMAC-SHA256 iteration count. */
+    public static final int DEFAULT_ITERATIONS = 210_000;
+
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    private final int iterations;
+    private final PasswordHash dummyHash;
+
+    /**
+     * Constructor for creating a hasher with the default cost.
+     */
+    public PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Constructor for creating a hasher with the given cost.
+     *
+     * @param iterations the PBKDF2 iteration count for new hashes
+     * @throws IllegalArgumentException if iterations is not positive
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        this.iterations = iterations;
+        this.dummyHash = PasswordHash.create("", iterations);
+    }
+
+    /**
+     * Hashes a password at the configured cost.
+     *
+     * @param password the plaintext password
+     * @return the salted hash
+     */
+    public PasswordHash hash(String password) {
+        return PasswordHash.create(password, iterations);
+    }
+
+    /**
+     * Checks a password against a stored hash at that hash's own cost.
+     *
+     * @param password the presented password
+     * @param hash the stored hash
+     * @return true if the password matches, false otherwise
+     */
+    public boolean verify(String password, PasswordHash hash) {
+        return hash.matches(password);
+    }
+
+    /**
+     * Spends the same time as a real verification without checking anything, so that
+     * unknown usernames cannot be told apart from wrong passwords by response time.
+     *
+     * @param password the presented password
+     */
+    public void verifyDummy(String password) {
+        dummyHash.matches(password);
+    }
+
+    /**
+     * Checks whether a stored hash was created at a lower cost than the configured one.
+     * Stronger hashes are left alone, so authenticators with different costs sharing a store
+     * do not keep rewriting each other's hashes.
+     *
+     * @param hash the stored hash
+     * @return true if the hash should be recomputed on next successful login
+     */
+    public boolean needsRehash(PasswordHash hash) {
+        return hash.getIterations() < iterations;
+    }
+
+    /**
+     * Gets the iteration count used for new hashes.
+     *
+     * @return the iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Measures key derivation speed on this machine and returns the iteration count that
+     * takes roughly the target time per verification.
+     *
+     * @param targetMillis the desired verification latency in milliseconds
+     * @return the calibrated iteration count
+     * @throws IllegalArgumentException if targetMillis is not positive
+     */
+    public static int calibrate(long targetMillis) {
+        if (targetMillis <= 0) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+        PasswordHash probe = PasswordHash.create("calibration", CALIBRATION_ITERATIONS);
+        // The first round warms up the JIT and is not counted
+        probe.matches("calibration");
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            probe.matches("calibration");
+        }
+        double nanosPerIteration = (System.nanoTime() - start) / (double) (CALIBRATION_ROUNDS * CALIBRATION_ITERATIONS);
+        long calibrated = (long) (TimeUnit.MILLISECONDS.toNanos(targetMillis) / nanosPerIteration);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, calibrated));
+    }
+
+    /**
+     * Creates a fixed-size executor for password verification. Work beyond the queue
+     * capacity is rejected rather than queued without bound, so a login storm cannot
+     * pile up unbounded CPU work or memory.
+     *
+     * @param threads the number of verification threads
+     * @param queueCapacity the maximum number of verifications waiting for a thread
+     * @return the executor
+     * @throws IllegalArgumentException if threads or queueCapacity is not positive
+     */
+    public static ExecutorService newVerificationExecutor(int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Threads and queue capacity must be positive");
+        }
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("gameauth-verify-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
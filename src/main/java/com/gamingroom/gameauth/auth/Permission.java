@@ -0,0 +1,97 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resource-scoped permission such as {@code game:lobby:4711:kick}, made of colon-separated
+ * segments from the most general to the most specific.
+ * In a grant, a {@value #WILDCARD} segment matches any single segment, and a trailing
+ * {@value #WILDCARD} matches one or more segments: {@code game:lobby:*} covers
+ * {@code game:lobby:4711:kick}. In a checked permission every segment is taken literally.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class Permission {
+
+    /**
+     * Segment matching any segment in a grant.
+     */
+    public static final String WILDCARD = "*";
+
+    private static final char SEPARATOR = ':';
+
+    private final String value;
+    private final String[] segments;
+
+    private Permission(String value, String[] segments) {
+        this.value = value;
+        this.segments = segments;
+    }
+
+    /**
+     * Parses a permission.
+     *
+     * @param permission the permission, such as {@code game:lobby:4711:kick}
+     * @return the permission
+     * @throws IllegalArgumentException if the permission is null, empty or has an empty segment
+     */
+    public static Permission of(String permission) {
+        if (permission == null || permission.trim().isEmpty()) {
+            throw new IllegalArgumentException("Permission cannot be null or empty");
+        }
+        String value = permission.trim();
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == SEPARATOR) {
+                String segment = value.substring(start, i).trim();
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("Permission cannot contain empty segments: " + value);
+                }
+                segments.add(segment);
+                start = i + 1;
+            }
+        }
+        return new Permission(String.join(String.valueOf(SEPARATOR), segments), segments.toArray(new String[0]));
+    }
+
+    /**
+     * Gets the number of segments.
+     *
+     * @return the number of segments
+     */
+    public int depth() {
+        return segments.length;
+    }
+
+    /**
+     * Gets a segment.
+     *
+     * @param index the segment index, 0 being the most general
+     * @return the segment
+     */
+    public String segment(int index) {
+        return segments[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Permission that = (Permission) o;
+        return Arrays.equals(segments, that.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(segments);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
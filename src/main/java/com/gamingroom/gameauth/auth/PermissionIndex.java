@@ -0,0 +1,307 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index of {@link Permission} grants to roles and to individual users, kept as a trie with
+ * one level per permission segment.
+ * A check walks the checked permission's segments, following at each level the literal
+ * segment and the {@value Permission#WILDCARD} branch, so its cost grows with the depth of
+ * the permission and the wildcards on its path, not with the number of grants.
+ * Each trie node holds the roles granted there as a {@link RoleRegistry} mask and the user ids
+ * granted there as a sorted array, searched without boxing.
+ * Grants and revocations take the index's lock; checks never lock and may run concurrently with
+ * them, since children are held in {@link ConcurrentHashMap}s and grants are published through
+ * volatile fields. Granting to one more user copies that node's user array, which suits
+ * permissions granted individually to up to thousands of users.
+ * A revocation that leaves a node without grants or children removes it, and then any parent
+ * left empty, so the trie only holds the paths of current grants.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class PermissionIndex {
+
+    private final RoleRegistry registry;
+    private final Node root = new Node();
+    private final AtomicInteger grantCount = new AtomicInteger();
+
+    /**
+     * Constructor for creating an empty index over the default role registry.
+     */
+    public PermissionIndex() {
+        this(RoleRegistry.getDefault());
+    }
+
+    PermissionIndex(RoleRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Grants a permission to every user holding a role.
+     *
+     * @param role the role
+     * @param permission the granted permission, may contain wildcards
+     * @return true if the grant is new
+     * @throws IllegalArgumentException if an argument is null or the role registry is full
+     */
+    public boolean grantToRole(String role, Permission permission) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role cannot be null");
+        }
+        int roleId = registry.intern(role);
+        if (roleId < 0) {
+            throw new IllegalArgumentException("Role registry is full, cannot add " + role);
+        }
+        synchronized (this) {
+            return counted(nodeFor(permission).addRoles(1L << roleId));
+        }
+    }
+
+    /**
+     * Revokes a permission granted to a role. Grants of broader wildcard permissions remain.
+     *
+     * @param role the role
+     * @param permission the permission exactly as granted
+     * @return true if the grant existed
+     */
+    public boolean revokeFromRole(String role, Permission permission) {
+        int roleId = registry.idOf(role);
+        if (roleId < 0) {
+            return false;
+        }
+        synchronized (this) {
+            Node[] path = pathTo(permission);
+            return path != null && uncounted(path[path.length - 1].removeRoles(1L << roleId), path, permission);
+        }
+    }
+
+    /**
+     * Grants a permission to a single user.
+     *
+     * @param userId the user id, see {@link GameUser#getUserId()}
+     * @param permission the granted permission, may contain wildcards
+     * @return true if the grant is new
+     * @throws IllegalArgumentException if permission is null or the user id is not positive
+     */
+    public boolean grantToUser(long userId, Permission permission) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("User id must be positive");
+        }
+        synchronized (this) {
+            return counted(nodeFor(permission).addUser(userId));
+        }
+    }
+
+    /**
+     * Revokes a permission granted to a single user.
+     *
+     * @param userId the user id
+     * @param permission the permission exactly as granted
+     * @return true if the grant existed
+     */
+    public boolean revokeFromUser(long userId, Permission permission) {
+        synchronized (this) {
+            Node[] path = pathTo(permission);
+            return path != null && uncounted(path[path.length - 1].removeUser(userId), path, permission);
+        }
+    }
+
+    /**
+     * Checks whether a permission is granted to any of a set of roles or to a user.
+     *
+     * @param roleMask the roles held, including any implied roles
+     * @param userId the user id, or 0 to consider role grants only
+     * @param permission the checked permission
+     * @return true if a grant covers the permission
+     */
+    public boolean isPermitted(long roleMask, long userId, Permission permission) {
+        return permission != null && matches(root, permission, 0, roleMask, userId);
+    }
+
+    /**
+     * Gets the number of grants in the index.
+     *
+     * @return the number of role and user grants
+     */
+    public int size() {
+        return grantCount.get();
+    }
+
+    /**
+     * Counts the trie nodes, including the root.
+     *
+     * @return the number of nodes
+     */
+    int nodeCount() {
+        return count(root);
+    }
+
+    private static int count(Node node) {
+        int nodes = 1;
+        Map<String, Node> children = node.children;
+        if (children != null) {
+            for (Node child : children.values()) {
+                nodes += count(child);
+            }
+        }
+        return nodes;
+    }
+
+    private static boolean matches(Node node, Permission permission, int depth, long roleMask, long userId) {
+        if (depth == permission.depth()) {
+            return node.grants(roleMask, userId);
+        }
+        Map<String, Node> children = node.children;
+        if (children == null) {
+            return false;
+        }
+        Node exact = children.get(permission.segment(depth));
+        if (exact != null && matches(exact, permission, depth + 1, roleMask, userId)) {
+            return true;
+        }
+        Node wildcard = children.get(Permission.WILDCARD);
+        // A grant ending in a wildcard covers all remaining segments
+        return wildcard != null
+                && (wildcard.grants(roleMask, userId) || matches(wildcard, permission, depth + 1, roleMask, userId));
+    }
+
+    private Node nodeFor(Permission permission) {
+        if (permission == null) {
+            throw new IllegalArgumentException("Permission cannot be null");
+        }
+        Node node = root;
+        for (int depth = 0; depth < permission.depth(); depth++) {
+            node = node.child(permission.segment(depth));
+        }
+        return node;
+    }
+
+    /**
+     * Finds the existing nodes from the root to a permission's node.
+     *
+     * @return the nodes by depth, or null if the permission has no node
+     */
+    private Node[] pathTo(Permission permission) {
+        if (permission == null) {
+            throw new IllegalArgumentException("Permission cannot be null");
+        }
+        Node[] path = new Node[permission.depth() + 1];
+        path[0] = root;
+        for (int depth = 0; depth < permission.depth(); depth++) {
+            path[depth + 1] = path[depth].existingChild(permission.segment(depth));
+            if (path[depth + 1] == null) {
+                return null;
+            }
+        }
+        return path;
+    }
+
+    private boolean counted(boolean added) {
+        if (added) {
+            grantCount.incrementAndGet();
+        }
+        return added;
+    }
+
+    private boolean uncounted(boolean removed, Node[] path, Permission permission) {
+        if (removed) {
+            grantCount.decrementAndGet();
+            // Unlink emptied nodes bottom-up; a check still inside one only finds no grants
+            for (int depth = path.length - 1; depth > 0 && path[depth].isEmpty(); depth--) {
+                path[depth - 1].removeChild(permission.segment(depth - 1));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Trie node for one permission prefix. Changed only under the index's lock.
+     */
+    private static final class Node {
+        private static final long[] NO_USERS = new long[0];
+
+        // Created on first child so the many leaf nodes stay small
+        private volatile Map<String, Node> children;
+        private volatile long roleMask;
+        // Sorted; replaced, never modified, once published
+        private volatile long[] userIds = NO_USERS;
+
+        boolean grants(long roles, long userId) {
+            if ((roleMask & roles) != 0) {
+                return true;
+            }
+            long[] users = userIds;
+            return users.length > 0 && userId > 0 && Arrays.binarySearch(users, userId) >= 0;
+        }
+
+        Node child(String segment) {
+            Map<String, Node> map = children;
+            if (map == null) {
+                map = new ConcurrentHashMap<>(4);
+                children = map;
+            }
+            return map.computeIfAbsent(segment, key -> new Node());
+        }
+
+        Node existingChild(String segment) {
+            Map<String, Node> map = children;
+            return map == null ? null : map.get(segment);
+        }
+
+        void removeChild(String segment) {
+            Map<String, Node> map = children;
+            map.remove(segment);
+            if (map.isEmpty()) {
+                children = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return roleMask == 0 && userIds.length == 0 && children == null;
+        }
+
+        boolean addRoles(long mask) {
+            boolean added = (roleMask & mask) != mask;
+            roleMask |= mask;
+            return added;
+        }
+
+        boolean removeRoles(long mask) {
+            boolean removed = (roleMask & mask) != 0;
+            roleMask &= ~mask;
+            return removed;
+        }
+
+        boolean addUser(long userId) {
+            long[] users = userIds;
+            int index = Arrays.binarySearch(users, userId);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            long[] grown = new long[users.length + 1];
+            System.arraycopy(users, 0, grown, 0, insertAt);
+            grown[insertAt] = userId;
+            System.arraycopy(users, insertAt, grown, insertAt + 1, users.length - insertAt);
+            userIds = grown;
+            return true;
+        }
+
+        boolean removeUser(long userId) {
+            long[] users = userIds;
+            int index = Arrays.binarySearch(users, userId);
+            if (index < 0) {
+                return false;
+            }
+            long[] shrunk = users.length == 1 ? NO_USERS : new long[users.length - 1];
+            System.arraycopy(users, 0, shrunk, 0, index);
+            System.arraycopy(users, index + 1, shrunk, index, users.length - index - 1);
+            userIds = shrunk;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flyweight cache of authenticated principals, one per account.
+ * An entry remembers the credentials it was built from and is only reused while the store
+ * still returns equal credentials, so a changed password, role set or user id always yields a
+ * new principal. Entries of changed or removed accounts are dropped through the store listener;
+ * the credential check makes a late or missed notification harmless. The cache holds one entry
+ * per account that has logged in since it last changed; it is not bounded otherwise, since an
+ * entry is no larger than the account's credentials already held by an in-memory store.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+final class PrincipalCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Gets the principal for an account, creating it if the account is new or has changed.
+     *
+     * @param username the username
+     * @param credentials the credentials just verified for the account
+     * @return the shared principal, wrapped for the authenticator's return type
+     */
+    Optional<GameUser> principal(String username, UserCredentials credentials) {
+        Entry entry = entries.get(username);
+        if (entry != null && (entry.credentials == credentials || entry.credentials.equals(credentials))) {
+            return entry.principal;
+        }
+        entry = new Entry(credentials,
+                Optional.of(new GameUser(username, credentials.getRoles(), credentials.getUserId(),
+                        credentials.getCredentialEpoch())));
+        if (!closed) {
+            entries.put(username, entry);
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Drops the principal of an account.
+     *
+     * @param username the username
+     */
+    void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Drops every principal and stops caching new ones, for when the store is no longer
+     * listened to.
+     */
+    void close() {
+        closed = true;
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached principals.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Principal together with the credentials it was built from.
+     */
+    private static final class Entry {
+        private final UserCredentials credentials;
+        private final Optional<GameUser> principal;
+
+        Entry(UserCredentials credentials, Optional<GameUser> principal) {
+            this.credentials = credentials;
+            this.principal = principal;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.gamingroom.gameauth.auth;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * Configuration of the {@code auth.rateLimit} block.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class RateLimitConfiguration {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    @Max(65535)
+    private int maxAttempts = 5;
+
+    @Min(1)
+    private int windowMinutes = 15;
+
+    /**
+     * Checks whether failed logins are rate limited.
+     *
+     * @return true if rate limiting is enabled
+     */
+    @JsonProperty
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the number of failed attempts allowed per username or address within the window.
+     *
+     * @return the maximum number of failed attempts
+     */
+    @JsonProperty
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @JsonProperty
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Gets the length of the sliding window.
+     *
+     * @return the window length in minutes
+     */
+    @JsonProperty
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    @JsonProperty
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+}
@@ -0,0 +1,213 @@
+package com.gamingroom.gameauth.auth;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Declarative role hierarchy such as {@code SUPER_ADMIN > ADMIN > MODERATOR > USER}, where a
+ * senior role implies its juniors and, transitively, theirs.
+ * The transitive closure is kept precomputed as two tables of {@link RoleRegistry} masks:
+ * for every role, the roles it implies and the roles that satisfy it (itself and every
+ * superior). "Has role R or any superior" is then one AND against the user's role mask.
+ * The tables live in an immutable snapshot behind a volatile reference: readers never lock,
+ * and writers build a new snapshot and publish it. Adding an implication updates only the
+ * affected rows; removing one recomputes the closure of at most 64 roles.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class RoleHierarchy {
+
+    private final RoleRegistry registry;
+    private volatile Snapshot snapshot = new Snapshot(new long[RoleRegistry.MAX_ROLES],
+            identity(), identity(), 0);
+
+    /**
+     * Constructor for creating an empty hierarchy over the default registry.
+     */
+    public RoleHierarchy() {
+        this(RoleRegistry.getDefault());
+    }
+
+    RoleHierarchy(RoleRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Creates a hierarchy from the {@code auth.roleHierarchy} configuration block, which maps
+     * each role to the roles it directly implies.
+     *
+     * @param implications the direct implications, keyed by senior role
+     * @return the hierarchy
+     * @throws IllegalArgumentException if the implications contain a cycle or too many roles
+     */
+    public static RoleHierarchy fromConfiguration(Map<String, ? extends Collection<String>> implications) {
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        if (implications != null) {
+            for (Map.Entry<String, ? extends Collection<String>> entry : implications.entrySet()) {
+                for (String junior : entry.getValue()) {
+                    hierarchy.addImplication(entry.getKey(), junior);
+                }
+            }
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Declares that a role implies another.
+     *
+     * @param senior the implying role
+     * @param junior the implied role
+     * @throws IllegalArgumentException if a role is null, the registry is full,
+     *         or the implication would create a cycle
+     */
+    public synchronized void addImplication(String senior, String junior) {
+        int seniorId = internRole(senior);
+        int juniorId = internRole(junior);
+        Snapshot current = snapshot;
+        if (seniorId == juniorId || (current.implied[juniorId] & bit(seniorId)) != 0) {
+            throw new IllegalArgumentException("Role hierarchy cannot contain a cycle: " + senior + " > " + junior);
+        }
+        long[] direct = current.direct.clone();
+        direct[seniorId] |= bit(juniorId);
+        long[] implied = current.implied.clone();
+        long[] satisfiers = current.satisfiers.clone();
+        // Everything that satisfies the senior now also implies everything the junior implies
+        long gainingRoles = current.satisfiers[seniorId];
+        long gainedRoles = current.implied[juniorId];
+        for (long bits = gainingRoles; bits != 0; bits &= bits - 1) {
+            implied[Long.numberOfTrailingZeros(bits)] |= gainedRoles;
+        }
+        for (long bits = gainedRoles; bits != 0; bits &= bits - 1) {
+            satisfiers[Long.numberOfTrailingZeros(bits)] |= gainingRoles;
+        }
+        snapshot = new Snapshot(direct, implied, satisfiers, current.version + 1);
+    }
+
+    /**
+     * Removes a direct implication. Implications that still follow through other roles remain.
+     *
+     * @param senior the implying role
+     * @param junior the implied role
+     */
+    public synchronized void removeImplication(String senior, String junior) {
+        int seniorId = registry.idOf(senior);
+        int juniorId = registry.idOf(junior);
+        if (seniorId < 0 || juniorId < 0 || (snapshot.direct[seniorId] & bit(juniorId)) == 0) {
+            return;
+        }
+        long[] direct = snapshot.direct.clone();
+        direct[seniorId] &= ~bit(juniorId);
+        snapshot = close(direct, snapshot.version + 1);
+    }
+
+    /**
+     * Gets the roles that satisfy a requirement: the role itself and all its superiors.
+     *
+     * @param roleId the {@link RoleRegistry} id of the required role
+     * @return the mask of satisfying roles
+     */
+    public long satisfiers(int roleId) {
+        return snapshot.satisfiers[roleId];
+    }
+
+    /**
+     * Checks whether a role mask satisfies a required role directly or through a superior role.
+     *
+     * @param roleMask the user's role mask
+     * @param roleId the {@link RoleRegistry} id of the required role
+     * @return true if the requirement is met
+     */
+    public boolean satisfies(long roleMask, int roleId) {
+        return (roleMask & snapshot.satisfiers[roleId]) != 0;
+    }
+
+    /**
+     * Expands a role mask with every role implied by its roles.
+     *
+     * @param roleMask the user's role mask
+     * @return the effective role mask
+     */
+    public long effectiveRoles(long roleMask) {
+        long[] implied = snapshot.implied;
+        long effective = roleMask;
+        for (long bits = roleMask; bits != 0; bits &= bits - 1) {
+            effective |= implied[Long.numberOfTrailingZeros(bits)];
+        }
+        return effective;
+    }
+
+    /**
+     * Gets the number of changes made to the hierarchy, for callers caching its decisions.
+     *
+     * @return a counter that increases with every change
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    private int internRole(String role) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role cannot be null");
+        }
+        int id = registry.intern(role);
+        if (id < 0) {
+            throw new IllegalArgumentException("Role registry is full, cannot add " + role);
+        }
+        return id;
+    }
+
+    /**
+     * Computes the closure of the direct implications from scratch.
+     */
+    private static Snapshot close(long[] direct, long version) {
+        long[] implied = identity();
+        for (int role = 0; role < RoleRegistry.MAX_ROLES; role++) {
+            implied[role] |= direct[role];
+        }
+        // Warshall's algorithm over bit rows: anything that implies k implies what k implies
+        for (int k = 0; k < RoleRegistry.MAX_ROLES; k++) {
+            for (int role = 0; role < RoleRegistry.MAX_ROLES; role++) {
+                if ((implied[role] & bit(k)) != 0) {
+                    implied[role] |= implied[k];
+                }
+            }
+        }
+        long[] satisfiers = new long[RoleRegistry.MAX_ROLES];
+        for (int role = 0; role < RoleRegistry.MAX_ROLES; role++) {
+            for (long bits = implied[role]; bits != 0; bits &= bits - 1) {
+                satisfiers[Long.numberOfTrailingZeros(bits)] |= bit(role);
+            }
+        }
+        return new Snapshot(direct, implied, satisfiers, version);
+    }
+
+    private static long[] identity() {
+        long[] rows = new long[RoleRegistry.MAX_ROLES];
+        for (int role = 0; role < rows.length; role++) {
+            rows[role] = bit(role);
+        }
+        return rows;
+    }
+
+    private static long bit(int roleId) {
+        return 1L << roleId;
+    }
+
+    /**
+     * Immutable closure tables; never modified after publication.
+     */
+    private static final class Snapshot {
+        private final long[] direct;
+        private final long[] implied;
+        private final long[] satisfiers;
+        private final long version;
+
+        Snapshot(long[] direct, long[] implied, long[] satisfiers, long version) {
+            this.direct = direct;
+            this.implied = implied;
+            this.satisfiers = satisfiers;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.gamingroom.gameauth.auth;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interns role names to small integer ids so that a set of roles can be held as a
+ * {@code long} bit mask and role checks become single bitwise operations.
+ * Ids are assigned on first use and never change. At most {@link #MAX_ROLES} roles can be
+ * interned; roles beyond that are reported as unknown (id -1) and callers fall back to
+ * comparing names. Role sets are interned as well, so users with the same roles share one
+ * immutable set instance.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class RoleRegistry {
+
+    /**
+     * Number of roles that fit in a mask.
+     */
+    public static final int MAX_ROLES = Long.SIZE;
+
+    private static final RoleRegistry DEFAULT = new RoleRegistry();
+    // Twice the number of roles, so linear probing stays short
+    private static final int TABLE_SIZE = 2 * MAX_ROLES;
+
+    private final AtomicReferenceArray<String> names = new AtomicReferenceArray<>(MAX_ROLES);
+    private final Map<Long, Set<String>> roleSets = new ConcurrentHashMap<>();
+    // Copy-on-write open-addressing table from name to id; roles are interned rarely and looked up constantly
+    private volatile IdTable idTable = new IdTable(new String[TABLE_SIZE], new int[TABLE_SIZE]);
+    private int size;
+
+    /**
+     * Constructor for creating an empty registry. Most code should use {@link #getDefault()}.
+     */
+    public RoleRegistry() {
+    }
+
+    /**
+     * Gets the registry shared by {@link GameUser} and {@link GameAuthorizer}.
+     *
+     * @return the default registry
+     */
+    public static RoleRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the id of a role, interning it if it is new.
+     *
+     * @param role the role name
+     * @return the id between 0 and 63, or -1 if the role is null or the registry is full
+     */
+    public int intern(String role) {
+        int id = idOf(role);
+        return id >= 0 || role == null ? id : register(role);
+    }
+
+    /**
+     * Gets the id of a role without interning it.
+     *
+     * @param role the role name
+     * @return the id, or -1 if the role has not been interned
+     */
+    public int idOf(String role) {
+        if (role == null) {
+            return -1;
+        }
+        IdTable table = idTable;
+        for (int slot = slotOf(role); ; slot = (slot + 1) & (TABLE_SIZE - 1)) {
+            String key = table.keys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (key == role || key.equals(role)) {
+                return table.ids[slot];
+            }
+        }
+    }
+
+    /**
+     * Gets the name of an interned role.
+     *
+     * @param id the role id
+     * @return the role name, or null if no role has that id
+     */
+    public String nameOf(int id) {
+        return id >= 0 && id < MAX_ROLES ? names.get(id) : null;
+    }
+
+    /**
+     * Builds the mask of a set of roles, interning new roles.
+     * Roles that do not fit in the registry are left out of the mask.
+     *
+     * @param roles the role names
+     * @return the bit mask
+     */
+    public long mask(Collection<String> roles) {
+        long mask = 0;
+        if (roles != null) {
+            for (String role : roles) {
+                int id = intern(role);
+                if (id >= 0) {
+                    mask |= 1L << id;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the mask of the given roles, interning new roles.
+     *
+     * @param roles the role names
+     * @return the bit mask
+     */
+    public long mask(String... roles) {
+        long mask = 0;
+        if (roles != null) {
+            for (String role : roles) {
+                int id = intern(role);
+                if (id >= 0) {
+                    mask |= 1L << id;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the shared immutable set of role names for a mask.
+     *
+     * @param mask the bit mask
+     * @return the role names
+     */
+    public Set<String> roleSet(long mask) {
+        Set<String> roles = roleSets.get(mask);
+        if (roles == null) {
+            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                builder.add(names.get(Long.numberOfTrailingZeros(bits)));
+            }
+            roles = roleSets.computeIfAbsent(mask, key -> builder.build());
+        }
+        return roles;
+    }
+
+    /**
+     * Gets the number of interned roles.
+     *
+     * @return the number of roles
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int register(String role) {
+        int existing = idOf(role);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == MAX_ROLES) {
+            return -1;
+        }
+        int id = size++;
+        // Publish the name before the id so a reader that sees the id can resolve it
+        names.set(id, role);
+        String[] keys = idTable.keys.clone();
+        int[] ids = idTable.ids.clone();
+        int slot = slotOf(role);
+        while (keys[slot] != null) {
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        keys[slot] = role;
+        ids[slot] = id;
+        idTable = new IdTable(keys, ids);
+        return id;
+    }
+
+    private static int slotOf(String role) {
+        int hash = role.hashCode();
+        return (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+    }
+
+    /**
+     * Immutable snapshot of the name-to-id table.
+     */
+    private static final class IdTable {
+        private final String[] keys;
+        private final int[] ids;
+
+        IdTable(String[] keys, int[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+    }
+}
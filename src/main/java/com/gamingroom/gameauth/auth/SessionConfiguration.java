@@ -0,0 +1,69 @@
+package com.gamingroom.gameauth.auth;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Configuration of the {@code auth.sessions} block. The session timeout itself is
+ * {@code auth.sessionTimeout}.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class SessionConfiguration {
+
+    @Min(1)
+    private int maxSessions = 1_000_000;
+
+    @Min(1)
+    private int tickMillis = 1000;
+
+    private boolean offHeap;
+
+    /**
+     * Gets the maximum number of concurrent sessions; logins beyond it get no session.
+     *
+     * @return the maximum number of sessions
+     */
+    @JsonProperty
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    @JsonProperty
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Gets the expiry resolution: sessions end at most one tick after their timeout.
+     *
+     * @return the tick length in milliseconds
+     */
+    @JsonProperty
+    public int getTickMillis() {
+        return tickMillis;
+    }
+
+    @JsonProperty
+    public void setTickMillis(int tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Checks whether session records are kept off the Java heap, which keeps large session
+     * populations out of garbage collection at the cost of reserving their memory up front.
+     *
+     * @return true for the off-heap store
+     */
+    @JsonProperty
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    @JsonProperty
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+}
@@ -0,0 +1,263 @@
+package com.gamingroom.gameauth.auth;
+
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import io.dropwizard.auth.basic.BasicCredentials;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues and validates stateless session tokens, so that clients authenticate once with
+ * Basic credentials and then present a token that is checked without touching the user store.
+ * A token is the URL-safe Base64 encoding of the user id, the {@link RoleRegistry} role mask,
+ * the expiry time, the account's credential epoch, the signing key id and the username,
+ * followed by an HMAC-SHA256 over those fields truncated to 128 bits. Validation is one HMAC
+ * and a constant-time comparison. With {@link CredentialEpochs}, tokens are also rejected once
+ * their account's password or roles change or the account is removed.
+ * Role masks are only meaningful where the registry assigns the same ids, so tokens also carry
+ * a fingerprint of their role names and are rejected where the names differ.
+ * Roles beyond the 64 that fit in the registry are not carried.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class TokenAuthenticator implements Authenticator<String, GameUser> {
+
+    static final int FORMAT_VERSION = 2;
+    static final int MAC_LENGTH = 16;
+
+    // version, key id, user id, role mask, expiry, credential epoch, role fingerprint, username length
+    private static final int HEADER_LENGTH = 1 + 1 + 8 + 8 + 8 + 8 + 4 + 2;
+    private static final int MAX_USERNAME_BYTES = 0xFFFF;
+
+    private final TokenKeyRing keyRing;
+    private final long timeToLiveMillis;
+    private final CredentialEpochs epochs;
+    private final LongSupplier clock;
+
+    /**
+     * Constructor for creating a token authenticator whose tokens are only revoked by expiry
+     * or key removal.
+     *
+     * @param keyRing the signing keys
+     * @param timeToLive how long issued tokens stay valid
+     * @throws IllegalArgumentException if keyRing is null or timeToLive is not positive
+     */
+    public TokenAuthenticator(TokenKeyRing keyRing, Duration timeToLive) {
+        this(keyRing, timeToLive, null);
+    }
+
+    /**
+     * Constructor for creating a token authenticator that also rejects tokens issued before
+     * the latest change to their account.
+     *
+     * @param keyRing the signing keys
+     * @param timeToLive how long issued tokens stay valid
+     * @param epochs the credential epochs of the user store, or null to skip the check
+     * @throws IllegalArgumentException if keyRing is null or timeToLive is not positive
+     */
+    public TokenAuthenticator(TokenKeyRing keyRing, Duration timeToLive, CredentialEpochs epochs) {
+        this(keyRing, timeToLive, epochs, System::currentTimeMillis);
+    }
+
+    TokenAuthenticator(TokenKeyRing keyRing, Duration timeToLive, CredentialEpochs epochs, LongSupplier clock) {
+        if (keyRing == null) {
+            throw new IllegalArgumentException("Key ring cannot be null");
+        }
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.keyRing = keyRing;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.epochs = epochs;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a token authenticator from the {@code auth} configuration block, with tokens
+     * valid for {@code auth.sessionTimeout} minutes and keys from {@code auth.tokens}.
+     *
+     * @param configuration the auth configuration
+     * @return the token authenticator, or null if tokens are disabled
+     * @throws IllegalArgumentException if a signing key is invalid or the active key is missing
+     */
+    public static TokenAuthenticator fromConfiguration(AuthConfiguration configuration) {
+        return fromConfiguration(configuration, null);
+    }
+
+    /**
+     * Creates a token authenticator from the {@code auth} configuration block that checks
+     * tokens against the credential epochs of a user store.
+     *
+     * @param configuration the auth configuration
+     * @param epochs the credential epochs, or null to skip the check
+     * @return the token authenticator, or null if tokens are disabled
+     * @throws IllegalArgumentException if a signing key is invalid or the active key is missing
+     */
+    public static TokenAuthenticator fromConfiguration(AuthConfiguration configuration, CredentialEpochs epochs) {
+        TokenConfiguration tokens = configuration.getTokens();
+        if (!tokens.isEnabled()) {
+            return null;
+        }
+        TokenKeyRing keyRing;
+        if (tokens.getSigningKeys().isEmpty()) {
+            keyRing = TokenKeyRing.withRandomKey();
+        } else {
+            keyRing = new TokenKeyRing();
+            for (Map.Entry<Integer, String> key : tokens.getSigningKeys().entrySet()) {
+                keyRing.addKey(key.getKey(), Base64.getDecoder().decode(key.getValue()));
+            }
+            keyRing.activate(tokens.getActiveKeyId());
+        }
+        return new TokenAuthenticator(keyRing, Duration.ofMinutes(configuration.getSessionTimeout()), epochs);
+    }
+
+    /**
+     * Issues a token for an authenticated user, signed with the active key.
+     *
+     * @param user the authenticated user
+     * @return the token
+     * @throws IllegalArgumentException if user is null
+     * @throws IllegalStateException if the key ring has no active key
+     */
+    public String issue(GameUser user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        TokenKeyRing.Key key = keyRing.activeKey();
+        byte[] name = user.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_USERNAME_BYTES) {
+            throw new IllegalArgumentException("Username is too long for a token");
+        }
+        long roleMask = user.getRoleMask();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + name.length + MAC_LENGTH);
+        buffer.put((byte) FORMAT_VERSION)
+                .put((byte) key.id())
+                .putLong(user.getUserId())
+                .putLong(roleMask)
+                .putLong(clock.getAsLong() + timeToLiveMillis)
+                .putLong(user.getCredentialEpoch())
+                .putInt((int) roleFingerprint(roleMask))
+                .putShort((short) name.length)
+                .put(name);
+        byte[] token = buffer.array();
+        int signedLength = buffer.position();
+        System.arraycopy(key.sign(token, signedLength), 0, token, signedLength, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Authenticates with Basic credentials and issues a token on success.
+     *
+     * @param authenticator the credential authenticator, such as {@link GameAuthenticator}
+     * @param credentials the credentials
+     * @return the token, or empty if authentication failed
+     * @throws AuthenticationException if the authenticator fails
+     */
+    public Optional<String> login(Authenticator<BasicCredentials, GameUser> authenticator,
+                                  BasicCredentials credentials) throws AuthenticationException {
+        return authenticator.authenticate(credentials).map(this::issue);
+    }
+
+    /**
+     * Validates a token.
+     *
+     * @param token the token
+     * @return the user the token was issued to, or empty if the token is malformed, forged,
+     *         expired, signed by an unknown key, issued before its account last changed or
+     *         carries roles this process names differently
+     */
+    @Override
+    public Optional<GameUser> authenticate(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (bytes.length < HEADER_LENGTH + MAC_LENGTH || bytes[0] != FORMAT_VERSION) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        TokenKeyRing.Key key = keyRing.key(buffer.get(1) & 0xFF);
+        int nameLength = buffer.getShort(HEADER_LENGTH - 2) & 0xFFFF;
+        int signedLength = HEADER_LENGTH + nameLength;
+        if (key == null || bytes.length != signedLength + MAC_LENGTH || !verify(key, bytes, signedLength)) {
+            return Optional.empty();
+        }
+        long userId = buffer.getLong(2);
+        long roleMask = buffer.getLong(10);
+        long expiresAt = buffer.getLong(18);
+        long credentialEpoch = buffer.getLong(26);
+        long fingerprint = buffer.getInt(34) & 0xFFFFFFFFL;
+        if (expiresAt <= clock.getAsLong() || userId < 0 || fingerprint != roleFingerprint(roleMask)
+                || (epochs != null && !epochs.isCurrent(userId, credentialEpoch))) {
+            return Optional.empty();
+        }
+        String name = new String(bytes, HEADER_LENGTH, nameLength, StandardCharsets.UTF_8);
+        return Optional.of(new GameUser(name, RoleRegistry.getDefault().roleSet(roleMask), userId, credentialEpoch));
+    }
+
+    /**
+     * Gets how long issued tokens stay valid.
+     *
+     * @return the time to live
+     */
+    public Duration getTimeToLive() {
+        return Duration.ofMillis(timeToLiveMillis);
+    }
+
+    /**
+     * Gets the credential epochs tokens are checked against.
+     *
+     * @return the credential epochs, or null if tokens are not checked against them
+     */
+    public CredentialEpochs getCredentialEpochs() {
+        return epochs;
+    }
+
+    /**
+     * Gets the signing keys, for rotation.
+     *
+     * @return the key ring
+     */
+    public TokenKeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    private static boolean verify(TokenKeyRing.Key key, byte[] token, int signedLength) {
+        byte[] expected = Arrays.copyOf(key.sign(token, signedLength), MAC_LENGTH);
+        byte[] actual = Arrays.copyOfRange(token, signedLength, signedLength + MAC_LENGTH);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Hashes the names of the roles in a mask, so a token is only accepted by a registry that
+     * maps its role ids to the same names.
+     *
+     * @return the unsigned 32-bit fingerprint, or -1 if a role id has no name here
+     */
+    static long roleFingerprint(long roleMask) {
+        RoleRegistry registry = RoleRegistry.getDefault();
+        int fingerprint = 1;
+        for (long bits = roleMask; bits != 0; bits &= bits - 1) {
+            String name = registry.nameOf(Long.numberOfTrailingZeros(bits));
+            if (name == null) {
+                return -1;
+            }
+            fingerprint = 31 * fingerprint + name.hashCode();
+        }
+        return fingerprint & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gamingroom.gameauth.auth;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the {@code auth.tokens} block.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class TokenConfiguration {
+
+    private boolean enabled = true;
+
+    @NotNull
+    private Map<Integer, String> signingKeys = new LinkedHashMap<>();
+
+    @Min(0)
+    @Max(255)
+    private int activeKeyId;
+
+    /**
+     * Checks whether session tokens are issued after a successful login.
+     *
+     * @return true if tokens are enabled
+     */
+    @JsonProperty
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the Base64 encoded signing secrets by key id. Without keys, a random key is
+     * generated at startup and tokens do not survive a restart.
+     *
+     * @return the signing secrets
+     */
+    @JsonProperty
+    public Map<Integer, String> getSigningKeys() {
+        return signingKeys;
+    }
+
+    @JsonProperty
+    public void setSigningKeys(Map<Integer, String> signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    /**
+     * Gets the id of the key that signs new tokens.
+     *
+     * @return the active key id
+     */
+    @JsonProperty
+    public int getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    @JsonProperty
+    public void setActiveKeyId(int activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+}
@@ -0,0 +1,203 @@
+package com.gamingroom.gameauth.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * HMAC-SHA256 keys used to sign and verify session tokens, identified by a key id between 0
+ * and 255 that travels in each token.
+ * One key is active and signs new tokens; the others only verify tokens signed before a
+ * rotation, until they are removed. The key table is an immutable snapshot behind a volatile
+ * field, so verification never locks. Each key keeps one initialized {@link Mac} per thread.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class TokenKeyRing {
+
+    /**
+     * Number of distinct key ids.
+     */
+    public static final int MAX_KEYS = 256;
+
+    /**
+     * Minimum secret length in bytes.
+     */
+    public static final int MIN_SECRET_LENGTH = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private volatile Key[] keys = new Key[MAX_KEYS];
+    private volatile Key active;
+
+    /**
+     * Creates a key ring with one random active key, for deployments where tokens only need to
+     * survive as long as the process.
+     *
+     * @return the key ring
+     */
+    public static TokenKeyRing withRandomKey() {
+        TokenKeyRing keyRing = new TokenKeyRing();
+        keyRing.rotate(randomSecret());
+        return keyRing;
+    }
+
+    /**
+     * Generates a random secret of {@link #MIN_SECRET_LENGTH} bytes.
+     *
+     * @return the secret
+     */
+    public static byte[] randomSecret() {
+        byte[] secret = new byte[MIN_SECRET_LENGTH];
+        RANDOM.nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * Adds a key without activating it.
+     *
+     * @param keyId the key id
+     * @param secret the secret
+     * @throws IllegalArgumentException if the key id is out of range or already used,
+     *         or the secret is shorter than {@link #MIN_SECRET_LENGTH} bytes
+     */
+    public synchronized void addKey(int keyId, byte[] secret) {
+        if (keyId < 0 || keyId >= MAX_KEYS) {
+            throw new IllegalArgumentException("Key id must be between 0 and " + (MAX_KEYS - 1));
+        }
+        if (secret == null || secret.length < MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException("Secret must be at least " + MIN_SECRET_LENGTH + " bytes");
+        }
+        if (keys[keyId] != null) {
+            throw new IllegalArgumentException("Key id already in use: " + keyId);
+        }
+        Key[] updated = keys.clone();
+        updated[keyId] = new Key(keyId, secret);
+        keys = updated;
+    }
+
+    /**
+     * Makes a key the one that signs new tokens.
+     *
+     * @param keyId the key id
+     * @throws IllegalArgumentException if there is no such key
+     */
+    public synchronized void activate(int keyId) {
+        Key key = key(keyId);
+        if (key == null) {
+            throw new IllegalArgumentException("Unknown key id: " + keyId);
+        }
+        active = key;
+    }
+
+    /**
+     * Adds a key under the next free id after the active key and activates it.
+     * Tokens signed with earlier keys stay valid until those keys are removed.
+     *
+     * @param secret the secret
+     * @return the id of the new key
+     * @throws IllegalArgumentException if the secret is too short
+     * @throws IllegalStateException if all key ids are in use
+     */
+    public synchronized int rotate(byte[] secret) {
+        int start = active == null ? 0 : active.id + 1;
+        for (int i = 0; i < MAX_KEYS; i++) {
+            int keyId = (start + i) % MAX_KEYS;
+            if (keys[keyId] == null) {
+                addKey(keyId, secret);
+                activate(keyId);
+                return keyId;
+            }
+        }
+        throw new IllegalStateException("All " + MAX_KEYS + " key ids are in use");
+    }
+
+    /**
+     * Removes a key, invalidating every token it signed.
+     *
+     * @param keyId the key id
+     * @return true if the key existed
+     * @throws IllegalArgumentException if the key is the active key
+     */
+    public synchronized boolean removeKey(int keyId) {
+        Key key = key(keyId);
+        if (key == null) {
+            return false;
+        }
+        if (key == active) {
+            throw new IllegalArgumentException("Cannot remove the active key");
+        }
+        Key[] updated = keys.clone();
+        updated[keyId] = null;
+        keys = updated;
+        return true;
+    }
+
+    /**
+     * Gets the id of the active key.
+     *
+     * @return the key id
+     * @throws IllegalStateException if no key is active
+     */
+    public int getActiveKeyId() {
+        return activeKey().id;
+    }
+
+    Key activeKey() {
+        Key key = active;
+        if (key == null) {
+            throw new IllegalStateException("No active signing key");
+        }
+        return key;
+    }
+
+    Key key(int keyId) {
+        return keyId >= 0 && keyId < MAX_KEYS ? keys[keyId] : null;
+    }
+
+    /**
+     * One signing key.
+     */
+    static final class Key {
+        private final int id;
+        private final ThreadLocal<Mac> macs;
+
+        Key(int id, byte[] secret) {
+            this.id = id;
+            SecretKeySpec spec = new SecretKeySpec(secret.clone(), ALGORITHM);
+            this.macs = ThreadLocal.withInitial(() -> newMac(spec));
+            // Fail on a bad key now rather than on the first token
+            macs.get();
+        }
+
+        int id() {
+            return id;
+        }
+
+        /**
+         * Computes the MAC of a range of bytes.
+         *
+         * @param data the data
+         * @param length the number of leading bytes to sign
+         * @return the 32-byte MAC
+         */
+        byte[] sign(byte[] data, int length) {
+            Mac mac = macs.get();
+            mac.update(data, 0, length);
+            return mac.doFinal();
+        }
+
+        private static Mac newMac(SecretKeySpec spec) {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(spec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+            }
+        }
+    }
+}
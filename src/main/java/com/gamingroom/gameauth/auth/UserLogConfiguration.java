@@ -0,0 +1,118 @@
+package com.gamingroom.gameauth.auth;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Configuration of the {@code auth.userLog} block: the write-ahead log and snapshots that
+ * keep user accounts across restarts.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class UserLogConfiguration {
+
+    @NotNull
+    private String directory = "";
+
+    @Min(1)
+    private int groupCommitSize = 256;
+
+    @Min(0)
+    private int groupCommitDelayMicros;
+
+    @Min(1)
+    private int snapshotIntervalSeconds = 300;
+
+    @Min(1)
+    private int snapshotMinRecords = 10_000;
+
+    /**
+     * Gets the directory holding the log and the snapshot; empty keeps accounts in memory only.
+     *
+     * @return the directory, or an empty string
+     */
+    @JsonProperty
+    public String getDirectory() {
+        return directory;
+    }
+
+    @JsonProperty
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Checks whether user accounts are logged to disk.
+     *
+     * @return true if a directory is configured
+     */
+    @JsonIgnore
+    public boolean isEnabled() {
+        return directory != null && !directory.isEmpty();
+    }
+
+    /**
+     * Gets the largest number of mutations written to the log with a single fsync.
+     *
+     * @return the maximum group commit size
+     */
+    @JsonProperty
+    public int getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    @JsonProperty
+    public void setGroupCommitSize(int groupCommitSize) {
+        this.groupCommitSize = groupCommitSize;
+    }
+
+    /**
+     * Gets how long a commit waits for more writers to join a group that is not yet full.
+     * 0 commits whatever is waiting as soon as the previous fsync returns.
+     *
+     * @return the delay in microseconds
+     */
+    @JsonProperty
+    public int getGroupCommitDelayMicros() {
+        return groupCommitDelayMicros;
+    }
+
+    @JsonProperty
+    public void setGroupCommitDelayMicros(int groupCommitDelayMicros) {
+        this.groupCommitDelayMicros = groupCommitDelayMicros;
+    }
+
+    /**
+     * Gets how often the store checks whether a new snapshot is due.
+     *
+     * @return the interval in seconds
+     */
+    @JsonProperty
+    public int getSnapshotIntervalSeconds() {
+        return snapshotIntervalSeconds;
+    }
+
+    @JsonProperty
+    public void setSnapshotIntervalSeconds(int snapshotIntervalSeconds) {
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    /**
+     * Gets how many mutations must be logged since the last snapshot before a new one is taken.
+     *
+     * @return the minimum number of logged mutations
+     */
+    @JsonProperty
+    public int getSnapshotMinRecords() {
+        return snapshotMinRecords;
+    }
+
+    @JsonProperty
+    public void setSnapshotMinRecords(int snapshotMinRecords) {
+        this.snapshotMinRecords = snapshotMinRecords;
+    }
+}
@@ -0,0 +1,263 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of the usernames in a {@link UserStore}, used to reject logins for unknown
+ * usernames without a store lookup or a password hash.
+ * The filter never reports a known username as unknown. New users are added as the store
+ * reports them; a Bloom filter cannot delete, so removed users are counted as stale and the
+ * filter is rebuilt from the store in the background once too many have accumulated, or when
+ * it has grown past the size it was built for. Rebuilds read the usernames once and insert
+ * them in parallel; the old filter keeps answering until the new one is complete.
+ * The filter listens to the store; {@link #close()} unregisters it, after which every username
+ * is reported as possibly existing, since new users would no longer be seen.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class UsernameFilter implements AutoCloseable {
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final UserStore userStore;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final long maxBits;
+    private final double staleRebuildRatio;
+    private final Executor rebuildExecutor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final UserStoreListener storeListener = this::onUserChanged;
+    private volatile boolean closed;
+    private volatile Generation current;
+    // Filter being rebuilt; new users are added to it as well as to the current one
+    private volatile Generation next;
+
+    /**
+     * Constructor for creating a filter of a store's usernames. Registers with the store
+     * and builds the filter before returning.
+     *
+     * @param userStore the store whose usernames are filtered
+     * @param configuration the sizing of the filter
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public UsernameFilter(UserStore userStore, UsernameFilterConfiguration configuration) {
+        this(userStore, configuration, ForkJoinPool.commonPool());
+    }
+
+    UsernameFilter(UserStore userStore, UsernameFilterConfiguration configuration, Executor rebuildExecutor) {
+        if (userStore == null) {
+            throw new IllegalArgumentException("User store cannot be null");
+        }
+        if (configuration == null) {
+            throw new IllegalArgumentException("Configuration cannot be null");
+        }
+        this.userStore = userStore;
+        this.expectedUsers = configuration.getExpectedUsers();
+        this.falsePositiveRate = configuration.getFalsePositiveRate();
+        this.maxBits = configuration.getMaxMemoryKilobytes() * 1024 * Byte.SIZE;
+        this.staleRebuildRatio = configuration.getStaleRebuildRatio();
+        this.rebuildExecutor = rebuildExecutor;
+        // Listen before the first build so users added meanwhile are not missed
+        userStore.addListener(storeListener);
+        rebuild();
+    }
+
+    /**
+     * Checks whether a username may exist.
+     *
+     * @param username the trimmed username
+     * @return false if the username is definitely unknown, true if it may exist
+     */
+    public boolean mightContain(String username) {
+        queries.increment();
+        boolean result = closed || current.filter.mightContain(username);
+        if (!result) {
+            rejections.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the filter from the store, inserting the usernames in parallel.
+     * The filter is sized for the larger of the configured and the current number of users,
+     * with headroom for growth.
+     */
+    public synchronized void rebuild() {
+        long users = userStore.size();
+        Generation generation = new Generation(Math.max(expectedUsers, users + users / 2));
+        next = generation;
+        try {
+            List<String> usernames = new ArrayList<>((int) Math.min(users, Integer.MAX_VALUE));
+            userStore.forEach((username, credentials) -> usernames.add(username));
+            usernames.parallelStream().forEach(generation.filter::put);
+            current = generation;
+        } finally {
+            next = null;
+        }
+    }
+
+    /**
+     * Gets the memory used by the filter's bit array.
+     *
+     * @return the size in bytes
+     */
+    public long getMemoryBytes() {
+        return (current.bits + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    }
+
+    /**
+     * Gets the false-positive rate the filter was sized for. This is higher than the
+     * configured rate when the memory budget did not allow the configured one.
+     *
+     * @return the target false-positive rate
+     */
+    public double getTargetFalsePositiveRate() {
+        return current.falsePositiveRate;
+    }
+
+    /**
+     * Gets the estimated false-positive rate for the usernames currently in the filter,
+     * including removed users that are still counted as present.
+     *
+     * @return the estimated false-positive rate
+     */
+    public double getFalsePositiveRate() {
+        return current.filter.expectedFpp();
+    }
+
+    /**
+     * Gets the number of usernames the filter was sized for.
+     *
+     * @return the capacity
+     */
+    public long getCapacity() {
+        return current.capacity;
+    }
+
+    /**
+     * Gets the estimated number of usernames in the filter.
+     *
+     * @return the approximate user count
+     */
+    public long getApproximateUserCount() {
+        return current.filter.approximateElementCount();
+    }
+
+    /**
+     * Gets the number of removed users still present in the filter.
+     *
+     * @return the stale removal count
+     */
+    public long getStaleRemovals() {
+        return current.staleRemovals.get();
+    }
+
+    /**
+     * Gets the number of usernames checked.
+     *
+     * @return the query count
+     */
+    public long getQueryCount() {
+        return queries.sum();
+    }
+
+    /**
+     * Gets the number of usernames rejected as definitely unknown.
+     *
+     * @return the rejection count
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Stops listening to the store. From then on every username may exist.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        userStore.removeListener(storeListener);
+    }
+
+    private void onUserChanged(String username, UserCredentials previous, UserCredentials updated) {
+        // Read the rebuild target first: if it is still null here, the rebuild's scan starts
+        // after this change and will pick it up
+        Generation rebuilding = next;
+        Generation active = current;
+        if (previous == null) {
+            if (rebuilding != null && rebuilding != active) {
+                rebuilding.filter.put(username);
+            }
+            if (active == null) {
+                // Still inside the first build
+                return;
+            }
+            active.filter.put(username);
+            if (active.filter.approximateElementCount() > active.capacity) {
+                scheduleRebuild();
+            }
+        } else if (updated == null && active != null) {
+            long stale = active.staleRemovals.incrementAndGet();
+            if (stale > staleRebuildRatio * Math.max(1, active.filter.approximateElementCount())) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * One built filter together with its sizing and staleness.
+     */
+    private final class Generation {
+        private final BloomFilter<CharSequence> filter;
+        private final long capacity;
+        private final long bits;
+        private final double falsePositiveRate;
+        private final AtomicLong staleRemovals = new AtomicLong();
+
+        Generation(long capacity) {
+            long optimalBits = optimalBits(capacity, UsernameFilter.this.falsePositiveRate);
+            double rate = UsernameFilter.this.falsePositiveRate;
+            if (maxBits > 0 && optimalBits > maxBits) {
+                // Size to the budget and accept the rate it allows
+                rate = Math.min(0.5, Math.exp(-maxBits * LN2_SQUARED / capacity));
+            }
+            this.filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, rate);
+            this.capacity = capacity;
+            this.bits = optimalBits(capacity, rate);
+            this.falsePositiveRate = rate;
+        }
+    }
+
+    private static long optimalBits(long capacity, double falsePositiveRate) {
+        // Same formula as Guava uses to size its bit array
+        return Math.max(Long.SIZE, (long) (-capacity * Math.log(falsePositiveRate) / LN2_SQUARED));
+    }
+}
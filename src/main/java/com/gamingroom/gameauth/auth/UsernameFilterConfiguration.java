@@ -0,0 +1,109 @@
+package com.gamingroom.gameauth.auth;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
+/**
+ * Configuration of the {@code auth.usernameFilter} block.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class UsernameFilterConfiguration {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private long expectedUsers = 100_000;
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax(value = "1.0", inclusive = false)
+    private double falsePositiveRate = 0.01;
+
+    @Min(0)
+    private long maxMemoryKilobytes = 0;
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    private double staleRebuildRatio = 0.25;
+
+    /**
+     * Checks whether unknown usernames are filtered before the store lookup.
+     *
+     * @return true if the filter is enabled
+     */
+    @JsonProperty
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the minimum number of usernames the filter is sized for.
+     * The store size is used instead when it is larger.
+     *
+     * @return the expected number of users
+     */
+    @JsonProperty
+    public long getExpectedUsers() {
+        return expectedUsers;
+    }
+
+    @JsonProperty
+    public void setExpectedUsers(long expectedUsers) {
+        this.expectedUsers = expectedUsers;
+    }
+
+    /**
+     * Gets the target probability that an unknown username passes the filter.
+     *
+     * @return the false-positive rate
+     */
+    @JsonProperty
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    @JsonProperty
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Gets the memory budget of the filter. When the target false-positive rate would need
+     * more, the filter is sized to the budget and the achievable rate is reported instead.
+     *
+     * @return the budget in kilobytes, or 0 for no limit
+     */
+    @JsonProperty
+    public long getMaxMemoryKilobytes() {
+        return maxMemoryKilobytes;
+    }
+
+    @JsonProperty
+    public void setMaxMemoryKilobytes(long maxMemoryKilobytes) {
+        this.maxMemoryKilobytes = maxMemoryKilobytes;
+    }
+
+    /**
+     * Gets the share of removed usernames, relative to the usernames in the filter,
+     * that triggers a background rebuild.
+     *
+     * @return the stale ratio
+     */
+    @JsonProperty
+    public double getStaleRebuildRatio() {
+        return staleRebuildRatio;
+    }
+
+    @JsonProperty
+    public void setStaleRebuildRatio(double staleRebuildRatio) {
+        this.staleRebuildRatio = staleRebuildRatio;
+    }
+}
@@ -0,0 +1,482 @@
+package com.gamingroom.gameauth.auth.session;
+
+import com.gamingroom.gameauth.auth.AuthConfiguration;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.RoleRegistry;
+import com.gamingroom.gameauth.auth.SessionConfiguration;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link SessionStore} that keeps session records outside the Java heap, so millions of
+ * sessions add nothing for the garbage collector to trace or copy.
+ * Each session is a fixed 64-byte record (session id, user id, {@link RoleRegistry} role mask,
+ * expiry time, credential epoch and up to {@value #MAX_INLINE_NAME} bytes of username) in a direct
+ * {@link ByteBuffer}. The store is split into {@value #SEGMENTS} segments chosen by the
+ * session id; each segment is one buffer used as an open-addressing table with linear probing,
+ * and removals shift later records back instead of leaving tombstones. Segments are locked
+ * individually, so renewals in different segments never contend.
+ * Expired sessions are rejected as soon as they are looked up; the expiry thread reclaims
+ * their records by sweeping one segment per tick.
+ * Sessions whose user does not fit in a record (longer usernames, roles beyond the registry or
+ * none at all, epochs beyond an int) keep their {@link GameUser} in an on-heap side table.
+ * Records are not indexed by user, so {@link #invalidateUser(String)} scans every segment; it
+ * suits rare events such as bans, not per-request use. {@link #getActiveCount()} includes
+ * sessions that have expired but whose segment has not been swept yet.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class OffHeapSessionStore implements SessionStore {
+
+    static final int SEGMENTS = 64;
+    static final int RECORD_SIZE = 64;
+    static final int MAX_INLINE_NAME = 18;
+
+    private static final int SEGMENT_BITS = Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 24;
+
+    // Record layout
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = 8;
+    private static final int USER_ID = 16;
+    private static final int ROLE_MASK = 24;
+    private static final int EXPIRES_AT = 32;
+    private static final int EPOCH = 40;
+    private static final int NAME_LENGTH = 44;
+    private static final int NAME = 46;
+    private static final short ON_HEAP = -1;
+
+    private static final int SESSION_ID_LENGTH = 22;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder ID_DECODER = Base64.getUrlDecoder();
+
+    private final long timeoutMillis;
+    private final long tickMillis;
+    private final int maxSessions;
+    private final LongSupplier clock;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Map<String, GameUser> onHeapUsers = new ConcurrentHashMap<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final LongAdder expiredCount = new LongAdder();
+    private final ScheduledExecutorService expirer;
+    private int nextSweep;
+
+    /**
+     * Constructor for creating a store with background expiry.
+     *
+     * @param timeout the idle time after which sessions expire
+     * @param maxSessions the maximum number of concurrent sessions
+     * @param tick the expiry resolution; each segment is swept every {@value #SEGMENTS} ticks
+     * @throws IllegalArgumentException if an argument is not positive or tick exceeds timeout
+     */
+    public OffHeapSessionStore(Duration timeout, int maxSessions, Duration tick) {
+        this(timeout, maxSessions, tick, System::currentTimeMillis, true);
+    }
+
+    OffHeapSessionStore(Duration timeout, int maxSessions, Duration tick, LongSupplier clock, boolean expire) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        if (tick == null || tick.toMillis() <= 0 || tick.compareTo(timeout) > 0) {
+            throw new IllegalArgumentException("Tick must be positive and no longer than the timeout");
+        }
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Max sessions must be positive");
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.tickMillis = tick.toMillis();
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+        // Random ids spread sessions evenly, so a full store leaves each segment at most 3/4 full
+        long perSegment = Math.max(16, 4L * maxSessions / 3 / SEGMENTS);
+        int capacity = (int) Math.min(MAX_SEGMENT_CAPACITY, Long.highestOneBit(perSegment - 1) << 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity);
+        }
+        if (expire) {
+            this.expirer = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("gameauth-offheap-session-expirer").setDaemon(true).build());
+            this.expirer.scheduleWithFixedDelay(this::sweepNext, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.expirer = null;
+        }
+    }
+
+    /**
+     * Creates a store from the {@code auth} configuration block, with sessions expiring after
+     * {@code auth.sessionTimeout} minutes and limits from {@code auth.sessions}.
+     *
+     * @param configuration the auth configuration
+     * @return the session store
+     */
+    public static OffHeapSessionStore fromConfiguration(AuthConfiguration configuration) {
+        SessionConfiguration sessions = configuration.getSessions();
+        return new OffHeapSessionStore(Duration.ofMinutes(configuration.getSessionTimeout()),
+                sessions.getMaxSessions(), Duration.ofMillis(sessions.getTickMillis()));
+    }
+
+    @Override
+    public Optional<String> create(GameUser user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        if (activeCount.incrementAndGet() > maxSessions) {
+            activeCount.decrementAndGet();
+            return Optional.empty();
+        }
+        byte[] name = user.getName().getBytes(StandardCharsets.UTF_8);
+        long roleMask = user.getRoleMask();
+        long epoch = user.getCredentialEpoch();
+        boolean inline = name.length <= MAX_INLINE_NAME && user.getRoles() != null
+                && Long.bitCount(roleMask) == user.getRoles().size() && epoch >= 0 && epoch <= Integer.MAX_VALUE;
+        byte[] idBytes = new byte[16];
+        RANDOM.nextBytes(idBytes);
+        long idHigh = readLong(idBytes, 0);
+        long idLow = readLong(idBytes, 8);
+        String sessionId = ID_ENCODER.encodeToString(idBytes);
+        if (!inline) {
+            onHeapUsers.put(sessionId, user);
+        }
+        if (!segmentOf(idHigh).insert(idHigh, idLow, user.getUserId(), roleMask,
+                clock.getAsLong() + timeoutMillis, (int) epoch, inline ? name : null)) {
+            // The segment is full although the store is not
+            onHeapUsers.remove(sessionId);
+            activeCount.decrementAndGet();
+            return Optional.empty();
+        }
+        return Optional.of(sessionId);
+    }
+
+    @Override
+    public Optional<GameUser> get(String sessionId) {
+        byte[] idBytes = decode(sessionId);
+        if (idBytes == null) {
+            return Optional.empty();
+        }
+        long idHigh = readLong(idBytes, 0);
+        long idLow = readLong(idBytes, 8);
+        Segment segment = segmentOf(idHigh);
+        long userId;
+        long roleMask;
+        int epoch;
+        String name;
+        synchronized (segment) {
+            int index = segment.find(idHigh, idLow);
+            if (index < 0) {
+                return Optional.empty();
+            }
+            ByteBuffer slab = segment.slab;
+            int offset = index * RECORD_SIZE;
+            long now = clock.getAsLong();
+            long expiresAt = slab.getLong(offset + EXPIRES_AT);
+            if (expiresAt <= now) {
+                ended(segment, index);
+                expiredCount.increment();
+                return Optional.empty();
+            }
+            long renewed = now + timeoutMillis;
+            if (renewed - expiresAt >= tickMillis) {
+                slab.putLong(offset + EXPIRES_AT, renewed);
+            }
+            short nameLength = slab.getShort(offset + NAME_LENGTH);
+            if (nameLength == ON_HEAP) {
+                return Optional.ofNullable(onHeapUsers.get(segment.sessionIdAt(index)));
+            }
+            userId = slab.getLong(offset + USER_ID);
+            roleMask = slab.getLong(offset + ROLE_MASK);
+            epoch = slab.getInt(offset + EPOCH);
+            name = segment.nameAt(offset, nameLength);
+        }
+        return Optional.of(new GameUser(name, RoleRegistry.getDefault().roleSet(roleMask), userId, epoch));
+    }
+
+    @Override
+    public boolean invalidate(String sessionId) {
+        byte[] idBytes = decode(sessionId);
+        if (idBytes == null) {
+            return false;
+        }
+        long idHigh = readLong(idBytes, 0);
+        Segment segment = segmentOf(idHigh);
+        synchronized (segment) {
+            int index = segment.find(idHigh, readLong(idBytes, 8));
+            if (index < 0) {
+                return false;
+            }
+            ended(segment, index);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Records are not indexed by user, so this scans every segment; it is meant for rare
+     * events such as bans and password changes.
+     */
+    @Override
+    public int invalidateUser(String username) {
+        if (username == null) {
+            return 0;
+        }
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int ended = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                ByteBuffer slab = segment.slab;
+                for (int index = 0; index < segment.capacity; index++) {
+                    int offset = index * RECORD_SIZE;
+                    if (slab.getLong(offset + EXPIRES_AT) == 0) {
+                        continue;
+                    }
+                    boolean matches = slab.getShort(offset + NAME_LENGTH) == ON_HEAP
+                            ? username.equals(onHeapUsers.get(segment.sessionIdAt(index)).getName())
+                            : segment.nameEquals(offset, name);
+                    if (matches) {
+                        ended(segment, index);
+                        ended++;
+                        // The record after it may have shifted into this slot
+                        index--;
+                    }
+                }
+            }
+        }
+        return ended;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Expired sessions count until the expiry thread sweeps their segment or they are looked up.
+     */
+    @Override
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Gets the number of sessions that ended by expiring rather than being invalidated.
+     *
+     * @return the expired session count
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * Gets the off-heap memory reserved for session records.
+     *
+     * @return the size of all segments in bytes
+     */
+    public long getOffHeapBytes() {
+        return (long) SEGMENTS * segments[0].capacity * RECORD_SIZE;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return Duration.ofMillis(timeoutMillis);
+    }
+
+    /**
+     * Stops background expiry. The direct buffers are released once the store is unreachable.
+     */
+    @Override
+    public void close() {
+        if (expirer != null) {
+            expirer.shutdownNow();
+        }
+    }
+
+    /**
+     * Sweeps every segment, ending every session due by now.
+     */
+    void expire() {
+        for (Segment segment : segments) {
+            sweep(segment);
+        }
+    }
+
+    private void sweepNext() {
+        sweep(segments[nextSweep]);
+        nextSweep = (nextSweep + 1) % SEGMENTS;
+    }
+
+    private void sweep(Segment segment) {
+        long now = clock.getAsLong();
+        synchronized (segment) {
+            ByteBuffer slab = segment.slab;
+            for (int index = 0; index < segment.capacity; index++) {
+                long expiresAt = slab.getLong(index * RECORD_SIZE + EXPIRES_AT);
+                if (expiresAt != 0 && expiresAt <= now) {
+                    ended(segment, index);
+                    expiredCount.increment();
+                    index--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a record, with the segment locked.
+     */
+    private void ended(Segment segment, int index) {
+        if (segment.slab.getShort(index * RECORD_SIZE + NAME_LENGTH) == ON_HEAP) {
+            onHeapUsers.remove(segment.sessionIdAt(index));
+        }
+        segment.removeAt(index);
+        activeCount.decrementAndGet();
+    }
+
+    private Segment segmentOf(long idHigh) {
+        return segments[(int) (idHigh >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static byte[] decode(String sessionId) {
+        if (sessionId == null || sessionId.length() != SESSION_ID_LENGTH) {
+            return null;
+        }
+        try {
+            return ID_DECODER.decode(sessionId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * One open-addressing table of records in a direct buffer, guarded by its own monitor.
+     * A record whose expiry time is 0 is an empty slot.
+     */
+    private static final class Segment {
+        private final ByteBuffer slab;
+        private final int capacity;
+        private final int mask;
+        private int size;
+
+        Segment(int capacity) {
+            this.slab = ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.nativeOrder());
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+        }
+
+        synchronized boolean insert(long idHigh, long idLow, long userId, long roleMask, long expiresAt, int epoch,
+                byte[] name) {
+            // Keep at least one slot empty so probes always end
+            if (size >= capacity - 1 || find(idHigh, idLow) >= 0) {
+                return false;
+            }
+            int index = home(idLow);
+            while (slab.getLong(index * RECORD_SIZE + EXPIRES_AT) != 0) {
+                index = (index + 1) & mask;
+            }
+            int offset = index * RECORD_SIZE;
+            slab.putLong(offset + ID_HIGH, idHigh)
+                    .putLong(offset + ID_LOW, idLow)
+                    .putLong(offset + USER_ID, userId)
+                    .putLong(offset + ROLE_MASK, roleMask)
+                    .putLong(offset + EXPIRES_AT, expiresAt)
+                    .putInt(offset + EPOCH, epoch);
+            if (name == null) {
+                slab.putShort(offset + NAME_LENGTH, ON_HEAP);
+            } else {
+                slab.putShort(offset + NAME_LENGTH, (short) name.length);
+                for (int i = 0; i < name.length; i++) {
+                    slab.put(offset + NAME + i, name[i]);
+                }
+            }
+            size++;
+            return true;
+        }
+
+        int find(long idHigh, long idLow) {
+            for (int index = home(idLow); ; index = (index + 1) & mask) {
+                int offset = index * RECORD_SIZE;
+                if (slab.getLong(offset + EXPIRES_AT) == 0) {
+                    return -1;
+                }
+                if (slab.getLong(offset + ID_LOW) == idLow && slab.getLong(offset + ID_HIGH) == idHigh) {
+                    return index;
+                }
+            }
+        }
+
+        /**
+         * Removes a record and shifts back the records after it whose probe run crossed it.
+         */
+        void removeAt(int index) {
+            int hole = index;
+            for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+                int offset = next * RECORD_SIZE;
+                if (slab.getLong(offset + EXPIRES_AT) == 0) {
+                    break;
+                }
+                int home = home(slab.getLong(offset + ID_LOW));
+                // Movable unless its home lies cyclically in (hole, next]
+                boolean movable = next > hole ? home <= hole || home > next : home <= hole && home > next;
+                if (movable) {
+                    for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+                        slab.putLong(hole * RECORD_SIZE + i, slab.getLong(offset + i));
+                    }
+                    hole = next;
+                }
+            }
+            slab.putLong(hole * RECORD_SIZE + EXPIRES_AT, 0);
+            size--;
+        }
+
+        boolean nameEquals(int offset, byte[] name) {
+            if (slab.getShort(offset + NAME_LENGTH) != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (slab.get(offset + NAME + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String nameAt(int offset, int length) {
+            byte[] name = new byte[length];
+            for (int i = 0; i < length; i++) {
+                name[i] = slab.get(offset + NAME + i);
+            }
+            return new String(name, StandardCharsets.UTF_8);
+        }
+
+        String sessionIdAt(int index) {
+            int offset = index * RECORD_SIZE;
+            ByteBuffer id = ByteBuffer.allocate(16)
+                    .putLong(slab.getLong(offset + ID_HIGH))
+                    .putLong(slab.getLong(offset + ID_LOW));
+            return ID_ENCODER.encodeToString(id.array());
+        }
+
+        private int home(long idLow) {
+            // Session ids are random, so their bits need no further mixing
+            return (int) idLow & mask;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.gamingroom.gameauth.auth.session;
+
+import com.gamingroom.gameauth.auth.AuthConfiguration;
+import com.gamingroom.gameauth.auth.GameUser;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Server-side sessions mapping opaque session ids to authenticated principals.
+ * Unlike signed tokens, sessions can be ended immediately, for example on a ban or a
+ * password change. Sessions expire after {@link #getTimeout()} without use; every successful
+ * lookup renews them. Implementations must be safe for concurrent use by request threads.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public interface SessionStore extends AutoCloseable {
+
+    /**
+     * Creates the store selected by {@code auth.sessions.offHeap}.
+     *
+     * @param configuration the auth configuration
+     * @return an {@link OffHeapSessionStore} or a {@link TimingWheelSessionStore}
+     */
+    static SessionStore fromConfiguration(AuthConfiguration configuration) {
+        return configuration.getSessions().isOffHeap()
+                ? OffHeapSessionStore.fromConfiguration(configuration)
+                : TimingWheelSessionStore.fromConfiguration(configuration);
+    }
+
+    /**
+     * Starts a session for an authenticated user.
+     *
+     * @param user the authenticated user
+     * @return the new session id, or empty if the store is full
+     * @throws IllegalArgumentException if user is null
+     */
+    Optional<String> create(GameUser user);
+
+    /**
+     * Looks up a session and renews it.
+     *
+     * @param sessionId the session id
+     * @return the user of the session, or empty if the session does not exist or has expired
+     */
+    Optional<GameUser> get(String sessionId);
+
+    /**
+     * Ends a session.
+     *
+     * @param sessionId the session id
+     * @return true if the session was active
+     */
+    boolean invalidate(String sessionId);
+
+    /**
+     * Ends every session of a user.
+     *
+     * @param username the username
+     * @return the number of sessions ended
+     */
+    int invalidateUser(String username);
+
+    /**
+     * Gets the number of active sessions.
+     *
+     * Stores that expire sessions lazily may still count expired ones until they are swept.
+     *
+     * @return the number of sessions that have been created and have not ended yet
+     */
+    int getActiveCount();
+
+    /**
+     * Gets the idle time after which sessions expire.
+     *
+     * @return the session timeout
+     */
+    Duration getTimeout();
+
+    /**
+     * Stops background expiry. Sessions are not usable afterwards.
+     */
+    @Override
+    void close();
+}
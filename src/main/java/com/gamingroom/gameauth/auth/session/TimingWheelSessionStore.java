@@ -0,0 +1,351 @@
+package com.gamingroom.gameauth.auth.session;
+
+import com.gamingroom.gameauth.auth.AuthConfiguration;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.SessionConfiguration;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link SessionStore} that expires sessions through a hierarchical timing wheel.
+ * The wheel has four levels of 64 slots; a level-n slot spans 64^n ticks, so a session is
+ * filed once under the slot of its expiry tick and moves down a level at most three times
+ * before it expires. Each tick only touches the sessions due in that slot, never the whole
+ * store.
+ * Renewal only moves the session's volatile expiry time forward, without locking or moving it
+ * in the wheel; when its slot comes due, a renewed session is filed again under its new expiry.
+ * New sessions reach the wheel through a lock-free stack, so the wheel itself is only touched
+ * by the expiry thread. Sessions are linked into slots through a field of their own, so the
+ * wheel adds no allocation per session.
+ * Invalidated sessions stay linked in the wheel until their slot comes due, or until they
+ * outnumber the live ones and the expiry thread sweeps them out; together with the cap on
+ * live sessions this bounds the memory held to about twice the cap.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class TimingWheelSessionStore implements SessionStore {
+
+    static final int LEVELS = 4;
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SESSION_ID_BYTES = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final long timeoutMillis;
+    private final long tickMillis;
+    private final int maxSessions;
+    private final LongSupplier clock;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<Session>> sessionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    // Sessions still linked from the pending stack or the wheel, live or not
+    private final AtomicInteger residentCount = new AtomicInteger();
+    private final LongAdder expiredCount = new LongAdder();
+    private final AtomicReference<Session> pending = new AtomicReference<>();
+    private final ScheduledExecutorService expirer;
+
+    // Owned by the expiry thread
+    private final Session[][] wheel = new Session[LEVELS][SLOTS];
+    private long currentTick;
+
+    /**
+     * Constructor for creating a store with background expiry.
+     *
+     * @param timeout the idle time after which sessions expire
+     * @param maxSessions the maximum number of concurrent sessions
+     * @param tick the expiry resolution
+     * @throws IllegalArgumentException if an argument is not positive or tick exceeds timeout
+     */
+    public TimingWheelSessionStore(Duration timeout, int maxSessions, Duration tick) {
+        this(timeout, maxSessions, tick, System::currentTimeMillis, true);
+    }
+
+    TimingWheelSessionStore(Duration timeout, int maxSessions, Duration tick, LongSupplier clock, boolean expire) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        if (tick == null || tick.toMillis() <= 0 || tick.compareTo(timeout) > 0) {
+            throw new IllegalArgumentException("Tick must be positive and no longer than the timeout");
+        }
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Max sessions must be positive");
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.tickMillis = tick.toMillis();
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+        this.currentTick = clock.getAsLong() / tickMillis;
+        if (expire) {
+            this.expirer = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("gameauth-session-expirer").setDaemon(true).build());
+            this.expirer.scheduleWithFixedDelay(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.expirer = null;
+        }
+    }
+
+    /**
+     * Creates a store from the {@code auth} configuration block, with sessions expiring after
+     * {@code auth.sessionTimeout} minutes and limits from {@code auth.sessions}.
+     *
+     * @param configuration the auth configuration
+     * @return the session store
+     */
+    public static TimingWheelSessionStore fromConfiguration(AuthConfiguration configuration) {
+        SessionConfiguration sessions = configuration.getSessions();
+        return new TimingWheelSessionStore(Duration.ofMinutes(configuration.getSessionTimeout()),
+                sessions.getMaxSessions(), Duration.ofMillis(sessions.getTickMillis()));
+    }
+
+    @Override
+    public Optional<String> create(GameUser user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        if (activeCount.incrementAndGet() > maxSessions || residentCount.get() >= 2 * maxSessions) {
+            activeCount.decrementAndGet();
+            return Optional.empty();
+        }
+        residentCount.incrementAndGet();
+        Session session = new Session(newSessionId(), user, clock.getAsLong() + timeoutMillis);
+        sessions.put(session.id, session);
+        // Added inside compute, so end() cannot unlink the set between lookup and add
+        sessionsByUser.compute(user.getName(), (name, userSessions) -> {
+            Set<Session> linked = userSessions == null ? ConcurrentHashMap.newKeySet() : userSessions;
+            linked.add(session);
+            return linked;
+        });
+        Session head;
+        do {
+            head = pending.get();
+            session.next = head;
+        } while (!pending.compareAndSet(head, session));
+        return Optional.of(session.id);
+    }
+
+    @Override
+    public Optional<GameUser> get(String sessionId) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        long now = clock.getAsLong();
+        if (session.expiresAt <= now) {
+            if (end(session)) {
+                expiredCount.increment();
+            }
+            return Optional.empty();
+        }
+        long renewed = now + timeoutMillis;
+        // Write at most once per tick so hot sessions do not keep bouncing their cache line
+        if (renewed - session.expiresAt >= tickMillis) {
+            session.expiresAt = renewed;
+        }
+        return Optional.of(session.user);
+    }
+
+    @Override
+    public boolean invalidate(String sessionId) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        return session != null && end(session);
+    }
+
+    @Override
+    public int invalidateUser(String username) {
+        Set<Session> userSessions = username == null ? null : sessionsByUser.get(username);
+        if (userSessions == null) {
+            return 0;
+        }
+        int ended = 0;
+        for (Session session : userSessions) {
+            if (end(session)) {
+                ended++;
+            }
+        }
+        return ended;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Gets the number of sessions that ended by expiring rather than being invalidated.
+     *
+     * @return the expired session count
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    int getResidentCount() {
+        return residentCount.get();
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return Duration.ofMillis(timeoutMillis);
+    }
+
+    @Override
+    public void close() {
+        if (expirer != null) {
+            expirer.shutdownNow();
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time, ending every session due by now.
+     */
+    synchronized void expire() {
+        long now = clock.getAsLong();
+        fileNewSessions(now);
+        long targetTick = now / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Move sessions down from every level whose slot starts at this tick, highest first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * SLOT_BITS;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    refile(level, (int) ((currentTick >>> shift) & (SLOTS - 1)), now);
+                }
+            }
+            refile(0, (int) (currentTick & (SLOTS - 1)), now);
+        }
+        if (residentCount.get() - activeCount.get() > Math.max(activeCount.get(), SLOTS)) {
+            sweepEnded();
+        }
+    }
+
+    /**
+     * Unlinks every ended session from the wheel. Only runs once ended sessions outnumber live
+     * ones, so its cost is spread over the sessions it frees.
+     */
+    private void sweepEnded() {
+        for (Session[] level : wheel) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Session kept = null;
+                Session session = level[slot];
+                while (session != null) {
+                    Session next = session.next;
+                    if (session.ended) {
+                        session.next = null;
+                        residentCount.decrementAndGet();
+                    } else {
+                        session.next = kept;
+                        kept = session;
+                    }
+                    session = next;
+                }
+                level[slot] = kept;
+            }
+        }
+    }
+
+    private void fileNewSessions(long now) {
+        Session session = pending.getAndSet(null);
+        while (session != null) {
+            Session next = session.next;
+            file(session, now);
+            session = next;
+        }
+    }
+
+    private void refile(int level, int slot, long now) {
+        Session session = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (session != null) {
+            Session next = session.next;
+            file(session, now);
+            session = next;
+        }
+    }
+
+    /**
+     * Files a session under the slot of its expiry tick, or ends it if that tick has passed.
+     */
+    private void file(Session session, long now) {
+        session.next = null;
+        if (session.ended) {
+            residentCount.decrementAndGet();
+            return;
+        }
+        long expiresAt = session.expiresAt;
+        // Round up so the session is only looked at once it is certainly due
+        long expiryTick = (expiresAt + tickMillis - 1) / tickMillis;
+        long delay = expiryTick - currentTick;
+        if (delay <= 0 || expiresAt <= now) {
+            if (end(session)) {
+                expiredCount.increment();
+            }
+            residentCount.decrementAndGet();
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        if (level == LEVELS - 1 && delay >= 1L << (LEVELS * SLOT_BITS)) {
+            // Beyond the wheel: park in the farthest slot and look again when it comes due
+            expiryTick = currentTick + (1L << (LEVELS * SLOT_BITS)) - 1;
+        }
+        int slot = (int) ((expiryTick >>> (level * SLOT_BITS)) & (SLOTS - 1));
+        session.next = wheel[level][slot];
+        wheel[level][slot] = session;
+    }
+
+    private boolean end(Session session) {
+        if (!sessions.remove(session.id, session)) {
+            return false;
+        }
+        session.ended = true;
+        activeCount.decrementAndGet();
+        sessionsByUser.computeIfPresent(session.user.getName(), (name, userSessions) -> {
+            userSessions.remove(session);
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+        return true;
+    }
+
+    private static String newSessionId() {
+        byte[] bytes = new byte[SESSION_ID_BYTES];
+        RANDOM.nextBytes(bytes);
+        return ID_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * One session, also a node of the pending stack or of a wheel slot.
+     */
+    private static final class Session {
+        private final String id;
+        private final GameUser user;
+        private volatile long expiresAt;
+        private volatile boolean ended;
+        // Written before the session is published to the pending stack, then only by the expiry thread
+        private Session next;
+
+        Session(String id, GameUser user, long expiresAt) {
+            this.id = id;
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
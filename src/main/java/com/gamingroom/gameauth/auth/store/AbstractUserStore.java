@@ -0,0 +1,110 @@
+package com.gamingroom.gameauth.auth.store;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for user stores that handles listener registration and notification,
+ * assigns user ids for stores that do not have their own id source, and moves credential
+ * epochs on when accounts change.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public abstract class AbstractUserStore implements UserStore {
+
+    private final List<UserStoreListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastUserId = new AtomicLong();
+
+    @Override
+    public void addListener(UserStoreListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(UserStoreListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies all listeners about a change. Does nothing if the credentials are unchanged.
+     *
+     * @param username the username that changed
+     * @param previous the credentials before the change, or null
+     * @param current the credentials after the change, or null
+     */
+    protected void fireUserChanged(String username, UserCredentials previous, UserCredentials current) {
+        if (previous == null && current == null) {
+            return;
+        }
+        for (UserStoreListener listener : listeners) {
+            listener.userChanged(username, previous, current);
+        }
+    }
+
+    /**
+     * Gives credentials about to be stored their user id: the id they already carry,
+     * otherwise the id of the account they replace, otherwise a new id.
+     *
+     * @param credentials the credentials being stored
+     * @param previous the credentials being replaced, or null for a new account
+     * @return the credentials with their user id set
+     */
+    protected UserCredentials assignUserId(UserCredentials credentials, UserCredentials previous) {
+        if (credentials.getUserId() != UserCredentials.UNASSIGNED_ID) {
+            reserveUserId(credentials.getUserId());
+            return credentials;
+        }
+        if (previous != null) {
+            return credentials.withUserId(previous.getUserId());
+        }
+        return credentials.withUserId(lastUserId.incrementAndGet());
+    }
+
+    /**
+     * Gives credentials about to be stored their credential epoch. Credentials without one get
+     * 0 for a new account, otherwise the epoch of the account they replace, moved on by one if
+     * the password or the roles change. Credentials with an epoch keep it, but never behind the
+     * account they replace, so a caller can rehash a password without revoking anything.
+     *
+     * @param credentials the credentials being stored
+     * @param previous the credentials being replaced, or null for a new account
+     * @return the credentials with their credential epoch set
+     */
+    protected static UserCredentials assignCredentialEpoch(UserCredentials credentials, UserCredentials previous) {
+        long previousEpoch = previous == null ? 0 : previous.getCredentialEpoch();
+        if (credentials.getCredentialEpoch() != UserCredentials.UNASSIGNED_EPOCH) {
+            return credentials.withCredentialEpoch(Math.max(credentials.getCredentialEpoch(), previousEpoch));
+        }
+        if (previous == null) {
+            return credentials.withCredentialEpoch(0);
+        }
+        boolean changed = !credentials.getPasswordHash().equals(previous.getPasswordHash())
+                || !Objects.equals(credentials.getRoles(), previous.getRoles());
+        return credentials.withCredentialEpoch(previousEpoch + (changed ? 1 : 0));
+    }
+
+    /**
+     * Gets the highest user id assigned or reserved so far, including ids of removed accounts.
+     * Persistent stores save it so that ids are never reused after a restart.
+     *
+     * @return the last user id, or 0 if none was handed out
+     */
+    protected long getLastUserId() {
+        return lastUserId.get();
+    }
+
+    /**
+     * Makes sure ids assigned later are greater than an id that is already in use.
+     *
+     * @param userId the id in use
+     */
+    protected void reserveUserId(long userId) {
+        lastUserId.accumulateAndGet(userId, Math::max);
+    }
+}
@@ -0,0 +1,439 @@
+package com.gamingroom.gameauth.auth.store;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory user store that keeps accounts in primitive columns instead of one
+ * {@link UserCredentials} object graph per user, for large account sets on the heap.
+ * The store is split into {@value #SEGMENTS} segments chosen by a hash of the username. Each
+ * segment holds dense rows (username as UTF-8 bytes, user id, credential epoch, iteration
+ * count, role set id, and salt and hash packed into shared byte arrays) and an open-addressing
+ * table of slots pairing a username hash with a row, kept at most half full. Removals move the
+ * last row into the freed one and shift later slots back instead of leaving tombstones.
+ * Segments are locked individually, so writers in different segments never contend. Reads
+ * take no lock: they run as optimistic reads of the segment's {@link StampedLock} and are
+ * repeated under its read lock only if a write to the same segment overlapped them.
+ * Role sets are interned: every user with the same roles refers to one id and one shared
+ * immutable set, so the common {@code {PLAYER, USER}} costs four bytes per user.
+ * Credentials are rebuilt on every read. Users whose hash does not have the standard salt and
+ * key lengths keep their {@link UserCredentials} in an on-heap side table.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class CompactUserStore extends AbstractUserStore {
+
+    static final int SEGMENTS = 64;
+
+    private static final int SEGMENT_BITS = Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final int MIN_ROWS = 8;
+    private static final int NULL_ROLES = -1;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicInteger size = new AtomicInteger();
+    private final Map<Set<String>, Integer> roleSetIds = new HashMap<>();
+    private final List<Set<String>> roleSets = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor for creating an empty store.
+     */
+    public CompactUserStore() {
+        this(0);
+    }
+
+    /**
+     * Constructor for creating an empty store sized for the expected number of users.
+     *
+     * @param expectedUsers the expected number of users
+     * @throws IllegalArgumentException if expectedUsers is negative
+     */
+    public CompactUserStore(int expectedUsers) {
+        if (expectedUsers < 0) {
+            throw new IllegalArgumentException("Expected users cannot be negative");
+        }
+        // A little headroom, since hashing never spreads users perfectly evenly
+        int rows = Math.max(MIN_ROWS, expectedUsers / SEGMENTS + expectedUsers / SEGMENTS / 8);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(rows);
+        }
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(name);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                UserCredentials credentials = lookup(segment, username, name, hash);
+                if (segment.lock.validate(stamp)) {
+                    return credentials;
+                }
+            } catch (RuntimeException e) {
+                // A write moved rows or arrays under the read; its result is discarded
+            }
+        }
+        stamp = segment.lock.readLock();
+        try {
+            return lookup(segment, username, name, hash);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> found = new HashMap<>();
+        for (String username : usernames) {
+            UserCredentials credentials = get(username);
+            if (credentials != null) {
+                found.put(username, credentials);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(name);
+        Segment segment = segmentOf(hash);
+        UserCredentials previous;
+        UserCredentials stored;
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.find(name, hash);
+            previous = slot >= 0 ? read(segment, segment.rowAt(slot)) : segment.irregular.get(username);
+            stored = assignCredentialEpoch(assignUserId(credentials, previous), previous);
+            store(segment, username, name, hash, slot, stored);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        fireUserChanged(username, previous, stored);
+    }
+
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(name);
+        Segment segment = segmentOf(hash);
+        UserCredentials stored;
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.find(name, hash);
+            UserCredentials current = slot >= 0 ? read(segment, segment.rowAt(slot)) : segment.irregular.get(username);
+            if (!expected.equals(current)) {
+                return false;
+            }
+            stored = assignCredentialEpoch(assignUserId(updated, expected), expected);
+            store(segment, username, name, hash, slot, stored);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> newUsers) {
+        for (Map.Entry<String, UserCredentials> entry : newUsers.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean remove(String username) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(name);
+        Segment segment = segmentOf(hash);
+        UserCredentials previous;
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.find(name, hash);
+            if (slot >= 0) {
+                previous = read(segment, segment.rowAt(slot));
+                segment.delete(slot);
+            } else {
+                previous = segment.irregular.remove(username);
+            }
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+        if (previous == null) {
+            return false;
+        }
+        size.decrementAndGet();
+        fireUserChanged(username, previous, null);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Each segment is copied under its read lock and the action runs outside it, so the action
+     * may change the store.
+     */
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        for (Segment segment : segments) {
+            Map<String, UserCredentials> users;
+            long stamp = segment.lock.readLock();
+            try {
+                users = new HashMap<>(segment.irregular);
+                for (int row = 0; row < segment.rows; row++) {
+                    users.put(new String(segment.names[row], StandardCharsets.UTF_8), read(segment, row));
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+            users.forEach(action);
+        }
+    }
+
+    /**
+     * Gets the number of distinct role sets interned so far, including sets no user holds any
+     * longer.
+     *
+     * @return the number of interned role sets
+     */
+    public int getRoleSetCount() {
+        return roleSets.size();
+    }
+
+    /**
+     * Finds a user's credentials. Called under the segment's read lock, or as an optimistic read
+     * whose result, or failure, is only trusted if the lock's stamp is still valid afterwards.
+     */
+    private UserCredentials lookup(Segment segment, String username, byte[] name, int hash) {
+        int slot = segment.find(name, hash);
+        return slot >= 0 ? read(segment, segment.rowAt(slot)) : segment.irregular.get(username);
+    }
+
+    /**
+     * Writes credentials to a user's row, or to the side table if they do not fit one. Must be
+     * called while holding the segment's write lock.
+     */
+    private void store(Segment segment, String username, byte[] name, int hash, int slot, UserCredentials stored) {
+        PasswordHash passwordHash = stored.getPasswordHash();
+        if (passwordHash.getSalt().length == SALT_BYTES && passwordHash.getHash().length == HASH_BYTES) {
+            int roleSetId = intern(stored.getRoles());
+            if (slot < 0) {
+                segment.irregular.remove(username);
+                slot = segment.insert(name, hash);
+            }
+            segment.write(segment.rowAt(slot), stored, roleSetId);
+        } else {
+            if (slot >= 0) {
+                segment.delete(slot);
+            }
+            segment.irregular.put(username, stored);
+        }
+    }
+
+    private UserCredentials read(Segment segment, int row) {
+        byte[] salt = Arrays.copyOfRange(segment.salts, row * SALT_BYTES, (row + 1) * SALT_BYTES);
+        byte[] hash = Arrays.copyOfRange(segment.hashes, row * HASH_BYTES, (row + 1) * HASH_BYTES);
+        int roleSetId = segment.roleSetIds[row];
+        return new UserCredentials(segment.userIds[row], segment.epochs[row],
+                PasswordHash.of(segment.iterations[row], salt, hash),
+                roleSetId == NULL_ROLES ? null : roleSets.get(roleSetId));
+    }
+
+    private int intern(Set<String> roles) {
+        if (roles == null) {
+            return NULL_ROLES;
+        }
+        synchronized (roleSetIds) {
+            Integer id = roleSetIds.get(roles);
+            if (id == null) {
+                Set<String> shared = ImmutableSet.copyOf(roles);
+                id = roleSets.size();
+                roleSets.add(shared);
+                roleSetIds.put(shared, id);
+            }
+            return id;
+        }
+    }
+
+    private Segment segmentOf(int hash) {
+        return segments[spread(hash) >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes of a username.
+     */
+    private static int hash(byte[] name) {
+        int hash = 0x811c9dc5;
+        for (byte b : name) {
+            hash = (hash ^ (b & 0xff)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes all bits of a username hash, whose top bits choose the segment and low bits the slot.
+     */
+    private static int spread(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * One lock's worth of users: dense rows plus an open-addressing table over them.
+     */
+    private static final class Segment {
+        // Username hash << 32 | row + 1, so that 0 marks an empty slot
+        private long[] slots;
+        private int rows;
+        private byte[][] names;
+        private long[] userIds;
+        private long[] epochs;
+        private int[] iterations;
+        private int[] roleSetIds;
+        private byte[] salts;
+        private byte[] hashes;
+        // Concurrent, since optimistic reads look users up while a write may be changing it
+        private final Map<String, UserCredentials> irregular = new ConcurrentHashMap<>();
+        private final StampedLock lock = new StampedLock();
+
+        Segment(int capacity) {
+            resizeRows(capacity);
+            slots = new long[Integer.highestOneBit(2 * capacity - 1) << 1];
+        }
+
+        int find(byte[] name, int hash) {
+            // One read of the table, so an optimistic read probes a single array to its end
+            long[] table = slots;
+            int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                long entry = table[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                if ((int) (entry >>> 32) == hash && Arrays.equals(names[(int) entry - 1], name)) {
+                    return slot;
+                }
+            }
+        }
+
+        int rowAt(int slot) {
+            return (int) slots[slot] - 1;
+        }
+
+        /**
+         * Appends a row for a new user and indexes it, returning its slot.
+         */
+        int insert(byte[] name, int hash) {
+            if (rows == names.length) {
+                resizeRows(names.length + (names.length >> 1));
+            }
+            if (2 * (rows + 1) > slots.length) {
+                rehash(slots.length << 1);
+            }
+            int row = rows++;
+            names[row] = name;
+            return place(hash, row);
+        }
+
+        void write(int row, UserCredentials credentials, int roleSetId) {
+            PasswordHash passwordHash = credentials.getPasswordHash();
+            userIds[row] = credentials.getUserId();
+            epochs[row] = credentials.getCredentialEpoch();
+            iterations[row] = passwordHash.getIterations();
+            roleSetIds[row] = roleSetId;
+            System.arraycopy(passwordHash.getSalt(), 0, salts, row * SALT_BYTES, SALT_BYTES);
+            System.arraycopy(passwordHash.getHash(), 0, hashes, row * HASH_BYTES, HASH_BYTES);
+        }
+
+        /**
+         * Removes the user in a slot, moving the last row into its row.
+         */
+        void delete(int slot) {
+            int row = rowAt(slot);
+            int mask = slots.length - 1;
+            // Shift back later slots of the probe run so that lookups never stop short
+            int hole = slot;
+            for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+                int home = spread((int) (slots[next] >>> 32)) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    slots[hole] = slots[next];
+                    hole = next;
+                }
+            }
+            slots[hole] = 0;
+
+            int last = --rows;
+            if (row != last) {
+                byte[] name = names[last];
+                int hash = CompactUserStore.hash(name);
+                names[row] = name;
+                userIds[row] = userIds[last];
+                epochs[row] = epochs[last];
+                iterations[row] = iterations[last];
+                roleSetIds[row] = roleSetIds[last];
+                System.arraycopy(salts, last * SALT_BYTES, salts, row * SALT_BYTES, SALT_BYTES);
+                System.arraycopy(hashes, last * HASH_BYTES, hashes, row * HASH_BYTES, HASH_BYTES);
+                int moved = find(name, hash);
+                slots[moved] = (long) hash << 32 | (row + 1L);
+            }
+            names[last] = null;
+        }
+
+        private int place(int hash, int row) {
+            int mask = slots.length - 1;
+            int slot = spread(hash) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = (long) hash << 32 | (row + 1L);
+            return slot;
+        }
+
+        private void rehash(int capacity) {
+            long[] old = slots;
+            slots = new long[capacity];
+            for (long entry : old) {
+                if (entry != 0) {
+                    place((int) (entry >>> 32), (int) entry - 1);
+                }
+            }
+        }
+
+        private void resizeRows(int capacity) {
+            names = names == null ? new byte[capacity][] : Arrays.copyOf(names, capacity);
+            userIds = userIds == null ? new long[capacity] : Arrays.copyOf(userIds, capacity);
+            epochs = epochs == null ? new long[capacity] : Arrays.copyOf(epochs, capacity);
+            iterations = iterations == null ? new int[capacity] : Arrays.copyOf(iterations, capacity);
+            roleSetIds = roleSetIds == null ? new int[capacity] : Arrays.copyOf(roleSetIds, capacity);
+            salts = salts == null ? new byte[capacity * SALT_BYTES] : Arrays.copyOf(salts, capacity * SALT_BYTES);
+            hashes = hashes == null ? new byte[capacity * HASH_BYTES] : Arrays.copyOf(hashes, capacity * HASH_BYTES);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.gamingroom.gameauth.auth.store;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * User store persisted to a single text file.
+ * Reads are served from memory; every mutation rewrites the file through a temporary
+ * file and an atomic rename, so the file on disk is always a complete snapshot. A mutation
+ * is applied to memory, and reported to listeners, only after its snapshot has been written,
+ * so a failed write leaves the store as it was.
+ * Use {@link #putAll(Map)} for bulk changes, which costs a single rewrite.
+ * The file also records the highest user id ever handed out, so ids of removed accounts are
+ * not given to new ones after a restart.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class FileUserStore extends AbstractUserStore {
+
+    private static final String HEADER = "# gameauth users v3";
+    // A comment line, so that readers of the format that do not know it skip it
+    private static final String LAST_USER_ID = "# last user id ";
+
+    private final Path file;
+    private final Map<String, UserCredentials> users = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    /**
+     * Constructor for opening a file store, loading the file if it exists.
+     *
+     * @param file the file holding the users
+     * @throws UserStoreException if the file exists but cannot be read
+     */
+    public FileUserStore(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        this.file = file;
+        load();
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        return users.get(username);
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> found = new HashMap<>();
+        for (String username : usernames) {
+            UserCredentials credentials = users.get(username);
+            if (credentials != null) {
+                found.put(username, credentials);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        UserCredentials previous;
+        UserCredentials stored;
+        synchronized (writeLock) {
+            previous = users.get(username);
+            stored = assignCredentialEpoch(assignUserId(credentials, previous), previous);
+            Map<String, UserCredentials> next = new HashMap<>(users);
+            next.put(username, stored);
+            persist(next);
+            users.put(username, stored);
+        }
+        fireUserChanged(username, previous, stored);
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> newUsers) {
+        Map<String, UserCredentials> previous = new HashMap<>();
+        Map<String, UserCredentials> stored = new HashMap<>();
+        synchronized (writeLock) {
+            for (Map.Entry<String, UserCredentials> entry : newUsers.entrySet()) {
+                UserCredentials existing = users.get(entry.getKey());
+                UserCredentials credentials = assignCredentialEpoch(assignUserId(entry.getValue(), existing), existing);
+                previous.put(entry.getKey(), existing);
+                stored.put(entry.getKey(), credentials);
+            }
+            Map<String, UserCredentials> next = new HashMap<>(users);
+            next.putAll(stored);
+            persist(next);
+            users.putAll(stored);
+        }
+        for (Map.Entry<String, UserCredentials> entry : stored.entrySet()) {
+            fireUserChanged(entry.getKey(), previous.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        UserCredentials stored;
+        synchronized (writeLock) {
+            if (!expected.equals(users.get(username))) {
+                return false;
+            }
+            stored = assignCredentialEpoch(assignUserId(updated, expected), expected);
+            Map<String, UserCredentials> next = new HashMap<>(users);
+            next.put(username, stored);
+            persist(next);
+            users.put(username, stored);
+        }
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String username) {
+        UserCredentials previous;
+        synchronized (writeLock) {
+            previous = users.get(username);
+            if (previous == null) {
+                return false;
+            }
+            Map<String, UserCredentials> next = new HashMap<>(users);
+            next.remove(username);
+            persist(next);
+            users.remove(username);
+        }
+        fireUserChanged(username, previous, null);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        users.forEach(action);
+    }
+
+    /**
+     * Gets the file backing this store.
+     *
+     * @return the file path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<String> withoutId = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(LAST_USER_ID)) {
+                    reserveUserId(Long.parseLong(line.substring(LAST_USER_ID.length())));
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String username = UserRecordCodec.decodeUsername(line);
+                UserCredentials credentials = UserRecordCodec.decodeCredentials(line);
+                if (credentials.getUserId() == UserCredentials.UNASSIGNED_ID) {
+                    withoutId.add(username);
+                } else {
+                    reserveUserId(credentials.getUserId());
+                }
+                users.put(username, credentials);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UserStoreException("Failed to load users from " + file, e);
+        }
+        if (!withoutId.isEmpty()) {
+            // Files from before user ids existed: assign ids once and keep them
+            synchronized (writeLock) {
+                for (String username : withoutId) {
+                    users.put(username, assignUserId(users.get(username), null));
+                }
+                persist(users);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the store to a temporary file, forces it to disk and renames it over
+     * the old file. Must be called while holding the write lock.
+     *
+     * @param snapshot the users to write
+     */
+    private void persist(Map<String, UserCredentials> snapshot) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.newLine();
+            writer.write(LAST_USER_ID + getLastUserId());
+            writer.newLine();
+            for (Map.Entry<String, UserCredentials> entry : snapshot.entrySet()) {
+                writer.write(UserRecordCodec.encode(entry.getKey(), entry.getValue()));
+                writer.newLine();
+            }
+            writer.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to write users to " + temp, e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to replace " + file, e);
+        }
+    }
+}
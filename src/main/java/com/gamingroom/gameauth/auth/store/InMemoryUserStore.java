@@ -0,0 +1,102 @@
+package com.gamingroom.gameauth.auth.store;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * User store backed by a {@link ConcurrentHashMap}.
+ * Fastest backend, but accounts are lost when the JVM exits.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class InMemoryUserStore extends AbstractUserStore {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private final Map<String, UserCredentials> users;
+
+    /**
+     * Constructor for creating an empty store with the default capacity.
+     */
+    public InMemoryUserStore() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor for creating an empty store sized for the expected number of users.
+     *
+     * @param initialCapacity the expected number of users
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public InMemoryUserStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative");
+        }
+        this.users = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        return users.get(username);
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> found = new HashMap<>();
+        for (String username : usernames) {
+            UserCredentials credentials = users.get(username);
+            if (credentials != null) {
+                found.put(username, credentials);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        UserCredentials[] previous = new UserCredentials[1];
+        UserCredentials stored = users.compute(username, (name, existing) -> {
+            previous[0] = existing;
+            return assignCredentialEpoch(assignUserId(credentials, existing), existing);
+        });
+        fireUserChanged(username, previous[0], stored);
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> newUsers) {
+        for (Map.Entry<String, UserCredentials> entry : newUsers.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        UserCredentials stored = assignCredentialEpoch(assignUserId(updated, expected), expected);
+        if (!users.replace(username, expected, stored)) {
+            return false;
+        }
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String username) {
+        UserCredentials previous = users.remove(username);
+        fireUserChanged(username, previous, null);
+        return previous != null;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        users.forEach(action);
+    }
+}
@@ -0,0 +1,369 @@
+package com.gamingroom.gameauth.auth.store;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * User store backed by a JDBC database, written against H2 as configured in the
+ * {@code database:} block of {@code config/application.yml}.
+ * Upserts use H2's {@code MERGE INTO ... KEY} statement; roles are stored as one encoded column.
+ * User ids come from the {@code game_user_ids} sequence, so they stay unique across processes
+ * sharing the database. Puts read the current row with {@code SELECT ... FOR UPDATE} and write
+ * it in the same transaction, so concurrent password changes each move the credential epoch on.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class JdbcUserStore extends AbstractUserStore {
+
+    private static final int MAX_IN_LIST = 500;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS game_users ("
+            + "username VARCHAR(255) PRIMARY KEY, "
+            + "password_hash VARCHAR(512) NOT NULL, "
+            + "roles VARCHAR(2048) NOT NULL)";
+    // Tables created before user ids existed gain the column and get ids for their rows
+    private static final String ADD_USER_ID = "ALTER TABLE game_users ADD COLUMN IF NOT EXISTS user_id BIGINT";
+    // Accounts from before credential epochs existed start at epoch 0
+    private static final String ADD_CREDENTIAL_EPOCH =
+            "ALTER TABLE game_users ADD COLUMN IF NOT EXISTS credential_epoch BIGINT DEFAULT 0 NOT NULL";
+    private static final String CREATE_SEQUENCE = "CREATE SEQUENCE IF NOT EXISTS game_user_ids";
+    private static final String BACKFILL_USER_IDS =
+            "UPDATE game_users SET user_id = NEXT VALUE FOR game_user_ids WHERE user_id IS NULL";
+    private static final String NEXT_USER_ID = "SELECT NEXT VALUE FOR game_user_ids";
+    private static final String SELECT_ONE =
+            "SELECT password_hash, roles, user_id, credential_epoch FROM game_users WHERE username = ?";
+    private static final String SELECT_ALL =
+            "SELECT username, password_hash, roles, user_id, credential_epoch FROM game_users";
+    // Two writers creating the same user both find no row to lock; the loser's insert fails and is retried
+    private static final String INSERT = "INSERT INTO game_users (username, password_hash, roles, user_id,"
+            + " credential_epoch) VALUES (?, ?, ?, ?, ?)";
+    private static final String MERGE = "MERGE INTO game_users (username, password_hash, roles, user_id, credential_epoch)"
+            + " KEY (username) VALUES (?, ?, ?, ?, ?)";
+    private static final String REPLACE = "UPDATE game_users SET password_hash = ?, roles = ?, user_id = ?,"
+            + " credential_epoch = ? WHERE username = ? AND password_hash = ? AND roles = ? AND credential_epoch = ?";
+    private static final String DELETE = "DELETE FROM game_users WHERE username = ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM game_users";
+    private static final String FOR_UPDATE = " FOR UPDATE";
+    private static final String DUPLICATE_KEY = "23505";
+
+    private final DataSource dataSource;
+    private final ManagedDataSource ownedDataSource;
+
+    /**
+     * Constructor for creating a store on an existing data source. Creates the table if needed.
+     *
+     * @param dataSource the data source to use
+     * @throws UserStoreException if the schema cannot be created
+     */
+    public JdbcUserStore(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    private JdbcUserStore(DataSource dataSource, ManagedDataSource ownedDataSource) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Data source cannot be null");
+        }
+        this.dataSource = dataSource;
+        this.ownedDataSource = ownedDataSource;
+        createSchema();
+    }
+
+    /**
+     * Creates a store with a connection pool built from the {@code database:} configuration block.
+     * The pool is stopped when the store is closed.
+     *
+     * @param database the database configuration
+     * @return a new JDBC user store
+     * @throws UserStoreException if the pool or schema cannot be created
+     */
+    public static JdbcUserStore fromConfiguration(DataSourceFactory database) {
+        ManagedDataSource pool = database.build(new MetricRegistry(), "gameauth-users");
+        try {
+            pool.start();
+        } catch (Exception e) {
+            throw new UserStoreException("Failed to start connection pool", e);
+        }
+        return new JdbcUserStore(pool, pool);
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        try (Connection connection = dataSource.getConnection()) {
+            return select(connection, username, false);
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to read user " + username, e);
+        }
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> found = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return found;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            selectAll(connection, new ArrayList<>(usernames), found, false);
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to read " + usernames.size() + " users", e);
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        UserCredentials previous;
+        UserCredentials stored;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            while (true) {
+                try {
+                    previous = select(connection, username, true);
+                    stored = assignCredentialEpoch(assignUserId(connection, credentials, previous), previous);
+                    try (PreparedStatement write = connection.prepareStatement(previous == null ? INSERT : MERGE)) {
+                        bindRow(write, username, stored);
+                        write.executeUpdate();
+                    }
+                    connection.commit();
+                    break;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    if (!DUPLICATE_KEY.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to write user " + username, e);
+        }
+        fireUserChanged(username, previous, stored);
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<String, UserCredentials> previous = new HashMap<>();
+        Map<String, UserCredentials> stored = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            while (true) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT);
+                     PreparedStatement merge = connection.prepareStatement(MERGE)) {
+                    previous.clear();
+                    stored.clear();
+                    selectAll(connection, new ArrayList<>(users.keySet()), previous, true);
+                    for (Map.Entry<String, UserCredentials> entry : users.entrySet()) {
+                        UserCredentials existing = previous.get(entry.getKey());
+                        UserCredentials credentials =
+                                assignCredentialEpoch(assignUserId(connection, entry.getValue(), existing), existing);
+                        stored.put(entry.getKey(), credentials);
+                        PreparedStatement write = existing == null ? insert : merge;
+                        bindRow(write, entry.getKey(), credentials);
+                        write.addBatch();
+                    }
+                    insert.executeBatch();
+                    merge.executeBatch();
+                    connection.commit();
+                    break;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    if (!DUPLICATE_KEY.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to write " + users.size() + " users", e);
+        }
+        for (Map.Entry<String, UserCredentials> entry : stored.entrySet()) {
+            fireUserChanged(entry.getKey(), previous.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The check and the write are one conditional {@code UPDATE}, so they are atomic across
+     * processes sharing the database.
+     */
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        UserCredentials stored;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement replace = connection.prepareStatement(REPLACE)) {
+            stored = assignCredentialEpoch(assignUserId(connection, updated, expected), expected);
+            replace.setString(1, stored.getPasswordHash().encode());
+            replace.setString(2, UserRecordCodec.encodeRoles(stored.getRoles()));
+            replace.setLong(3, stored.getUserId());
+            replace.setLong(4, stored.getCredentialEpoch());
+            replace.setString(5, username);
+            replace.setString(6, expected.getPasswordHash().encode());
+            replace.setString(7, UserRecordCodec.encodeRoles(expected.getRoles()));
+            replace.setLong(8, expected.getCredentialEpoch());
+            if (replace.executeUpdate() == 0) {
+                return false;
+            }
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to write user " + username, e);
+        }
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String username) {
+        UserCredentials previous;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(DELETE)) {
+                previous = select(connection, username, true);
+                delete.setString(1, username);
+                delete.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to remove user " + username, e);
+        }
+        fireUserChanged(username, previous, null);
+        return previous != null;
+    }
+
+    @Override
+    public int size() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(COUNT)) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to count users", e);
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+            while (rs.next()) {
+                action.accept(rs.getString(1), toCredentials(rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5)));
+            }
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to scan users", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownedDataSource != null) {
+            try {
+                ownedDataSource.stop();
+            } catch (Exception e) {
+                throw new UserStoreException("Failed to stop connection pool", e);
+            }
+        }
+    }
+
+    private void createSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute(ADD_USER_ID);
+            statement.execute(ADD_CREDENTIAL_EPOCH);
+            statement.execute(CREATE_SEQUENCE);
+            statement.execute(BACKFILL_USER_IDS);
+        } catch (SQLException e) {
+            throw new UserStoreException("Failed to create user table", e);
+        }
+    }
+
+    private static UserCredentials select(Connection connection, String username, boolean forUpdate)
+            throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(forUpdate ? SELECT_ONE + FOR_UPDATE : SELECT_ONE)) {
+            select.setString(1, username);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? toCredentials(rs.getString(1), rs.getString(2), rs.getLong(3), rs.getLong(4)) : null;
+            }
+        }
+    }
+
+    /**
+     * Looks up users with {@code IN} queries of at most {@value #MAX_IN_LIST} names each,
+     * locking the rows found until the transaction ends when {@code forUpdate} is set.
+     */
+    private static void selectAll(Connection connection, List<String> usernames, Map<String, UserCredentials> found,
+            boolean forUpdate) throws SQLException {
+        for (int from = 0; from < usernames.size(); from += MAX_IN_LIST) {
+            List<String> chunk = usernames.subList(from, Math.min(from + MAX_IN_LIST, usernames.size()));
+            StringBuilder sql = new StringBuilder(SELECT_ALL).append(" WHERE username IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+            if (forUpdate) {
+                sql.append(FOR_UPDATE);
+            }
+            try (PreparedStatement select = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    select.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        found.put(rs.getString(1), toCredentials(rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5)));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void bindRow(PreparedStatement merge, String username, UserCredentials credentials)
+            throws SQLException {
+        merge.setString(1, username);
+        merge.setString(2, credentials.getPasswordHash().encode());
+        merge.setString(3, UserRecordCodec.encodeRoles(credentials.getRoles()));
+        merge.setLong(4, credentials.getUserId());
+        merge.setLong(5, credentials.getCredentialEpoch());
+    }
+
+    /**
+     * Same rules as {@link AbstractUserStore#assignUserId}, but new ids come from the database sequence.
+     */
+    private static UserCredentials assignUserId(Connection connection, UserCredentials credentials,
+            UserCredentials previous) throws SQLException {
+        if (credentials.getUserId() != UserCredentials.UNASSIGNED_ID) {
+            return credentials;
+        }
+        if (previous != null) {
+            return credentials.withUserId(previous.getUserId());
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(NEXT_USER_ID)) {
+            rs.next();
+            return credentials.withUserId(rs.getLong(1));
+        }
+    }
+
+    private static UserCredentials toCredentials(String passwordHash, String roles, long userId,
+            long credentialEpoch) {
+        return new UserCredentials(userId, credentialEpoch, PasswordHash.parse(passwordHash),
+                UserRecordCodec.decodeRoles(roles));
+    }
+}
@@ -0,0 +1,777 @@
+package com.gamingroom.gameauth.auth.store;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-optimized user store backed by a memory-mapped file, for account sets too large to keep
+ * as objects on the heap.
+ * The file holds one fixed-layout record of {@value #RECORD_BYTES} bytes per user (user id,
+ * credential epoch, role mask, hash parameters, salt, hash and username) and an open-addressing
+ * index of 8-byte slots, each pairing a hash of a username with its record number, kept at most
+ * half full. A lookup probes a few adjacent slots on one index page and compares the username
+ * against one record, so it touches one or two pages and allocates only the credentials it
+ * returns. Opening the store maps the file without reading it, so startup time does not grow
+ * with the number of users; the operating system pages the file in as it is used.
+ * Roles are stored as a bit mask over a role table in the file header. Users the layout cannot
+ * hold, such as usernames over {@value #MAX_USERNAME_BYTES} bytes of UTF-8 or roles beyond the
+ * first {@value #MAX_ROLES} distinct ones, are written as {@link UserRecordCodec} lines at the
+ * end of the file and loaded onto the heap when it is opened.
+ * Changes go to an in-memory delta that reads consult first. {@link #merge()} writes the file
+ * and the delta to a new file, renames it over the old one and maps it, then drops the merged
+ * changes. Merges run periodically once enough changes are pending, and on close. Changes not
+ * yet merged are lost if the process dies, so accounts that must survive a crash belong in
+ * {@link WalUserStore}.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class MappedUserStore extends AbstractUserStore {
+
+    static final int RECORD_BYTES = 128;
+    static final int MAX_USERNAME_BYTES = 46;
+    static final int MAX_ROLES = 64;
+    static final Duration DEFAULT_MERGE_INTERVAL = Duration.ofMinutes(1);
+    static final int DEFAULT_MERGE_MIN_CHANGES = 10_000;
+
+    // "GAUSERS1"
+    private static final long MAGIC = 0x4741555345525331L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int PAGE_BYTES = 4096;
+    private static final int SLOT_BYTES = 8;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final int MAX_RECORDS = 1 << 28;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 8;
+    private static final int HEADER_RECORDS = 12;
+    private static final int HEADER_SLOTS = 16;
+    private static final int HEADER_ROLE_COUNT = 20;
+    private static final int HEADER_LAST_USER_ID = 24;
+    private static final int HEADER_INDEX_OFFSET = 32;
+    private static final int HEADER_OVERFLOW_BYTES = 40;
+    // The role table follows: a length-prefixed UTF-8 name per role bit
+    private static final int HEADER_BYTES = 48;
+
+    private static final int RECORD_USER_ID = 0;
+    private static final int RECORD_EPOCH = 8;
+    private static final int RECORD_ROLE_MASK = 16;
+    private static final int RECORD_ITERATIONS = 24;
+    private static final int RECORD_NAME_HASH = 28;
+    private static final int RECORD_SALT = 32;
+    private static final int RECORD_HASH = 48;
+    private static final int RECORD_NAME_LENGTH = 80;
+    private static final int RECORD_FLAGS = 81;
+    private static final int RECORD_NAME = 82;
+    private static final byte FLAG_NULL_ROLES = 1;
+
+    private final Path file;
+    private final int mergeMinChanges;
+    private final Map<String, Change> delta = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final Object mergeLock = new Object();
+    private final ScheduledExecutorService merger;
+    private volatile Base base;
+    // Written under writeLock
+    private volatile int size;
+    private volatile long highestUserId;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for opening a store with the default merge settings, mapping the file if it
+     * exists.
+     *
+     * @param file the user database file
+     * @throws UserStoreException if the file exists but is not a user database
+     */
+    public MappedUserStore(Path file) {
+        this(file, DEFAULT_MERGE_INTERVAL, DEFAULT_MERGE_MIN_CHANGES);
+    }
+
+    /**
+     * Constructor for opening a store, mapping the file if it exists.
+     *
+     * @param file the user database file
+     * @param mergeInterval how often to check whether a merge is due
+     * @param mergeMinChanges the pending changes that make a merge due
+     * @throws IllegalArgumentException if file is null or a setting is not positive
+     * @throws UserStoreException if the file exists but is not a user database
+     */
+    public MappedUserStore(Path file, Duration mergeInterval, int mergeMinChanges) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        if (mergeInterval == null || mergeInterval.toMillis() <= 0) {
+            throw new IllegalArgumentException("Merge interval must be positive");
+        }
+        if (mergeMinChanges <= 0) {
+            throw new IllegalArgumentException("Merge min changes must be positive");
+        }
+        this.file = file;
+        this.mergeMinChanges = mergeMinChanges;
+        this.base = Files.exists(file) ? open(file) : Base.EMPTY;
+        this.size = base.records + base.overflow.size();
+        this.highestUserId = base.lastUserId;
+        reserveUserId(base.lastUserId);
+        for (UserCredentials credentials : base.overflow.values()) {
+            reserveUserId(credentials.getUserId());
+        }
+        this.merger = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("gameauth-user-db-merge").setDaemon(true).build());
+        long intervalMillis = mergeInterval.toMillis();
+        this.merger.scheduleWithFixedDelay(this::mergeIfDue, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        Change change = delta.get(username);
+        if (change != null) {
+            return change.credentials;
+        }
+        // Read after the delta: a merge publishes its file before dropping the changes it holds
+        Base current = base;
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int record = find(current, name, hash(name));
+        return record >= 0 ? current.read(record) : current.overflow.get(username);
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> found = new HashMap<>();
+        for (String username : usernames) {
+            UserCredentials credentials = get(username);
+            if (credentials != null) {
+                found.put(username, credentials);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        UserCredentials previous;
+        UserCredentials stored;
+        synchronized (writeLock) {
+            checkOpen();
+            previous = get(username);
+            stored = store(username, credentials, previous);
+        }
+        fireUserChanged(username, previous, stored);
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> newUsers) {
+        Map<String, UserCredentials> previous = new HashMap<>();
+        Map<String, UserCredentials> stored = new HashMap<>();
+        synchronized (writeLock) {
+            checkOpen();
+            for (Map.Entry<String, UserCredentials> entry : newUsers.entrySet()) {
+                UserCredentials existing = get(entry.getKey());
+                previous.put(entry.getKey(), existing);
+                stored.put(entry.getKey(), store(entry.getKey(), entry.getValue(), existing));
+            }
+        }
+        for (Map.Entry<String, UserCredentials> entry : stored.entrySet()) {
+            fireUserChanged(entry.getKey(), previous.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        UserCredentials stored;
+        synchronized (writeLock) {
+            checkOpen();
+            if (!expected.equals(get(username))) {
+                return false;
+            }
+            stored = store(username, updated, expected);
+        }
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String username) {
+        UserCredentials previous;
+        synchronized (writeLock) {
+            checkOpen();
+            previous = get(username);
+            if (previous == null) {
+                return false;
+            }
+            delta.put(username, new Change(null));
+            size--;
+        }
+        fireUserChanged(username, previous, null);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        Base current = base;
+        for (int record = 0; record < current.records; record++) {
+            String username = current.readUsername(record);
+            if (!delta.containsKey(username)) {
+                action.accept(username, current.read(record));
+            }
+        }
+        current.overflow.forEach((username, credentials) -> {
+            if (!delta.containsKey(username)) {
+                action.accept(username, credentials);
+            }
+        });
+        delta.forEach((username, change) -> {
+            if (change.credentials != null) {
+                action.accept(username, change.credentials);
+            }
+        });
+    }
+
+    /**
+     * Writes the file and the pending changes to a new file, replaces the old file with it
+     * and maps it. Reads and writes continue meanwhile; changes made during the merge stay
+     * pending for the next one.
+     *
+     * @throws UserStoreException if the new file cannot be written or would hold too many users
+     */
+    public void merge() {
+        synchronized (mergeLock) {
+            Map<String, Change> changes = new HashMap<>(delta);
+            if (changes.isEmpty()) {
+                return;
+            }
+            Base merged = write(base, changes, highestUserId);
+            base = merged;
+            for (Map.Entry<String, Change> entry : changes.entrySet()) {
+                // Identity match: a change made since the copy stays pending
+                delta.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of changes held in memory until the next merge.
+     *
+     * @return the number of pending changes
+     */
+    public int getPendingChanges() {
+        return delta.size();
+    }
+
+    /**
+     * Gets the file backing this store.
+     *
+     * @return the file path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stops periodic merges and merges the pending changes.
+     *
+     * @throws UserStoreException if the pending changes cannot be written
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        merger.shutdown();
+        try {
+            merger.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        merge();
+    }
+
+    /**
+     * Records new credentials in the delta. Must be called while holding the write lock.
+     */
+    private UserCredentials store(String username, UserCredentials credentials, UserCredentials previous) {
+        UserCredentials stored = assignCredentialEpoch(assignUserId(credentials, previous), previous);
+        delta.put(username, new Change(stored));
+        if (previous == null) {
+            size++;
+        }
+        highestUserId = Math.max(highestUserId, stored.getUserId());
+        return stored;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("User store is closed");
+        }
+    }
+
+    private void mergeIfDue() {
+        if (delta.size() < mergeMinChanges) {
+            return;
+        }
+        try {
+            merge();
+        } catch (RuntimeException e) {
+            // The changes stay pending; the next interval tries again. Letting the exception
+            // escape would cancel the schedule and stop every later merge.
+        }
+    }
+
+    /**
+     * Writes a database holding the records of a base that no change replaces, followed by
+     * the changed users, to a temporary file and renames it over the store's file.
+     */
+    private Base write(Base current, Map<String, Change> changes, long lastUserId) {
+        BitSet replaced = new BitSet(current.records);
+        for (String username : changes.keySet()) {
+            byte[] name = username.getBytes(StandardCharsets.UTF_8);
+            int record = find(current, name, hash(name));
+            if (record >= 0) {
+                replaced.set(record);
+            }
+        }
+        // Kept records are copied as they are, so existing role bits must keep their meaning
+        List<String> roles = new ArrayList<>(Arrays.asList(current.roles));
+        Map<String, Integer> roleBits = new HashMap<>();
+        for (int bit = 0; bit < roles.size(); bit++) {
+            roleBits.put(roles.get(bit), bit);
+        }
+        Map<String, UserCredentials> overflow = new HashMap<>();
+        current.overflow.forEach((username, credentials) -> {
+            if (!changes.containsKey(username)) {
+                overflow.put(username, credentials);
+            }
+        });
+        List<String> added = new ArrayList<>();
+        for (Map.Entry<String, Change> entry : changes.entrySet()) {
+            UserCredentials credentials = entry.getValue().credentials;
+            if (credentials == null) {
+                continue;
+            }
+            if (fits(entry.getKey(), credentials, roles, roleBits)) {
+                added.add(entry.getKey());
+            } else {
+                overflow.put(entry.getKey(), credentials);
+            }
+        }
+        int records = current.records - replaced.cardinality() + added.size();
+        if (records > MAX_RECORDS) {
+            throw new UserStoreException("User database cannot hold more than " + MAX_RECORDS + " users");
+        }
+        // Next power of two of at least twice the records, so probes stay short
+        int slots = Integer.highestOneBit(Math.max(16, 2 * records) - 1) << 1;
+        byte[][] roleNames = new byte[roles.size()][];
+        int roleTableBytes = 0;
+        for (int bit = 0; bit < roleNames.length; bit++) {
+            roleNames[bit] = roles.get(bit).getBytes(StandardCharsets.UTF_8);
+            roleTableBytes += 2 + roleNames[bit].length;
+        }
+        StringBuilder lines = new StringBuilder();
+        overflow.forEach((username, credentials) ->
+                lines.append(UserRecordCodec.encode(username, credentials)).append('\n'));
+        byte[] overflowBytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        long indexOffset = (HEADER_BYTES + roleTableBytes + PAGE_BYTES - 1) / PAGE_BYTES * PAGE_BYTES;
+        long recordsOffset = indexOffset + (long) slots * SLOT_BYTES;
+        long overflowOffset = recordsOffset + (long) records * RECORD_BYTES;
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Region region = new Region(channel, FileChannel.MapMode.READ_WRITE, overflowOffset + overflowBytes.length);
+            ByteBuffer header = region.chunk(0);
+            header.putLong(HEADER_MAGIC, MAGIC);
+            header.putInt(HEADER_VERSION, FORMAT_VERSION);
+            header.putInt(HEADER_RECORDS, records);
+            header.putInt(HEADER_SLOTS, slots);
+            header.putInt(HEADER_ROLE_COUNT, roleNames.length);
+            header.putLong(HEADER_LAST_USER_ID, Math.max(lastUserId, current.lastUserId));
+            header.putLong(HEADER_INDEX_OFFSET, indexOffset);
+            header.putLong(HEADER_OVERFLOW_BYTES, overflowBytes.length);
+            int position = HEADER_BYTES;
+            for (byte[] roleName : roleNames) {
+                header.putShort(position, (short) roleName.length);
+                for (int i = 0; i < roleName.length; i++) {
+                    header.put(position + 2 + i, roleName[i]);
+                }
+                position += 2 + roleName.length;
+            }
+
+            int record = 0;
+            for (int from = 0; from < current.records; from++) {
+                if (replaced.get(from)) {
+                    continue;
+                }
+                long source = current.recordsOffset + (long) from * RECORD_BYTES;
+                long target = recordsOffset + (long) record * RECORD_BYTES;
+                for (int i = 0; i < RECORD_BYTES; i += 8) {
+                    region.putLong(target + i, current.region.getLong(source + i));
+                }
+                index(region, indexOffset, slots, current.region.getInt(source + RECORD_NAME_HASH), record++);
+            }
+            for (String username : added) {
+                long target = recordsOffset + (long) record * RECORD_BYTES;
+                int nameHash = writeRecord(region, target, username, changes.get(username).credentials, roleBits);
+                index(region, indexOffset, slots, nameHash, record++);
+            }
+            for (int i = 0; i < overflowBytes.length; i++) {
+                region.putByte(overflowOffset + i, overflowBytes[i]);
+            }
+            region.force();
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to write " + temp, e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to replace " + file, e);
+        }
+        return open(file);
+    }
+
+    /**
+     * Checks whether a user fits the fixed record layout, adding its roles to the role table
+     * if there is room.
+     */
+    private static boolean fits(String username, UserCredentials credentials, List<String> roles,
+            Map<String, Integer> roleBits) {
+        PasswordHash passwordHash = credentials.getPasswordHash();
+        if (username.getBytes(StandardCharsets.UTF_8).length > MAX_USERNAME_BYTES
+                || passwordHash.getSalt().length != SALT_BYTES || passwordHash.getHash().length != HASH_BYTES) {
+            return false;
+        }
+        if (credentials.getRoles() == null) {
+            return true;
+        }
+        List<String> missing = new ArrayList<>();
+        for (String role : credentials.getRoles()) {
+            if (!roleBits.containsKey(role)) {
+                missing.add(role);
+            }
+        }
+        if (roles.size() + missing.size() > MAX_ROLES) {
+            return false;
+        }
+        for (String role : missing) {
+            roleBits.put(role, roles.size());
+            roles.add(role);
+        }
+        return true;
+    }
+
+    private static int writeRecord(Region region, long at, String username, UserCredentials credentials,
+            Map<String, Integer> roleBits) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        int nameHash = hash(name);
+        long roleMask = 0;
+        if (credentials.getRoles() != null) {
+            for (String role : credentials.getRoles()) {
+                roleMask |= 1L << roleBits.get(role);
+            }
+        }
+        PasswordHash passwordHash = credentials.getPasswordHash();
+        ByteBuffer chunk = region.chunk(at);
+        int position = Region.position(at);
+        chunk.putLong(position + RECORD_USER_ID, credentials.getUserId());
+        chunk.putLong(position + RECORD_EPOCH, credentials.getCredentialEpoch());
+        chunk.putLong(position + RECORD_ROLE_MASK, roleMask);
+        chunk.putInt(position + RECORD_ITERATIONS, passwordHash.getIterations());
+        chunk.putInt(position + RECORD_NAME_HASH, nameHash);
+        put(chunk, position + RECORD_SALT, passwordHash.getSalt());
+        put(chunk, position + RECORD_HASH, passwordHash.getHash());
+        chunk.put(position + RECORD_NAME_LENGTH, (byte) name.length);
+        chunk.put(position + RECORD_FLAGS, credentials.getRoles() == null ? FLAG_NULL_ROLES : 0);
+        put(chunk, position + RECORD_NAME, name);
+        return nameHash;
+    }
+
+    private static void index(Region region, long indexOffset, int slots, int nameHash, int record) {
+        int mask = slots - 1;
+        for (int slot = spread(nameHash) & mask; ; slot = (slot + 1) & mask) {
+            long at = indexOffset + (long) slot * SLOT_BYTES;
+            if (region.getLong(at) == 0) {
+                region.putLong(at, slotEntry(nameHash, record));
+                return;
+            }
+        }
+    }
+
+    private static int find(Base base, byte[] name, int nameHash) {
+        if (base.slots == 0) {
+            return -1;
+        }
+        int mask = base.slots - 1;
+        for (int slot = spread(nameHash) & mask; ; slot = (slot + 1) & mask) {
+            long entry = base.region.getLong(base.indexOffset + (long) slot * SLOT_BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            int record = (int) entry - 1;
+            if ((int) (entry >>> 32) == nameHash && base.nameEquals(record, name)) {
+                return record;
+            }
+        }
+    }
+
+    private static Base open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a user database");
+            }
+            // The mapping stays valid after the channel is closed
+            Region region = new Region(channel, FileChannel.MapMode.READ_ONLY, fileSize);
+            ByteBuffer header = region.chunk(0);
+            if (header.getLong(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != FORMAT_VERSION) {
+                throw new IOException("Not a user database of version " + FORMAT_VERSION);
+            }
+            int records = header.getInt(HEADER_RECORDS);
+            int slots = header.getInt(HEADER_SLOTS);
+            long indexOffset = header.getLong(HEADER_INDEX_OFFSET);
+            long recordsOffset = indexOffset + (long) slots * SLOT_BYTES;
+            long overflowOffset = recordsOffset + (long) records * RECORD_BYTES;
+            long overflowBytes = header.getLong(HEADER_OVERFLOW_BYTES);
+            if (overflowOffset + overflowBytes != fileSize) {
+                throw new IOException("Truncated user database");
+            }
+            String[] roles = new String[header.getInt(HEADER_ROLE_COUNT)];
+            int position = HEADER_BYTES;
+            for (int bit = 0; bit < roles.length; bit++) {
+                byte[] roleName = new byte[header.getShort(position)];
+                get(header, position + 2, roleName);
+                roles[bit] = new String(roleName, StandardCharsets.UTF_8);
+                position += 2 + roleName.length;
+            }
+            byte[] lines = new byte[(int) overflowBytes];
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = region.getByte(overflowOffset + i);
+            }
+            Map<String, UserCredentials> overflow = new HashMap<>();
+            Map<String, Set<String>> roleSets = new HashMap<>();
+            for (String line : new String(lines, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isEmpty()) {
+                    UserRecordCodec.decode(line, roleSets, overflow::put);
+                }
+            }
+            return new Base(region, records, slots, indexOffset, roles, header.getLong(HEADER_LAST_USER_ID),
+                    overflow);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UserStoreException("Failed to open " + file, e);
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes of a username, stable across runs and platforms.
+     */
+    static int hash(byte[] name) {
+        int hash = 0x811c9dc5;
+        for (byte b : name) {
+            hash = (hash ^ (b & 0xff)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes the high bits of a username hash into the low bits that choose its first slot.
+     */
+    private static int spread(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private static long slotEntry(int nameHash, int record) {
+        // Record numbers are stored plus one so that an all-zero slot means empty
+        return (long) nameHash << 32 | (record + 1L);
+    }
+
+    private static void put(ByteBuffer chunk, int position, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            chunk.put(position + i, bytes[i]);
+        }
+    }
+
+    private static void get(ByteBuffer chunk, int position, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = chunk.get(position + i);
+        }
+    }
+
+    /**
+     * A pending change; a null credentials value marks a removal. Compared by identity, so a
+     * merge only drops the exact changes it wrote.
+     */
+    private static final class Change {
+        final UserCredentials credentials;
+
+        Change(UserCredentials credentials) {
+            this.credentials = credentials;
+        }
+    }
+
+    /**
+     * A mapped database file, immutable once written.
+     */
+    private static final class Base {
+        static final Base EMPTY = new Base(null, 0, 0, 0, new String[0], 0, Collections.emptyMap());
+
+        final Region region;
+        final int records;
+        final int slots;
+        final long indexOffset;
+        final long recordsOffset;
+        final String[] roles;
+        final long lastUserId;
+        final Map<String, UserCredentials> overflow;
+        private final Map<Long, Set<String>> roleSets = new ConcurrentHashMap<>();
+
+        Base(Region region, int records, int slots, long indexOffset, String[] roles, long lastUserId,
+                Map<String, UserCredentials> overflow) {
+            this.region = region;
+            this.records = records;
+            this.slots = slots;
+            this.indexOffset = indexOffset;
+            this.recordsOffset = indexOffset + (long) slots * SLOT_BYTES;
+            this.roles = roles;
+            this.lastUserId = lastUserId;
+            this.overflow = overflow;
+        }
+
+        UserCredentials read(int record) {
+            long at = recordsOffset + (long) record * RECORD_BYTES;
+            ByteBuffer chunk = region.chunk(at);
+            int position = Region.position(at);
+            byte[] salt = new byte[SALT_BYTES];
+            byte[] hash = new byte[HASH_BYTES];
+            get(chunk, position + RECORD_SALT, salt);
+            get(chunk, position + RECORD_HASH, hash);
+            Set<String> roleSet = (chunk.get(position + RECORD_FLAGS) & FLAG_NULL_ROLES) != 0
+                    ? null : roleSet(chunk.getLong(position + RECORD_ROLE_MASK));
+            return new UserCredentials(chunk.getLong(position + RECORD_USER_ID), chunk.getLong(position + RECORD_EPOCH),
+                    PasswordHash.of(chunk.getInt(position + RECORD_ITERATIONS), salt, hash), roleSet);
+        }
+
+        String readUsername(int record) {
+            long at = recordsOffset + (long) record * RECORD_BYTES;
+            ByteBuffer chunk = region.chunk(at);
+            int position = Region.position(at);
+            byte[] name = new byte[chunk.get(position + RECORD_NAME_LENGTH) & 0xff];
+            get(chunk, position + RECORD_NAME, name);
+            return new String(name, StandardCharsets.UTF_8);
+        }
+
+        boolean nameEquals(int record, byte[] name) {
+            long at = recordsOffset + (long) record * RECORD_BYTES;
+            ByteBuffer chunk = region.chunk(at);
+            int position = Region.position(at);
+            if ((chunk.get(position + RECORD_NAME_LENGTH) & 0xff) != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (chunk.get(position + RECORD_NAME + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Set<String> roleSet(long mask) {
+            return roleSets.computeIfAbsent(mask, bits -> {
+                ImmutableSet.Builder<String> set = ImmutableSet.builder();
+                for (long rest = bits; rest != 0; rest &= rest - 1) {
+                    set.add(roles[Long.numberOfTrailingZeros(rest)]);
+                }
+                return set.build();
+            });
+        }
+    }
+
+    /**
+     * A file mapped in chunks of 1 GiB, since one mapping cannot exceed 2 GiB. Header fields,
+     * slots and records are aligned to their size, so none straddles two chunks.
+     */
+    private static final class Region {
+        private static final int CHUNK_BITS = 30;
+        private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+        private final MappedByteBuffer[] chunks;
+
+        Region(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(mode, start, Math.min(1L << CHUNK_BITS, size - start));
+            }
+        }
+
+        ByteBuffer chunk(long offset) {
+            return chunks[(int) (offset >>> CHUNK_BITS)];
+        }
+
+        static int position(long offset) {
+            return (int) (offset & CHUNK_MASK);
+        }
+
+        byte getByte(long offset) {
+            return chunk(offset).get(position(offset));
+        }
+
+        int getInt(long offset) {
+            return chunk(offset).getInt(position(offset));
+        }
+
+        long getLong(long offset) {
+            return chunk(offset).getLong(position(offset));
+        }
+
+        void putByte(long offset, byte value) {
+            chunk(offset).put(position(offset), value);
+        }
+
+        void putLong(long offset, long value) {
+            chunk(offset).putLong(position(offset), value);
+        }
+
+        void force() {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+    }
+}
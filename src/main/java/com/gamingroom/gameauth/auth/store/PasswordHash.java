@@ -0,0 +1,164 @@
+package com.gamingroom.gameauth.auth.store;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hash.
+ * Each hash records its own iteration count, so hashes created with different costs
+ * can be verified side by side while the configured cost is raised over time.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class PasswordHash {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final byte[] salt;
+    private final byte[] hash;
+
+    private PasswordHash(int iterations, byte[] salt, byte[] hash) {
+        this.iterations = iterations;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password the plaintext password
+     * @param iterations the PBKDF2 iteration count
+     * @return the new hash
+     * @throws IllegalArgumentException if password is null or iterations is not positive
+     */
+    public static PasswordHash create(String password, int iterations) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password cannot be null");
+        }
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(iterations, salt, derive(password, salt, iterations));
+    }
+
+    /**
+     * Rebuilds a hash from its parts, as read back by binary backends. The arrays are not copied.
+     *
+     * @param iterations the PBKDF2 iteration count
+     * @param salt the salt
+     * @param hash the derived key
+     * @return the hash
+     */
+    static PasswordHash of(int iterations, byte[] salt, byte[] hash) {
+        return new PasswordHash(iterations, salt, hash);
+    }
+
+    /**
+     * Parses a hash produced by {@link #encode()}.
+     *
+     * @param encoded the encoded hash
+     * @return the parsed hash
+     * @throws IllegalArgumentException if the value is not a valid encoded hash
+     */
+    public static PasswordHash parse(String encoded) {
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            throw new IllegalArgumentException("Unsupported password hash format");
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        return new PasswordHash(Integer.parseInt(parts[1]), decoder.decode(parts[2]), decoder.decode(parts[3]));
+    }
+
+    /**
+     * Checks a password against this hash in constant time with respect to the hash contents.
+     * Costs one full key derivation at this hash's iteration count.
+     *
+     * @param password the presented password
+     * @return true if the password matches, false otherwise
+     */
+    public boolean matches(String password) {
+        if (password == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(hash, derive(password, salt, iterations));
+    }
+
+    /**
+     * Gets the PBKDF2 iteration count this hash was created with.
+     *
+     * @return the iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the salt for binary backends. The array is not copied and must not be modified.
+     *
+     * @return the salt
+     */
+    byte[] getSalt() {
+        return salt;
+    }
+
+    /**
+     * Gets the derived key for binary backends. The array is not copied and must not be modified.
+     *
+     * @return the derived key
+     */
+    byte[] getHash() {
+        return hash;
+    }
+
+    /**
+     * Encodes the hash as {@code pbkdf2-sha256$iterations$salt$hash} with Base64 fields.
+     *
+     * @return the encoded hash
+     */
+    public String encode() {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + '$' + iterations + '$' + encoder.encodeToString(salt) + '$' + encoder.encodeToString(hash);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PasswordHash that = (PasswordHash) obj;
+        return iterations == that.iterations && Arrays.equals(salt, that.salt) && Arrays.equals(hash, that.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(hash) + iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordHash{iterations=" + iterations + '}';
+    }
+}
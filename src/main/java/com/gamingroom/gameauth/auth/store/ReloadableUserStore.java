@@ -0,0 +1,381 @@
+package com.gamingroom.gameauth.auth.store;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory user store whose whole content can be replaced from a dump file, such as the
+ * nightly account export, while it serves reads.
+ * {@link #reload()} decodes the file in parallel into a complete new map, off the request
+ * path, and publishes it with a single volatile write. Readers never lock and see either the
+ * old map or the new one, never a partly loaded state. Accounts changed through the store
+ * while a reload is running are applied to the new map before it is published, so live
+ * registrations are not lost to an older dump. Listeners are told about every account the
+ * reload adds, changes or removes. A dump that changes an account's password or roles moves
+ * its credential epoch on, unless the dump already carries a later epoch.
+ * The file uses the {@link FileUserStore} format. Changes made through the store are not
+ * written back to it. {@link #watch()} reloads whenever the file is created or modified;
+ * replacing it with an atomic rename avoids reloading a half-written file.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class ReloadableUserStore extends AbstractUserStore {
+
+    private static final int LINES_PER_TASK = 16_384;
+    // Editors and copy tools report several events per write; wait for them to settle
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path file;
+    private final Object writeLock = new Object();
+    private final Object reloadLock = new Object();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong reloadFailures = new AtomicLong();
+    private volatile Map<String, UserCredentials> users = new ConcurrentHashMap<>();
+    // Guarded by writeLock; non-null while a reload is building its map
+    private Map<String, UserCredentials> changedDuringReload;
+    private ExecutorService watcher;
+    private WatchService watchService;
+
+    /**
+     * Constructor for creating a store, loading the file if it exists.
+     *
+     * @param file the dump file holding the users
+     * @throws IllegalArgumentException if file is null
+     * @throws UserStoreException if the file exists but cannot be read
+     */
+    public ReloadableUserStore(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        this.file = file;
+        if (Files.exists(file)) {
+            reload();
+        }
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        return users.get(username);
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> current = users;
+        Map<String, UserCredentials> found = new HashMap<>();
+        for (String username : usernames) {
+            UserCredentials credentials = current.get(username);
+            if (credentials != null) {
+                found.put(username, credentials);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        UserCredentials previous;
+        UserCredentials stored;
+        synchronized (writeLock) {
+            previous = users.get(username);
+            stored = assignCredentialEpoch(assignUserId(credentials, previous), previous);
+            users.put(username, stored);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(username, stored);
+            }
+        }
+        fireUserChanged(username, previous, stored);
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> newUsers) {
+        for (Map.Entry<String, UserCredentials> entry : newUsers.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        UserCredentials stored;
+        synchronized (writeLock) {
+            if (!expected.equals(users.get(username))) {
+                return false;
+            }
+            stored = assignCredentialEpoch(assignUserId(updated, expected), expected);
+            users.put(username, stored);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(username, stored);
+            }
+        }
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String username) {
+        UserCredentials previous;
+        synchronized (writeLock) {
+            previous = users.remove(username);
+            if (previous == null) {
+                return false;
+            }
+            if (changedDuringReload != null) {
+                changedDuringReload.put(username, null);
+            }
+        }
+        fireUserChanged(username, previous, null);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        users.forEach(action);
+    }
+
+    /**
+     * Replaces the content of the store with the file. The store keeps serving the old
+     * content until the new one is complete; if the file cannot be read, it keeps it.
+     *
+     * @return the number of users after the reload
+     * @throws UserStoreException if the file cannot be read or holds a malformed line
+     */
+    public int reload() {
+        synchronized (reloadLock) {
+            synchronized (writeLock) {
+                changedDuringReload = new LinkedHashMap<>();
+            }
+            Map<String, UserCredentials> previous;
+            Map<String, UserCredentials> loaded;
+            try {
+                loaded = build(users);
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    changedDuringReload = null;
+                }
+                reloadFailures.incrementAndGet();
+                throw e;
+            }
+            synchronized (writeLock) {
+                changedDuringReload.forEach((username, credentials) -> {
+                    if (credentials == null) {
+                        loaded.remove(username);
+                    } else {
+                        loaded.put(username, credentials);
+                    }
+                });
+                changedDuringReload = null;
+                previous = users;
+                users = loaded;
+            }
+            reloadCount.incrementAndGet();
+            notifyChanges(previous, loaded);
+            return loaded.size();
+        }
+    }
+
+    /**
+     * Starts reloading the store whenever its file is created or modified. Failed reloads
+     * keep the current content and are counted by {@link #getReloadFailures()}.
+     *
+     * @throws UserStoreException if the file's directory cannot be watched
+     * @throws IllegalStateException if the store is already watching
+     */
+    public synchronized void watch() {
+        if (watcher != null) {
+            throw new IllegalStateException("User store is already watching " + file);
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to watch " + directory, e);
+        }
+        watcher = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("gameauth-user-reload").setDaemon(true).build());
+        WatchService service = watchService;
+        watcher.execute(() -> watchLoop(service));
+    }
+
+    /**
+     * Gets the number of completed reloads, including the one at construction.
+     *
+     * @return the number of reloads
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * Gets the number of reloads that failed and left the content unchanged.
+     *
+     * @return the number of failed reloads
+     */
+    public long getReloadFailures() {
+        return reloadFailures.get();
+    }
+
+    /**
+     * Gets the dump file behind this store.
+     *
+     * @return the file path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // The watch loop ends either way once the executor is shut down
+        }
+        watcher.shutdownNow();
+        watcher = null;
+    }
+
+    private void watchLoop(WatchService service) {
+        Path name = file.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean relevant = isRelevant(service.take(), name);
+                WatchKey next;
+                while ((next = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= isRelevant(next, name);
+                }
+                if (relevant && Files.exists(file)) {
+                    try {
+                        reload();
+                    } catch (UserStoreException e) {
+                        // Counted by reload(); the next change to the file tries again
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private static boolean isRelevant(WatchKey key, Path name) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+        }
+        key.reset();
+        return relevant;
+    }
+
+    /**
+     * Decodes the file into a new map, giving each user the id and epoch it would get from
+     * {@link #put(String, UserCredentials)} over the current content.
+     */
+    private Map<String, UserCredentials> build(Map<String, UserCredentials> current) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to load users from " + file, e);
+        }
+        int tasks = (lines.size() + LINES_PER_TASK - 1) / LINES_PER_TASK;
+        List<Map<String, UserCredentials>> decoded;
+        try {
+            decoded = IntStream.range(0, tasks).parallel()
+                    .mapToObj(task -> decode(lines, task * LINES_PER_TASK,
+                            Math.min(lines.size(), (task + 1) * LINES_PER_TASK)))
+                    .collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            throw new UserStoreException("Failed to load users from " + file, e);
+        }
+        // Ids carried by the file are reserved before any new id is handed out
+        for (Map<String, UserCredentials> part : decoded) {
+            for (UserCredentials credentials : part.values()) {
+                if (credentials.getUserId() != UserCredentials.UNASSIGNED_ID) {
+                    reserveUserId(credentials.getUserId());
+                }
+            }
+        }
+        Map<String, UserCredentials> loaded = new ConcurrentHashMap<>(Math.max(16, lines.size() * 4 / 3));
+        // In file order, so that the last line for a username wins
+        for (Map<String, UserCredentials> part : decoded) {
+            part.forEach((username, dumped) -> {
+                UserCredentials previous = current.get(username);
+                UserCredentials credentials = dumped;
+                if (previous != null && credentials.getCredentialEpoch() <= previous.getCredentialEpoch()) {
+                    // Dumps carry stale or default epochs; only a real change moves the epoch on
+                    credentials = credentials.withCredentialEpoch(UserCredentials.UNASSIGNED_EPOCH);
+                }
+                loaded.put(username, assignCredentialEpoch(assignUserId(credentials, previous), previous));
+            });
+        }
+        return loaded;
+    }
+
+    private static Map<String, UserCredentials> decode(List<String> lines, int from, int to) {
+        Map<String, UserCredentials> part = new LinkedHashMap<>();
+        Map<String, Set<String>> roleSets = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            String line = lines.get(i);
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                UserRecordCodec.decode(line, roleSets, part::put);
+            }
+        }
+        return part;
+    }
+
+    private void notifyChanges(Map<String, UserCredentials> previous, Map<String, UserCredentials> loaded) {
+        List<String> removed = new ArrayList<>();
+        previous.forEach((username, credentials) -> {
+            if (!loaded.containsKey(username)) {
+                removed.add(username);
+            }
+        });
+        for (String username : removed) {
+            fireUserChanged(username, previous.get(username), null);
+        }
+        loaded.forEach((username, credentials) -> {
+            UserCredentials before = previous.get(username);
+            if (!Objects.equals(before, credentials)) {
+                fireUserChanged(username, before, credentials);
+            }
+        });
+    }
+}
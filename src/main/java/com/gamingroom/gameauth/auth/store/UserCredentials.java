@@ -0,0 +1,169 @@
+package com.gamingroom.gameauth.auth.store;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable credentials and roles stored for a single account.
+ * Each account also carries a credential epoch that the store moves on whenever the password
+ * or the roles change, so anything derived from older credentials, such as issued tokens,
+ * can be recognized as stale.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class UserCredentials {
+
+    /**
+     * User id of credentials that have not been stored yet.
+     */
+    public static final long UNASSIGNED_ID = 0;
+
+    /**
+     * Credential epoch of credentials that leave the epoch to the store.
+     */
+    public static final long UNASSIGNED_EPOCH = -1;
+
+    private final long userId;
+    private final long credentialEpoch;
+    private final PasswordHash passwordHash;
+    private final Set<String> roles;
+
+    /**
+     * Constructor for creating credentials for a new account. The store assigns the user id,
+     * or keeps the existing one when the account is replaced.
+     *
+     * @param passwordHash the salted hash of the account password
+     * @param roles the roles granted to the account, may be null
+     * @throws IllegalArgumentException if passwordHash is null
+     */
+    public UserCredentials(PasswordHash passwordHash, Set<String> roles) {
+        this(UNASSIGNED_ID, passwordHash, roles);
+    }
+
+    /**
+     * Constructor for creating credentials with a known user id.
+     *
+     * @param userId the stable id of the account, or {@link #UNASSIGNED_ID}
+     * @param passwordHash the salted hash of the account password
+     * @param roles the roles granted to the account, may be null
+     * @throws IllegalArgumentException if passwordHash is null or userId is negative
+     */
+    public UserCredentials(long userId, PasswordHash passwordHash, Set<String> roles) {
+        this(userId, UNASSIGNED_EPOCH, passwordHash, roles);
+    }
+
+    /**
+     * Constructor for creating credentials with a known user id and credential epoch.
+     *
+     * @param userId the stable id of the account, or {@link #UNASSIGNED_ID}
+     * @param credentialEpoch the credential epoch, or {@link #UNASSIGNED_EPOCH} to let the store
+     *        move it on when the password or roles change
+     * @param passwordHash the salted hash of the account password
+     * @param roles the roles granted to the account, may be null
+     * @throws IllegalArgumentException if passwordHash is null, userId is negative or
+     *         credentialEpoch is negative and not {@link #UNASSIGNED_EPOCH}
+     */
+    public UserCredentials(long userId, long credentialEpoch, PasswordHash passwordHash, Set<String> roles) {
+        if (passwordHash == null) {
+            throw new IllegalArgumentException("Password hash cannot be null");
+        }
+        if (userId < 0) {
+            throw new IllegalArgumentException("User id cannot be negative");
+        }
+        if (credentialEpoch < UNASSIGNED_EPOCH) {
+            throw new IllegalArgumentException("Credential epoch cannot be negative");
+        }
+        this.userId = userId;
+        this.credentialEpoch = credentialEpoch;
+        this.passwordHash = passwordHash;
+        this.roles = roles;
+    }
+
+    /**
+     * Gets the stable numeric id the store assigned to the account.
+     *
+     * @return the user id, or {@link #UNASSIGNED_ID} if the credentials have not been stored
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Creates a copy of these credentials with a different user id.
+     *
+     * @param newUserId the user id
+     * @return the copy, or this instance if the id is unchanged
+     */
+    public UserCredentials withUserId(long newUserId) {
+        return newUserId == userId ? this : new UserCredentials(newUserId, credentialEpoch, passwordHash, roles);
+    }
+
+    /**
+     * Gets the credential epoch, which only grows over the life of the account.
+     *
+     * @return the credential epoch, 0 for accounts that never changed, or
+     *         {@link #UNASSIGNED_EPOCH} if the credentials have not been stored
+     */
+    public long getCredentialEpoch() {
+        return credentialEpoch;
+    }
+
+    /**
+     * Creates a copy of these credentials with a different credential epoch.
+     *
+     * @param newCredentialEpoch the credential epoch
+     * @return the copy, or this instance if the epoch is unchanged
+     */
+    public UserCredentials withCredentialEpoch(long newCredentialEpoch) {
+        return newCredentialEpoch == credentialEpoch
+                ? this : new UserCredentials(userId, newCredentialEpoch, passwordHash, roles);
+    }
+
+    /**
+     * Checks a presented password against the stored hash. This runs a full key
+     * derivation and should not be called on request threads under load.
+     *
+     * @param inputPassword the password presented by the client
+     * @return true if the password matches, false otherwise
+     */
+    public boolean validatePassword(String inputPassword) {
+        return passwordHash.matches(inputPassword);
+    }
+
+    /**
+     * Gets the stored password hash.
+     *
+     * @return the password hash
+     */
+    public PasswordHash getPasswordHash() {
+        return passwordHash;
+    }
+
+    /**
+     * Gets the roles granted to the account.
+     *
+     * @return the set of roles, or null if no roles are assigned
+     */
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        UserCredentials that = (UserCredentials) obj;
+        return userId == that.userId && credentialEpoch == that.credentialEpoch && passwordHash.equals(that.passwordHash) && Objects.equals(roles, that.roles);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, credentialEpoch, passwordHash, roles);
+    }
+
+    @Override
+    public String toString() {
+        return "UserCredentials{userId=" + userId + ", credentialEpoch=" + credentialEpoch + ", roles=" + roles + '}';
+    }
+}
@@ -0,0 +1,206 @@
+package com.gamingroom.gameauth.auth.store;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Encodes users as single text lines of the form
+ * {@code username<TAB>passwordHash<TAB>ROLE,ROLE<TAB>userId<TAB>credentialEpoch}.
+ * Backslash, tab, newline, carriage return and comma are backslash-escaped inside fields.
+ * Lines written before user ids existed have no id field and decode with
+ * {@link UserCredentials#UNASSIGNED_ID}; lines written before credential epochs existed
+ * decode with epoch 0.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+final class UserRecordCodec {
+
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final char ROLE_SEPARATOR = ',';
+
+    private UserRecordCodec() {
+    }
+
+    /**
+     * Encodes a user as one line without a trailing newline.
+     *
+     * @param username the username
+     * @param credentials the credentials
+     * @return the encoded line
+     */
+    static String encode(String username, UserCredentials credentials) {
+        StringBuilder line = new StringBuilder(64);
+        escape(username, line);
+        line.append(FIELD_SEPARATOR);
+        line.append(credentials.getPasswordHash().encode());
+        line.append(FIELD_SEPARATOR);
+        line.append(encodeRoles(credentials.getRoles()));
+        line.append(FIELD_SEPARATOR);
+        line.append(credentials.getUserId());
+        line.append(FIELD_SEPARATOR);
+        line.append(credentials.getCredentialEpoch());
+        return line.toString();
+    }
+
+    /**
+     * Decodes the username field of a line.
+     *
+     * @param line the encoded line
+     * @return the username
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static String decodeUsername(String line) {
+        return unescape(splitRecord(line).get(0));
+    }
+
+    /**
+     * Decodes the credentials of a line.
+     *
+     * @param line the encoded line
+     * @return the credentials
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static UserCredentials decodeCredentials(String line) {
+        List<String> fields = splitRecord(line);
+        long userId = fields.size() > 3 ? Long.parseLong(fields.get(3)) : UserCredentials.UNASSIGNED_ID;
+        long credentialEpoch = fields.size() > 4 ? Long.parseLong(fields.get(4)) : 0;
+        return new UserCredentials(userId, credentialEpoch, PasswordHash.parse(fields.get(1)),
+                decodeRoles(fields.get(2)));
+    }
+
+    /**
+     * Decodes a whole line with one pass over its fields, for loading many records at once.
+     * Role sets come from a cache keyed by their encoded form, so the few distinct role
+     * combinations of a large store are each decoded and held once.
+     *
+     * @param line the encoded line
+     * @param roleSets the decoded role sets by encoded form, filled as new ones are met
+     * @param action the action to run with the username and its credentials
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static void decode(String line, Map<String, Set<String>> roleSets, BiConsumer<String, UserCredentials> action) {
+        List<String> fields = splitRecord(line);
+        long userId = fields.size() > 3 ? Long.parseLong(fields.get(3)) : UserCredentials.UNASSIGNED_ID;
+        long credentialEpoch = fields.size() > 4 ? Long.parseLong(fields.get(4)) : 0;
+        Set<String> roles = roleSets.computeIfAbsent(fields.get(2), UserRecordCodec::decodeRoles);
+        action.accept(unescape(fields.get(0)),
+                new UserCredentials(userId, credentialEpoch, PasswordHash.parse(fields.get(1)), roles));
+    }
+
+    /**
+     * Encodes a role set as a comma separated list.
+     *
+     * @param roles the roles, may be null
+     * @return the encoded roles
+     */
+    static String encodeRoles(Set<String> roles) {
+        StringBuilder out = new StringBuilder();
+        if (roles != null) {
+            for (String role : roles) {
+                if (out.length() > 0) {
+                    out.append(ROLE_SEPARATOR);
+                }
+                escape(role, out);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Decodes a comma separated role list.
+     *
+     * @param encoded the encoded roles
+     * @return the roles as an immutable set
+     */
+    static Set<String> decodeRoles(String encoded) {
+        if (encoded.isEmpty()) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<String> roles = ImmutableSet.builder();
+        for (String role : split(encoded, ROLE_SEPARATOR, -1)) {
+            roles.add(unescape(role));
+        }
+        return roles.build();
+    }
+
+    private static List<String> splitRecord(String line) {
+        List<String> fields = split(line, FIELD_SEPARATOR, -1);
+        if (fields.size() < 3 || fields.size() > 5) {
+            throw new IllegalArgumentException("Expected 3 to 5 fields in user record but found " + fields.size());
+        }
+        return fields;
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case ',':
+                    out.append("\\,");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                out.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Splits on unescaped separators, leaving escape sequences inside the fields intact.
+     */
+    private static List<String> split(String line, char separator, int expectedFields) {
+        List<String> fields = new ArrayList<>(expectedFields > 0 ? expectedFields : 4);
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                if (++i == line.length()) {
+                    throw new IllegalArgumentException("Dangling escape in user record");
+                }
+            } else if (c == separator) {
+                fields.add(line.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fields.add(line.substring(start));
+        if (expectedFields > 0 && fields.size() != expectedFields) {
+            throw new IllegalArgumentException("Expected " + expectedFields + " fields in user record but found "
+                    + fields.size());
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,109 @@
+package com.gamingroom.gameauth.auth.store;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Storage backend for user accounts.
+ * Implementations must be safe for concurrent use by request threads.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public interface UserStore extends AutoCloseable {
+
+    /**
+     * Looks up the credentials for a username.
+     *
+     * @param username the username
+     * @return the stored credentials, or null if the user does not exist
+     * @throws UserStoreException if the backend cannot be read
+     */
+    UserCredentials get(String username);
+
+    /**
+     * Looks up the credentials for several usernames in one call.
+     *
+     * @param usernames the usernames to look up
+     * @return the credentials of the users that exist, keyed by username
+     * @throws UserStoreException if the backend cannot be read
+     */
+    Map<String, UserCredentials> getAll(Collection<String> usernames);
+
+    /**
+     * Inserts or replaces the credentials for a username.
+     * Credentials without a user id keep the id of the account they replace, or are given
+     * a new id that is never reused by this store.
+     *
+     * @param username the username
+     * @param credentials the credentials to store
+     * @throws UserStoreException if the backend cannot be written
+     */
+    void put(String username, UserCredentials credentials);
+
+    /**
+     * Inserts or replaces several users in one call, assigning user ids as {@link #put} does.
+     *
+     * @param users the credentials to store, keyed by username
+     * @throws UserStoreException if the backend cannot be written
+     */
+    void putAll(Map<String, UserCredentials> users);
+
+    /**
+     * Replaces the credentials for a username only if the stored ones still equal the
+     * credentials the caller read, as one atomic step. The new credentials get their user id
+     * and credential epoch as {@link #put} would give them over the expected ones.
+     *
+     * @param username the username
+     * @param expected the credentials the caller read
+     * @param updated the credentials to store
+     * @return true if the credentials were replaced, false if the user changed or no longer exists
+     * @throws UserStoreException if the backend cannot be written
+     */
+    boolean replace(String username, UserCredentials expected, UserCredentials updated);
+
+    /**
+     * Removes a user.
+     *
+     * @param username the username to remove
+     * @return true if the user existed, false otherwise
+     * @throws UserStoreException if the backend cannot be written
+     */
+    boolean remove(String username);
+
+    /**
+     * Gets the number of stored users.
+     *
+     * @return the number of users
+     */
+    int size();
+
+    /**
+     * Visits every stored user. The visit is weakly consistent with concurrent updates.
+     *
+     * @param action the action to run for each username and its credentials
+     */
+    void forEach(BiConsumer<String, UserCredentials> action);
+
+    /**
+     * Registers a listener that is notified after every change to a user.
+     *
+     * @param listener the listener to register
+     */
+    void addListener(UserStoreListener listener);
+
+    /**
+     * Unregisters a listener. Does nothing if the listener is not registered.
+     *
+     * @param listener the listener to unregister
+     */
+    void removeListener(UserStoreListener listener);
+
+    /**
+     * Releases any resources held by the store.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,31 @@
+package com.gamingroom.gameauth.auth.store;
+
+/**
+ * Thrown when a user store backend cannot be read or written.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class UserStoreException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for creating an exception without a cause.
+     *
+     * @param message the detail message
+     */
+    public UserStoreException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor for creating an exception with a cause.
+     *
+     * @param message the detail message
+     * @param cause the underlying I/O or database error
+     */
+    public UserStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.gamingroom.gameauth.auth.store;
+
+/**
+ * Receives notifications about changes to stored users.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface UserStoreListener {
+
+    /**
+     * Called after a user has been added, replaced or removed.
+     *
+     * @param username the username that changed
+     * @param previous the credentials before the change, or null if the user was added
+     * @param current the credentials after the change, or null if the user was removed
+     */
+    void userChanged(String username, UserCredentials previous, UserCredentials current);
+}
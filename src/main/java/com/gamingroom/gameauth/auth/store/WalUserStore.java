@@ -0,0 +1,775 @@
+package com.gamingroom.gameauth.auth.store;
+
+import com.gamingroom.gameauth.auth.UserLogConfiguration;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * User store that serves reads from memory and makes every mutation durable in an append-only
+ * write-ahead log before the call returns.
+ * Each mutation becomes one record: its length, a CRC-32 of its body, and a body holding a
+ * sequence number, the operation and the user encoded as by {@link UserRecordCodec}. Writers
+ * do not force the log themselves; they queue their record and wait while a single commit
+ * thread writes everything queued, up to the group commit size, and forces it with one fsync,
+ * so concurrent registrations share the cost of a disk flush. A commit delay can hold a
+ * partial group back to let more writers join.
+ * The log is split into segments named after the first sequence number they may hold. A
+ * snapshot writes every user through a temporary file and an atomic rename, headed by the last
+ * sequence number applied when it started and the highest user id handed out, so that ids of
+ * accounts removed before the snapshot are not reused, and deletes the segments it covers.
+ * Snapshots run while writes continue, so a user changed meanwhile may be written in either
+ * state; that is harmless because recovery replays every record after the snapshot's sequence
+ * number, and each record replaces the whole user. Recovery therefore loads the snapshot and
+ * replays only the tail of the log. A record torn by a crash at the end of the last segment is cut off, since
+ * its writer never got an answer.
+ * Changes are applied to memory in log order before they are durable, so a reader may see a
+ * change a moment before its writer returns. Once the log cannot be written the store rejects
+ * further changes.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public class WalUserStore extends AbstractUserStore {
+
+    static final String SNAPSHOT_FILE = "users.snapshot";
+    static final int DEFAULT_GROUP_COMMIT_SIZE = 256;
+    static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+    static final long DEFAULT_SNAPSHOT_MIN_RECORDS = 10_000;
+
+    private static final String SNAPSHOT_HEADER = "# gameauth snapshot v1 ";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    // Body length and CRC-32
+    private static final int FRAME_HEADER_BYTES = 8;
+    // Sequence number and operation
+    private static final int BODY_HEADER_BYTES = 9;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final int groupCommitSize;
+    private final long groupCommitDelayNanos;
+    private final long snapshotMinRecords;
+    private final Map<String, UserCredentials> users;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordsQueued = lock.newCondition();
+    private final Condition recordsCommitted = lock.newCondition();
+    private final Object snapshotLock = new Object();
+    private final LongAdder syncCount = new LongAdder();
+    private final ExecutorService committer;
+    private final ScheduledExecutorService snapshotter;
+
+    // Guarded by lock
+    private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+    private long appendedSequence;
+    private long takenSequence;
+    private long committedSequence;
+    private boolean rollRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // Guarded by snapshotLock
+    private long snapshotSequence;
+
+    // Owned by the commit thread
+    private FileChannel segment;
+
+    /**
+     * Constructor for opening a store with the default group commit and snapshot settings,
+     * recovering the users logged in the directory.
+     *
+     * @param directory the directory holding the log and the snapshot, created if missing
+     * @throws UserStoreException if the directory cannot be read or recovered
+     */
+    public WalUserStore(Path directory) {
+        this(directory, DEFAULT_GROUP_COMMIT_SIZE, Duration.ZERO, DEFAULT_SNAPSHOT_INTERVAL,
+                DEFAULT_SNAPSHOT_MIN_RECORDS);
+    }
+
+    /**
+     * Constructor for opening a store, recovering the users logged in the directory.
+     *
+     * @param directory the directory holding the log and the snapshot, created if missing
+     * @param groupCommitSize the most mutations forced to disk with one fsync
+     * @param groupCommitDelay how long a partial group waits for more writers, or zero
+     * @param snapshotInterval how often to check whether a snapshot is due
+     * @param snapshotMinRecords the mutations logged since the last snapshot that make one due
+     * @throws IllegalArgumentException if directory is null or a setting is out of range
+     * @throws UserStoreException if the directory cannot be read or recovered
+     */
+    public WalUserStore(Path directory, int groupCommitSize, Duration groupCommitDelay, Duration snapshotInterval,
+            long snapshotMinRecords) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        if (groupCommitSize <= 0) {
+            throw new IllegalArgumentException("Group commit size must be positive");
+        }
+        if (groupCommitDelay == null || groupCommitDelay.isNegative()) {
+            throw new IllegalArgumentException("Group commit delay cannot be negative");
+        }
+        if (snapshotInterval == null || snapshotInterval.toMillis() <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        if (snapshotMinRecords <= 0) {
+            throw new IllegalArgumentException("Snapshot min records must be positive");
+        }
+        this.directory = directory;
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitDelayNanos = groupCommitDelay.toNanos();
+        this.snapshotMinRecords = snapshotMinRecords;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to create " + directory, e);
+        }
+        // Sized up front so recovering a large store does not grow the map step by step
+        this.users = new ConcurrentHashMap<>(snapshotUserCount());
+        long recovered = recover();
+        this.appendedSequence = recovered;
+        this.takenSequence = recovered;
+        this.committedSequence = recovered;
+        this.segment = openSegment(recovered + 1);
+        this.committer = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("gameauth-user-log-commit").setDaemon(true).build());
+        this.committer.execute(this::commit);
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("gameauth-user-log-snapshot").setDaemon(true).build());
+        long intervalMillis = snapshotInterval.toMillis();
+        this.snapshotter.scheduleWithFixedDelay(this::snapshotIfDue, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the store described by the {@code auth.userLog} configuration block.
+     *
+     * @param configuration the user log configuration
+     * @return the store
+     * @throws IllegalArgumentException if no directory is configured
+     * @throws UserStoreException if the directory cannot be read or recovered
+     */
+    public static WalUserStore fromConfiguration(UserLogConfiguration configuration) {
+        if (!configuration.isEnabled()) {
+            throw new IllegalArgumentException("User log directory is not configured");
+        }
+        return new WalUserStore(Paths.get(configuration.getDirectory()), configuration.getGroupCommitSize(),
+                Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(configuration.getGroupCommitDelayMicros())),
+                Duration.ofSeconds(configuration.getSnapshotIntervalSeconds()), configuration.getSnapshotMinRecords());
+    }
+
+    @Override
+    public UserCredentials get(String username) {
+        return users.get(username);
+    }
+
+    @Override
+    public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+        Map<String, UserCredentials> found = new HashMap<>();
+        for (String username : usernames) {
+            UserCredentials credentials = users.get(username);
+            if (credentials != null) {
+                found.put(username, credentials);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(String username, UserCredentials credentials) {
+        UserCredentials previous;
+        UserCredentials stored;
+        long sequence;
+        lock.lock();
+        try {
+            checkWritable();
+            previous = users.get(username);
+            stored = assignCredentialEpoch(assignUserId(credentials, previous), previous);
+            sequence = append(PUT, UserRecordCodec.encode(username, stored));
+            users.put(username, stored);
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(sequence);
+        fireUserChanged(username, previous, stored);
+    }
+
+    @Override
+    public void putAll(Map<String, UserCredentials> newUsers) {
+        Map<String, UserCredentials> previous = new HashMap<>();
+        Map<String, UserCredentials> stored = new HashMap<>();
+        long sequence = 0;
+        lock.lock();
+        try {
+            checkWritable();
+            for (Map.Entry<String, UserCredentials> entry : newUsers.entrySet()) {
+                UserCredentials existing = users.get(entry.getKey());
+                UserCredentials credentials = assignCredentialEpoch(assignUserId(entry.getValue(), existing), existing);
+                sequence = append(PUT, UserRecordCodec.encode(entry.getKey(), credentials));
+                users.put(entry.getKey(), credentials);
+                previous.put(entry.getKey(), existing);
+                stored.put(entry.getKey(), credentials);
+            }
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(sequence);
+        for (Map.Entry<String, UserCredentials> entry : stored.entrySet()) {
+            fireUserChanged(entry.getKey(), previous.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean replace(String username, UserCredentials expected, UserCredentials updated) {
+        UserCredentials stored;
+        long sequence;
+        lock.lock();
+        try {
+            checkWritable();
+            if (!expected.equals(users.get(username))) {
+                return false;
+            }
+            stored = assignCredentialEpoch(assignUserId(updated, expected), expected);
+            sequence = append(PUT, UserRecordCodec.encode(username, stored));
+            users.put(username, stored);
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(sequence);
+        fireUserChanged(username, expected, stored);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String username) {
+        UserCredentials previous;
+        long sequence;
+        lock.lock();
+        try {
+            checkWritable();
+            previous = users.get(username);
+            if (previous == null) {
+                return false;
+            }
+            sequence = append(REMOVE, username);
+            users.remove(username);
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(sequence);
+        fireUserChanged(username, previous, null);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, UserCredentials> action) {
+        users.forEach(action);
+    }
+
+    /**
+     * Writes a snapshot of every user and deletes the log segments it makes redundant.
+     * Runs alongside writers; only one snapshot runs at a time.
+     *
+     * @throws IllegalStateException if the store is closed
+     * @throws UserStoreException if the snapshot cannot be written
+     */
+    public void snapshot() {
+        synchronized (snapshotLock) {
+            long sequence;
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("User store is closed");
+                }
+                // Every record up to here is already applied to the map the snapshot reads
+                sequence = appendedSequence;
+                // Start a new segment so the current one becomes deletable
+                rollRequested = true;
+                recordsQueued.signal();
+            } finally {
+                lock.unlock();
+            }
+            writeSnapshot(sequence);
+            snapshotSequence = sequence;
+            deleteSegmentsCoveredBy(sequence);
+        }
+    }
+
+    /**
+     * Gets the directory holding the log and the snapshot.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets how many times the log has been forced to disk since the store was opened.
+     * Compared with the number of mutations, this gives the average group commit size.
+     *
+     * @return the number of fsyncs
+     */
+    public long getSyncCount() {
+        return syncCount.sum();
+    }
+
+    /**
+     * Commits every queued change, stops the background threads and closes the log.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            recordsQueued.signal();
+        } finally {
+            lock.unlock();
+        }
+        // Lets a running snapshot finish; a pending one is cancelled
+        snapshotter.shutdown();
+        committer.shutdown();
+        try {
+            snapshotter.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            committer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to close the user log in " + directory, e);
+        }
+    }
+
+    /**
+     * Queues a record for the commit thread. Must be called while holding the lock.
+     */
+    private long append(byte operation, String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_BODY_BYTES - BODY_HEADER_BYTES) {
+            throw new IllegalArgumentException("User record exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+        long sequence = ++appendedSequence;
+        ByteBuffer record = ByteBuffer.allocate(FRAME_HEADER_BYTES + BODY_HEADER_BYTES + bytes.length);
+        record.putInt(BODY_HEADER_BYTES + bytes.length).putInt(0).putLong(sequence).put(operation).put(bytes);
+        record.putInt(4, checksum(record.array(), FRAME_HEADER_BYTES, BODY_HEADER_BYTES + bytes.length));
+        record.flip();
+        queue.add(record);
+        recordsQueued.signal();
+        return sequence;
+    }
+
+    private void awaitCommit(long sequence) {
+        lock.lock();
+        try {
+            // The change is already visible, so the writer waits for its outcome even if interrupted
+            while (committedSequence < sequence && failure == null) {
+                recordsCommitted.awaitUninterruptibly();
+            }
+            if (committedSequence < sequence) {
+                throw new UserStoreException("Failed to write the user log in " + directory, failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkWritable() {
+        if (closed) {
+            throw new IllegalStateException("User store is closed");
+        }
+        if (failure != null) {
+            throw new UserStoreException("Failed to write the user log in " + directory, failure);
+        }
+    }
+
+    /**
+     * Body of the commit thread: takes up to a group of queued records, writes them with one
+     * fsync and wakes their writers, until the store is closed and the queue drained.
+     */
+    private void commit() {
+        List<ByteBuffer> group = new ArrayList<>(Math.min(groupCommitSize, 1024));
+        while (true) {
+            long firstSequence;
+            boolean roll;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !rollRequested && !closed) {
+                    recordsQueued.awaitUninterruptibly();
+                }
+                if (queue.isEmpty() && !rollRequested) {
+                    return;
+                }
+                awaitGroup();
+                firstSequence = takenSequence + 1;
+                while (group.size() < groupCommitSize && !queue.isEmpty()) {
+                    group.add(queue.poll());
+                }
+                takenSequence += group.size();
+                roll = rollRequested;
+                rollRequested = false;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (roll) {
+                    segment.close();
+                    segment = openSegment(firstSequence);
+                }
+                if (!group.isEmpty()) {
+                    write(group);
+                    segment.force(false);
+                    syncCount.increment();
+                }
+            } catch (IOException | UserStoreException e) {
+                lock.lock();
+                try {
+                    failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                    recordsCommitted.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                committedSequence = firstSequence + group.size() - 1;
+                recordsCommitted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            group.clear();
+        }
+    }
+
+    /**
+     * Waits up to the group commit delay for the queue to fill a group. Must be called while
+     * holding the lock.
+     */
+    private void awaitGroup() {
+        long remaining = groupCommitDelayNanos;
+        while (remaining > 0 && queue.size() < groupCommitSize && !closed) {
+            try {
+                remaining = recordsQueued.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<ByteBuffer> group) throws IOException {
+        ByteBuffer[] buffers = group.toArray(new ByteBuffer[0]);
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            segment.write(buffers);
+        }
+    }
+
+    private FileChannel openSegment(long firstSequence) {
+        Path file = segmentFile(firstSequence);
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            syncDirectory();
+            return channel;
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to open " + file, e);
+        }
+    }
+
+    private void snapshotIfDue() {
+        long logged;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            logged = appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            synchronized (snapshotLock) {
+                if (logged - snapshotSequence < snapshotMinRecords) {
+                    return;
+                }
+                snapshot();
+            }
+        } catch (IllegalStateException | UserStoreException e) {
+            // The log still holds every change; the next interval tries again
+        }
+    }
+
+    private void writeSnapshot(long sequence) {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16);
+            writer.write(SNAPSHOT_HEADER + sequence + " " + users.size() + " " + getLastUserId());
+            writer.newLine();
+            for (Map.Entry<String, UserCredentials> entry : users.entrySet()) {
+                writer.write(UserRecordCodec.encode(entry.getKey(), entry.getValue()));
+                writer.newLine();
+            }
+            writer.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to write snapshot " + temp, e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UserStoreException("Failed to replace " + file, e);
+        }
+        syncDirectory();
+    }
+
+    private void deleteSegmentsCoveredBy(long sequence) {
+        List<Long> segments = listSegments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // A segment ends just before the next one starts
+            if (segments.get(i + 1) - 1 <= sequence) {
+                Path file = segmentFile(segments.get(i));
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UserStoreException("Failed to delete " + file, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the snapshot and replays the log records after it.
+     *
+     * @return the last sequence number recovered
+     */
+    private long recover() {
+        Map<String, Set<String>> roleSets = new HashMap<>();
+        long sequence = loadSnapshot(roleSets);
+        snapshotSequence = sequence;
+        List<Long> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            sequence = replay(segmentFile(segments.get(i)), sequence, i == segments.size() - 1, roleSets);
+        }
+        return sequence;
+    }
+
+    private long loadSnapshot(Map<String, Set<String>> roleSets) {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long[] header = parseSnapshotHeader(reader.readLine());
+            long sequence = header[0];
+            reserveUserId(header[2]);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    applyPut(line, roleSets);
+                }
+            }
+            return sequence;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UserStoreException("Failed to load snapshot " + file, e);
+        }
+    }
+
+    private int snapshotUserCount() {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 16;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return (int) Math.min(parseSnapshotHeader(reader.readLine())[1], 1 << 30);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UserStoreException("Failed to load snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Parses a snapshot header into the last sequence number the snapshot covers, the number of
+     * users it held when it started, which is only a sizing hint, and the last user id handed
+     * out, which is 0 in snapshots written before it was recorded.
+     */
+    private static long[] parseSnapshotHeader(String header) {
+        if (header == null || !header.startsWith(SNAPSHOT_HEADER)) {
+            throw new IllegalArgumentException("Missing snapshot header");
+        }
+        String[] fields = header.substring(SNAPSHOT_HEADER.length()).split(" ");
+        if (fields.length != 2 && fields.length != 3) {
+            throw new IllegalArgumentException("Malformed snapshot header: " + header);
+        }
+        return new long[] {Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                fields.length == 3 ? Long.parseLong(fields[2]) : 0};
+    }
+
+    /**
+     * Applies the records of one segment that come after a sequence number. A damaged record
+     * ends the replay; in the last segment it is taken for a write torn by a crash and the
+     * segment is truncated before it.
+     *
+     * @return the last sequence number applied
+     */
+    private long replay(Path file, long sequence, boolean last, Map<String, Set<String>> roleSets) {
+        long valid = 0;
+        boolean damaged = false;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+            byte[] body = new byte[256];
+            while (true) {
+                int read = readFully(in, header.array(), FRAME_HEADER_BYTES);
+                if (read == 0) {
+                    break;
+                }
+                int length = read == FRAME_HEADER_BYTES ? header.getInt(0) : -1;
+                if (length < BODY_HEADER_BYTES || length > MAX_BODY_BYTES) {
+                    damaged = true;
+                    break;
+                }
+                if (body.length < length) {
+                    body = new byte[Math.max(length, 2 * body.length)];
+                }
+                if (readFully(in, body, length) < length || checksum(body, 0, length) != header.getInt(4)) {
+                    damaged = true;
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(body, 0, length);
+                long recordSequence = record.getLong();
+                byte operation = record.get();
+                if (recordSequence > sequence) {
+                    String payload = new String(body, BODY_HEADER_BYTES, length - BODY_HEADER_BYTES,
+                            StandardCharsets.UTF_8);
+                    if (operation == PUT) {
+                        applyPut(payload, roleSets);
+                    } else if (operation == REMOVE) {
+                        users.remove(payload);
+                    } else {
+                        throw new IllegalArgumentException("Unknown operation " + operation);
+                    }
+                    sequence = recordSequence;
+                }
+                valid += FRAME_HEADER_BYTES + length;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UserStoreException("Failed to replay user log " + file, e);
+        }
+        if (damaged) {
+            if (!last) {
+                throw new UserStoreException("Failed to replay user log " + file,
+                        new IOException("Damaged record at offset " + valid));
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UserStoreException("Failed to truncate " + file, e);
+            }
+        }
+        return sequence;
+    }
+
+    private void applyPut(String line, Map<String, Set<String>> roleSets) {
+        UserRecordCodec.decode(line, roleSets, (username, credentials) -> {
+            reserveUserId(credentials.getUserId());
+            users.put(username, credentials);
+        });
+    }
+
+    private List<Long> listSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException | NumberFormatException e) {
+            throw new UserStoreException("Failed to list the user log in " + directory, e);
+        }
+    }
+
+    private Path segmentFile(long firstSequence) {
+        // Zero padded so the segments also sort by name
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Forces the directory entry of a created or renamed file to disk. Not every platform can
+     * open a directory, so this is best effort.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The file itself is durable; only its name may be lost in a crash
+        }
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = in.read(buffer, read, length - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        return read;
+    }
+}
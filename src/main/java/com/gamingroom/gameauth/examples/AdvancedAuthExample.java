@@ -202,7 +202,7 @@ public class AdvancedAuthExample {
             validUser = Optional.empty();
         }
         if (validUser.isPresent()) {
-            boolean nullRoleAuth = authorizer.authorize(validUser.get(), null);
+            boolean nullRoleAuth = authorizer.authorize(validUser.get(), (String) null);
             System.out.println("   ✓ Null role authorization handled: " + (!nullRoleAuth ? "PASS" : "FAIL"));
         }
     }
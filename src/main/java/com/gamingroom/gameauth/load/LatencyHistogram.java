@@ -0,0 +1,140 @@
+package com.gamingroom.gameauth.load;
+
+/**
+ * Fixed-size latency histogram with bounded relative error, in the manner of HdrHistogram.
+ * Values below {@value #SUB_BUCKETS} are counted exactly; above that every power of two is
+ * split into {@value #HALF_BUCKETS} linear buckets, so any recorded value is reported within
+ * 1/{@value #HALF_BUCKETS} (under 1.6 %) of its true value. Recording is a few arithmetic
+ * operations and never allocates, so one histogram per thread can record every request and
+ * the histograms are merged afterwards. Not thread-safe.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_BUCKETS = SUB_BUCKETS / 2;
+    // Largest exponent needed for a positive long: 62 - SUB_BUCKET_BITS + 1
+    private static final int MAX_EXPONENT = 63 - SUB_BUCKET_BITS;
+    private static final int BUCKETS = (MAX_EXPONENT + 1) * HALF_BUCKETS + HALF_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records one value.
+     *
+     * @param value the value, typically a latency in nanoseconds; negative values count as 0
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other the histogram to add
+     * @throws IllegalArgumentException if other is null
+     */
+    public void add(LatencyHistogram other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Histogram cannot be null");
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the value at a percentile, as the highest value equivalent to the bucket it falls in.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the value, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if percentile is outside 0 to 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, highestEquivalentValue(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Gets the smallest recorded value.
+     *
+     * @return the minimum, or 0 if nothing was recorded
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return the maximum, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        // value >>> exponent lies in [HALF_BUCKETS, SUB_BUCKETS), so buckets stay contiguous
+        return exponent * HALF_BUCKETS + (int) (value >>> exponent);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / HALF_BUCKETS - 1;
+        long subBucket = index - (long) exponent * HALF_BUCKETS;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+}
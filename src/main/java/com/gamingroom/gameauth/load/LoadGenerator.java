@@ -0,0 +1,418 @@
+package com.gamingroom.gameauth.load;
+
+import com.gamingroom.gameauth.auth.GameAuthenticator;
+import com.gamingroom.gameauth.auth.GameAuthorizer;
+import com.gamingroom.gameauth.auth.GameUser;
+import com.gamingroom.gameauth.auth.PasswordHasher;
+import com.gamingroom.gameauth.auth.RoleHierarchy;
+import com.gamingroom.gameauth.auth.UsernameFilter;
+import com.gamingroom.gameauth.auth.UsernameFilterConfiguration;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load harness for {@link GameAuthenticator} and {@link GameAuthorizer}.
+ * A number of threads each pick operations from a weighted mix as fast as they complete and
+ * record the latency of every operation after the warmup into a thread-local
+ * {@link LatencyHistogram}; the histograms are merged once the run ends, so measuring adds no
+ * shared state of its own. Running the same mix at rising thread counts shows how throughput
+ * and tail latency scale with cores and where they stop scaling.
+ * Because every thread waits for its previous operation, a stall delays the requests that
+ * would have arrived meanwhile instead of recording them as slow; tail percentiles are
+ * therefore a lower bound for an open-loop arrival process.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class LoadGenerator {
+
+    /**
+     * Operations of the mix.
+     */
+    public enum Operation {
+        /** Login with a valid password. */
+        HIT("hit"),
+        /** Login of an existing account with a wrong password. */
+        WRONG_PASSWORD("wrong"),
+        /** Login of a username that does not exist. */
+        UNKNOWN_USER("unknown"),
+        /** Role check of an authenticated user. */
+        AUTHORIZE("authorize");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Gets the name used in {@code --mix} and in reports.
+         *
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        static Operation fromName(String name) {
+            for (Operation operation : values()) {
+                if (operation.label.equalsIgnoreCase(name)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + name);
+        }
+    }
+
+    private static final String PASSWORD = "playerpass";
+    private static final int PRINCIPALS = 4096;
+    private static final String[] REQUIREMENTS = {"USER", "MODERATOR", "ADMIN"};
+
+    private final LoadOptions options;
+    private final GameAuthenticator authenticator;
+    private final GameAuthorizer authorizer;
+    private final GameUser[] principals;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    /**
+     * Creates a harness and fills its store with {@link LoadOptions#getUsers()} accounts.
+     * All accounts share one password hash, so setup does not hash once per account; every
+     * verification still costs the configured iterations.
+     *
+     * @param options the settings
+     * @throws IllegalArgumentException if options is null
+     */
+    public LoadGenerator(LoadOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Options cannot be null");
+        }
+        this.options = options;
+
+        PasswordHasher hasher = new PasswordHasher(options.getIterations());
+        PasswordHash hash = hasher.hash(PASSWORD);
+        UserStore store = new InMemoryUserStore(options.getUsers());
+        Map<String, UserCredentials> accounts = new HashMap<>();
+        for (int i = 0; i < options.getUsers(); i++) {
+            accounts.put(username(i), new UserCredentials(hash, rolesOf(i)));
+        }
+        store.putAll(accounts);
+        this.authenticator = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .usernameFilter(options.isUsernameFilter()
+                        ? new UsernameFilter(store, new UsernameFilterConfiguration()) : null)
+                .build();
+
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        hierarchy.addImplication("MODERATOR", "USER");
+        this.authorizer = new GameAuthorizer(hierarchy);
+        this.principals = new GameUser[Math.min(PRINCIPALS, options.getUsers())];
+        for (int i = 0; i < principals.length; i++) {
+            principals[i] = new GameUser(username(i), rolesOf(i), i + 1);
+        }
+
+        List<Operation> selected = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : options.getMix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                selected.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        this.operations = selected.toArray(new Operation[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Runs the mix with a number of threads for the warmup and measurement time.
+     *
+     * @param threads the number of threads
+     * @return the latencies and throughput of the measurement window
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public Result run(int threads) throws InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+        List<Map<Operation, LatencyHistogram>> recorded = new ArrayList<>();
+        LongAdder unexpected = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] window = new long[2];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+            for (Operation operation : operations) {
+                histograms.put(operation, new LatencyHistogram());
+            }
+            recorded.add(histograms);
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                drive(histograms, window[0], window[1], unexpected);
+            }, "gameauth-load-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        ready.await();
+        window[0] = System.nanoTime() + options.getWarmup().toNanos();
+        window[1] = window[0] + options.getDuration().toNanos();
+        // The latch publishes the window to the workers
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Map<Operation, LatencyHistogram> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (Map<Operation, LatencyHistogram> histograms : recorded) {
+                histogram.add(histograms.get(operation));
+            }
+            merged.put(operation, histogram);
+        }
+        return new Result(threads, options.getDuration().toNanos(), merged, unexpected.sum());
+    }
+
+    private void drive(Map<Operation, LatencyHistogram> histograms, long measureFrom, long measureUntil,
+            LongAdder unexpected) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LatencyHistogram[] byOperation = new LatencyHistogram[Operation.values().length];
+        histograms.forEach((operation, histogram) -> byOperation[operation.ordinal()] = histogram);
+        while (true) {
+            long begin = System.nanoTime();
+            if (begin >= measureUntil) {
+                return;
+            }
+            Operation operation = pick(random);
+            boolean expected = perform(operation, random);
+            long end = System.nanoTime();
+            if (begin >= measureFrom) {
+                byOperation[operation.ordinal()].record(end - begin);
+                if (!expected) {
+                    unexpected.increment();
+                }
+            }
+        }
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Performs one operation.
+     *
+     * @return whether the outcome was the one the operation should have
+     */
+    private boolean perform(Operation operation, ThreadLocalRandom random) {
+        int user = random.nextInt(options.getUsers());
+        try {
+            switch (operation) {
+                case HIT:
+                    return authenticator.authenticate(new BasicCredentials(username(user), PASSWORD)).isPresent();
+                case WRONG_PASSWORD:
+                    return !authenticator.authenticate(new BasicCredentials(username(user), "wrong")).isPresent();
+                case UNKNOWN_USER:
+                    return !authenticator.authenticate(new BasicCredentials("ghost" + user, PASSWORD)).isPresent();
+                case AUTHORIZE:
+                    GameUser principal = principals[user % principals.length];
+                    int requirement = random.nextInt(REQUIREMENTS.length);
+                    return authorizer.authorize(principal, REQUIREMENTS[requirement])
+                            == principal.hasAnyRole(REQUIREMENTS[requirement], "ADMIN");
+                default:
+                    throw new IllegalStateException("Unknown operation: " + operation);
+            }
+        } catch (AuthenticationException e) {
+            return false;
+        }
+    }
+
+    private static String username(int index) {
+        return "player" + index;
+    }
+
+    private static Set<String> rolesOf(int index) {
+        // 1 % admins, 9 % moderators, the rest players
+        int bucket = index % 100;
+        if (bucket == 0) {
+            return ImmutableSet.of("ADMIN", "USER");
+        }
+        return bucket < 10 ? ImmutableSet.of("MODERATOR", "USER") : ImmutableSet.of("PLAYER", "USER");
+    }
+
+    /**
+     * Runs the harness from the command line and prints a report per thread count followed by
+     * a scaling summary.
+     *
+     * @param args options, see {@link LoadOptions}
+     * @throws InterruptedException if interrupted while waiting for a run
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("Options: --threads=1,2,4 --users=100000 --mix=hit=45,wrong=5,unknown=25,authorize=25");
+            System.out.println("         --iterations=10000 --warmup=2s --duration=10s --username-filter=false");
+            return;
+        }
+
+        StringBuilder mix = new StringBuilder();
+        options.getMix().forEach((operation, weight) -> mix.append(' ').append(operation.getLabel())
+                .append('=').append(weight));
+        System.out.printf("Load: %d users, %d iterations, mix%s, username filter %s, %d cores%n",
+                options.getUsers(), options.getIterations(), mix, options.isUsernameFilter() ? "on" : "off",
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("Warmup %d ms and measurement %d ms per thread count; latencies in microseconds%n",
+                options.getWarmup().toMillis(), options.getDuration().toMillis());
+
+        LoadGenerator generator = new LoadGenerator(options);
+        List<Result> results = new ArrayList<>();
+        for (int threads : options.getThreads()) {
+            Result result = generator.run(threads);
+            results.add(result);
+            System.out.println();
+            System.out.printf("--- %d thread(s): %.0f ops/s%s%n", threads, result.getThroughput(),
+                    result.getUnexpectedCount() > 0 ? ", " + result.getUnexpectedCount() + " unexpected outcomes" : "");
+            System.out.printf("%-10s %10s %12s %10s %10s %10s %10s%n",
+                    "operation", "count", "ops/s", "p50", "p99", "p999", "max");
+            for (Map.Entry<Operation, LatencyHistogram> entry : result.getHistograms().entrySet()) {
+                print(entry.getKey().getLabel(), entry.getValue(), result.getThroughput(entry.getKey()));
+            }
+            print("all", result.getTotal(), result.getThroughput());
+        }
+
+        System.out.println();
+        System.out.println("--- Scaling");
+        System.out.printf("%-8s %12s %8s %10s %10s %10s%n", "threads", "ops/s", "speedup", "p50", "p99", "p999");
+        double baseline = results.get(0).getThroughput() / results.get(0).getThreads();
+        for (Result result : results) {
+            LatencyHistogram total = result.getTotal();
+            System.out.printf("%-8d %12.0f %7.2fx %10s %10s %10s%n", result.getThreads(), result.getThroughput(),
+                    result.getThroughput() / baseline, micros(total.getValueAtPercentile(50)),
+                    micros(total.getValueAtPercentile(99)), micros(total.getValueAtPercentile(99.9)));
+        }
+    }
+
+    private static void print(String label, LatencyHistogram histogram, double throughput) {
+        System.out.printf("%-10s %10d %12.0f %10s %10s %10s %10s%n", label, histogram.getTotalCount(), throughput,
+                micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(99)),
+                micros(histogram.getValueAtPercentile(99.9)), micros(histogram.getMax()));
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, nanos < 10_000 ? "%.2f" : "%.0f", nanos / 1000.0);
+    }
+
+    /**
+     * Latencies and throughput of one run.
+     */
+    public static final class Result {
+        private final int threads;
+        private final long elapsedNanos;
+        private final Map<Operation, LatencyHistogram> histograms;
+        private final long unexpectedCount;
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        Result(int threads, long elapsedNanos, Map<Operation, LatencyHistogram> histograms, long unexpectedCount) {
+            this.threads = threads;
+            this.elapsedNanos = elapsedNanos;
+            this.histograms = histograms;
+            this.unexpectedCount = unexpectedCount;
+            histograms.values().forEach(total::add);
+        }
+
+        /**
+         * Gets the number of threads of the run.
+         *
+         * @return the thread count
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Gets the latencies of each operation in nanoseconds.
+         *
+         * @return the histograms by operation, for operations in the mix
+         */
+        public Map<Operation, LatencyHistogram> getHistograms() {
+            return histograms;
+        }
+
+        /**
+         * Gets the latencies of all operations together in nanoseconds.
+         *
+         * @return the merged histogram
+         */
+        public LatencyHistogram getTotal() {
+            return total;
+        }
+
+        /**
+         * Gets the number of operations with an outcome other than expected, such as a failed
+         * login with a valid password; non-zero means the numbers measure the wrong thing.
+         *
+         * @return the unexpected outcome count
+         */
+        public long getUnexpectedCount() {
+            return unexpectedCount;
+        }
+
+        /**
+         * Gets the operations completed per second over the measurement window.
+         *
+         * @return the throughput
+         */
+        public double getThroughput() {
+            return total.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        /**
+         * Gets the completions of one operation per second over the measurement window.
+         *
+         * @param operation the operation
+         * @return the throughput, 0 if the operation is not in the mix
+         */
+        public double getThroughput(Operation operation) {
+            LatencyHistogram histogram = histograms.get(operation);
+            return histogram == null ? 0
+                    : histogram.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.gamingroom.gameauth.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of a {@link LoadGenerator} run, parsed from {@code --name=value} arguments:
+ * <ul>
+ *   <li>{@code --threads=1,2,4} thread counts to run one after another (default: powers of
+ *       two up to twice the core count)</li>
+ *   <li>{@code --users=100000} accounts in the store</li>
+ *   <li>{@code --mix=hit=45,wrong=5,unknown=25,authorize=25} relative weights of the
+ *       operations, see {@link LoadGenerator.Operation}</li>
+ *   <li>{@code --iterations=10000} password hashing cost</li>
+ *   <li>{@code --warmup=2s} and {@code --duration=10s} per thread count, in {@code ms},
+ *       {@code s} or {@code m}</li>
+ *   <li>{@code --username-filter=true} reject unknown users through the username filter</li>
+ * </ul>
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+public final class LoadOptions {
+
+    private List<Integer> threads = defaultThreads();
+    private int users = 100_000;
+    private final Map<LoadGenerator.Operation, Integer> mix = new EnumMap<>(LoadGenerator.Operation.class);
+    private int iterations = 10_000;
+    private Duration warmup = Duration.ofSeconds(2);
+    private Duration duration = Duration.ofSeconds(10);
+    private boolean usernameFilter;
+
+    /**
+     * Creates the default settings: mostly successful logins, a flood of unknown users, some
+     * wrong passwords, and role checks for a quarter of the operations.
+     */
+    public LoadOptions() {
+        mix.put(LoadGenerator.Operation.HIT, 45);
+        mix.put(LoadGenerator.Operation.WRONG_PASSWORD, 5);
+        mix.put(LoadGenerator.Operation.UNKNOWN_USER, 25);
+        mix.put(LoadGenerator.Operation.AUTHORIZE, 25);
+    }
+
+    /**
+     * Parses command line arguments.
+     *
+     * @param args arguments of the form {@code --name=value}
+     * @return the settings, with defaults for arguments not given
+     * @throws IllegalArgumentException if an argument is unknown or its value is invalid
+     */
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "threads":
+                    options.setThreads(parseIntegers(value));
+                    break;
+                case "users":
+                    options.setUsers(parseInt(name, value));
+                    break;
+                case "mix":
+                    options.setMix(parseMix(value));
+                    break;
+                case "iterations":
+                    options.setIterations(parseInt(name, value));
+                    break;
+                case "warmup":
+                    options.setWarmup(parseDuration(value));
+                    break;
+                case "duration":
+                    options.setDuration(parseDuration(value));
+                    break;
+                case "username-filter":
+                    options.setUsernameFilter(Boolean.parseBoolean(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Gets the thread counts, run one after another.
+     *
+     * @return the thread counts
+     */
+    public List<Integer> getThreads() {
+        return threads;
+    }
+
+    public void setThreads(List<Integer> threads) {
+        if (threads == null || threads.isEmpty() || threads.stream().anyMatch(count -> count == null || count < 1)) {
+            throw new IllegalArgumentException("Thread counts must be positive");
+        }
+        this.threads = Collections.unmodifiableList(new ArrayList<>(threads));
+    }
+
+    /**
+     * Gets the number of accounts in the store.
+     *
+     * @return the number of accounts
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        if (users < 1) {
+            throw new IllegalArgumentException("Users must be positive");
+        }
+        this.users = users;
+    }
+
+    /**
+     * Gets the relative weights of the operations; operations left out never run.
+     *
+     * @return the weights by operation
+     */
+    public Map<LoadGenerator.Operation, Integer> getMix() {
+        return Collections.unmodifiableMap(mix);
+    }
+
+    public void setMix(Map<LoadGenerator.Operation, Integer> weights) {
+        if (weights == null || weights.values().stream().anyMatch(weight -> weight == null || weight < 0)
+                || weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix weights must be non-negative and not all zero");
+        }
+        mix.clear();
+        mix.putAll(weights);
+    }
+
+    /**
+     * Gets the password hashing cost of the accounts.
+     *
+     * @return the PBKDF2 iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Gets how long each thread count runs before recording starts.
+     *
+     * @return the warmup time
+     */
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        if (warmup == null || warmup.isNegative()) {
+            throw new IllegalArgumentException("Warmup cannot be negative");
+        }
+        this.warmup = warmup;
+    }
+
+    /**
+     * Gets how long each thread count is measured.
+     *
+     * @return the measurement time
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.duration = duration;
+    }
+
+    /**
+     * Checks whether unknown usernames are rejected by the username filter before the lookup.
+     *
+     * @return true to use the filter
+     */
+    public boolean isUsernameFilter() {
+        return usernameFilter;
+    }
+
+    public void setUsernameFilter(boolean usernameFilter) {
+        this.usernameFilter = usernameFilter;
+    }
+
+    private static List<Integer> defaultThreads() {
+        List<Integer> counts = new ArrayList<>();
+        int limit = 2 * Runtime.getRuntime().availableProcessors();
+        for (int count = 1; count <= limit; count *= 2) {
+            counts.add(count);
+        }
+        return counts;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid --" + name + ": " + value, e);
+        }
+    }
+
+    private static List<Integer> parseIntegers(String value) {
+        List<Integer> counts = new ArrayList<>();
+        for (String count : value.split(",")) {
+            counts.add(parseInt("threads", count.trim()));
+        }
+        return counts;
+    }
+
+    private static Map<LoadGenerator.Operation, Integer> parseMix(String value) {
+        Map<LoadGenerator.Operation, Integer> weights = new EnumMap<>(LoadGenerator.Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid --mix entry: " + entry);
+            }
+            weights.put(LoadGenerator.Operation.fromName(parts[0].trim()), parseInt("mix", parts[1].trim()));
+        }
+        return weights;
+    }
+
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            if (text.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+            }
+            if (text.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value, e);
+        }
+        throw new IllegalArgumentException("Invalid duration, expected ms, s or m: " + value);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gamingroom.gameauth;
+
+import io.dropwizard.configuration.FileConfigurationSourceProvider;
+import io.dropwizard.configuration.YamlConfigurationFactory;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.jersey.validation.Validators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for GameAuthConfiguration class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("GameAuthConfiguration Tests")
+class GameAuthConfigurationTest {
+
+    @Test
+    @DisplayName("Should read the shipped application configuration")
+    void shouldReadTheShippedApplicationConfiguration() throws Exception {
+        // Given
+        YamlConfigurationFactory<GameAuthConfiguration> factory = new YamlConfigurationFactory<>(
+                GameAuthConfiguration.class, Validators.newValidator(), Jackson.newObjectMapper(), "dw");
+
+        // When
+        GameAuthConfiguration configuration =
+                factory.build(new FileConfigurationSourceProvider(), "config/application.yml");
+
+        // Then
+        assertThat(configuration.getAuth().getSessionTimeout()).isEqualTo(30);
+        assertThat(configuration.getAuth().getRateLimit().isEnabled()).isTrue();
+        assertThat(configuration.getAuth().getRateLimit().getMaxAttempts()).isEqualTo(5);
+        assertThat(configuration.getAuth().getRateLimit().getWindowMinutes()).isEqualTo(15);
+        assertThat(configuration.getAuth().getUsernameFilter().getFalsePositiveRate()).isEqualTo(0.01);
+        assertThat(configuration.getAuth().getSessions().getMaxSessions()).isEqualTo(1_000_000);
+        assertThat(configuration.getAuth().getSessions().isOffHeap()).isFalse();
+        assertThat(configuration.getAuth().getUserLog().isEnabled()).isFalse();
+        assertThat(configuration.getAuth().getUserLog().getGroupCommitSize()).isEqualTo(256);
+        assertThat(configuration.getAuth().getTokens().isEnabled()).isTrue();
+        assertThat(configuration.getAuth().getTokens().getSigningKeys()).isEmpty();
+        assertThat(configuration.getAuth().getRoleHierarchy())
+                .containsEntry("ADMIN", List.of("MODERATOR"))
+                .containsEntry("MODERATOR", List.of("USER"));
+        assertThat(configuration.getAuth().getPolicies())
+                .containsEntry("moderate-chat", "(ADMIN or (MODERATOR and PLAYER)) and not BANNED");
+        assertThat(configuration.getDatabase().getUrl()).isEqualTo("jdbc:h2:mem:gameauth");
+    }
+}
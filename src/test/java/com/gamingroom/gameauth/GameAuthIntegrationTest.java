@@ -192,7 +192,7 @@ class GameAuthIntegrationTest {
         }
         assertThat(validUser).isPresent();
         assertThat(authorizer.authorize(null, "USER")).isFalse();
-        assertThat(authorizer.authorize(validUser.get(), null)).isFalse();
+        assertThat(authorizer.authorize(validUser.get(), (String) null)).isFalse();
         assertThat(authorizer.authorize(validUser.get(), "")).isFalse();
     }
 
@@ -0,0 +1,78 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AuthorizationDecisionCache class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("AuthorizationDecisionCache Tests")
+class AuthorizationDecisionCacheTest {
+
+    @Test
+    @DisplayName("Should return stored decisions and count hits and misses")
+    void shouldReturnStoredDecisionsAndCountHitsAndMisses() {
+        // Given
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(64);
+
+        // When
+        int first = cache.lookup(0b101, "ADMIN", 0);
+        cache.store(0b101, "ADMIN", 0, true);
+        cache.store(0b101, "policy:staff", 0, false);
+        int second = cache.lookup(0b101, new String("ADMIN"), 0);
+        int third = cache.lookup(0b101, "policy:staff", 0);
+
+        // Then
+        assertThat(first).isEqualTo(AuthorizationDecisionCache.MISS);
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isZero();
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitRatio()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    @DisplayName("Should ignore decisions of other role sets and older versions")
+    void shouldIgnoreDecisionsOfOtherRoleSetsAndOlderVersions() {
+        // Given
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(64);
+        cache.store(0b101, "ADMIN", 3, true);
+
+        // When & Then
+        assertThat(cache.lookup(0b100, "ADMIN", 3)).isEqualTo(AuthorizationDecisionCache.MISS);
+        assertThat(cache.lookup(0b101, "ADMIN", 4)).isEqualTo(AuthorizationDecisionCache.MISS);
+        assertThat(cache.lookup(0b101, "USER", 3)).isEqualTo(AuthorizationDecisionCache.MISS);
+    }
+
+    @Test
+    @DisplayName("Should stay within its capacity by replacing decisions")
+    void shouldStayWithinItsCapacityByReplacingDecisions() {
+        // Given
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(1);
+
+        // When
+        cache.store(1, "ADMIN", 0, true);
+        cache.store(2, "ADMIN", 0, false);
+
+        // Then
+        assertThat(cache.getCapacity()).isEqualTo(1);
+        assertThat(cache.lookup(1, "ADMIN", 0)).isEqualTo(AuthorizationDecisionCache.MISS);
+        assertThat(cache.lookup(2, "ADMIN", 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should round capacity up to a power of two")
+    void shouldRoundCapacityUpToAPowerOfTwo() {
+        // When & Then
+        assertThat(new AuthorizationDecisionCache(1000).getCapacity()).isEqualTo(1024);
+        assertThat(new AuthorizationDecisionCache(1024).getCapacity()).isEqualTo(1024);
+        assertThat(new AuthorizationDecisionCache(8).getHitRatio()).isZero();
+        assertThatThrownBy(() -> new AuthorizationDecisionCache(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Capacity must be between 1 and 2^30");
+    }
+}
@@ -0,0 +1,115 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AuthorizationPolicy class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("AuthorizationPolicy Tests")
+class AuthorizationPolicyTest {
+
+    private RoleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RoleRegistry();
+    }
+
+    @Test
+    @DisplayName("Should bind not before and before or")
+    void shouldBindNotBeforeAndBeforeOr() {
+        // Given
+        AuthorizationPolicy policy = AuthorizationPolicy.compile(
+                "ADMIN or (MODERATOR and PLAYER) and not BANNED", registry);
+
+        // When & Then
+        assertThat(policy.test(registry.mask("ADMIN"))).isTrue();
+        assertThat(policy.test(registry.mask("ADMIN", "BANNED"))).isTrue();
+        assertThat(policy.test(registry.mask("MODERATOR", "PLAYER"))).isTrue();
+        assertThat(policy.test(registry.mask("MODERATOR", "PLAYER", "BANNED"))).isFalse();
+        assertThat(policy.test(registry.mask("MODERATOR"))).isFalse();
+        assertThat(policy.test(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should respect parentheses")
+    void shouldRespectParentheses() {
+        // Given
+        AuthorizationPolicy policy = AuthorizationPolicy.compile(
+                "(ADMIN or (MODERATOR and PLAYER)) AND NOT BANNED", registry);
+
+        // When & Then
+        assertThat(policy.test(registry.mask("ADMIN"))).isTrue();
+        assertThat(policy.test(registry.mask("ADMIN", "BANNED"))).isFalse();
+        assertThat(policy.test(registry.mask("PLAYER", "MODERATOR", "USER"))).isTrue();
+        assertThat(policy.getTermCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should negate compound expressions")
+    void shouldNegateCompoundExpressions() {
+        // Given
+        AuthorizationPolicy policy = AuthorizationPolicy.compile("not (ADMIN or not USER)", registry);
+
+        // When & Then
+        assertThat(policy.test(registry.mask("USER"))).isTrue();
+        assertThat(policy.test(registry.mask("USER", "ADMIN"))).isFalse();
+        assertThat(policy.test(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drop contradictory and redundant terms")
+    void shouldDropContradictoryAndRedundantTerms() {
+        // When
+        AuthorizationPolicy contradiction = AuthorizationPolicy.compile("USER and not USER", registry);
+        AuthorizationPolicy tautology = AuthorizationPolicy.compile("USER or not USER", registry);
+        AuthorizationPolicy absorbed = AuthorizationPolicy.compile("USER or USER and ADMIN or USER", registry);
+
+        // Then
+        assertThat(contradiction.getTermCount()).isZero();
+        assertThat(contradiction.test(registry.mask("USER"))).isFalse();
+        assertThat(tautology.test(0)).isTrue();
+        assertThat(absorbed.getTermCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed expressions")
+    void shouldRejectMalformedExpressions() {
+        // When & Then
+        assertThatThrownBy(() -> AuthorizationPolicy.compile("ADMIN or", registry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected a role");
+        assertThatThrownBy(() -> AuthorizationPolicy.compile("(ADMIN", registry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected ')'");
+        assertThatThrownBy(() -> AuthorizationPolicy.compile("ADMIN USER", registry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected 'USER'");
+        assertThatThrownBy(() -> AuthorizationPolicy.compile("and ADMIN", registry))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuthorizationPolicy.compile("  ", registry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Policy expression cannot be null or empty");
+    }
+
+    @Test
+    @DisplayName("Should reject expressions that expand to too many terms")
+    void shouldRejectExpressionsThatExpandToTooManyTerms() {
+        // Given: (A0 or B0) and (A1 or B1) and ... expands to 2^10 terms
+        StringBuilder expression = new StringBuilder("(A0 or B0)");
+        for (int i = 1; i < 10; i++) {
+            expression.append(" and (A").append(i).append(" or B").append(i).append(')');
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> AuthorizationPolicy.compile(expression.toString(), registry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too complex");
+    }
+}
@@ -0,0 +1,171 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.google.common.base.Ticker;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for CachingAuthenticator class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("CachingAuthenticator Tests")
+class CachingAuthenticatorTest {
+
+    private PasswordHasher hasher;
+    private UserStore store;
+    private AtomicLong nanos;
+    private CachingAuthenticator authenticator;
+
+    @BeforeEach
+    void setUp() {
+        hasher = new PasswordHasher(1000);
+        store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), Set.of("PLAYER")));
+        store.put("other", new UserCredentials(hasher.hash("otherpass"), Set.of("PLAYER")));
+        nanos = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        authenticator = new CachingAuthenticator(new GameAuthenticator(store, hasher, Runnable::run),
+                Duration.ofMinutes(5), 100, ticker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authenticator.close();
+    }
+
+    @Test
+    @DisplayName("Should answer repeated credentials from the cache")
+    void shouldAnswerRepeatedCredentialsFromTheCache() throws AuthenticationException {
+        // When
+        Optional<GameUser> first = authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+        Optional<GameUser> second = authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(second).isSameAs(first);
+        assertThat(authenticator.getMissCount()).isEqualTo(1);
+        assertThat(authenticator.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stop caching once closed")
+    void shouldStopCachingOnceClosed() throws AuthenticationException {
+        // Given
+        authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // When
+        authenticator.close();
+        store.put("player", new UserCredentials(hasher.hash("newpass"), Set.of("PLAYER")));
+
+        // Then
+        assertThat(authenticator.size()).isZero();
+        assertThat(authenticator.authenticate(new BasicCredentials("player", "playerpass"))).isEmpty();
+        assertThat(authenticator.authenticate(new BasicCredentials("player", "newpass"))).isPresent();
+        assertThat(authenticator.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache failed attempts")
+    void shouldNotCacheFailedAttempts() throws AuthenticationException {
+        // When
+        authenticator.authenticate(new BasicCredentials("player", "wrong"));
+        authenticator.authenticate(new BasicCredentials("player", "wrong"));
+
+        // Then
+        assertThat(authenticator.size()).isZero();
+        assertThat(authenticator.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not accept a different password for a cached user")
+    void shouldNotAcceptADifferentPasswordForACachedUser() throws AuthenticationException {
+        // Given
+        authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // When
+        Optional<GameUser> result = authenticator.authenticate(new BasicCredentials("player", "wrong"));
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should invalidate a user's entries when the store changes that user")
+    void shouldInvalidateAUsersEntriesWhenTheStoreChangesThatUser() throws AuthenticationException {
+        // Given
+        authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+        authenticator.authenticate(new BasicCredentials("other", "otherpass"));
+
+        // When
+        store.put("player", new UserCredentials(hasher.hash("newpass"), Set.of("PLAYER")));
+
+        // Then
+        assertThat(authenticator.authenticate(new BasicCredentials("player", "playerpass"))).isEmpty();
+        assertThat(authenticator.authenticate(new BasicCredentials("player", "newpass"))).isPresent();
+        assertThat(authenticator.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should invalidate entries when a user is removed")
+    void shouldInvalidateEntriesWhenAUserIsRemoved() throws AuthenticationException {
+        // Given
+        authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // When
+        store.remove("player");
+
+        // Then
+        assertThat(authenticator.authenticate(new BasicCredentials("player", "playerpass"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the time to live")
+    void shouldExpireEntriesAfterTheTimeToLive() throws AuthenticationException {
+        // Given
+        authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // Then
+        assertThat(authenticator.getMissCount()).isEqualTo(2);
+        assertThat(authenticator.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict entries beyond the maximum size")
+    void shouldEvictEntriesBeyondTheMaximumSize() throws AuthenticationException {
+        // Given
+        CachingAuthenticator small = new CachingAuthenticator(
+                new GameAuthenticator(store, hasher, Runnable::run), Duration.ofMinutes(5), 1);
+
+        // When
+        small.authenticate(new BasicCredentials("player", "playerpass"));
+        small.authenticate(new BasicCredentials("other", "otherpass"));
+
+        // Then
+        assertThat(small.size()).isEqualTo(1);
+        assertThat(small.getEvictionCount()).isEqualTo(1);
+    }
+}
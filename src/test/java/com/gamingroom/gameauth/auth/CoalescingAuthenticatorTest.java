@@ -0,0 +1,217 @@
+package com.gamingroom.gameauth.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for CoalescingAuthenticator class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("CoalescingAuthenticator Tests")
+class CoalescingAuthenticatorTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1000);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicBoolean failLookups = new AtomicBoolean();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private InMemoryUserStore store;
+    private CoalescingAuthenticator authenticator;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryUserStore() {
+            @Override
+            public UserCredentials get(String username) {
+                lookups.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failLookups.get()) {
+                    throw new IllegalStateException("Store unavailable");
+                }
+                return super.get(username);
+            }
+        };
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), Set.of("PLAYER")));
+        authenticator = new CoalescingAuthenticator(new GameAuthenticator(store, hasher, Runnable::run));
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authenticator.close();
+        callers.shutdownNow();
+    }
+
+    private List<Future<Optional<GameUser>>> startCallers(int count, String password) throws InterruptedException {
+        release = new CountDownLatch(1);
+        List<Future<Optional<GameUser>>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(callers.submit(() -> authenticator.authenticate(new BasicCredentials("player", password))));
+        }
+        // Wait until one caller verifies and the others have joined it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (authenticator.getCoalescedCount() + authenticator.getVerificationCount() < count
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Should share one verification between identical concurrent requests")
+    void shouldShareOneVerificationBetweenIdenticalConcurrentRequests() throws Exception {
+        // Given
+        List<Future<Optional<GameUser>>> results = startCallers(8, "playerpass");
+
+        // When
+        release.countDown();
+
+        // Then
+        for (Future<Optional<GameUser>> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(lookups.get()).isEqualTo(1);
+        assertThat(authenticator.getVerificationCount()).isEqualTo(1);
+        assertThat(authenticator.getCoalescedCount()).isEqualTo(7);
+        assertThat(authenticator.getCoalescingRate()).isEqualTo(7 / 8.0);
+        assertThat(authenticator.getInFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not share verifications of different passwords")
+    void shouldNotShareVerificationsOfDifferentPasswords() throws Exception {
+        // When
+        Optional<GameUser> valid = authenticator.authenticate(new BasicCredentials("player", "playerpass"));
+        Optional<GameUser> invalid = authenticator.authenticate(new BasicCredentials("player", "wrong"));
+        Optional<GameUser> again = authenticator.authenticate(new BasicCredentials(" player ", "playerpass"));
+
+        // Then
+        assertThat(valid).isPresent();
+        assertThat(invalid).isEmpty();
+        assertThat(again).isPresent();
+        assertThat(lookups.get()).isEqualTo(3);
+        assertThat(authenticator.getCoalescedCount()).isZero();
+        assertThat(authenticator.authenticate(null)).isEmpty();
+        assertThat(authenticator.authenticate(new BasicCredentials(" ", "x"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should share failures only while they are in flight")
+    void shouldShareFailuresOnlyWhileTheyAreInFlight() throws Exception {
+        // Given
+        failLookups.set(true);
+        List<Future<Optional<GameUser>>> results = startCallers(4, "playerpass");
+
+        // When
+        release.countDown();
+
+        // Then
+        for (Future<Optional<GameUser>> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(AuthenticationException.class);
+        }
+        assertThat(authenticator.getCoalescedCount()).isEqualTo(3);
+        failLookups.set(false);
+        assertThat(authenticator.authenticate(new BasicCredentials("player", "playerpass"))).isPresent();
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not join a verification started before a store change")
+    void shouldNotJoinAVerificationStartedBeforeAStoreChange() throws Exception {
+        // Given
+        List<Future<Optional<GameUser>>> first = startCallers(1, "playerpass");
+
+        // When
+        store.put("player", new UserCredentials(hasher.hash("newpass"), Set.of("PLAYER")));
+        Future<Optional<GameUser>> second = callers.submit(
+                () -> authenticator.authenticate(new BasicCredentials("player", "playerpass")));
+        while (authenticator.getVerificationCount() < 2) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Then
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEmpty();
+        assertThat(first.get(0).get(10, TimeUnit.SECONDS)).isEmpty();
+        assertThat(authenticator.getVerificationCount()).isEqualTo(2);
+        assertThat(authenticator.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should share asynchronous verifications and register metrics")
+    void shouldShareAsynchronousVerificationsAndRegisterMetrics() throws Exception {
+        // Given
+        MetricRegistry registry = new MetricRegistry();
+        authenticator.registerMetrics(registry, "gameauth.coalescing");
+        List<Future<Optional<GameUser>>> blocked = startCallers(1, "playerpass");
+
+        // When
+        Future<Optional<GameUser>> joined = authenticator.authenticateAsync(
+                new BasicCredentials("player", "playerpass"));
+        Object inFlight = registry.getGauges().get("gameauth.coalescing.in-flight").getValue();
+        release.countDown();
+
+        // Then
+        assertThat(joined.get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(blocked.get(0).get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(inFlight).isEqualTo(1);
+        assertThat(registry.getGauges().get("gameauth.coalescing.coalesced").getValue()).isEqualTo(1L);
+        assertThat(registry.getGauges().get("gameauth.coalescing.verifications").getValue()).isEqualTo(1L);
+        assertThat(registry.getGauges().get("gameauth.coalescing.coalescing-rate").getValue()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should stop sharing verifications once closed")
+    void shouldStopSharingVerificationsOnceClosed() throws Exception {
+        // Given
+        authenticator.close();
+
+        // When
+        List<Future<Optional<GameUser>>> results = startCallers(2, "playerpass");
+        release.countDown();
+
+        // Then
+        for (Future<Optional<GameUser>> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(authenticator.getVerificationCount()).isEqualTo(2);
+        assertThat(authenticator.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should throw exception for null delegate")
+    void shouldThrowExceptionForNullDelegate() {
+        // When & Then
+        assertThatThrownBy(() -> new CoalescingAuthenticator(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Delegate authenticator cannot be null");
+    }
+}
@@ -0,0 +1,157 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.WalUserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Unit tests for CredentialEpochs class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("CredentialEpochs Tests")
+class CredentialEpochsTest {
+
+    private InMemoryUserStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryUserStore();
+        store.put("alice", credentials("one"));
+    }
+
+    private static UserCredentials credentials(String password) {
+        return new UserCredentials(PasswordHash.create(password, 1), Set.of("USER"));
+    }
+
+    @Test
+    @DisplayName("Should load the epochs of existing accounts")
+    void shouldLoadTheEpochsOfExistingAccounts() {
+        // Given
+        store.put("alice", credentials("two"));
+        long aliceId = store.get("alice").getUserId();
+
+        // When
+        CredentialEpochs epochs = CredentialEpochs.track(store);
+
+        // Then
+        assertThat(epochs.get(aliceId)).isEqualTo(1);
+        assertThat(epochs.isCurrent(aliceId, 1)).isTrue();
+        assertThat(epochs.isCurrent(aliceId, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should follow changes and removals in the store")
+    void shouldFollowChangesAndRemovalsInTheStore() {
+        // Given
+        CredentialEpochs epochs = CredentialEpochs.track(store);
+        long aliceId = store.get("alice").getUserId();
+
+        // When
+        store.put("alice", credentials("two"));
+        boolean oldEpochAfterChange = epochs.isCurrent(aliceId, 0);
+        boolean newEpochAfterChange = epochs.isCurrent(aliceId, 1);
+        store.remove("alice");
+
+        // Then
+        assertThat(oldEpochAfterChange).isFalse();
+        assertThat(newEpochAfterChange).isTrue();
+        assertThat(epochs.isCurrent(aliceId, 1)).isFalse();
+        assertThat(epochs.get(aliceId)).isEqualTo(CredentialEpochs.REMOVED);
+    }
+
+    @Test
+    @DisplayName("Should never move an epoch back")
+    void shouldNeverMoveAnEpochBack() {
+        // Given
+        CredentialEpochs epochs = new CredentialEpochs();
+
+        // When
+        epochs.advance(5, 3);
+        epochs.advance(5, 2);
+
+        // Then
+        assertThat(epochs.get(5)).isEqualTo(3);
+        assertThat(epochs.get(6)).isEqualTo(CredentialEpochs.UNKNOWN);
+        assertThat(epochs.isCurrent(6, 0)).isFalse();
+        assertThat(epochs.isCurrent(6, -1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should hold ids beyond the initial and the dense range")
+    void shouldHoldIdsBeyondTheInitialAndTheDenseRange() {
+        // Given
+        CredentialEpochs epochs = new CredentialEpochs();
+        long sparseId = CredentialEpochs.MAX_DENSE_USER_ID + 10L;
+
+        // When
+        epochs.advance(1, 1);
+        epochs.advance(100_000, 4);
+        epochs.advance(sparseId, 9);
+
+        // Then
+        assertThat(epochs.get(1)).isEqualTo(1);
+        assertThat(epochs.get(100_000)).isEqualTo(4);
+        assertThat(epochs.isCurrent(sparseId, 9)).isTrue();
+        assertThat(epochs.get(sparseId + 1)).isEqualTo(CredentialEpochs.UNKNOWN);
+        assertThat(epochs.isCurrent(sparseId + 1, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a removed account revoked after a restart")
+    void shouldKeepARemovedAccountRevokedAfterARestart(@TempDir Path directory) {
+        // Given
+        long aliceId;
+        try (WalUserStore wal = new WalUserStore(directory)) {
+            wal.put("alice", credentials("one"));
+            aliceId = wal.get("alice").getUserId();
+            CredentialEpochs.track(wal);
+            wal.remove("alice");
+        }
+
+        // When
+        CredentialEpochs epochs;
+        try (WalUserStore reopened = new WalUserStore(directory)) {
+            epochs = CredentialEpochs.track(reopened);
+        }
+
+        // Then
+        assertThat(epochs.get(aliceId)).isEqualTo(CredentialEpochs.UNKNOWN);
+        assertThat(epochs.isCurrent(aliceId, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should stop following the store and accept no epoch once closed")
+    void shouldStopFollowingTheStoreAndAcceptNoEpochOnceClosed() {
+        // Given
+        long aliceId = store.get("alice").getUserId();
+        CredentialEpochs epochs = CredentialEpochs.track(store);
+
+        // When
+        epochs.close();
+        store.put("alice", credentials("two"));
+
+        // Then
+        assertThat(epochs.get(aliceId)).isZero();
+        assertThat(epochs.isCurrent(aliceId, 0)).isFalse();
+        assertThat(epochs.isCurrent(aliceId, 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should throw exception for null store")
+    void shouldThrowExceptionForNullStore() {
+        assertThatThrownBy(() -> CredentialEpochs.track(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User store cannot be null");
+    }
+}
@@ -0,0 +1,56 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for EphemeralIds class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("EphemeralIds Tests")
+class EphemeralIdsTest {
+
+    @Test
+    @DisplayName("Should hand out increasing ids on one thread")
+    void shouldHandOutIncreasingIdsOnOneThread() {
+        // When
+        long first = EphemeralIds.next();
+        long second = EphemeralIds.next();
+
+        // Then
+        assertThat(first).isPositive();
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    @DisplayName("Should never repeat an id across threads and blocks")
+    void shouldNeverRepeatAnIdAcrossThreadsAndBlocks() throws InterruptedException {
+        // Given
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int perThread = EphemeralIds.BLOCK_SIZE + 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(EphemeralIds.next());
+                }
+            });
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(ids).hasSize(4 * perThread);
+    }
+}
@@ -1,13 +1,32 @@
 package com.gamingroom.gameauth.auth;
 
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+import io.dropwizard.auth.AuthenticationException;
 import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.assertj.core.api.Assertions.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Unit tests for GameAuthenticator class.
@@ -25,9 +44,14 @@ class GameAuthenticatorTest {
         authenticator = new GameAuthenticator();
     }
 
+    @AfterEach
+    void tearDown() {
+        authenticator.close();
+    }
+
     @Test
     @DisplayName("Should authenticate valid admin user")
-    void shouldAuthenticateValidAdminUser() {
+    void shouldAuthenticateValidAdminUser() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("admin", "admin123");
 
@@ -44,7 +68,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should authenticate valid regular user")
-    void shouldAuthenticateValidRegularUser() {
+    void shouldAuthenticateValidRegularUser() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("user", "password");
 
@@ -61,7 +85,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should authenticate valid moderator user")
-    void shouldAuthenticateValidModeratorUser() {
+    void shouldAuthenticateValidModeratorUser() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("moderator", "mod456");
 
@@ -78,7 +102,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should authenticate guest user with empty password")
-    void shouldAuthenticateGuestUserWithEmptyPassword() {
+    void shouldAuthenticateGuestUserWithEmptyPassword() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("guest", "");
 
@@ -94,7 +118,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should reject invalid username")
-    void shouldRejectInvalidUsername() {
+    void shouldRejectInvalidUsername() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("invaliduser", "password");
 
@@ -107,7 +131,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should reject invalid password")
-    void shouldRejectInvalidPassword() {
+    void shouldRejectInvalidPassword() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("admin", "wrongpassword");
 
@@ -120,7 +144,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should reject null credentials")
-    void shouldRejectNullCredentials() {
+    void shouldRejectNullCredentials() throws AuthenticationException {
         // When
         Optional<GameUser> result = authenticator.authenticate(null);
 
@@ -130,7 +154,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should reject null username")
-    void shouldRejectNullUsername() {
+    void shouldRejectNullUsername() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials(null, "password");
 
@@ -143,7 +167,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should reject null password")
-    void shouldRejectNullPassword() {
+    void shouldRejectNullPassword() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("admin", null);
 
@@ -156,7 +180,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should reject empty username")
-    void shouldRejectEmptyUsername() {
+    void shouldRejectEmptyUsername() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("", "password");
 
@@ -169,7 +193,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should trim username whitespace")
-    void shouldTrimUsernameWhitespace() {
+    void shouldTrimUsernameWhitespace() throws AuthenticationException {
         // Given
         BasicCredentials credentials = new BasicCredentials("  admin  ", "admin123");
 
@@ -183,7 +207,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should add new user successfully")
-    void shouldAddNewUserSuccessfully() {
+    void shouldAddNewUserSuccessfully() throws AuthenticationException {
         // Given
         String username = "newuser";
         String password = "newpass123";
@@ -204,7 +228,7 @@ class GameAuthenticatorTest {
 
     @Test
     @DisplayName("Should remove user successfully")
-    void shouldRemoveUserSuccessfully() {
+    void shouldRemoveUserSuccessfully() throws AuthenticationException {
         // Given
         String username = "tempuser";
         String password = "temppass";
@@ -238,4 +262,256 @@ class GameAuthenticatorTest {
         assertThatCode(() -> GameAuthenticator.removeUser(null))
                 .doesNotThrowAnyException();
     }
+
+    @Test
+    @DisplayName("Should authenticate against an injected user store")
+    void shouldAuthenticateAgainstInjectedUserStore() throws AuthenticationException {
+        // Given
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(PasswordHash.create("playerpass", 1), Set.of("PLAYER")));
+        GameAuthenticator isolated = new GameAuthenticator(store);
+
+        // When
+        Optional<GameUser> player = isolated.authenticate(new BasicCredentials("player", "playerpass"));
+        Optional<GameUser> admin = isolated.authenticate(new BasicCredentials("admin", "admin123"));
+
+        // Then
+        assertThat(player).isPresent();
+        assertThat(player.get().hasRole("PLAYER")).isTrue();
+        assertThat(admin).isEmpty();
+        assertThat(isolated.getUserStore()).isSameAs(store);
+    }
+
+    @Test
+    @DisplayName("Should reject null user store")
+    void shouldRejectNullUserStore() {
+        // When & Then
+        assertThatThrownBy(() -> new GameAuthenticator(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User store cannot be null");
+    }
+
+    @Test
+    @DisplayName("Should authenticate asynchronously on the verification executor")
+    void shouldAuthenticateAsynchronouslyOnTheVerificationExecutor()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        ExecutorService executor = PasswordHasher.newVerificationExecutor(2, 16);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), Set.of("PLAYER")));
+        GameAuthenticator async = new GameAuthenticator(store, hasher, executor);
+
+        try {
+            // When
+            Optional<GameUser> valid = async.authenticateAsync(new BasicCredentials("player", "playerpass"))
+                    .get(10, TimeUnit.SECONDS);
+            Optional<GameUser> invalid = async.authenticateAsync(new BasicCredentials("player", "wrong"))
+                    .get(10, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(valid).isPresent();
+            assertThat(invalid).isEmpty();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should upgrade hashes created at an older cost on login")
+    void shouldUpgradeHashesCreatedAtAnOlderCostOnLogin() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(PasswordHash.create("playerpass", 10), Set.of("PLAYER")));
+        GameAuthenticator upgrading = new GameAuthenticator(store, hasher, Runnable::run);
+
+        // When
+        Optional<GameUser> result = upgrading.authenticate(new BasicCredentials("player", "playerpass"));
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(store.get("player").getPasswordHash().getIterations()).isEqualTo(1000);
+        assertThat(store.get("player").validatePassword("playerpass")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not let a rehash undo a password change made during the login")
+    void shouldNotLetARehashUndoAPasswordChangeMadeDuringTheLogin() throws AuthenticationException {
+        // Given
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(PasswordHash.create("oldpass", 10), Set.of("PLAYER")));
+        long epoch = store.get("player").getCredentialEpoch();
+        PasswordHasher hasher = new PasswordHasher(1000) {
+            @Override
+            public PasswordHash hash(String password) {
+                // The password changes while the login computes the upgraded hash
+                store.put("player", new UserCredentials(PasswordHash.create("newpass", 10), Set.of("PLAYER")));
+                return super.hash(password);
+            }
+        };
+        GameAuthenticator upgrading = new GameAuthenticator(store, hasher, Runnable::run);
+
+        // When
+        Optional<GameUser> result = upgrading.authenticate(new BasicCredentials("player", "oldpass"));
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(store.get("player").validatePassword("newpass")).isTrue();
+        assertThat(store.get("player").validatePassword("oldpass")).isFalse();
+        assertThat(store.get("player").getCredentialEpoch()).isEqualTo(epoch + 1);
+    }
+
+    @Test
+    @DisplayName("Should return the same identity for an account on every login")
+    void shouldReturnTheSameIdentityForAnAccountOnEveryLogin() throws AuthenticationException {
+        // When
+        GameUser first = authenticator.authenticate(new BasicCredentials("admin", "admin123")).get();
+        GameUser second = authenticator.authenticate(new BasicCredentials("admin", "admin123")).get();
+
+        // Then
+        assertThat(first.getUserId()).isEqualTo(GameAuthenticator.getDefaultUserStore().get("admin").getUserId());
+        assertThat(first).isEqualTo(second);
+        assertThat(first.getId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    @DisplayName("Should stop listening to the store once closed")
+    void shouldStopListeningToTheStoreOnceClosed() throws AuthenticationException {
+        // Given
+        List<UserStoreListener> listeners = new ArrayList<>();
+        UserStore store = new InMemoryUserStore() {
+            @Override
+            public void addListener(UserStoreListener listener) {
+                super.addListener(listener);
+                listeners.add(listener);
+            }
+
+            @Override
+            public void removeListener(UserStoreListener listener) {
+                super.removeListener(listener);
+                listeners.remove(listener);
+            }
+        };
+        store.put("player", new UserCredentials(PasswordHash.create("secret", 1), Set.of("USER")));
+        GameAuthenticator isolated = new GameAuthenticator(store);
+        assertThat(listeners).hasSize(1);
+
+        // When
+        isolated.close();
+
+        // Then
+        assertThat(listeners).isEmpty();
+        GameUser first = isolated.authenticate(new BasicCredentials("player", "secret")).get();
+        GameUser second = isolated.authenticate(new BasicCredentials("player", "secret")).get();
+        assertThat(first).isEqualTo(second).isNotSameAs(second);
+    }
+
+    @Test
+    @DisplayName("Should authenticate a batch with a single store lookup")
+    void shouldAuthenticateABatchWithASingleStoreLookup() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        AtomicInteger lookups = new AtomicInteger();
+        UserStore store = new InMemoryUserStore() {
+            @Override
+            public UserCredentials get(String username) {
+                lookups.incrementAndGet();
+                return super.get(username);
+            }
+
+            @Override
+            public Map<String, UserCredentials> getAll(Collection<String> usernames) {
+                lookups.incrementAndGet();
+                return super.getAll(usernames);
+            }
+        };
+        ExecutorService executor = PasswordHasher.newVerificationExecutor(4, 256);
+        List<BasicCredentials> players = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            store.put("player" + i, new UserCredentials(hasher.hash("pass" + i), Set.of("PLAYER")));
+            players.add(new BasicCredentials(" player" + i + " ", i % 8 == 0 ? "wrong" : "pass" + i));
+        }
+        players.add(new BasicCredentials("nobody", "pass"));
+        players.add(null);
+        players.add(new BasicCredentials("", "pass"));
+        GameAuthenticator batch = new GameAuthenticator(store, hasher, executor);
+        lookups.set(0);
+
+        try {
+            // When
+            List<AuthenticationResult> results = batch.authenticateAll(players);
+
+            // Then
+            assertThat(lookups.get()).isEqualTo(1);
+            assertThat(results).hasSize(67);
+            for (int i = 0; i < 64; i++) {
+                AuthenticationResult result = results.get(i);
+                if (i % 8 == 0) {
+                    assertThat(result.getStatus()).isEqualTo(AuthenticationResult.Status.REJECTED);
+                    assertThat(result.getUser()).isEmpty();
+                } else {
+                    assertThat(result.isAuthenticated()).isTrue();
+                    assertThat(result.getUser().get().getName()).isEqualTo("player" + i);
+                }
+            }
+            assertThat(results.subList(64, 67)).extracting(AuthenticationResult::getStatus)
+                    .containsOnly(AuthenticationResult.Status.REJECTED);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report items still running at the batch deadline as timed out")
+    void shouldReportItemsStillRunningAtTheBatchDeadlineAsTimedOut() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), Set.of("PLAYER")));
+        List<Runnable> queued = new ArrayList<>();
+        GameAuthenticator stalled = new GameAuthenticator(store, hasher, queued::add);
+
+        // When
+        List<AuthenticationResult> results = stalled.authenticateAll(Arrays.asList(
+                new BasicCredentials("player", "playerpass"), new BasicCredentials("", "x")),
+                Duration.ofMillis(50));
+        queued.forEach(Runnable::run);
+
+        // Then
+        assertThat(results).extracting(AuthenticationResult::getStatus).containsExactly(
+                AuthenticationResult.Status.TIMED_OUT, AuthenticationResult.Status.REJECTED);
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should report items the verification executor refuses as failed")
+    void shouldReportItemsTheVerificationExecutorRefusesAsFailed() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        UserStore store = new InMemoryUserStore();
+        store.put("player", new UserCredentials(hasher.hash("playerpass"), Set.of("PLAYER")));
+        AtomicInteger submitted = new AtomicInteger();
+        GameAuthenticator saturated = new GameAuthenticator(store, hasher, task -> {
+            if (submitted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("full");
+            }
+            task.run();
+        });
+
+        // When
+        List<AuthenticationResult> results = saturated.authenticateAll(Arrays.asList(
+                new BasicCredentials("player", "playerpass"), new BasicCredentials("player", "playerpass")));
+
+        // Then
+        assertThat(results.get(0).isAuthenticated()).isTrue();
+        assertThat(results.get(1).getStatus()).isEqualTo(AuthenticationResult.Status.FAILED);
+        assertThat(results.get(1).getCause()).containsInstanceOf(AuthenticationException.class);
+        assertThatThrownBy(() -> saturated.authenticateAll(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Credentials cannot be null");
+        assertThatThrownBy(() -> saturated.authenticateAll(List.of(), Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Timeout must be positive");
+    }
 }
@@ -5,6 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -61,8 +66,8 @@ class GameAuthorizerTest {
     @DisplayName("Should not authorize with null role")
     void shouldNotAuthorizeWithNullRole() {
         // When & Then
-        assertThat(authorizer.authorize(adminUser, null)).isFalse();
-        assertThat(authorizer.authorize(regularUser, null)).isFalse();
+        assertThat(authorizer.authorize(adminUser, (String) null)).isFalse();
+        assertThat(authorizer.authorize(regularUser, (String) null)).isFalse();
     }
 
     @Test
@@ -203,4 +208,248 @@ class GameAuthorizerTest {
         assertThat(authorizer.isAdmin(userWithNullRoles)).isFalse();
         assertThat(authorizer.isModeratorOrAdmin(userWithNullRoles)).isFalse();
     }
+
+    @Test
+    @DisplayName("Should authorize superior roles through the role hierarchy")
+    void shouldAuthorizeSuperiorRolesThroughTheRoleHierarchy() {
+        // Given
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        hierarchy.addImplication("SUPER_ADMIN", "ADMIN");
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        GameAuthorizer hierarchical = new GameAuthorizer(hierarchy);
+        GameUser superAdmin = new GameUser("root", Set.of("SUPER_ADMIN"));
+
+        // When & Then
+        assertThat(hierarchical.authorize(superAdmin, "MODERATOR")).isTrue();
+        assertThat(hierarchical.authorizeAny(superAdmin, "MODERATOR", "GUEST")).isTrue();
+        assertThat(hierarchical.authorizeAll(superAdmin, "ADMIN", "MODERATOR")).isTrue();
+        assertThat(hierarchical.authorizeAll(superAdmin, "ADMIN", "USER")).isFalse();
+        assertThat(hierarchical.isAdmin(superAdmin)).isTrue();
+        assertThat(hierarchical.isModeratorOrAdmin(superAdmin)).isTrue();
+        assertThat(hierarchical.authorize(moderatorUser, "ADMIN")).isFalse();
+        assertThat(authorizer.authorize(superAdmin, "MODERATOR")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should apply hierarchy changes to later checks")
+    void shouldApplyHierarchyChangesToLaterChecks() {
+        // Given
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        GameAuthorizer hierarchical = new GameAuthorizer(hierarchy);
+
+        // When
+        hierarchy.addImplication("MODERATOR", "SUPPORT");
+
+        // Then
+        assertThat(hierarchical.authorize(moderatorUser, "SUPPORT")).isTrue();
+
+        // When
+        hierarchy.removeImplication("MODERATOR", "SUPPORT");
+
+        // Then
+        assertThat(hierarchical.authorize(moderatorUser, "SUPPORT")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should throw exception for null role hierarchy")
+    void shouldThrowExceptionForNullRoleHierarchy() {
+        // When & Then
+        assertThatThrownBy(() -> new GameAuthorizer(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Role hierarchy cannot be null");
+    }
+
+    @Test
+    @DisplayName("Should authorize registered policies by name")
+    void shouldAuthorizeRegisteredPoliciesByName() {
+        // Given
+        authorizer.registerPolicy("moderate", "ADMIN or (MODERATOR and USER) and not BANNED");
+        GameUser bannedModerator = new GameUser("banned", Set.of("MODERATOR", "USER", "BANNED"));
+
+        // When & Then
+        assertThat(authorizer.authorize(adminUser, "policy:moderate")).isTrue();
+        assertThat(authorizer.authorize(moderatorUser, " policy:moderate ")).isTrue();
+        assertThat(authorizer.authorize(bannedModerator, "policy:moderate")).isFalse();
+        assertThat(authorizer.authorize(regularUser, "policy:moderate")).isFalse();
+        assertThat(authorizer.getPolicy("moderate").getExpression())
+                .isEqualTo("ADMIN or (MODERATOR and USER) and not BANNED");
+    }
+
+    @Test
+    @DisplayName("Should deny unknown and removed policies")
+    void shouldDenyUnknownAndRemovedPolicies() {
+        // Given
+        authorizer.registerPolicies(Map.of("staff", "ADMIN or MODERATOR"));
+
+        // When
+        boolean removed = authorizer.removePolicy("staff");
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(authorizer.authorize(adminUser, "policy:staff")).isFalse();
+        assertThat(authorizer.authorize(adminUser, "policy:missing")).isFalse();
+        assertThat(authorizer.getPolicy("staff")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evaluate policies through the role hierarchy")
+    void shouldEvaluatePoliciesThroughTheRoleHierarchy() {
+        // Given
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        GameAuthorizer hierarchical = new GameAuthorizer(hierarchy);
+        hierarchical.registerPolicy("moderators", "MODERATOR and not BANNED");
+
+        // When & Then
+        assertThat(hierarchical.authorize(adminUser, "policy:moderators")).isTrue();
+        assertThat(authorizer.registerPolicy("moderators", "MODERATOR and not BANNED").test(adminUser.getRoleMask()))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid policy registrations")
+    void shouldRejectInvalidPolicyRegistrations() {
+        // When & Then
+        assertThatThrownBy(() -> authorizer.registerPolicy(" ", "ADMIN"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Policy name cannot be null or empty");
+        assertThatThrownBy(() -> authorizer.registerPolicy("broken", "ADMIN and"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should authorize resource permissions granted to roles and users")
+    void shouldAuthorizeResourcePermissionsGrantedToRolesAndUsers() {
+        // Given
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        PermissionIndex permissions = new PermissionIndex();
+        permissions.grantToRole("MODERATOR", Permission.of("game:lobby:*"));
+        permissions.grantToUser(99, Permission.of("game:lobby:4711:kick"));
+        GameAuthorizer scoped = new GameAuthorizer(hierarchy, permissions);
+        GameUser host = new GameUser("host", Set.of("USER"), 99);
+        Permission kick = Permission.of("game:lobby:4711:kick");
+
+        // When & Then
+        assertThat(scoped.authorize(moderatorUser, kick)).isTrue();
+        assertThat(scoped.authorize(adminUser, kick)).isTrue();
+        assertThat(scoped.authorize(host, kick)).isTrue();
+        assertThat(scoped.authorize(host, Permission.of("game:lobby:4712:kick"))).isFalse();
+        assertThat(scoped.authorize(regularUser, kick)).isFalse();
+        assertThat(scoped.authorize(null, kick)).isFalse();
+        assertThat(scoped.authorize(adminUser, (Permission) null)).isFalse();
+        assertThat(scoped.getPermissions()).isSameAs(permissions);
+    }
+
+    @Test
+    @DisplayName("Should throw exception for null permission index")
+    void shouldThrowExceptionForNullPermissionIndex() {
+        // When & Then
+        assertThatThrownBy(() -> new GameAuthorizer(new RoleHierarchy(), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Permission index cannot be null");
+    }
+
+    @Test
+    @DisplayName("Should share cached decisions between users with the same roles")
+    void shouldShareCachedDecisionsBetweenUsersWithTheSameRoles() {
+        // Given
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(256);
+        GameAuthorizer cached = new GameAuthorizer(new RoleHierarchy(), new PermissionIndex(), cache);
+        cached.registerPolicy("staff", "ADMIN or MODERATOR");
+        GameUser otherModerator = new GameUser("moderator2", Set.of("USER", "MODERATOR"));
+
+        // When
+        boolean first = cached.authorize(moderatorUser, "policy:staff");
+        boolean second = cached.authorize(otherModerator, "policy:staff");
+        boolean regular = cached.authorize(regularUser, "policy:staff");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(regular).isFalse();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cached.getDecisionCache()).isSameAs(cache);
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached decisions when definitions change")
+    void shouldInvalidateCachedDecisionsWhenDefinitionsChange() {
+        // Given
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        GameAuthorizer cached = new GameAuthorizer(hierarchy, new PermissionIndex(),
+                new AuthorizationDecisionCache(256));
+        cached.registerPolicy("staff", "ADMIN");
+        assertThat(cached.authorize(moderatorUser, "policy:staff")).isFalse();
+        assertThat(cached.authorize(moderatorUser, "SUPPORT")).isFalse();
+
+        // When
+        cached.registerPolicy("staff", "ADMIN or MODERATOR");
+        hierarchy.addImplication("MODERATOR", "SUPPORT");
+
+        // Then
+        assertThat(cached.authorize(moderatorUser, "policy:staff")).isTrue();
+        assertThat(cached.authorize(moderatorUser, "SUPPORT")).isTrue();
+
+        // When
+        cached.removePolicy("staff");
+        hierarchy.removeImplication("MODERATOR", "SUPPORT");
+
+        // Then
+        assertThat(cached.authorize(moderatorUser, "policy:staff")).isFalse();
+        assertThat(cached.authorize(moderatorUser, "SUPPORT")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should authorize an audience with the same answers as single checks")
+    void shouldAuthorizeAnAudienceWithTheSameAnswersAsSingleChecks() {
+        // Given
+        RoleHierarchy hierarchy = new RoleHierarchy();
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        GameAuthorizer bulk = new GameAuthorizer(hierarchy);
+        bulk.registerPolicy("staff", "MODERATOR and not BANNED");
+        GameUser banned = new GameUser("banned", Set.of("MODERATOR", "BANNED"));
+        List<GameUser> lobby = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            lobby.add(Arrays.asList(adminUser, regularUser, moderatorUser, userWithNoRoles, banned, null).get(i % 6));
+        }
+
+        for (String requirement : Arrays.asList("MODERATOR", "USER", "ADMIN", "UNKNOWN_ROLE", "policy:staff",
+                "policy:missing")) {
+            // When
+            BitSet passing = bulk.authorizeEach(lobby, requirement);
+
+            // Then
+            for (int i = 0; i < lobby.size(); i++) {
+                assertThat(passing.get(i)).as("%s of user %d", requirement, i)
+                        .isEqualTo(bulk.authorize(lobby.get(i), requirement));
+            }
+        }
+        assertThat(bulk.authorizeEach(lobby, "MODERATOR").cardinality()).isEqualTo(22 + 22 + 21);
+        assertThat(bulk.authorizeEach((List<GameUser>) null, "USER")).isEqualTo(new BitSet());
+        assertThat(bulk.authorizeEach(lobby, " ")).isEqualTo(new BitSet());
+    }
+
+    @Test
+    @DisplayName("Should authorize large audiences of role masks in parallel")
+    void shouldAuthorizeLargeAudiencesOfRoleMasksInParallel() {
+        // Given
+        int size = GameAuthorizer.PARALLEL_THRESHOLD * 3 + 17;
+        long[] roleMasks = new long[size];
+        for (int i = 0; i < size; i++) {
+            roleMasks[i] = (i % 3 == 0 ? moderatorUser : regularUser).getRoleMask();
+        }
+        authorizer.registerPolicy("moderators", "MODERATOR");
+
+        // When
+        BitSet byRole = authorizer.authorizeEach(roleMasks, "MODERATOR");
+        BitSet byPolicy = authorizer.authorizeEach(roleMasks, "policy:moderators");
+
+        // Then
+        assertThat(byRole.cardinality()).isEqualTo((size + 2) / 3);
+        assertThat(byRole.get(size - 2)).isEqualTo((size - 2) % 3 == 0);
+        assertThat(byRole.length()).isLessThanOrEqualTo(size);
+        assertThat(byPolicy).isEqualTo(byRole);
+    }
 }
@@ -223,4 +223,55 @@ class GameUserTest {
         assertThat(toString).contains("ADMIN");
         assertThat(toString).contains("GameUser");
     }
+
+    @Test
+    @DisplayName("Should expose roles as a mask of registry ids")
+    void shouldExposeRolesAsAMaskOfRegistryIds() {
+        // Given
+        long adminMask = RoleRegistry.getDefault().mask("ADMIN");
+        long adminAndModeratorMask = RoleRegistry.getDefault().mask("ADMIN", "MODERATOR");
+
+        // When & Then
+        assertThat(testUser.getRoleMask()).isEqualTo(RoleRegistry.getDefault().mask(testRoles));
+        assertThat(testUser.hasAllRoles(adminMask)).isTrue();
+        assertThat(testUser.hasAllRoles(adminAndModeratorMask)).isFalse();
+        assertThat(testUser.hasAnyRole(adminAndModeratorMask)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should share role sets between users with the same roles")
+    void shouldShareRoleSetsBetweenUsersWithTheSameRoles() {
+        // Given
+        GameUser other = new GameUser("other", Set.of("ADMIN", "USER"));
+
+        // When & Then
+        assertThat(other.getRoles()).isSameAs(testUser.getRoles());
+    }
+
+    @Test
+    @DisplayName("Should use the stored user id as identity")
+    void shouldUseTheStoredUserIdAsIdentity() {
+        // Given
+        GameUser first = new GameUser("testuser", testRoles, 7);
+        GameUser second = new GameUser("testuser", Set.of("USER"), 7);
+        GameUser otherAccount = new GameUser("testuser", testRoles, 8);
+
+        // When & Then
+        assertThat(first.getId()).isEqualTo("7");
+        assertThat(first.getUserId()).isEqualTo(7);
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+        assertThat(first).isNotEqualTo(otherAccount);
+    }
+
+    @Test
+    @DisplayName("Should give users without an account distinct ephemeral ids")
+    void shouldGiveUsersWithoutAnAccountDistinctEphemeralIds() {
+        // When
+        GameUser first = new GameUser("testuser", testRoles);
+        GameUser second = new GameUser("testuser", testRoles);
+
+        // Then
+        assertThat(first.getUserId()).isZero();
+        assertThat(first.getId()).isNotEqualTo(second.getId());
+    }
 }
@@ -0,0 +1,262 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for LoginRateLimiter class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("LoginRateLimiter Tests")
+@SuppressWarnings("deprecation")
+class LoginRateLimiterTest {
+
+    private static final long WINDOW = Duration.ofMinutes(15).toMillis();
+
+    private AtomicLong millis;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        millis = new AtomicLong(1_000_000L);
+        limiter = new LoginRateLimiter(3, Duration.ofMillis(WINDOW), millis::get, false);
+    }
+
+    @Test
+    @DisplayName("Should block a key after the maximum number of failures")
+    void shouldBlockAKeyAfterTheMaximumNumberOfFailures() {
+        // When
+        limiter.recordFailure("u:alice");
+        limiter.recordFailure("u:alice");
+        boolean allowedBeforeLimit = limiter.isAllowed("u:alice");
+        limiter.recordFailure("u:alice");
+
+        // Then
+        assertThat(allowedBeforeLimit).isTrue();
+        assertThat(limiter.isAllowed("u:alice")).isFalse();
+        assertThat(limiter.isAllowed("u:bob")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should let no more concurrent attempts through than the limit")
+    void shouldLetNoMoreConcurrentAttemptsThroughThanTheLimit() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 16; i++) {
+            attempts.add(executor.submit(() -> {
+                start.await();
+                return limiter.tryAcquire("u:alice");
+            }));
+        }
+        start.countDown();
+        int acquired = 0;
+        for (Future<Boolean> attempt : attempts) {
+            acquired += attempt.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(acquired).isEqualTo(3);
+        assertThat(limiter.isAllowed("u:alice")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should allow another attempt after a refund")
+    void shouldAllowAnotherAttemptAfterARefund() {
+        // Given
+        limiter.tryAcquire("a:10.0.0.1");
+        limiter.tryAcquire("a:10.0.0.1");
+        limiter.tryAcquire("a:10.0.0.1");
+        boolean blocked = !limiter.tryAcquire("a:10.0.0.1");
+
+        // When
+        limiter.refund("a:10.0.0.1");
+
+        // Then
+        assertThat(blocked).isTrue();
+        assertThat(limiter.tryAcquire("a:10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("a:10.0.0.1")).isFalse();
+        limiter.refund("a:unknown");
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should weight the previous window by its remaining overlap")
+    void shouldWeightThePreviousWindowByItsRemainingOverlap() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("u:alice");
+        }
+
+        // When
+        millis.addAndGet(WINDOW);
+        boolean allowedEarlyInNextWindow = limiter.isAllowed("u:alice");
+        millis.addAndGet(WINDOW / 2);
+        boolean allowedHalfwayThroughNextWindow = limiter.isAllowed("u:alice");
+
+        // Then
+        assertThat(allowedEarlyInNextWindow).isFalse();
+        assertThat(allowedHalfwayThroughNextWindow).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should forget failures after two full windows")
+    void shouldForgetFailuresAfterTwoFullWindows() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("u:alice");
+        }
+
+        // When
+        millis.addAndGet(2 * WINDOW);
+
+        // Then
+        assertThat(limiter.isAllowed("u:alice")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should clear a key on reset")
+    void shouldClearAKeyOnReset() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("u:alice");
+        }
+
+        // When
+        limiter.reset("u:alice");
+
+        // Then
+        assertThat(limiter.isAllowed("u:alice")).isTrue();
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict only idle keys")
+    void shouldEvictOnlyIdleKeys() {
+        // Given
+        limiter.recordFailure("u:idle");
+        millis.addAndGet(2 * WINDOW);
+        limiter.recordFailure("u:active");
+
+        // When
+        limiter.evictIdleKeys();
+
+        // Then
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+        assertThat(limiter.isAllowed("u:active")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid limits")
+    void shouldRejectInvalidLimits() {
+        assertThatThrownBy(() -> new LoginRateLimiter(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LoginRateLimiter(5, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Window must be positive");
+    }
+
+    @Test
+    @DisplayName("Should not create a limiter when rate limiting is disabled")
+    void shouldNotCreateALimiterWhenRateLimitingIsDisabled() {
+        // Given
+        RateLimitConfiguration configuration = new RateLimitConfiguration();
+        configuration.setEnabled(false);
+
+        // When & Then
+        assertThat(LoginRateLimiter.fromConfiguration(configuration)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a correct password once a username is blocked")
+    void shouldRejectACorrectPasswordOnceAUsernameIsBlocked() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        UserStore store = new InMemoryUserStore();
+        store.put("alice", new UserCredentials(hasher.hash("secret"), Set.of("USER")));
+        GameAuthenticator authenticator = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .verificationExecutor(Runnable::run)
+                .rateLimiter(limiter)
+                .build();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            authenticator.authenticate(new BasicCredentials("alice", "wrong"), "10.0.0.1");
+        }
+
+        // Then
+        assertThat(authenticator.authenticate(new BasicCredentials("alice", "secret"))).isEmpty();
+        assertThat(limiter.isAllowed(LoginRateLimiter.addressKey("10.0.0.1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reset the username after a successful login")
+    void shouldResetTheUsernameAfterASuccessfulLogin() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        UserStore store = new InMemoryUserStore();
+        store.put("alice", new UserCredentials(hasher.hash("secret"), Set.of("USER")));
+        GameAuthenticator authenticator = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .rateLimiter(limiter)
+                .build();
+        authenticator.authenticate(new BasicCredentials("alice", "wrong"));
+        authenticator.authenticate(new BasicCredentials("alice", "wrong"));
+
+        // When
+        authenticator.authenticate(new BasicCredentials("alice", "secret"));
+
+        // Then
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not count a successful login against the client address")
+    void shouldNotCountASuccessfulLoginAgainstTheClientAddress() throws AuthenticationException {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(1000);
+        UserStore store = new InMemoryUserStore();
+        store.put("alice", new UserCredentials(hasher.hash("secret"), Set.of("USER")));
+        GameAuthenticator authenticator = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .rateLimiter(limiter)
+                .build();
+        authenticator.authenticate(new BasicCredentials("bob", "wrong"), "10.0.0.1");
+        authenticator.authenticate(new BasicCredentials("carol", "wrong"), "10.0.0.1");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            authenticator.authenticate(new BasicCredentials("alice", "secret"), "10.0.0.1");
+        }
+
+        // Then
+        assertThat(limiter.isAllowed(LoginRateLimiter.addressKey("10.0.0.1"))).isTrue();
+        assertThat(authenticator.authenticate(new BasicCredentials("dave", "wrong"), "10.0.0.1")).isEmpty();
+        assertThat(limiter.isAllowed(LoginRateLimiter.addressKey("10.0.0.1"))).isFalse();
+    }
+}
@@ -0,0 +1,125 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Unit tests for PasswordHasher class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("PasswordHasher Tests")
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        hasher = new PasswordHasher(1000);
+    }
+
+    @Test
+    @DisplayName("Should verify the original password only")
+    void shouldVerifyTheOriginalPasswordOnly() {
+        // Given
+        PasswordHash hash = hasher.hash("secret");
+
+        // When & Then
+        assertThat(hasher.verify("secret", hash)).isTrue();
+        assertThat(hasher.verify("Secret", hash)).isFalse();
+        assertThat(hasher.verify(null, hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should salt every hash")
+    void shouldSaltEveryHash() {
+        // When
+        PasswordHash first = hasher.hash("secret");
+        PasswordHash second = hasher.hash("secret");
+
+        // Then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first.encode()).doesNotContain("secret");
+    }
+
+    @Test
+    @DisplayName("Should round-trip the encoded form with its cost")
+    void shouldRoundTripTheEncodedFormWithItsCost() {
+        // Given
+        PasswordHash hash = hasher.hash("secret");
+
+        // When
+        PasswordHash parsed = PasswordHash.parse(hash.encode());
+
+        // Then
+        assertThat(parsed).isEqualTo(hash);
+        assertThat(parsed.getIterations()).isEqualTo(1000);
+        assertThat(parsed.matches("secret")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should verify hashes created at another cost and flag them for rehash")
+    void shouldVerifyHashesCreatedAtAnotherCostAndFlagThemForRehash() {
+        // Given
+        PasswordHash cheap = new PasswordHasher(10).hash("secret");
+
+        // When & Then
+        assertThat(hasher.verify("secret", cheap)).isTrue();
+        assertThat(hasher.needsRehash(cheap)).isTrue();
+        assertThat(hasher.needsRehash(hasher.hash("secret"))).isFalse();
+        assertThat(hasher.needsRehash(PasswordHash.create("secret", hasher.getIterations() + 1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed encoded hashes")
+    void shouldRejectMalformedEncodedHashes() {
+        // When & Then
+        assertThatThrownBy(() -> PasswordHash.parse("plaintext"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should calibrate a positive cost")
+    void shouldCalibrateAPositiveCost() {
+        // When
+        int iterations = PasswordHasher.calibrate(5);
+
+        // Then
+        assertThat(iterations).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should reject work beyond the verification queue capacity")
+    void shouldRejectWorkBeyondTheVerificationQueueCapacity() throws InterruptedException {
+        // Given
+        ExecutorService executor = PasswordHasher.newVerificationExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+
+            // When & Then
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
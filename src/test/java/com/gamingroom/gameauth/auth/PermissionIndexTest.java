@@ -0,0 +1,206 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for PermissionIndex class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("PermissionIndex Tests")
+class PermissionIndexTest {
+
+    private RoleRegistry registry;
+    private PermissionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RoleRegistry();
+        index = new PermissionIndex(registry);
+    }
+
+    @Test
+    @DisplayName("Should permit exact role grants only")
+    void shouldPermitExactRoleGrantsOnly() {
+        // Given
+        index.grantToRole("HOST", Permission.of("game:lobby:4711:kick"));
+        long host = registry.mask("HOST");
+
+        // When & Then
+        assertThat(index.isPermitted(host, 0, Permission.of("game:lobby:4711:kick"))).isTrue();
+        assertThat(index.isPermitted(host, 0, Permission.of("game:lobby:4712:kick"))).isFalse();
+        assertThat(index.isPermitted(host, 0, Permission.of("game:lobby:4711"))).isFalse();
+        assertThat(index.isPermitted(host, 0, Permission.of("game:lobby:4711:kick:now"))).isFalse();
+        assertThat(index.isPermitted(registry.mask("USER"), 0, Permission.of("game:lobby:4711:kick"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match a wildcard segment against any single segment")
+    void shouldMatchAWildcardSegmentAgainstAnySingleSegment() {
+        // Given
+        index.grantToRole("ORGANIZER", Permission.of("tournament:*:admin"));
+        long organizer = registry.mask("ORGANIZER");
+
+        // When & Then
+        assertThat(index.isPermitted(organizer, 0, Permission.of("tournament:spring-cup:admin"))).isTrue();
+        assertThat(index.isPermitted(organizer, 0, Permission.of("tournament:spring-cup:view"))).isFalse();
+        assertThat(index.isPermitted(organizer, 0, Permission.of("tournament:admin"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match a trailing wildcard against all remaining segments")
+    void shouldMatchATrailingWildcardAgainstAllRemainingSegments() {
+        // Given
+        index.grantToRole("MODERATOR", Permission.of("game:lobby:*"));
+        long moderator = registry.mask("MODERATOR");
+
+        // When & Then
+        assertThat(index.isPermitted(moderator, 0, Permission.of("game:lobby:4711"))).isTrue();
+        assertThat(index.isPermitted(moderator, 0, Permission.of("game:lobby:4711:kick"))).isTrue();
+        assertThat(index.isPermitted(moderator, 0, Permission.of("game:lobby"))).isFalse();
+        assertThat(index.isPermitted(moderator, 0, Permission.of("game:chat:1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should permit user grants for that user only")
+    void shouldPermitUserGrantsForThatUserOnly() {
+        // Given
+        index.grantToUser(42, Permission.of("game:lobby:4711:*"));
+
+        // When & Then
+        assertThat(index.isPermitted(0, 42, Permission.of("game:lobby:4711:kick"))).isTrue();
+        assertThat(index.isPermitted(0, 43, Permission.of("game:lobby:4711:kick"))).isFalse();
+        assertThat(index.isPermitted(0, 0, Permission.of("game:lobby:4711:kick"))).isFalse();
+        assertThatThrownBy(() -> index.grantToUser(0, Permission.of("game")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User id must be positive");
+    }
+
+    @Test
+    @DisplayName("Should keep broader grants after revoking a narrower one")
+    void shouldKeepBroaderGrantsAfterRevokingANarrowerOne() {
+        // Given
+        index.grantToRole("HOST", Permission.of("game:lobby:*"));
+        index.grantToRole("HOST", Permission.of("game:lobby:4711:kick"));
+        index.grantToUser(7, Permission.of("game:lobby:4711:kick"));
+
+        // When
+        boolean revoked = index.revokeFromRole("HOST", Permission.of("game:lobby:4711:kick"));
+        boolean revokedUser = index.revokeFromUser(7, Permission.of("game:lobby:4711:kick"));
+
+        // Then
+        assertThat(revoked).isTrue();
+        assertThat(revokedUser).isTrue();
+        assertThat(index.isPermitted(registry.mask("HOST"), 0, Permission.of("game:lobby:4711:kick"))).isTrue();
+        assertThat(index.isPermitted(0, 7, Permission.of("game:lobby:4711:kick"))).isFalse();
+        assertThat(index.revokeFromRole("HOST", Permission.of("game:chat"))).isFalse();
+        assertThat(index.revokeFromRole("NOBODY", Permission.of("game:lobby:*"))).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remove nodes left empty by revocations")
+    void shouldRemoveNodesLeftEmptyByRevocations() {
+        // Given
+        index.grantToRole("HOST", Permission.of("game:lobby"));
+        index.grantToRole("HOST", Permission.of("game:lobby:4711:kick"));
+        index.grantToUser(1000, Permission.of("game:lobby:4711:kick"));
+        index.grantToUser(1001, Permission.of("game:lobby:4711:kick"));
+
+        // When
+        index.revokeFromRole("HOST", Permission.of("game:lobby:4711:kick"));
+        index.revokeFromUser(1000, Permission.of("game:lobby:4711:kick"));
+        int whileGranted = index.nodeCount();
+        index.revokeFromUser(1001, Permission.of("game:lobby:4711:kick"));
+
+        // Then
+        assertThat(whileGranted).isEqualTo(5);
+        assertThat(index.nodeCount()).isEqualTo(3);
+        assertThat(index.isPermitted(registry.mask("HOST"), 0, Permission.of("game:lobby"))).isTrue();
+        index.revokeFromRole("HOST", Permission.of("game:lobby"));
+        assertThat(index.nodeCount()).isEqualTo(1);
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should tell apart user grants among many users")
+    void shouldTellApartUserGrantsAmongManyUsers() {
+        // Given
+        for (long userId = 1000; userId < 3000; userId += 2) {
+            index.grantToUser(userId, Permission.of("game:chat"));
+        }
+
+        // When
+        index.revokeFromUser(2000, Permission.of("game:chat"));
+
+        // Then
+        assertThat(index.isPermitted(0, 1998, Permission.of("game:chat"))).isTrue();
+        assertThat(index.isPermitted(0, 2000, Permission.of("game:chat"))).isFalse();
+        assertThat(index.isPermitted(0, 2001, Permission.of("game:chat"))).isFalse();
+        assertThat(index.size()).isEqualTo(999);
+    }
+
+    @Test
+    @DisplayName("Should count each grant once")
+    void shouldCountEachGrantOnce() {
+        // When
+        boolean first = index.grantToRole("HOST", Permission.of("game:lobby:1"));
+        boolean second = index.grantToRole("HOST", Permission.of("game:lobby:1"));
+        index.grantToRole("ADMIN", Permission.of("game:lobby:1"));
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should handle concurrent grants, revokes and checks")
+    void shouldHandleConcurrentGrantsRevokesAndChecks() throws Exception {
+        // Given
+        index.grantToRole("ADMIN", Permission.of("game:*"));
+        long admin = registry.mask("ADMIN");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                long userId = thread + 1;
+                results.add(executor.submit(() -> {
+                    boolean adminAlwaysPermitted = true;
+                    for (int lobby = 0; lobby < 2_000; lobby++) {
+                        Permission permission = Permission.of("game:lobby:" + lobby + ":kick");
+                        index.grantToUser(userId, permission);
+                        adminAlwaysPermitted &= index.isPermitted(admin, 0, permission);
+                        if (!index.isPermitted(0, userId, permission)) {
+                            return false;
+                        }
+                        index.revokeFromUser(userId, permission);
+                    }
+                    return adminAlwaysPermitted;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.isPermitted(0, 1, Permission.of("game:lobby:1:kick"))).isFalse();
+    }
+}
@@ -0,0 +1,51 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for Permission class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("Permission Tests")
+class PermissionTest {
+
+    @Test
+    @DisplayName("Should split a permission into segments")
+    void shouldSplitAPermissionIntoSegments() {
+        // When
+        Permission permission = Permission.of(" game:lobby:4711:kick ");
+
+        // Then
+        assertThat(permission.depth()).isEqualTo(4);
+        assertThat(permission.segment(0)).isEqualTo("game");
+        assertThat(permission.segment(3)).isEqualTo("kick");
+        assertThat(permission).hasToString("game:lobby:4711:kick");
+    }
+
+    @Test
+    @DisplayName("Should compare permissions by segments")
+    void shouldComparePermissionsBySegments() {
+        // When & Then
+        assertThat(Permission.of("game: lobby")).isEqualTo(Permission.of("game:lobby"))
+                .hasSameHashCodeAs(Permission.of("game:lobby"));
+        assertThat(Permission.of("game:lobby")).isNotEqualTo(Permission.of("game:lobby:*"));
+    }
+
+    @Test
+    @DisplayName("Should reject empty permissions and segments")
+    void shouldRejectEmptyPermissionsAndSegments() {
+        // When & Then
+        assertThatThrownBy(() -> Permission.of(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Permission cannot be null or empty");
+        assertThatThrownBy(() -> Permission.of("game::kick"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("empty segments");
+        assertThatThrownBy(() -> Permission.of("game:"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
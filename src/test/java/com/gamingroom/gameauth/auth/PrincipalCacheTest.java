@@ -0,0 +1,117 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Unit tests for PrincipalCache class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("PrincipalCache Tests")
+class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+    private UserCredentials credentials;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache();
+        credentials = new UserCredentials(7, PasswordHash.create("secret", 1), Set.of("PLAYER"));
+    }
+
+    @Test
+    @DisplayName("Should reuse the principal while the credentials are unchanged")
+    void shouldReuseThePrincipalWhileTheCredentialsAreUnchanged() {
+        // When
+        Optional<GameUser> first = cache.principal("player", credentials);
+        Optional<GameUser> second = cache.principal("player", credentials);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.get().getUserId()).isEqualTo(7);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create a new principal when the roles change")
+    void shouldCreateANewPrincipalWhenTheRolesChange() {
+        // Given
+        Optional<GameUser> before = cache.principal("player", credentials);
+        UserCredentials promoted = new UserCredentials(7, credentials.getPasswordHash(), Set.of("PLAYER", "ADMIN"));
+
+        // When
+        Optional<GameUser> after = cache.principal("player", promoted);
+
+        // Then
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.get().hasRole("ADMIN")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should drop invalidated principals")
+    void shouldDropInvalidatedPrincipals() {
+        // Given
+        Optional<GameUser> before = cache.principal("player", credentials);
+
+        // When
+        cache.invalidate("player");
+
+        // Then
+        assertThat(cache.size()).isZero();
+        assertThat(cache.principal("player", credentials)).isNotSameAs(before);
+    }
+
+    @Test
+    @DisplayName("Should hand out one principal per account until the store changes it")
+    void shouldHandOutOnePrincipalPerAccountUntilTheStoreChangesIt() throws AuthenticationException {
+        // Given
+        UserStore store = new InMemoryUserStore();
+        PasswordHasher hasher = new PasswordHasher(1000);
+        store.put("player", new UserCredentials(hasher.hash("secret"), Set.of("PLAYER")));
+        GameAuthenticator authenticator = new GameAuthenticator(store, hasher, Runnable::run);
+        BasicCredentials login = new BasicCredentials("player", "secret");
+
+        // When
+        Optional<GameUser> first = authenticator.authenticate(login);
+        Optional<GameUser> second = authenticator.authenticate(login);
+        store.put("player", new UserCredentials(store.get("player").getPasswordHash(), Set.of("MODERATOR")));
+        Optional<GameUser> third = authenticator.authenticate(login);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(third).isNotSameAs(first);
+        assertThat(third.get().hasRole("MODERATOR")).isTrue();
+        assertThat(third.get()).isEqualTo(first.get());
+    }
+
+    @Test
+    @DisplayName("Should create a principal per login when reuse is disabled")
+    void shouldCreateAPrincipalPerLoginWhenReuseIsDisabled() throws AuthenticationException {
+        // Given
+        UserStore store = new InMemoryUserStore();
+        PasswordHasher hasher = new PasswordHasher(1000);
+        store.put("player", new UserCredentials(hasher.hash("secret"), Set.of("PLAYER")));
+        GameAuthenticator authenticator = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .reusePrincipals(false)
+                .build();
+        BasicCredentials login = new BasicCredentials("player", "secret");
+
+        // When & Then
+        assertThat(authenticator.authenticate(login).get())
+                .isNotSameAs(authenticator.authenticate(login).get());
+    }
+}
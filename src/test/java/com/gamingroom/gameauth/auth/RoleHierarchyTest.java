@@ -0,0 +1,168 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for RoleHierarchy class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("RoleHierarchy Tests")
+class RoleHierarchyTest {
+
+    private RoleRegistry registry;
+    private RoleHierarchy hierarchy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RoleRegistry();
+        hierarchy = new RoleHierarchy(registry);
+        hierarchy.addImplication("SUPER_ADMIN", "ADMIN");
+        hierarchy.addImplication("ADMIN", "MODERATOR");
+        hierarchy.addImplication("MODERATOR", "USER");
+    }
+
+    @Test
+    @DisplayName("Should satisfy a role through any superior role")
+    void shouldSatisfyARoleThroughAnySuperiorRole() {
+        // Given
+        long superAdmin = registry.mask("SUPER_ADMIN");
+        long moderator = registry.mask("MODERATOR");
+
+        // When & Then
+        assertThat(hierarchy.satisfies(superAdmin, registry.idOf("USER"))).isTrue();
+        assertThat(hierarchy.satisfies(superAdmin, registry.idOf("SUPER_ADMIN"))).isTrue();
+        assertThat(hierarchy.satisfies(moderator, registry.idOf("USER"))).isTrue();
+        assertThat(hierarchy.satisfies(moderator, registry.idOf("ADMIN"))).isFalse();
+        assertThat(hierarchy.satisfiers(registry.idOf("MODERATOR")))
+                .isEqualTo(registry.mask("MODERATOR", "ADMIN", "SUPER_ADMIN"));
+    }
+
+    @Test
+    @DisplayName("Should expand a role mask with implied roles")
+    void shouldExpandARoleMaskWithImpliedRoles() {
+        // When & Then
+        assertThat(hierarchy.effectiveRoles(registry.mask("ADMIN")))
+                .isEqualTo(registry.mask("ADMIN", "MODERATOR", "USER"));
+        assertThat(hierarchy.effectiveRoles(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject implications that create a cycle")
+    void shouldRejectImplicationsThatCreateACycle() {
+        // When & Then
+        assertThatThrownBy(() -> hierarchy.addImplication("USER", "SUPER_ADMIN"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cycle");
+        assertThatThrownBy(() -> hierarchy.addImplication("ADMIN", "ADMIN"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(hierarchy.satisfies(registry.mask("USER"), registry.idOf("ADMIN"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should throw exception for null role")
+    void shouldThrowExceptionForNullRole() {
+        // When & Then
+        assertThatThrownBy(() -> hierarchy.addImplication(null, "USER"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Role cannot be null");
+    }
+
+    @Test
+    @DisplayName("Should keep implications that still follow after a removal")
+    void shouldKeepImplicationsThatStillFollowAfterARemoval() {
+        // Given
+        hierarchy.addImplication("ADMIN", "USER");
+
+        // When
+        hierarchy.removeImplication("ADMIN", "MODERATOR");
+
+        // Then
+        long admin = registry.mask("ADMIN");
+        assertThat(hierarchy.satisfies(admin, registry.idOf("MODERATOR"))).isFalse();
+        assertThat(hierarchy.satisfies(admin, registry.idOf("USER"))).isTrue();
+        assertThat(hierarchy.satisfies(registry.mask("SUPER_ADMIN"), registry.idOf("MODERATOR"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore removal of unknown implications")
+    void shouldIgnoreRemovalOfUnknownImplications() {
+        // When
+        hierarchy.removeImplication("USER", "ADMIN");
+        hierarchy.removeImplication("NOBODY", "USER");
+
+        // Then
+        assertThat(hierarchy.satisfies(registry.mask("SUPER_ADMIN"), registry.idOf("USER"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should build the hierarchy from configuration")
+    void shouldBuildTheHierarchyFromConfiguration() {
+        // Given
+        RoleRegistry roles = RoleRegistry.getDefault();
+
+        // When
+        RoleHierarchy configured = RoleHierarchy.fromConfiguration(
+                Map.of("ADMIN", List.of("MODERATOR"), "MODERATOR", List.of("USER")));
+
+        // Then
+        assertThat(configured.satisfies(roles.mask("ADMIN"), roles.idOf("USER"))).isTrue();
+        assertThat(RoleHierarchy.fromConfiguration(null).satisfies(roles.mask("ADMIN"), roles.idOf("USER")))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match a full closure after incremental changes")
+    void shouldMatchAFullClosureAfterIncrementalChanges() {
+        // Given
+        Random random = new Random(42);
+        RoleRegistry roles = new RoleRegistry();
+        RoleHierarchy incremental = new RoleHierarchy(roles);
+        boolean[][] edges = new boolean[20][20];
+        List<int[]> added = new ArrayList<>();
+
+        // When: random edges from lower to higher index can never form a cycle
+        for (int i = 0; i < 60; i++) {
+            int senior = random.nextInt(19);
+            int junior = senior + 1 + random.nextInt(19 - senior);
+            incremental.addImplication("R" + senior, "R" + junior);
+            edges[senior][junior] = true;
+            added.add(new int[] {senior, junior});
+        }
+        for (int i = 0; i < 15; i++) {
+            int[] edge = added.get(random.nextInt(added.size()));
+            incremental.removeImplication("R" + edge[0], "R" + edge[1]);
+            edges[edge[0]][edge[1]] = false;
+        }
+
+        // Then
+        for (int senior = 0; senior < 20; senior++) {
+            for (int junior = 0; junior < 20; junior++) {
+                assertThat(incremental.satisfies(roles.mask("R" + senior), roles.idOf("R" + junior)))
+                        .as("R%d implies R%d", senior, junior)
+                        .isEqualTo(reachable(edges, senior, junior));
+            }
+        }
+    }
+
+    private static boolean reachable(boolean[][] edges, int from, int to) {
+        if (from == to) {
+            return true;
+        }
+        for (int next = 0; next < edges.length; next++) {
+            if (edges[from][next] && reachable(edges, next, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
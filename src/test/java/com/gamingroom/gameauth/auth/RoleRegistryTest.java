@@ -0,0 +1,87 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for RoleRegistry class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("RoleRegistry Tests")
+class RoleRegistryTest {
+
+    private RoleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RoleRegistry();
+    }
+
+    @Test
+    @DisplayName("Should assign stable ids in order of first use")
+    void shouldAssignStableIdsInOrderOfFirstUse() {
+        // When
+        int user = registry.intern("USER");
+        int admin = registry.intern("ADMIN");
+
+        // Then
+        assertThat(user).isZero();
+        assertThat(admin).isEqualTo(1);
+        assertThat(registry.intern("USER")).isZero();
+        assertThat(registry.nameOf(1)).isEqualTo("ADMIN");
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not intern roles on lookup")
+    void shouldNotInternRolesOnLookup() {
+        // When & Then
+        assertThat(registry.idOf("GHOST")).isEqualTo(-1);
+        assertThat(registry.idOf(null)).isEqualTo(-1);
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should build masks from role names")
+    void shouldBuildMasksFromRoleNames() {
+        // When
+        long mask = registry.mask(List.of("USER", "ADMIN"));
+
+        // Then
+        assertThat(mask).isEqualTo(0b11L);
+        assertThat(registry.mask("ADMIN")).isEqualTo(0b10L);
+        assertThat(registry.mask((String[]) null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should share one role set per mask")
+    void shouldShareOneRoleSetPerMask() {
+        // Given
+        long mask = registry.mask("USER", "ADMIN");
+
+        // When & Then
+        assertThat(registry.roleSet(mask)).containsExactlyInAnyOrder("USER", "ADMIN");
+        assertThat(registry.roleSet(mask)).isSameAs(registry.roleSet(mask));
+        assertThat(registry.roleSet(0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report roles beyond the mask width as unknown")
+    void shouldReportRolesBeyondTheMaskWidthAsUnknown() {
+        // Given
+        for (int i = 0; i < RoleRegistry.MAX_ROLES; i++) {
+            registry.intern("ROLE_" + i);
+        }
+
+        // When & Then
+        assertThat(registry.intern("ONE_TOO_MANY")).isEqualTo(-1);
+        assertThat(registry.intern("ROLE_63")).isEqualTo(63);
+        assertThat(registry.size()).isEqualTo(RoleRegistry.MAX_ROLES);
+    }
+}
@@ -0,0 +1,212 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for TokenAuthenticator class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("TokenAuthenticator Tests")
+class TokenAuthenticatorTest {
+
+    private AtomicLong now;
+    private TokenKeyRing keyRing;
+    private TokenAuthenticator tokens;
+    private GameUser user;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000);
+        keyRing = TokenKeyRing.withRandomKey();
+        tokens = new TokenAuthenticator(keyRing, Duration.ofMinutes(30), null, now::get);
+        user = new GameUser("player1", Set.of("USER", "PLAYER"), 42);
+    }
+
+    @Test
+    @DisplayName("Should restore the user from a valid token")
+    void shouldRestoreTheUserFromAValidToken() {
+        // Given
+        String token = tokens.issue(user);
+
+        // When
+        Optional<GameUser> result = tokens.authenticate(token);
+
+        // Then
+        assertThat(result).contains(user);
+        assertThat(result.get().getRoles()).containsExactlyInAnyOrder("USER", "PLAYER");
+        assertThat(result.get().getUserId()).isEqualTo(42);
+        assertThat(token).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void shouldRejectExpiredTokens() {
+        // Given
+        String token = tokens.issue(user);
+
+        // When
+        now.addAndGet(Duration.ofMinutes(30).toMillis());
+
+        // Then
+        assertThat(tokens.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens")
+    void shouldRejectTamperedTokens() {
+        // Given
+        byte[] bytes = Base64.getUrlDecoder().decode(tokens.issue(user));
+        bytes[10] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // When & Then
+        assertThat(tokens.authenticate(tampered)).isEmpty();
+        assertThat(tokens.authenticate(tokens.issue(user).substring(4))).isEmpty();
+        assertThat(tokens.authenticate("not a token")).isEmpty();
+        assertThat(tokens.authenticate("")).isEmpty();
+        assertThat(tokens.authenticate(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens signed with another secret")
+    void shouldRejectTokensSignedWithAnotherSecret() {
+        // Given
+        TokenAuthenticator other =
+                new TokenAuthenticator(TokenKeyRing.withRandomKey(), Duration.ofMinutes(30), null, now::get);
+
+        // When & Then
+        assertThat(tokens.authenticate(other.issue(user))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept tokens of retired keys until they are removed")
+    void shouldAcceptTokensOfRetiredKeysUntilTheyAreRemoved() {
+        // Given
+        String oldToken = tokens.issue(user);
+        int oldKey = keyRing.getActiveKeyId();
+
+        // When
+        keyRing.rotate(TokenKeyRing.randomSecret());
+        String newToken = tokens.issue(user);
+
+        // Then
+        assertThat(tokens.authenticate(oldToken)).isPresent();
+        assertThat(tokens.authenticate(newToken)).isPresent();
+
+        // When
+        keyRing.removeKey(oldKey);
+
+        // Then
+        assertThat(tokens.authenticate(oldToken)).isEmpty();
+        assertThat(tokens.authenticate(newToken)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should issue a token after a successful Basic login")
+    void shouldIssueATokenAfterASuccessfulBasicLogin() throws Exception {
+        // Given
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.put("tokenuser", new UserCredentials(PasswordHash.create("password123", 1), Set.of("USER")));
+        GameAuthenticator authenticator = new GameAuthenticator(store);
+
+        // When
+        Optional<String> token = tokens.login(authenticator, new BasicCredentials("tokenuser", "password123"));
+        Optional<String> rejected = tokens.login(authenticator, new BasicCredentials("tokenuser", "wrong"));
+
+        // Then
+        assertThat(token).isPresent();
+        assertThat(tokens.authenticate(token.get())).get()
+                .extracting(GameUser::getName).isEqualTo("tokenuser");
+        assertThat(rejected).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should revoke tokens when the account changes or is removed")
+    void shouldRevokeTokensWhenTheAccountChangesOrIsRemoved() throws Exception {
+        // Given
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.put("alice", new UserCredentials(PasswordHash.create("password123", 1), Set.of("USER")));
+        store.put("bob", new UserCredentials(PasswordHash.create("password456", 1), Set.of("USER")));
+        GameAuthenticator authenticator = new GameAuthenticator(store);
+        TokenAuthenticator checked = new TokenAuthenticator(keyRing, Duration.ofMinutes(30),
+                CredentialEpochs.track(store), now::get);
+        String alice = checked.login(authenticator, new BasicCredentials("alice", "password123")).orElseThrow();
+        String bob = checked.login(authenticator, new BasicCredentials("bob", "password456")).orElseThrow();
+
+        // When
+        store.put("alice", new UserCredentials(PasswordHash.create("changed", 1), Set.of("USER")));
+        String aliceAgain = checked.login(authenticator, new BasicCredentials("alice", "changed")).orElseThrow();
+
+        // Then
+        assertThat(checked.authenticate(alice)).isEmpty();
+        assertThat(checked.authenticate(aliceAgain)).get().extracting(GameUser::getCredentialEpoch).isEqualTo(1L);
+        assertThat(checked.authenticate(bob)).isPresent();
+
+        // When
+        store.put("bob", new UserCredentials(store.get("bob").getPasswordHash(), Set.of("USER", "BANNED")));
+
+        // Then
+        assertThat(checked.authenticate(bob)).isEmpty();
+
+        // When
+        store.remove("alice");
+
+        // Then
+        assertThat(checked.authenticate(aliceAgain)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should build from configuration")
+    void shouldBuildFromConfiguration() {
+        // Given
+        AuthConfiguration configuration = new AuthConfiguration();
+        configuration.setSessionTimeout(10);
+        configuration.getTokens().getSigningKeys()
+                .put(5, Base64.getEncoder().encodeToString(TokenKeyRing.randomSecret()));
+        configuration.getTokens().setActiveKeyId(5);
+
+        // When
+        TokenAuthenticator configured = TokenAuthenticator.fromConfiguration(configuration);
+
+        // Then
+        assertThat(configured.getTimeToLive()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(configured.getKeyRing().getActiveKeyId()).isEqualTo(5);
+        assertThat(configured.authenticate(configured.issue(user))).isPresent();
+
+        // When
+        configuration.getTokens().setEnabled(false);
+
+        // Then
+        assertThat(TokenAuthenticator.fromConfiguration(configuration)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid arguments")
+    void shouldThrowExceptionForInvalidArguments() {
+        // When & Then
+        assertThatThrownBy(() -> new TokenAuthenticator(null, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Key ring cannot be null");
+        assertThatThrownBy(() -> new TokenAuthenticator(keyRing, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Time to live must be positive");
+        assertThatThrownBy(() -> tokens.issue(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User cannot be null");
+    }
+}
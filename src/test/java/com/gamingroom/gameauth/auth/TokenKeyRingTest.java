@@ -0,0 +1,93 @@
+package com.gamingroom.gameauth.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for TokenKeyRing class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("TokenKeyRing Tests")
+class TokenKeyRingTest {
+
+    private TokenKeyRing keyRing;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new TokenKeyRing();
+    }
+
+    @Test
+    @DisplayName("Should rotate to the next free key id")
+    void shouldRotateToTheNextFreeKeyId() {
+        // When
+        int first = keyRing.rotate(TokenKeyRing.randomSecret());
+        int second = keyRing.rotate(TokenKeyRing.randomSecret());
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(1);
+        assertThat(keyRing.getActiveKeyId()).isEqualTo(1);
+        assertThat(keyRing.key(0)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should sign identically with the same secret")
+    void shouldSignIdenticallyWithTheSameSecret() {
+        // Given
+        byte[] secret = TokenKeyRing.randomSecret();
+        keyRing.addKey(3, secret);
+        TokenKeyRing other = new TokenKeyRing();
+        other.addKey(7, secret);
+        byte[] data = {1, 2, 3, 4};
+
+        // When & Then
+        assertThat(keyRing.key(3).sign(data, 4)).isEqualTo(other.key(7).sign(data, 4)).hasSize(32);
+        assertThat(keyRing.key(3).sign(data, 3)).isNotEqualTo(other.key(7).sign(data, 4));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid keys")
+    void shouldRejectInvalidKeys() {
+        // Given
+        keyRing.addKey(1, TokenKeyRing.randomSecret());
+
+        // When & Then
+        assertThatThrownBy(() -> keyRing.addKey(1, TokenKeyRing.randomSecret()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Key id already in use: 1");
+        assertThatThrownBy(() -> keyRing.addKey(256, TokenKeyRing.randomSecret()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> keyRing.addKey(2, new byte[16]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Secret must be at least 32 bytes");
+        assertThatThrownBy(() -> keyRing.activate(9))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown key id: 9");
+        assertThatThrownBy(() -> keyRing.getActiveKeyId())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should remove retired keys but not the active key")
+    void shouldRemoveRetiredKeysButNotTheActiveKey() {
+        // Given
+        int retired = keyRing.rotate(TokenKeyRing.randomSecret());
+        int active = keyRing.rotate(TokenKeyRing.randomSecret());
+
+        // When
+        boolean removed = keyRing.removeKey(retired);
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(keyRing.key(retired)).isNull();
+        assertThat(keyRing.removeKey(retired)).isFalse();
+        assertThatThrownBy(() -> keyRing.removeKey(active))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot remove the active key");
+    }
+}
@@ -0,0 +1,214 @@
+package com.gamingroom.gameauth.auth;
+
+import com.gamingroom.gameauth.auth.store.InMemoryUserStore;
+import com.gamingroom.gameauth.auth.store.PasswordHash;
+import com.gamingroom.gameauth.auth.store.UserCredentials;
+import com.gamingroom.gameauth.auth.store.UserStore;
+import com.gamingroom.gameauth.auth.store.UserStoreListener;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit tests for UsernameFilter class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("UsernameFilter Tests")
+class UsernameFilterTest {
+
+    private UserStore store;
+    private UsernameFilterConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryUserStore();
+        Map<String, UserCredentials> users = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            users.put("player" + i, credentials("pass" + i));
+        }
+        store.putAll(users);
+        configuration = new UsernameFilterConfiguration();
+        configuration.setExpectedUsers(1000);
+    }
+
+    private static UserCredentials credentials(String password) {
+        return new UserCredentials(PasswordHash.create(password, 1), Set.of("PLAYER"));
+    }
+
+    @Test
+    @DisplayName("Should contain every stored username after a parallel build")
+    void shouldContainEveryStoredUsernameAfterAParallelBuild() {
+        // When
+        UsernameFilter filter = new UsernameFilter(store, configuration, Runnable::run);
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("player" + i)).isTrue();
+        }
+        assertThat(filter.getCapacity()).isEqualTo(15_000);
+    }
+
+    @Test
+    @DisplayName("Should stop listening and stop rejecting once closed")
+    void shouldStopListeningAndStopRejectingOnceClosed() {
+        // Given
+        List<UserStoreListener> listeners = new ArrayList<>();
+        UserStore counted = new InMemoryUserStore() {
+            @Override
+            public void addListener(UserStoreListener listener) {
+                super.addListener(listener);
+                listeners.add(listener);
+            }
+
+            @Override
+            public void removeListener(UserStoreListener listener) {
+                super.removeListener(listener);
+                listeners.remove(listener);
+            }
+        };
+        UsernameFilter filter = new UsernameFilter(counted, configuration, Runnable::run);
+        GameAuthenticator authenticator = GameAuthenticator.builder(counted)
+                .usernameFilter(configuration)
+                .build();
+        assertThat(listeners).hasSize(3);
+
+        // When
+        filter.close();
+        authenticator.close();
+
+        // Then
+        assertThat(listeners).isEmpty();
+        assertThat(filter.mightContain("bot1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject most unknown usernames at the configured rate")
+    void shouldRejectMostUnknownUsernamesAtTheConfiguredRate() {
+        // Given
+        UsernameFilter filter = new UsernameFilter(store, configuration, Runnable::run);
+
+        // When
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("bot" + i)) {
+                passed++;
+            }
+        }
+
+        // Then
+        assertThat(passed).isLessThan(200);
+        assertThat(filter.getRejectionCount()).isEqualTo(10_000 - passed);
+        assertThat(filter.getQueryCount()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Should add users as the store reports them")
+    void shouldAddUsersAsTheStoreReportsThem() {
+        // Given
+        UsernameFilter filter = new UsernameFilter(store, configuration, Runnable::run);
+
+        // When
+        store.put("newcomer", credentials("secret"));
+
+        // Then
+        assertThat(filter.mightContain("newcomer")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rebuild once too many removed users are stale")
+    void shouldRebuildOnceTooManyRemovedUsersAreStale() {
+        // Given
+        configuration.setStaleRebuildRatio(0.5);
+        UsernameFilter filter = new UsernameFilter(store, configuration, Runnable::run);
+
+        // When
+        for (int i = 0; i < 4000; i++) {
+            store.remove("player" + i);
+        }
+        long staleBeforeRebuild = filter.getStaleRemovals();
+        for (int i = 4000; i < 6000; i++) {
+            store.remove("player" + i);
+        }
+
+        // Then
+        assertThat(staleBeforeRebuild).isEqualTo(4000);
+        // The rebuild after roughly the 5000th removal starts counting stale users afresh
+        assertThat(filter.getStaleRemovals()).isBetween(1L, 1500L);
+        assertThat(filter.getApproximateUserCount()).isBetween(4500L, 5500L);
+        assertThat(filter.mightContain("player9999")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should grow when more users are added than it was sized for")
+    void shouldGrowWhenMoreUsersAreAddedThanItWasSizedFor() {
+        // Given
+        UsernameFilter filter = new UsernameFilter(store, configuration, Runnable::run);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            store.put("late" + i, credentials("pass"));
+        }
+
+        // Then
+        assertThat(filter.getCapacity()).isGreaterThan(15_000);
+        assertThat(filter.mightContain("late9999")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report a higher rate when the memory budget is too small")
+    void shouldReportAHigherRateWhenTheMemoryBudgetIsTooSmall() {
+        // Given
+        UsernameFilter unlimited = new UsernameFilter(store, configuration, Runnable::run);
+        configuration.setMaxMemoryKilobytes(4);
+
+        // When
+        UsernameFilter limited = new UsernameFilter(store, configuration, Runnable::run);
+
+        // Then
+        assertThat(unlimited.getTargetFalsePositiveRate()).isEqualTo(0.01);
+        assertThat(limited.getMemoryBytes()).isLessThanOrEqualTo(4096);
+        assertThat(limited.getMemoryBytes()).isLessThan(unlimited.getMemoryBytes());
+        assertThat(limited.getTargetFalsePositiveRate()).isGreaterThan(0.01);
+        assertThat(limited.mightContain("player42")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown usernames without consulting the store")
+    void shouldRejectUnknownUsernamesWithoutConsultingTheStore() throws AuthenticationException {
+        // Given
+        UsernameFilter filter = new UsernameFilter(store, configuration, Runnable::run);
+        PasswordHasher hasher = new PasswordHasher(1000);
+        store.put("alice", new UserCredentials(hasher.hash("secret"), Set.of("USER")));
+        GameAuthenticator authenticator = GameAuthenticator.builder(store)
+                .passwordHasher(hasher)
+                .usernameFilter(filter)
+                .build();
+
+        // When
+        authenticator.authenticate(new BasicCredentials("nobody-" + System.nanoTime(), "secret"));
+        long queries = filter.getQueryCount();
+
+        // Then
+        assertThat(authenticator.authenticate(new BasicCredentials("alice", "secret"))).isPresent();
+        assertThat(queries).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a null store")
+    void shouldRejectANullStore() {
+        assertThatThrownBy(() -> new UsernameFilter(null, configuration))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User store cannot be null");
+    }
+}
@@ -0,0 +1,291 @@
+package com.gamingroom.gameauth.auth.session;
+
+import com.gamingroom.gameauth.auth.AuthConfiguration;
+import com.gamingroom.gameauth.auth.GameUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for OffHeapSessionStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("OffHeapSessionStore Tests")
+class OffHeapSessionStoreTest {
+
+    private static final long TIMEOUT = Duration.ofMinutes(30).toMillis();
+    private static final long TICK = 1000;
+
+    private final GameUser alice = new GameUser("alice", Set.of("USER", "PLAYER"), 1);
+    private final GameUser bob = new GameUser("bob", Set.of("USER"), 2);
+
+    private AtomicLong millis;
+    private OffHeapSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        millis = new AtomicLong(1_000_000_000L);
+        store = newStore(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private OffHeapSessionStore newStore(int maxSessions) {
+        return new OffHeapSessionStore(Duration.ofMillis(TIMEOUT), maxSessions, Duration.ofMillis(TICK),
+                millis::get, false);
+    }
+
+    @Test
+    @DisplayName("Should decode the user of a created session")
+    void shouldDecodeTheUserOfACreatedSession() {
+        // When
+        String sessionId = store.create(alice).orElseThrow();
+        GameUser user = store.get(sessionId).orElseThrow();
+
+        // Then
+        assertThat(sessionId).hasSize(22);
+        assertThat(user).isEqualTo(alice);
+        assertThat(user.getRoles()).containsExactlyInAnyOrder("USER", "PLAYER");
+        assertThat(user.getUserId()).isEqualTo(1);
+        assertThat(store.getActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the credential epoch of a session's user")
+    void shouldKeepTheCredentialEpochOfASessionsUser() {
+        // Given
+        GameUser carol = new GameUser("carol", Set.of("USER"), 3, 7);
+        GameUser dave = new GameUser("dave", Set.of("USER"), 4, Integer.MAX_VALUE + 1L);
+
+        // When
+        GameUser inline = store.get(store.create(carol).orElseThrow()).orElseThrow();
+        GameUser onHeap = store.get(store.create(dave).orElseThrow()).orElseThrow();
+
+        // Then
+        assertThat(inline.getCredentialEpoch()).isEqualTo(7);
+        assertThat(onHeap.getCredentialEpoch()).isEqualTo(Integer.MAX_VALUE + 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep a user without roles")
+    void shouldKeepAUserWithoutRoles() {
+        // Given
+        GameUser guest = new GameUser("guest");
+
+        // When
+        String sessionId = store.create(guest).orElseThrow();
+
+        // Then
+        GameUser user = store.get(sessionId).orElseThrow();
+        assertThat(user).isEqualTo(guest);
+        assertThat(user.getRoles()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore unknown and malformed session ids")
+    void shouldIgnoreUnknownAndMalformedSessionIds() {
+        // Given
+        store.create(alice);
+
+        // Then
+        assertThat(store.get(null)).isEmpty();
+        assertThat(store.get("short")).isEmpty();
+        assertThat(store.get("!!!!!!!!!!!!!!!!!!!!!!")).isEmpty();
+        assertThat(store.get("AAAAAAAAAAAAAAAAAAAAAA")).isEmpty();
+        assertThat(store.invalidate("AAAAAAAAAAAAAAAAAAAAAA")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep users that do not fit in a record")
+    void shouldKeepUsersThatDoNotFitInARecord() {
+        // Given
+        GameUser longName = new GameUser("a-player-with-a-very-long-username", Set.of("USER"), 3);
+
+        // When
+        String sessionId = store.create(longName).orElseThrow();
+
+        // Then
+        assertThat(store.get(sessionId)).contains(longName);
+        assertThat(store.invalidateUser("a-player-with-a-very-long-username")).isEqualTo(1);
+        assertThat(store.get(sessionId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expire idle sessions and keep renewed ones")
+    void shouldExpireIdleSessionsAndKeepRenewedOnes() {
+        // Given
+        String active = store.create(alice).orElseThrow();
+        String idle = store.create(bob).orElseThrow();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            millis.addAndGet(TIMEOUT / 2);
+            assertThat(store.get(active)).contains(alice);
+        }
+        store.expire();
+
+        // Then
+        assertThat(store.getActiveCount()).isEqualTo(1);
+        assertThat(store.getExpiredCount()).isEqualTo(1);
+        assertThat(store.get(idle)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject an expired session before it is swept")
+    void shouldRejectAnExpiredSessionBeforeItIsSwept() {
+        // Given
+        String sessionId = store.create(alice).orElseThrow();
+
+        // When
+        millis.addAndGet(TIMEOUT);
+
+        // Then
+        assertThat(store.get(sessionId)).isEmpty();
+        assertThat(store.getActiveCount()).isZero();
+        assertThat(store.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should invalidate single sessions and all sessions of a user")
+    void shouldInvalidateSingleSessionsAndAllSessionsOfAUser() {
+        // Given
+        String first = store.create(alice).orElseThrow();
+        String second = store.create(alice).orElseThrow();
+        String third = store.create(alice).orElseThrow();
+        String other = store.create(bob).orElseThrow();
+
+        // When
+        boolean invalidated = store.invalidate(first);
+        boolean invalidatedAgain = store.invalidate(first);
+        int invalidatedForUser = store.invalidateUser("alice");
+
+        // Then
+        assertThat(invalidated).isTrue();
+        assertThat(invalidatedAgain).isFalse();
+        assertThat(invalidatedForUser).isEqualTo(2);
+        assertThat(store.get(second)).isEmpty();
+        assertThat(store.get(third)).isEmpty();
+        assertThat(store.get(other)).contains(bob);
+        assertThat(store.getActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should find every session after removals shift records")
+    void shouldFindEverySessionAfterRemovalsShiftRecords() {
+        // Given
+        store.close();
+        store = newStore(2000);
+        List<String> sessionIds = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            sessionIds.add(store.create(i % 2 == 0 ? alice : bob).orElseThrow());
+        }
+
+        // When
+        for (int i = 0; i < sessionIds.size(); i += 3) {
+            store.invalidate(sessionIds.get(i));
+        }
+
+        // Then
+        for (int i = 0; i < sessionIds.size(); i++) {
+            assertThat(store.get(sessionIds.get(i)).isPresent()).isEqualTo(i % 3 != 0);
+        }
+        assertThat(store.getActiveCount()).isEqualTo(2000 - 667);
+    }
+
+    @Test
+    @DisplayName("Should refuse new sessions at the maximum")
+    void shouldRefuseNewSessionsAtTheMaximum() {
+        // Given
+        store.close();
+        store = newStore(2);
+        String first = store.create(alice).orElseThrow();
+        store.create(bob);
+
+        // When
+        Optional<String> refused = store.create(alice);
+        store.invalidate(first);
+        Optional<String> accepted = store.create(alice);
+
+        // Then
+        assertThat(refused).isEmpty();
+        assertThat(accepted).isPresent();
+        assertThat(store.getOffHeapBytes()).isEqualTo(
+                (long) OffHeapSessionStore.SEGMENTS * 16 * OffHeapSessionStore.RECORD_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should keep counts consistent under concurrent use")
+    void shouldKeepCountsConsistentUnderConcurrentUse() throws Exception {
+        // Given
+        store.close();
+        store = newStore(100_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            GameUser user = new GameUser("user" + t, Set.of("USER"), t + 1);
+            results.add(executor.submit(() -> {
+                int kept = 0;
+                for (int i = 0; i < 2000; i++) {
+                    String sessionId = store.create(user).orElseThrow();
+                    if (i % 2 == 0) {
+                        store.invalidate(sessionId);
+                    } else if (store.get(sessionId).filter(user::equals).isPresent()) {
+                        kept++;
+                    }
+                }
+                return kept;
+            }));
+        }
+        int kept = 0;
+        for (Future<Integer> result : results) {
+            kept += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        millis.addAndGet(TIMEOUT);
+        store.expire();
+
+        // Then
+        assertThat(kept).isEqualTo(4000);
+        assertThat(store.getExpiredCount()).isEqualTo(4000);
+        assertThat(store.getActiveCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should select the store from configuration")
+    void shouldSelectTheStoreFromConfiguration() {
+        // Given
+        AuthConfiguration configuration = new AuthConfiguration();
+        configuration.getSessions().setMaxSessions(100);
+
+        // When
+        try (SessionStore heap = SessionStore.fromConfiguration(configuration)) {
+            configuration.getSessions().setOffHeap(true);
+            try (SessionStore offHeap = SessionStore.fromConfiguration(configuration)) {
+                // Then
+                assertThat(heap).isInstanceOf(TimingWheelSessionStore.class);
+                assertThat(offHeap).isInstanceOf(OffHeapSessionStore.class);
+                assertThat(offHeap.getTimeout()).isEqualTo(Duration.ofMinutes(configuration.getSessionTimeout()));
+            }
+        }
+    }
+}
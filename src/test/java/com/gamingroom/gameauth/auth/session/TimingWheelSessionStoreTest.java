@@ -0,0 +1,318 @@
+package com.gamingroom.gameauth.auth.session;
+
+import com.gamingroom.gameauth.auth.GameUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for TimingWheelSessionStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("TimingWheelSessionStore Tests")
+class TimingWheelSessionStoreTest {
+
+    private static final long TIMEOUT = Duration.ofMinutes(30).toMillis();
+    private static final long TICK = 1000;
+
+    private final GameUser alice = new GameUser("alice", Set.of("USER"), 1);
+    private final GameUser bob = new GameUser("bob", Set.of("USER"), 2);
+
+    private AtomicLong millis;
+    private TimingWheelSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        millis = new AtomicLong(1_000_000_000L);
+        store = newStore(TIMEOUT, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private TimingWheelSessionStore newStore(long timeout, int maxSessions) {
+        return new TimingWheelSessionStore(Duration.ofMillis(timeout), maxSessions, Duration.ofMillis(TICK),
+                millis::get, false);
+    }
+
+    private void advance(long duration) {
+        // Step one tick at a time, as the expiry thread would
+        for (long elapsed = 0; elapsed < duration; elapsed += TICK) {
+            millis.addAndGet(Math.min(TICK, duration - elapsed));
+            store.expire();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the user of a created session")
+    void shouldReturnTheUserOfACreatedSession() {
+        // When
+        String sessionId = store.create(alice).orElseThrow();
+
+        // Then
+        assertThat(sessionId).hasSize(22);
+        assertThat(store.get(sessionId)).contains(alice);
+        assertThat(store.get("unknown")).isEmpty();
+        assertThat(store.get(null)).isEmpty();
+        assertThat(store.getActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create distinct session ids")
+    void shouldCreateDistinctSessionIds() {
+        // When
+        String first = store.create(alice).orElseThrow();
+        String second = store.create(alice).orElseThrow();
+
+        // Then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(store.getActiveCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should expire idle sessions after the timeout")
+    void shouldExpireIdleSessionsAfterTheTimeout() {
+        // Given
+        String sessionId = store.create(alice).orElseThrow();
+
+        // When
+        advance(TIMEOUT - TICK);
+        int activeBeforeTimeout = store.getActiveCount();
+        advance(2 * TICK);
+
+        // Then
+        assertThat(activeBeforeTimeout).isEqualTo(1);
+        assertThat(store.getActiveCount()).isZero();
+        assertThat(store.getExpiredCount()).isEqualTo(1);
+        assertThat(store.get(sessionId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject an expired session even before the wheel reaches it")
+    void shouldRejectAnExpiredSessionEvenBeforeTheWheelReachesIt() {
+        // Given
+        String sessionId = store.create(alice).orElseThrow();
+
+        // When
+        millis.addAndGet(TIMEOUT);
+
+        // Then
+        assertThat(store.get(sessionId)).isEmpty();
+        assertThat(store.getActiveCount()).isZero();
+        assertThat(store.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep renewed sessions alive past the original timeout")
+    void shouldKeepRenewedSessionsAlivePastTheOriginalTimeout() {
+        // Given
+        String active = store.create(alice).orElseThrow();
+        String idle = store.create(bob).orElseThrow();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            advance(TIMEOUT / 2);
+            assertThat(store.get(active)).contains(alice);
+        }
+
+        // Then
+        assertThat(store.get(idle)).isEmpty();
+        assertThat(store.getActiveCount()).isEqualTo(1);
+        advance(TIMEOUT + TICK);
+        assertThat(store.getActiveCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expire sessions whose timeout spans every wheel level")
+    void shouldExpireSessionsWhoseTimeoutSpansEveryWheelLevel() {
+        // Given
+        store.close();
+        long timeout = TICK * (1L << (3 * TimingWheelSessionStore.SLOT_BITS)) * 3;
+        store = newStore(timeout, 100);
+        String sessionId = store.create(alice).orElseThrow();
+
+        // When
+        advance(timeout - TICK);
+        boolean aliveBeforeTimeout = store.getActiveCount() == 1;
+        advance(2 * TICK);
+
+        // Then
+        assertThat(aliveBeforeTimeout).isTrue();
+        assertThat(store.getActiveCount()).isZero();
+        assertThat(store.get(sessionId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should catch up when the expiry thread falls behind")
+    void shouldCatchUpWhenTheExpiryThreadFallsBehind() {
+        // Given
+        store.create(alice);
+        store.create(bob);
+
+        // When
+        millis.addAndGet(TIMEOUT + TICK);
+        store.expire();
+
+        // Then
+        assertThat(store.getActiveCount()).isZero();
+        assertThat(store.getExpiredCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should invalidate a single session")
+    void shouldInvalidateASingleSession() {
+        // Given
+        String first = store.create(alice).orElseThrow();
+        String second = store.create(alice).orElseThrow();
+
+        // When
+        boolean invalidated = store.invalidate(first);
+        boolean invalidatedAgain = store.invalidate(first);
+
+        // Then
+        assertThat(invalidated).isTrue();
+        assertThat(invalidatedAgain).isFalse();
+        assertThat(store.get(first)).isEmpty();
+        assertThat(store.get(second)).contains(alice);
+        assertThat(store.getExpiredCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should invalidate every session of a user")
+    void shouldInvalidateEverySessionOfAUser() {
+        // Given
+        String first = store.create(alice).orElseThrow();
+        String second = store.create(alice).orElseThrow();
+        String other = store.create(bob).orElseThrow();
+
+        // When
+        int invalidated = store.invalidateUser("alice");
+
+        // Then
+        assertThat(invalidated).isEqualTo(2);
+        assertThat(store.get(first)).isEmpty();
+        assertThat(store.get(second)).isEmpty();
+        assertThat(store.get(other)).contains(bob);
+        assertThat(store.invalidateUser("alice")).isZero();
+        assertThat(store.invalidateUser(null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse new sessions at the maximum")
+    void shouldRefuseNewSessionsAtTheMaximum() {
+        // Given
+        store.close();
+        store = newStore(TIMEOUT, 2);
+        String first = store.create(alice).orElseThrow();
+        store.create(bob);
+
+        // When
+        Optional<String> refused = store.create(alice);
+        store.invalidate(first);
+        Optional<String> accepted = store.create(alice);
+
+        // Then
+        assertThat(refused).isEmpty();
+        assertThat(accepted).isPresent();
+        assertThat(store.getActiveCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should release invalidated sessions from the wheel")
+    void shouldReleaseInvalidatedSessionsFromTheWheel() {
+        // Given
+        store.close();
+        store = newStore(TIMEOUT, 1000);
+        store.create(bob);
+
+        // When
+        for (int i = 0; i < 5000; i++) {
+            store.create(alice).ifPresent(store::invalidate);
+            if (i % 100 == 0) {
+                advance(TICK);
+            }
+        }
+        advance(TICK);
+
+        // Then
+        assertThat(store.getActiveCount()).isEqualTo(1);
+        assertThat(store.getResidentCount()).isLessThanOrEqualTo(2 * 1000);
+        assertThat(store.create(alice)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should keep counts consistent under concurrent use")
+    void shouldKeepCountsConsistentUnderConcurrentUse() throws Exception {
+        // Given
+        store.close();
+        store = newStore(TIMEOUT, 100_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            GameUser user = new GameUser("user" + t, Set.of("USER"), t + 1);
+            results.add(executor.submit(() -> {
+                int kept = 0;
+                for (int i = 0; i < 2000; i++) {
+                    String sessionId = store.create(user).orElseThrow();
+                    if (i % 2 == 0) {
+                        store.invalidate(sessionId);
+                    } else if (store.get(sessionId).isPresent()) {
+                        kept++;
+                    }
+                    if (i % 500 == 0) {
+                        store.expire();
+                    }
+                }
+                return kept;
+            }));
+        }
+        int kept = 0;
+        for (Future<Integer> result : results) {
+            kept += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        advance(TIMEOUT + TICK);
+
+        // Then
+        assertThat(kept).isEqualTo(4000);
+        assertThat(store.getExpiredCount()).isEqualTo(4000);
+        assertThat(store.getActiveCount()).isZero();
+        assertThat(store.getResidentCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void shouldRejectInvalidArguments() {
+        assertThatThrownBy(() -> store.create(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User cannot be null");
+        assertThatThrownBy(() -> new TimingWheelSessionStore(Duration.ZERO, 10, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Timeout must be positive");
+        assertThatThrownBy(() -> new TimingWheelSessionStore(Duration.ofSeconds(1), 10, Duration.ofSeconds(2)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Tick must be positive and no longer than the timeout");
+        assertThatThrownBy(() -> new TimingWheelSessionStore(Duration.ofSeconds(1), 0, Duration.ofMillis(10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max sessions must be positive");
+    }
+}
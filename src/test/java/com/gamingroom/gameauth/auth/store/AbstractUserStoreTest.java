@@ -0,0 +1,294 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Behaviour every UserStore backend must share.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+abstract class AbstractUserStoreTest {
+
+    protected UserStore store;
+
+    protected abstract UserStore createStore() throws Exception;
+
+    protected static UserCredentials credentials(String password, Set<String> roles) {
+        // A single iteration keeps the tests fast; the cost is irrelevant to storage
+        return new UserCredentials(PasswordHash.create(password, 1), roles);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = createStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should return stored credentials")
+    void shouldReturnStoredCredentials() {
+        // Given
+        UserCredentials credentials = credentials("secret", Set.of("USER", "PLAYER"));
+
+        // When
+        store.put("alice", credentials);
+
+        // Then
+        UserCredentials stored = store.get("alice");
+        assertThat(stored).isEqualTo(credentials.withUserId(stored.getUserId()).withCredentialEpoch(0));
+        assertThat(store.get("bob")).isNull();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should replace existing credentials on put")
+    void shouldReplaceExistingCredentialsOnPut() {
+        // Given
+        store.put("alice", credentials("old", Set.of("USER")));
+
+        // When
+        store.put("alice", credentials("new", Set.of("ADMIN")));
+
+        // Then
+        assertThat(store.get("alice").validatePassword("new")).isTrue();
+        assertThat(store.get("alice").getRoles()).containsExactly("ADMIN");
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remove users")
+    void shouldRemoveUsers() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+
+        // When & Then
+        assertThat(store.remove("alice")).isTrue();
+        assertThat(store.remove("alice")).isFalse();
+        assertThat(store.get("alice")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should read and write users in bulk")
+    void shouldReadAndWriteUsersInBulk() {
+        // Given
+        Map<String, UserCredentials> users = new HashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            users.put("player" + i, credentials("pass" + i, Set.of("PLAYER")));
+        }
+
+        // When
+        store.putAll(users);
+        Map<String, UserCredentials> found = store.getAll(Arrays.asList("player1", "player1199", "missing"));
+
+        // Then
+        assertThat(store.size()).isEqualTo(1200);
+        assertThat(found).containsOnlyKeys("player1", "player1199");
+        assertThat(found.get("player1199").validatePassword("pass1199")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep role names with separator characters intact")
+    void shouldKeepRoleNamesWithSeparatorCharactersIntact() {
+        // Given
+        UserCredentials credentials = credentials("tab\there", Set.of("A,B", "C\\D"));
+
+        // When
+        store.put("odd\tname", credentials);
+
+        // Then
+        UserCredentials stored = store.get("odd\tname");
+        assertThat(stored).isEqualTo(credentials.withUserId(stored.getUserId()).withCredentialEpoch(0));
+    }
+
+    @Test
+    @DisplayName("Should assign distinct user ids that survive replacement")
+    void shouldAssignDistinctUserIdsThatSurviveReplacement() {
+        // Given
+        store.put("alice", credentials("one", Set.of("USER")));
+        store.put("bob", credentials("two", Set.of("USER")));
+        long aliceId = store.get("alice").getUserId();
+
+        // When
+        store.put("alice", credentials("changed", Set.of("ADMIN")));
+
+        // Then
+        assertThat(aliceId).isPositive();
+        assertThat(store.get("bob").getUserId()).isPositive().isNotEqualTo(aliceId);
+        assertThat(store.get("alice").getUserId()).isEqualTo(aliceId);
+    }
+
+    @Test
+    @DisplayName("Should not reuse the id of a removed user")
+    void shouldNotReuseTheIdOfARemovedUser() {
+        // Given
+        store.put("alice", credentials("one", Set.of("USER")));
+        long aliceId = store.get("alice").getUserId();
+        store.remove("alice");
+
+        // When
+        store.putAll(Map.of("alice", credentials("one", Set.of("USER")), "bob", credentials("two", Set.of())));
+
+        // Then
+        assertThat(store.get("alice").getUserId()).isNotEqualTo(aliceId);
+        assertThat(store.get("bob").getUserId()).isNotEqualTo(aliceId);
+    }
+
+    @Test
+    @DisplayName("Should keep an explicit user id")
+    void shouldKeepAnExplicitUserId() {
+        // When
+        store.put("alice", credentials("one", Set.of("USER")).withUserId(4242));
+
+        // Then
+        assertThat(store.get("alice").getUserId()).isEqualTo(4242);
+    }
+
+    @Test
+    @DisplayName("Should move the credential epoch on when the password or roles change")
+    void shouldMoveTheCredentialEpochOnWhenThePasswordOrRolesChange() {
+        // Given
+        UserCredentials original = credentials("one", Set.of("USER"));
+        store.put("alice", original);
+        long created = store.get("alice").getCredentialEpoch();
+
+        // When
+        store.put("alice", store.get("alice"));
+        long unchanged = store.get("alice").getCredentialEpoch();
+        store.put("alice", new UserCredentials(original.getPasswordHash(), Set.of("USER")));
+        long sameCredentials = store.get("alice").getCredentialEpoch();
+        store.put("alice", credentials("two", Set.of("USER")));
+        long passwordChanged = store.get("alice").getCredentialEpoch();
+        store.put("alice", new UserCredentials(store.get("alice").getPasswordHash(), Set.of("ADMIN")));
+        long rolesChanged = store.get("alice").getCredentialEpoch();
+
+        // Then
+        assertThat(created).isZero();
+        assertThat(unchanged).isZero();
+        assertThat(sameCredentials).isZero();
+        assertThat(passwordChanged).isEqualTo(1);
+        assertThat(rolesChanged).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep an explicit credential epoch but never move it back")
+    void shouldKeepAnExplicitCredentialEpochButNeverMoveItBack() {
+        // Given
+        store.put("alice", credentials("one", Set.of("USER")).withCredentialEpoch(7));
+
+        // When
+        UserCredentials rehashed = new UserCredentials(store.get("alice").getUserId(), 7,
+                PasswordHash.create("one", 2), Set.of("USER"));
+        store.put("alice", rehashed);
+        long afterRehash = store.get("alice").getCredentialEpoch();
+        store.put("alice", credentials("two", Set.of("USER")).withCredentialEpoch(3));
+
+        // Then
+        assertThat(afterRehash).isEqualTo(7);
+        assertThat(store.get("alice").getCredentialEpoch()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should pass stored credentials with their id to listeners")
+    void shouldPassStoredCredentialsWithTheirIdToListeners() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        store.addListener((username, previous, current) -> ids.add(current.getUserId()));
+
+        // When
+        store.put("alice", credentials("one", Set.of("USER")));
+
+        // Then
+        assertThat(ids).containsExactly(store.get("alice").getUserId());
+    }
+
+    @Test
+    @DisplayName("Should notify listeners of changes")
+    void shouldNotifyListenersOfChanges() {
+        // Given
+        List<String> events = new ArrayList<>();
+        store.addListener((username, previous, current) ->
+                events.add(username + ":" + (previous != null) + ":" + (current != null)));
+
+        // When
+        store.put("alice", credentials("one", Set.of("USER")));
+        store.put("alice", credentials("two", Set.of("USER")));
+        store.remove("alice");
+        store.remove("alice");
+
+        // Then
+        assertThat(events).containsExactly("alice:false:true", "alice:true:true", "alice:true:false");
+    }
+
+    @Test
+    @DisplayName("Should stop notifying removed listeners")
+    void shouldStopNotifyingRemovedListeners() {
+        // Given
+        List<String> events = new ArrayList<>();
+        UserStoreListener listener = (username, previous, current) -> events.add(username);
+        store.addListener(listener);
+        store.put("alice", credentials("one", Set.of("USER")));
+
+        // When
+        store.removeListener(listener);
+        store.put("bob", credentials("two", Set.of("USER")));
+
+        // Then
+        assertThat(events).containsExactly("alice");
+    }
+
+    @Test
+    @DisplayName("Should visit every user")
+    void shouldVisitEveryUser() {
+        // Given
+        store.put("alice", credentials("a", Set.of("USER")));
+        store.put("bob", credentials("b", Set.of()));
+
+        // When
+        Map<String, UserCredentials> visited = new HashMap<>();
+        store.forEach(visited::put);
+
+        // Then
+        assertThat(visited).containsOnlyKeys("alice", "bob");
+    }
+
+    @Test
+    @DisplayName("Should replace credentials only while they are unchanged")
+    void shouldReplaceCredentialsOnlyWhileTheyAreUnchanged() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        UserCredentials read = store.get("alice");
+        store.put("alice", credentials("changed", Set.of("USER")));
+        UserCredentials current = store.get("alice");
+
+        // When
+        boolean stale = store.replace("alice", read, credentials("secret", Set.of("USER")));
+        boolean fresh = store.replace("alice", current, new UserCredentials(current.getUserId(),
+                current.getCredentialEpoch(), PasswordHash.create("changed", 2), current.getRoles()));
+        boolean missing = store.replace("bob", read, credentials("other", Set.of()));
+
+        // Then
+        assertThat(stale).isFalse();
+        assertThat(fresh).isTrue();
+        assertThat(missing).isFalse();
+        assertThat(store.get("bob")).isNull();
+        assertThat(store.get("alice").getPasswordHash().getIterations()).isEqualTo(2);
+        assertThat(store.get("alice").getCredentialEpoch()).isEqualTo(current.getCredentialEpoch());
+        assertThat(store.get("alice").getUserId()).isEqualTo(current.getUserId());
+    }
+}
@@ -0,0 +1,160 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for CompactUserStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("CompactUserStore Tests")
+class CompactUserStoreTest extends AbstractUserStoreTest {
+
+    @Override
+    protected UserStore createStore() {
+        return new CompactUserStore();
+    }
+
+    @Test
+    @DisplayName("Should share one role set between users with the same roles")
+    void shouldShareOneRoleSetBetweenUsersWithTheSameRoles() {
+        // Given
+        store.put("alice", credentials("secret", new HashSet<>(Set.of("PLAYER", "USER"))));
+        store.put("bob", credentials("other", Set.of("USER", "PLAYER")));
+        store.put("carol", credentials("third", Set.of("ADMIN")));
+
+        // When
+        Set<String> aliceRoles = store.get("alice").getRoles();
+        Set<String> bobRoles = store.get("bob").getRoles();
+
+        // Then
+        assertThat(aliceRoles).isSameAs(bobRoles).containsExactlyInAnyOrder("PLAYER", "USER");
+        assertThat(((CompactUserStore) store).getRoleSetCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep every user findable through many inserts and removals")
+    void shouldKeepEveryUserFindableThroughManyInsertsAndRemovals() {
+        // Given
+        PasswordHash hash = PasswordHash.create("secret", 1);
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            String username = "player" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                store.remove(username);
+                expected.remove(username);
+            } else {
+                store.put(username, new UserCredentials(hash, Set.of("PLAYER")));
+                expected.put(username, store.get(username).getUserId());
+            }
+        }
+
+        // Then
+        assertThat(store.size()).isEqualTo(expected.size());
+        for (int i = 0; i < 3000; i++) {
+            UserCredentials credentials = store.get("player" + i);
+            if (expected.containsKey("player" + i)) {
+                assertThat(credentials.getUserId()).isEqualTo(expected.get("player" + i));
+            } else {
+                assertThat(credentials).isNull();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should find unchanged users while other users in their segments change")
+    void shouldFindUnchangedUsersWhileOtherUsersInTheirSegmentsChange() throws Exception {
+        // Given
+        PasswordHash hash = PasswordHash.create("secret", 1);
+        Map<String, Long> stable = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            store.put("stable" + i, new UserCredentials(hash, Set.of("PLAYER")));
+            stable.put("stable" + i, store.get("stable" + i).getUserId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean done = new AtomicBoolean();
+
+        // When
+        Future<?> writer = executor.submit(() -> {
+            Random random = new Random(7);
+            for (int i = 0; i < 50_000; i++) {
+                String username = "churn" + random.nextInt(5000);
+                if (random.nextBoolean()) {
+                    store.remove(username);
+                } else {
+                    store.put(username, new UserCredentials(hash, Set.of("USER")));
+                }
+            }
+            done.set(true);
+        });
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            readers.add(executor.submit(() -> {
+                int mismatches = 0;
+                while (!done.get()) {
+                    for (Map.Entry<String, Long> entry : stable.entrySet()) {
+                        UserCredentials credentials = store.get(entry.getKey());
+                        if (credentials == null || credentials.getUserId() != entry.getValue()) {
+                            mismatches++;
+                        }
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        writer.get(60, TimeUnit.SECONDS);
+
+        // Then
+        for (Future<Integer> reader : readers) {
+            assertThat(reader.get(60, TimeUnit.SECONDS)).isZero();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep users with a non-standard hash layout")
+    void shouldKeepUsersWithANonStandardHashLayout() {
+        // Given
+        PasswordHash unusual = PasswordHash.of(1000, new byte[8], new byte[64]);
+        store.put("alice", credentials("secret", Set.of("USER")));
+
+        // When
+        store.put("alice", new UserCredentials(unusual, Set.of("USER")));
+        store.put("bob", new UserCredentials(unusual, null));
+
+        // Then
+        assertThat(store.get("alice").getPasswordHash()).isEqualTo(unusual);
+        assertThat(store.get("bob").getRoles()).isNull();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.remove("bob")).isTrue();
+        assertThat(store.get("bob")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a negative expected size")
+    void shouldRejectANegativeExpectedSize() {
+        // When / Then
+        assertThatThrownBy(() -> new CompactUserStore(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expected users cannot be negative");
+    }
+}
@@ -0,0 +1,140 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit tests for FileUserStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("FileUserStore Tests")
+class FileUserStoreTest extends AbstractUserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected UserStore createStore() {
+        return new FileUserStore(tempDir.resolve("users.txt"));
+    }
+
+    @Test
+    @DisplayName("Should reload users after reopening the file")
+    void shouldReloadUsersAfterReopeningTheFile() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER", "PLAYER")));
+        store.put("bob", credentials("other", Set.of()));
+        store.remove("bob");
+
+        // When
+        UserStore reopened = new FileUserStore(tempDir.resolve("users.txt"));
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get("alice")).isEqualTo(store.get("alice"));
+    }
+
+    @Test
+    @DisplayName("Should continue user ids after the highest stored one")
+    void shouldContinueUserIdsAfterTheHighestStoredOne() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")).withUserId(41));
+        UserStore reopened = new FileUserStore(tempDir.resolve("users.txt"));
+
+        // When
+        reopened.put("bob", credentials("other", Set.of()));
+
+        // Then
+        assertThat(reopened.get("bob").getUserId()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should not reuse the id of a removed user after reopening")
+    void shouldNotReuseTheIdOfARemovedUserAfterReopening() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        store.put("bob", credentials("other", Set.of("USER")));
+        long bobId = store.get("bob").getUserId();
+        store.remove("bob");
+
+        // When
+        UserStore reopened = new FileUserStore(tempDir.resolve("users.txt"));
+        reopened.put("carol", credentials("third", Set.of("USER")));
+
+        // Then
+        assertThat(reopened.get("carol").getUserId()).isGreaterThan(bobId);
+    }
+
+    @Test
+    @DisplayName("Should assign and keep ids for files written without them")
+    void shouldAssignAndKeepIdsForFilesWrittenWithoutThem() throws Exception {
+        // Given
+        Path legacy = tempDir.resolve("legacy.txt");
+        Files.write(legacy, List.of("# gameauth users v2",
+                "alice\t" + PasswordHash.create("secret", 1).encode() + "\tUSER"), StandardCharsets.UTF_8);
+
+        // When
+        long assigned = new FileUserStore(legacy).get("alice").getUserId();
+        UserCredentials reloaded = new FileUserStore(legacy).get("alice");
+
+        // Then
+        assertThat(assigned).isPositive();
+        assertThat(reloaded.getUserId()).isEqualTo(assigned);
+        assertThat(reloaded.validatePassword("secret")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep credential epochs across reopening the file")
+    void shouldKeepCredentialEpochsAcrossReopeningTheFile() throws Exception {
+        // Given
+        store.put("alice", credentials("one", Set.of("USER")));
+        store.put("alice", credentials("two", Set.of("USER")));
+        Path legacy = tempDir.resolve("legacy.txt");
+        Files.write(legacy, List.of("bob\t" + PasswordHash.create("secret", 1).encode() + "\tUSER\t7"),
+                StandardCharsets.UTF_8);
+
+        // When
+        UserStore reopened = new FileUserStore(tempDir.resolve("users.txt"));
+
+        // Then
+        assertThat(reopened.get("alice").getCredentialEpoch()).isEqualTo(1);
+        assertThat(new FileUserStore(legacy).get("bob").getCredentialEpoch()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should leave memory and listeners untouched when the file cannot be written")
+    void shouldLeaveMemoryAndListenersUntouchedWhenTheFileCannotBeWritten() throws Exception {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        UserCredentials alice = store.get("alice");
+        List<String> changed = new ArrayList<>();
+        store.addListener((username, previous, current) -> changed.add(username));
+        Files.createDirectories(tempDir.resolve("users.txt.tmp").resolve("blocker"));
+
+        // When & Then
+        assertThatThrownBy(() -> store.put("bob", credentials("other", Set.of())))
+                .isInstanceOf(UserStoreException.class);
+        assertThatThrownBy(() -> store.putAll(Map.of("alice", credentials("changed", Set.of()))))
+                .isInstanceOf(UserStoreException.class);
+        assertThatThrownBy(() -> store.replace("alice", alice, credentials("changed", Set.of())))
+                .isInstanceOf(UserStoreException.class);
+        assertThatThrownBy(() -> store.remove("alice"))
+                .isInstanceOf(UserStoreException.class);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get("alice")).isEqualTo(alice);
+        assertThat(store.get("bob")).isNull();
+        assertThat(changed).isEmpty();
+    }
+}
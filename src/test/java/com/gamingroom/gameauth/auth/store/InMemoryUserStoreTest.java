@@ -0,0 +1,18 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Unit tests for InMemoryUserStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("InMemoryUserStore Tests")
+class InMemoryUserStoreTest extends AbstractUserStoreTest {
+
+    @Override
+    protected UserStore createStore() {
+        return new InMemoryUserStore(64);
+    }
+}
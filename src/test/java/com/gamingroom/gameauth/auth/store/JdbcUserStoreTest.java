@@ -0,0 +1,66 @@
+package com.gamingroom.gameauth.auth.store;
+
+import io.dropwizard.db.DataSourceFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for JdbcUserStore class against an in-memory H2 database.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("JdbcUserStore Tests")
+class JdbcUserStoreTest extends AbstractUserStoreTest {
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    @Override
+    protected UserStore createStore() {
+        DataSourceFactory database = new DataSourceFactory();
+        database.setDriverClass("org.h2.Driver");
+        database.setUrl("jdbc:h2:mem:gameauth" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        database.setUser("sa");
+        database.setPassword("");
+        return JdbcUserStore.fromConfiguration(database);
+    }
+
+    @Test
+    @DisplayName("Should move the credential epoch on for every concurrent password change")
+    void shouldMoveTheCredentialEpochOnForEveryConcurrentPasswordChange() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                int first = thread * 25;
+                results.add(executor.submit(() -> {
+                    for (int change = first; change < first + 25; change++) {
+                        store.put("alice", credentials("password" + change, Set.of("USER")));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(store.get("alice").getCredentialEpoch()).isEqualTo(99);
+        assertThat(store.size()).isEqualTo(1);
+    }
+}
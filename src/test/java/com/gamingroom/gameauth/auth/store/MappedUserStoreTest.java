@@ -0,0 +1,179 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit tests for MappedUserStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("MappedUserStore Tests")
+class MappedUserStoreTest extends AbstractUserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected UserStore createStore() {
+        return new MappedUserStore(tempDir.resolve("users.db"));
+    }
+
+    private MappedUserStore mapped() {
+        return (MappedUserStore) store;
+    }
+
+    private MappedUserStore reopen() {
+        store.close();
+        store = new MappedUserStore(tempDir.resolve("users.db"));
+        return mapped();
+    }
+
+    @Test
+    @DisplayName("Should read merged users from the file and keep them after reopening")
+    void shouldReadMergedUsersFromTheFileAndKeepThemAfterReopening() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER", "PLAYER")));
+        store.put("bob", new UserCredentials(PasswordHash.create("other", 1), null));
+        UserCredentials alice = store.get("alice");
+        UserCredentials bob = store.get("bob");
+
+        // When
+        mapped().merge();
+
+        // Then
+        assertThat(mapped().getPendingChanges()).isZero();
+        assertThat(store.get("alice")).isEqualTo(alice);
+        assertThat(store.get("alice").validatePassword("secret")).isTrue();
+        assertThat(store.get("bob")).isEqualTo(bob);
+        assertThat(store.get("bob").getRoles()).isNull();
+        assertThat(store.get("carol")).isNull();
+        MappedUserStore reopened = reopen();
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get("alice")).isEqualTo(alice);
+        assertThat(reopened.get("bob")).isEqualTo(bob);
+    }
+
+    @Test
+    @DisplayName("Should let pending changes override and remove merged users")
+    void shouldLetPendingChangesOverrideAndRemoveMergedUsers() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        store.put("bob", credentials("other", Set.of("PLAYER")));
+        mapped().merge();
+
+        // When
+        store.put("alice", credentials("changed", Set.of("ADMIN")));
+        store.remove("bob");
+
+        // Then
+        assertThat(mapped().getPendingChanges()).isEqualTo(2);
+        assertThat(store.get("alice").validatePassword("changed")).isTrue();
+        assertThat(store.get("bob")).isNull();
+        assertThat(store.size()).isEqualTo(1);
+        Map<String, UserCredentials> seen = new HashMap<>();
+        store.forEach(seen::put);
+        assertThat(seen).containsOnlyKeys("alice");
+        MappedUserStore reopened = reopen();
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get("alice").getRoles()).containsExactly("ADMIN");
+        assertThat(reopened.get("bob")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep users that do not fit a record after reopening")
+    void shouldKeepUsersThatDoNotFitARecordAfterReopening() {
+        // Given
+        String longName = "player-with-a-username-longer-than-any-record-can-hold";
+        Set<String> manyRoles = new HashSet<>();
+        for (int i = 0; i <= MappedUserStore.MAX_ROLES; i++) {
+            manyRoles.add("ROLE_" + i);
+        }
+        store.put(longName, credentials("secret", Set.of("USER")));
+        store.put("alice", credentials("other", manyRoles));
+
+        // When
+        MappedUserStore reopened = reopen();
+
+        // Then
+        assertThat(reopened.getPendingChanges()).isZero();
+        assertThat(reopened.get(longName).validatePassword("secret")).isTrue();
+        assertThat(reopened.get("alice").getRoles()).isEqualTo(manyRoles);
+        assertThat(reopened.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should continue user ids after the highest merged one")
+    void shouldContinueUserIdsAfterTheHighestMergedOne() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")).withUserId(41));
+        store.remove("alice");
+
+        // When
+        MappedUserStore reopened = reopen();
+        reopened.put("bob", credentials("other", Set.of()));
+
+        // Then
+        assertThat(reopened.get("bob").getUserId()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should find every user among many after a merge")
+    void shouldFindEveryUserAmongManyAfterAMerge() {
+        // Given
+        PasswordHash hash = PasswordHash.create("secret", 1);
+        Map<String, UserCredentials> users = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            users.put("player" + i, new UserCredentials(hash, Set.of("PLAYER")));
+        }
+        store.putAll(users);
+
+        // When
+        MappedUserStore reopened = reopen();
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(reopened.get("player" + i)).isNotNull();
+        }
+        assertThat(reopened.get("player5000")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should refuse to open a file that is not a user database")
+    void shouldRefuseToOpenAFileThatIsNotAUserDatabase() throws Exception {
+        // Given
+        Path other = Files.write(tempDir.resolve("other.db"), new byte[64]);
+
+        // When / Then
+        assertThatThrownBy(() -> new MappedUserStore(other))
+                .isInstanceOf(UserStoreException.class)
+                .hasMessageStartingWith("Failed to open");
+    }
+
+    @Test
+    @DisplayName("Should reject changes after closing")
+    void shouldRejectChangesAfterClosing() {
+        // Given
+        store.close();
+
+        // When / Then
+        assertThatThrownBy(() -> store.put("alice", credentials("secret", Set.of())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User store is closed");
+        assertThatThrownBy(() -> new MappedUserStore(tempDir.resolve("users.db"), Duration.ofMinutes(1), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Merge min changes must be positive");
+    }
+}
@@ -0,0 +1,152 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit tests for ReloadableUserStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("ReloadableUserStore Tests")
+class ReloadableUserStoreTest extends AbstractUserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected UserStore createStore() {
+        return new ReloadableUserStore(tempDir.resolve("users.txt"));
+    }
+
+    private ReloadableUserStore reloadable() {
+        return (ReloadableUserStore) store;
+    }
+
+    private void dump(Map<String, UserCredentials> users) throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("# gameauth users v3");
+        users.forEach((username, credentials) -> lines.add(UserRecordCodec.encode(username, credentials)));
+        Path temp = tempDir.resolve("users.txt.tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, tempDir.resolve("users.txt"), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Test
+    @DisplayName("Should replace the content with the file and report every change")
+    void shouldReplaceTheContentWithTheFileAndReportEveryChange() throws Exception {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        store.put("bob", credentials("other", Set.of("PLAYER")));
+        UserCredentials alice = store.get("alice");
+        List<String> changed = new ArrayList<>();
+        store.addListener((username, previous, current) -> changed.add(username));
+        Map<String, UserCredentials> users = new LinkedHashMap<>();
+        users.put("alice", alice);
+        users.put("carol", credentials("third", Set.of("ADMIN")));
+        dump(users);
+
+        // When
+        int size = reloadable().reload();
+
+        // Then
+        assertThat(size).isEqualTo(2);
+        assertThat(store.get("alice")).isEqualTo(alice);
+        assertThat(store.get("bob")).isNull();
+        assertThat(store.get("carol").validatePassword("third")).isTrue();
+        assertThat(changed).containsExactlyInAnyOrder("bob", "carol");
+    }
+
+    @Test
+    @DisplayName("Should move the epoch on when the file changes a password")
+    void shouldMoveTheEpochOnWhenTheFileChangesAPassword() throws Exception {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        store.put("bob", credentials("other", Set.of("PLAYER")));
+        UserCredentials alice = store.get("alice");
+        UserCredentials bob = store.get("bob");
+        Map<String, UserCredentials> users = new LinkedHashMap<>();
+        users.put("alice", new UserCredentials(alice.getUserId(), 0, PasswordHash.create("changed", 1),
+                alice.getRoles()));
+        users.put("bob", bob);
+        dump(users);
+
+        // When
+        reloadable().reload();
+
+        // Then
+        assertThat(store.get("alice").validatePassword("changed")).isTrue();
+        assertThat(store.get("alice").getCredentialEpoch()).isEqualTo(alice.getCredentialEpoch() + 1);
+        assertThat(store.get("alice").getUserId()).isEqualTo(alice.getUserId());
+        assertThat(store.get("bob")).isEqualTo(bob);
+    }
+
+    @Test
+    @DisplayName("Should give new users ids after the highest id in the file")
+    void shouldGiveNewUsersIdsAfterTheHighestIdInTheFile() throws Exception {
+        // Given
+        Map<String, UserCredentials> users = new LinkedHashMap<>();
+        users.put("alice", credentials("secret", Set.of("USER")));
+        users.put("bob", credentials("other", Set.of()).withUserId(41));
+        dump(users);
+
+        // When
+        reloadable().reload();
+        store.put("carol", credentials("third", Set.of()));
+
+        // Then
+        assertThat(store.get("alice").getUserId()).isNotEqualTo(UserCredentials.UNASSIGNED_ID).isNotEqualTo(41);
+        assertThat(store.get("carol").getUserId()).isGreaterThan(41);
+    }
+
+    @Test
+    @DisplayName("Should keep the current content when the file is malformed")
+    void shouldKeepTheCurrentContentWhenTheFileIsMalformed() throws Exception {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        Files.write(tempDir.resolve("users.txt"), "alice\tnot-a-hash\n".getBytes(StandardCharsets.UTF_8));
+
+        // When / Then
+        assertThatThrownBy(() -> reloadable().reload())
+                .isInstanceOf(UserStoreException.class)
+                .hasMessageStartingWith("Failed to load users from");
+        assertThat(store.get("alice").validatePassword("secret")).isTrue();
+        assertThat(reloadable().getReloadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload when the watched file is replaced")
+    void shouldReloadWhenTheWatchedFileIsReplaced() throws Exception {
+        // Given
+        reloadable().watch();
+        Map<String, UserCredentials> users = new LinkedHashMap<>();
+        users.put("alice", credentials("secret", Set.of("USER")));
+
+        // When
+        dump(users);
+
+        // Then
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (store.get("alice") == null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(store.get("alice").validatePassword("secret")).isTrue();
+        assertThat(reloadable().getReloadCount()).isGreaterThanOrEqualTo(1);
+        assertThatThrownBy(() -> reloadable().watch())
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,211 @@
+package com.gamingroom.gameauth.auth.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for WalUserStore class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("WalUserStore Tests")
+class WalUserStoreTest extends AbstractUserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected UserStore createStore() {
+        return new WalUserStore(tempDir);
+    }
+
+    private WalUserStore reopen() {
+        store.close();
+        store = new WalUserStore(tempDir);
+        return (WalUserStore) store;
+    }
+
+    private List<String> segments() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".log"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover users from the log after reopening")
+    void shouldRecoverUsersFromTheLogAfterReopening() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER", "PLAYER")));
+        store.put("bob", credentials("other", Set.of()));
+        store.remove("bob");
+        UserCredentials alice = store.get("alice");
+
+        // When
+        UserStore reopened = reopen();
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get("alice")).isEqualTo(alice);
+        assertThat(reopened.get("alice").validatePassword("secret")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should continue user ids after the highest recovered one")
+    void shouldContinueUserIdsAfterTheHighestRecoveredOne() {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")).withUserId(41));
+        store.remove("alice");
+
+        // When
+        UserStore reopened = reopen();
+        reopened.put("bob", credentials("other", Set.of()));
+
+        // Then
+        assertThat(reopened.get("bob").getUserId()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should not reuse the id of a user removed before a snapshot")
+    void shouldNotReuseTheIdOfAUserRemovedBeforeASnapshot() {
+        // Given
+        WalUserStore wal = (WalUserStore) store;
+        wal.put("alice", credentials("secret", Set.of("USER")));
+        wal.put("bob", credentials("other", Set.of("USER")));
+        long bobId = wal.get("bob").getUserId();
+        wal.remove("bob");
+        wal.snapshot();
+
+        // When
+        WalUserStore reopened = reopen();
+        reopened.put("carol", credentials("third", Set.of("USER")));
+
+        // Then
+        assertThat(reopened.get("carol").getUserId()).isGreaterThan(bobId);
+    }
+
+    @Test
+    @DisplayName("Should recover from a snapshot and replay only the log written after it")
+    void shouldRecoverFromASnapshotAndReplayOnlyTheLogWrittenAfterIt() throws Exception {
+        // Given
+        WalUserStore wal = (WalUserStore) store;
+        wal.put("alice", credentials("secret", Set.of("USER")));
+        wal.put("bob", credentials("other", Set.of("PLAYER")));
+        wal.snapshot();
+        wal.put("carol", credentials("third", Set.of()));
+        wal.remove("alice");
+        wal.snapshot();
+        wal.put("dave", credentials("fourth", Set.of()));
+        wal.remove("bob");
+
+        // When
+        WalUserStore reopened = reopen();
+
+        // Then
+        assertThat(Files.exists(tempDir.resolve(WalUserStore.SNAPSHOT_FILE))).isTrue();
+        assertThat(segments()).hasSizeLessThanOrEqualTo(3);
+        assertThat(reopened.get("alice")).isNull();
+        assertThat(reopened.get("bob")).isNull();
+        assertThat(reopened.get("carol").validatePassword("third")).isTrue();
+        assertThat(reopened.get("dave").validatePassword("fourth")).isTrue();
+        assertThat(reopened.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should cut off a record torn at the end of the log")
+    void shouldCutOffARecordTornAtTheEndOfTheLog() throws Exception {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        store.put("bob", credentials("other", Set.of()));
+        store.close();
+        List<String> segments = segments();
+        Path last = tempDir.resolve(segments.get(segments.size() - 1));
+        long intact = Files.size(last);
+        // A header promising 100 bytes followed by only a few of them
+        Files.write(last, new byte[] {0, 0, 0, 100, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        // When
+        store = new WalUserStore(tempDir);
+        store.put("carol", credentials("third", Set.of()));
+        UserStore reopened = reopen();
+
+        // Then
+        assertThat(Files.size(last)).isEqualTo(intact);
+        assertThat(reopened.size()).isEqualTo(3);
+        assertThat(reopened.get("carol").validatePassword("third")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should refuse to recover a damaged record before the end of the log")
+    void shouldRefuseToRecoverADamagedRecordBeforeTheEndOfTheLog() throws Exception {
+        // Given
+        store.put("alice", credentials("secret", Set.of("USER")));
+        store.close();
+        store = new WalUserStore(tempDir);
+        store.put("bob", credentials("other", Set.of()));
+        store.close();
+        Path first = tempDir.resolve(segments().get(0));
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(first, bytes);
+
+        // When / Then
+        assertThatThrownBy(() -> new WalUserStore(tempDir))
+                .isInstanceOf(UserStoreException.class)
+                .hasMessageStartingWith("Failed to replay user log");
+    }
+
+    @Test
+    @DisplayName("Should force each group of records to disk with a single fsync")
+    void shouldForceEachGroupOfRecordsToDiskWithASingleFsync() {
+        // Given
+        WalUserStore grouped = new WalUserStore(tempDir.resolve("grouped"), 10, Duration.ZERO,
+                Duration.ofHours(1), 1000);
+        Map<String, UserCredentials> users = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            users.put("player" + i, credentials("secret", Set.of("PLAYER")));
+        }
+
+        // When
+        grouped.putAll(users);
+        long syncs = grouped.getSyncCount();
+        grouped.close();
+
+        // Then
+        assertThat(syncs).isEqualTo(10);
+        try (WalUserStore reopened = new WalUserStore(tempDir.resolve("grouped"))) {
+            assertThat(reopened.size()).isEqualTo(100);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject changes after closing")
+    void shouldRejectChangesAfterClosing() {
+        // Given
+        store.close();
+
+        // When / Then
+        assertThatThrownBy(() -> store.put("alice", credentials("secret", Set.of())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User store is closed");
+        assertThatThrownBy(() -> new WalUserStore(tempDir, 0, Duration.ZERO, Duration.ofMinutes(1), 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Group commit size must be positive");
+    }
+}
@@ -0,0 +1,104 @@
+package com.gamingroom.gameauth.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Unit tests for LatencyHistogram class.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should count small values exactly")
+    void shouldCountSmallValuesExactly() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        // Then
+        assertThat(histogram.getTotalCount()).isEqualTo(100);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(50);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(99);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100);
+        assertThat(histogram.getMin()).isEqualTo(1);
+        assertThat(histogram.getMax()).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+    }
+
+    @Test
+    @DisplayName("Should report large values within the relative error")
+    void shouldReportLargeValuesWithinTheRelativeError() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 µs to about 1 s, like a latency distribution with a long tail
+            values[i] = (long) Math.pow(10, 3 + 6 * random.nextDouble());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        // Then
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertThat(histogram.getValueAtPercentile(percentile))
+                    .as("p%s", percentile)
+                    .isBetween(exact, exact + exact / 64 + 1);
+        }
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    @DisplayName("Should map every value to a bucket that contains it")
+    void shouldMapEveryValueToABucketThatContainsIt() {
+        for (long value : new long[] {0, 1, 127, 128, 129, 255, 256, 1_000_000, 1L << 40, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestEquivalentValue(index)).as("value %d", value)
+                    .isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestEquivalentValue(index - 1)).as("value %d", value)
+                        .isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge histograms recorded by different threads")
+    void shouldMergeHistogramsRecordedByDifferentThreads() {
+        // Given
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(1000);
+        first.record(2000);
+        second.record(3000);
+        second.record(-5);
+
+        // When
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(first);
+        merged.add(second);
+
+        // Then
+        assertThat(merged.getTotalCount()).isEqualTo(4);
+        assertThat(merged.getMin()).isZero();
+        assertThat(merged.getMax()).isEqualTo(3000);
+        assertThat(merged.getValueAtPercentile(100)).isEqualTo(3000);
+        assertThat(new LatencyHistogram().getValueAtPercentile(99)).isZero();
+        assertThatThrownBy(() -> merged.getValueAtPercentile(101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Percentile must be between 0 and 100");
+    }
+}
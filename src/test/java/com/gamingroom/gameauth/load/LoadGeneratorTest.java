@@ -0,0 +1,88 @@
+package com.gamingroom.gameauth.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Unit tests for LoadGenerator and LoadOptions classes.
+ *
+ * @author GameAuth Team
+ * @version 1.0
+ */
+@DisplayName("LoadGenerator Tests")
+class LoadGeneratorTest {
+
+    @Test
+    @DisplayName("Should parse options and keep defaults for the rest")
+    void shouldParseOptionsAndKeepDefaultsForTheRest() {
+        // When
+        LoadOptions options = LoadOptions.parse("--threads=1,2,8", "--users=5_000", "--mix=hit=3,unknown=1",
+                "--duration=500ms", "--username-filter=true");
+
+        // Then
+        assertThat(options.getThreads()).containsExactly(1, 2, 8);
+        assertThat(options.getUsers()).isEqualTo(5000);
+        assertThat(options.getMix()).containsOnlyKeys(LoadGenerator.Operation.HIT,
+                LoadGenerator.Operation.UNKNOWN_USER);
+        assertThat(options.getDuration()).isEqualTo(Duration.ofMillis(500));
+        assertThat(options.isUsernameFilter()).isTrue();
+        assertThat(options.getWarmup()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(options.getIterations()).isEqualTo(10_000);
+        assertThat(LoadOptions.parseDuration("2m")).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid options")
+    void shouldRejectInvalidOptions() {
+        assertThatThrownBy(() -> LoadOptions.parse("--speed=fast"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown option: --speed");
+        assertThatThrownBy(() -> LoadOptions.parse("threads"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expected --name=value but got: threads");
+        assertThatThrownBy(() -> LoadOptions.parse("--threads=0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Thread counts must be positive");
+        assertThatThrownBy(() -> LoadOptions.parse("--mix=hit=0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mix weights must be non-negative and not all zero");
+        assertThatThrownBy(() -> LoadOptions.parse("--mix=login=1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown operation: login");
+        assertThatThrownBy(() -> LoadOptions.parse("--duration=10h"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid duration, expected ms, s or m: 10h");
+    }
+
+    @Test
+    @DisplayName("Should record every operation of the mix with expected outcomes")
+    void shouldRecordEveryOperationOfTheMixWithExpectedOutcomes() throws InterruptedException {
+        // Given
+        LoadOptions options = new LoadOptions();
+        options.setUsers(500);
+        options.setIterations(10);
+        options.setWarmup(Duration.ofMillis(50));
+        options.setDuration(Duration.ofMillis(300));
+        options.setThreads(Arrays.asList(1, 2));
+        LoadGenerator generator = new LoadGenerator(options);
+
+        // When
+        LoadGenerator.Result result = generator.run(2);
+
+        // Then
+        assertThat(result.getThreads()).isEqualTo(2);
+        assertThat(result.getUnexpectedCount()).isZero();
+        assertThat(result.getHistograms()).containsOnlyKeys(LoadGenerator.Operation.values());
+        result.getHistograms().forEach((operation, histogram) ->
+                assertThat(histogram.getTotalCount()).as(operation.getLabel()).isPositive());
+        assertThat(result.getTotal().getTotalCount()).isEqualTo(
+                result.getHistograms().values().stream().mapToLong(LatencyHistogram::getTotalCount).sum());
+        assertThat(result.getThroughput()).isPositive();
+        assertThat(result.getTotal().getValueAtPercentile(99.9))
+                .isGreaterThanOrEqualTo(result.getTotal().getValueAtPercentile(50));
+    }
+}